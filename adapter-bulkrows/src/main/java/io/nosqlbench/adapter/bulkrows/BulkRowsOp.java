@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.bulkrows;
+
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.CycleOp;
+import io.nosqlbench.virtdata.userlibs.streams.rows.RowEncoder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Encodes a block of rows into the direct buffer of the current thread, and hands the buffer to the
+ * writer of the current thread whenever it fills. The result is the number of bytes encoded.
+ */
+public class BulkRowsOp implements CycleOp<Long> {
+
+    private final BulkRowsSpace space;
+    private final RowEncoder encoder;
+    private final long firstRow;
+    private final int rows;
+
+    public BulkRowsOp(BulkRowsSpace space, RowEncoder encoder, long firstRow, int rows) {
+        this.space = space;
+        this.encoder = encoder;
+        this.firstRow = firstRow;
+        this.rows = rows;
+    }
+
+    @Override
+    public Long apply(long value) {
+        try {
+            return encoder.encode(firstRow, firstRow + rows, space.getBuffer(), space.getWriter());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.bulkrows;
+
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.virtdata.core.templates.BindPoint;
+import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
+import io.nosqlbench.virtdata.userlibs.streams.rows.RowEncoder;
+import io.nosqlbench.virtdata.userlibs.streams.rows.RowEncoding;
+import io.nosqlbench.virtdata.userlibs.streams.rows.RowSchema;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * Builds a {@link RowSchema} from the fields of the op template. Each field other than the control
+ * fields must be a single binding, like {@code id: "{id}"}, so that its binding can be resolved
+ * directly as a primitive function where possible, rather than through the usual boxed template.
+ */
+public class BulkRowsOpDispenser extends BaseOpDispenser<BulkRowsOp, BulkRowsSpace> {
+
+    private final static Set<String> CONTROL_FIELDS = Set.of("rows", "encoding", "space");
+
+    private final LongFunction<BulkRowsSpace> spaceF;
+    private final RowSchema schema;
+    private final ThreadLocal<RowEncoder> encoders;
+    private final int rows;
+
+    public BulkRowsOpDispenser(DriverAdapter adapter, ParsedOp op, LongFunction<BulkRowsSpace> spaceF) {
+        super(adapter, op);
+        this.spaceF = spaceF;
+        this.rows = op.getStaticConfigOr("rows", 1000);
+        RowEncoding encoding = RowEncoding.valueOf(op.getStaticConfigOr("encoding", "fixed"));
+        this.schema = RowSchema.of(fieldBindings(op), encoding);
+        this.encoders = ThreadLocal.withInitial(schema::newEncoder);
+    }
+
+    private static Map<String, String> fieldBindings(ParsedOp op) {
+        Map<String, String> bindings = new LinkedHashMap<>();
+        for (String field : op.getDefinedNames()) {
+            if (CONTROL_FIELDS.contains(field)) {
+                continue;
+            }
+            String spec = op.getAsStringTemplate(field)
+                .flatMap(ParsedTemplateString::asBinding)
+                .map(BindPoint::getBindspec)
+                .orElseThrow(() -> new OpConfigError("The bulkrows field '" + field + "' must be a single binding, like \"{" + field + "}\""));
+            bindings.put(field, spec);
+        }
+        if (bindings.isEmpty()) {
+            throw new OpConfigError("A bulkrows op needs at least one field, like id: \"{id}\"");
+        }
+        return bindings;
+    }
+
+    public RowSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public BulkRowsOp apply(long value) {
+        return new BulkRowsOp(spaceF.apply(value), encoders.get(), value * rows, rows);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.bulkrows;
+
+import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.activityimpl.OpMapper;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverSpaceCache;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+
+import java.util.function.LongFunction;
+
+public class BulkRowsOpMapper implements OpMapper<BulkRowsOp> {
+
+    private final DriverSpaceCache<? extends BulkRowsSpace> spaceCache;
+    private final DriverAdapter adapter;
+
+    public BulkRowsOpMapper(DriverAdapter adapter, DriverSpaceCache<? extends BulkRowsSpace> spaceCache) {
+        this.adapter = adapter;
+        this.spaceCache = spaceCache;
+    }
+
+    @Override
+    public OpDispenser<BulkRowsOp> apply(ParsedOp op) {
+        LongFunction<String> spaceNameF = op.getAsFunctionOr("space", "default");
+        LongFunction<BulkRowsSpace> spaceF = l -> spaceCache.get(spaceNameF.apply(l));
+        return new BulkRowsOpDispenser(adapter, op, spaceF);
+    }
+
+}
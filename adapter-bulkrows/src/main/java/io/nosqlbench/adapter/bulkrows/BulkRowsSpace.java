@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.bulkrows;
+
+import io.nosqlbench.api.config.standard.ConfigModel;
+import io.nosqlbench.api.config.standard.NBConfigModel;
+import io.nosqlbench.api.config.standard.NBConfiguration;
+import io.nosqlbench.api.config.standard.Param;
+import io.nosqlbench.virtdata.userlibs.streams.rows.RowWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Holds a direct buffer for each thread, which rows are encoded into, and optionally a file for
+ * each thread, which the buffers are written to. Without a {@code dir}, the rows are discarded.
+ */
+public class BulkRowsSpace implements AutoCloseable {
+    private final static Logger logger = LogManager.getLogger(BulkRowsSpace.class);
+
+    private final String name;
+    private final Path dir;
+    private final int bufferBytes;
+    private final Queue<FileChannel> channels = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ByteBuffer> buffers;
+    private final ThreadLocal<RowWriter> writers;
+
+    public BulkRowsSpace(String name, NBConfiguration cfg) {
+        this.name = name;
+        this.dir = cfg.getOptional("dir").map(Path::of).orElse(null);
+        this.bufferBytes = cfg.get("buffer", Integer.class);
+        this.buffers = ThreadLocal.withInitial(
+            () -> ByteBuffer.allocateDirect(bufferBytes).order(ByteOrder.LITTLE_ENDIAN)
+        );
+        this.writers = ThreadLocal.withInitial(this::openWriter);
+        if (dir != null) {
+            try {
+                Files.createDirectories(dir);
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to create directory " + dir + ": " + e, e);
+            }
+        }
+    }
+
+    public ByteBuffer getBuffer() {
+        return buffers.get();
+    }
+
+    public RowWriter getWriter() {
+        return writers.get();
+    }
+
+    private RowWriter openWriter() {
+        if (dir == null) {
+            return RowWriter.DISCARD;
+        }
+        String filename = name + "-" + Thread.currentThread().getName().replaceAll("[^a-zA-Z0-9_.-]", "_") + ".rows";
+        try {
+            FileChannel channel = FileChannel.open(dir.resolve(filename),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            channels.add(channel);
+            return channel::write;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to open " + dir.resolve(filename) + ": " + e, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        FileChannel channel;
+        while ((channel = channels.poll()) != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("error closing row file: " + e);
+            }
+        }
+    }
+
+    public static NBConfigModel getConfigModel() {
+        return ConfigModel.of(BulkRowsSpace.class)
+            .add(
+                Param.optional("dir")
+                    .setDescription("The directory to write rows to, with one file per thread.\n" +
+                        "If not given, rows are encoded and then discarded.")
+            )
+            .add(
+                Param.defaultTo("buffer", 4194304)
+                    .setDescription("The size in bytes of the direct buffer each thread encodes rows into.")
+            )
+            .add(
+                Param.defaultTo("rows", 1000)
+                    .setDescription("The number of rows each op generates. Cycle n generates the rows for\n" +
+                        "row cycles [n*rows, (n+1)*rows).")
+            )
+            .add(
+                Param.defaultTo("encoding", "fixed")
+                    .setRegex("fixed|varint")
+                    .setDescription("How to encode the fields of each row: at full width, or with varints.")
+            )
+            .asReadOnly();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.bulkrows;
+
+import io.nosqlbench.api.config.standard.NBConfiguration;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityconfig.OpsLoader;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplate;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplateFormat;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpsDocList;
+import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.virtdata.userlibs.streams.rows.RowSchema;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BulkRowsOpDispenserTest {
+
+    static NBConfiguration cfg;
+    static BulkRowsDriverAdapter adapter;
+
+    @BeforeAll
+    public static void initializeTestAdapter() {
+        adapter = new BulkRowsDriverAdapter();
+        cfg = adapter.getConfigModel().apply(Map.of());
+        adapter.applyConfig(cfg);
+    }
+
+    private static OpDispenser<? extends BulkRowsOp> dispenserFor(String yaml) {
+        OpsDocList docs = OpsLoader.loadString(yaml, OpTemplateFormat.yaml, Map.of(), null);
+        OpTemplate opTemplate = docs.getOps().get(0);
+        ParsedOp parsedOp = new ParsedOp(opTemplate, cfg, List.of(adapter.getPreprocessor()));
+        return adapter.getOpMapper().apply(parsedOp);
+    }
+
+    @Test
+    public void testFixedRowsPerOp() {
+        OpDispenser<? extends BulkRowsOp> dispenser = dispenserFor("""
+            ops:
+              op1:
+                rows: 100
+                id: "{id}"
+                score: "{score}"
+            bindings:
+              id: Identity()
+              score: HashedDoubleRange(0.0,1.0)
+            """);
+        RowSchema schema = ((BulkRowsOpDispenser) dispenser).getSchema();
+        assertThat(schema.getFields()).extracting(RowSchema.Field::name).containsExactly("id", "score");
+        assertThat(schema.getFixedRowSize()).isEqualTo(16);
+        assertThat(dispenser.apply(5L).apply(5L)).isEqualTo(1600L);
+    }
+
+    @Test
+    public void testFieldsMustBeBindings() {
+        assertThatThrownBy(() -> dispenserFor("""
+            ops:
+              op1:
+                id: "id-{id}"
+            bindings:
+              id: Identity()
+            """)).isInstanceOf(OpConfigError.class);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Page level metrics for ops which use asynchronous paging, enabled with {@code asyncpaging: true}.
+ * In this mode, the next page of a result is requested before the rows of the current page are
+ * processed, so that page fetches overlap with row processing. The latency of each page request,
+ * and the rows and bytes in each page, are recorded here.
+ * <p>Both the synchronous and asynchronous paths apply the same page limit, as given by
+ * {@link #atPageLimit(int, int)}: at most {@code maxpages} pages are read.</p>
+ */
+public class Cqld4AsyncPaging {
+
+    private final Timer pageLatency;
+    private final Histogram pageRows;
+    private final Histogram pageBytes;
+
+    public Cqld4AsyncPaging(Timer pageLatency, Histogram pageRows, Histogram pageBytes) {
+        this.pageLatency = pageLatency;
+        this.pageRows = pageRows;
+        this.pageBytes = pageBytes;
+    }
+
+    /**
+     * Record the latency of a page request when it completes.
+     * @param page The pending page
+     * @return the same pending page
+     */
+    public CompletionStage<AsyncResultSet> track(CompletionStage<AsyncResultSet> page) {
+        long requestedAt = System.nanoTime();
+        return page.whenComplete((rs, t) -> {
+            pageLatency.update(System.nanoTime() - requestedAt, TimeUnit.NANOSECONDS);
+            if (rs != null) {
+                int bytes = rs.getExecutionInfo().getResponseSizeInBytes();
+                if (bytes >= 0) {
+                    pageBytes.update(bytes);
+                }
+            }
+        });
+    }
+
+    public void onPageRows(int rows) {
+        pageRows.update(rows);
+    }
+
+    /**
+     * Read pages starting from the given one, passing every remaining row of each page to the sink.
+     * The next page is requested before the rows of the current page are consumed. No page is
+     * requested once the page limit has been reached, in which case the returned result set is not
+     * fully fetched.
+     * @param first The first page, which may already have had rows consumed from it
+     * @param into The result set which accounts for the pages read
+     * @param maxPages The maximum number of pages to read
+     * @param sink The consumer of rows
+     * @return the same result set
+     */
+    public Cqld4PagedResultSet readPages(AsyncResultSet first, Cqld4PagedResultSet into, int maxPages, Consumer<Row> sink) {
+        AsyncResultSet page = first;
+        while (true) {
+            boolean fetchNext = page.hasMorePages() && !atPageLimit(into.getPages() + 1, maxPages);
+            CompletionStage<AsyncResultSet> nextPage = fetchNext ? track(page.fetchNextPage()) : null;
+            int pageRows = 0;
+            for (Row row : page.currentPage()) {
+                sink.accept(row);
+                pageRows++;
+            }
+            onPageRows(pageRows);
+            into.addPage(page, pageRows);
+            if (nextPage == null) {
+                return into;
+            }
+            page = await(nextPage);
+        }
+    }
+
+    /**
+     * @param pagesRead The number of pages which have been read so far
+     * @param maxPages The maximum number of pages allowed
+     * @return true if reading another page would exceed the maximum
+     */
+    public static boolean atPageLimit(int pagesRead, int maxPages) {
+        return pagesRead >= maxPages;
+    }
+
+    /**
+     * Wait for a pending page. Failures are rethrown as the driver exception which caused them,
+     * so that error handlers see the same exception types as for synchronous execution.
+     */
+    public static AsyncResultSet await(CompletionStage<AsyncResultSet> page) {
+        try {
+            return page.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+}
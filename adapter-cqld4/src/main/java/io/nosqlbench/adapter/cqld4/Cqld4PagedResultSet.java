@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The result of an op which was read with async paging. The rows of each page are streamed through
+ * the result processors as they arrive, so like a synchronous result set which has been iterated, this
+ * one has no rows left to read. It does keep the execution info of every page which was read, so that
+ * response sizes and any other per-page details cover the whole result and not only the first page.
+ */
+public class Cqld4PagedResultSet implements ResultSet {
+
+    private final AsyncResultSet first;
+    private final List<ExecutionInfo> executionInfos = new ArrayList<>();
+    private long rows;
+    private long responseBytes;
+    private boolean morePages;
+
+    public Cqld4PagedResultSet(AsyncResultSet first) {
+        this.first = first;
+    }
+
+    /**
+     * Account for a page after its rows have been consumed.
+     * @param page The page which was read
+     * @param pageRows The number of rows which were consumed from it
+     */
+    public void addPage(AsyncResultSet page, int pageRows) {
+        ExecutionInfo info = page.getExecutionInfo();
+        executionInfos.add(info);
+        rows += pageRows;
+        responseBytes += Math.max(0, info.getResponseSizeInBytes());
+        morePages = page.hasMorePages();
+    }
+
+    /**
+     * @return the number of pages which were read
+     */
+    public int getPages() {
+        return executionInfos.size();
+    }
+
+    /**
+     * @return the number of rows which were consumed across all pages
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the response size reported by the driver, summed over all pages
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    @Override
+    public ColumnDefinitions getColumnDefinitions() {
+        return first.getColumnDefinitions();
+    }
+
+    @Override
+    public List<ExecutionInfo> getExecutionInfos() {
+        return Collections.unmodifiableList(executionInfos);
+    }
+
+    /**
+     * @return false if reading stopped at the page limit while the server had more pages
+     */
+    @Override
+    public boolean isFullyFetched() {
+        return !morePages;
+    }
+
+    @Override
+    public int getAvailableWithoutFetching() {
+        return 0;
+    }
+
+    @Override
+    public boolean wasApplied() {
+        return first.wasApplied();
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        return Collections.emptyIterator();
+    }
+}
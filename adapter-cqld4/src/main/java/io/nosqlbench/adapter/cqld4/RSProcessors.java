@@ -48,21 +48,30 @@ public class RSProcessors implements ResultProcessor<ResultSet,Row>, Supplier<Li
 
     @Override
     public void start(long cycle, ResultSet container) {
-        for (ResultSetProcessor processor : get()) {
+        if (suppliers.isEmpty()) {
+            return;
+        }
+        for (ResultSetProcessor processor : processors.get()) {
             processor.start(cycle, container);
         }
     }
 
     @Override
     public void buffer(Row element) {
-        for (ResultSetProcessor processor : get()) {
+        if (suppliers.isEmpty()) {
+            return;
+        }
+        for (ResultSetProcessor processor : processors.get()) {
             processor.buffer(element);
         }
     }
 
     @Override
     public void flush() {
-        for (ResultSetProcessor processor : get()) {
+        if (suppliers.isEmpty()) {
+            return;
+        }
+        for (ResultSetProcessor processor : processors.get()) {
             processor.flush();
         }
     }
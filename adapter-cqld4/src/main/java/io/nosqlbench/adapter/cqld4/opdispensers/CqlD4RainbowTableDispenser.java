@@ -17,32 +17,79 @@
 package io.nosqlbench.adapter.cqld4.opdispensers;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import io.nosqlbench.adapter.cqld4.RSProcessors;
 import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlOp;
+import io.nosqlbench.adapter.cqld4.optypes.Cqld4RainbowTableOp;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.datamappers.functions.rainbow.TokenMapFileSharedBuffers;
 import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
 import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
 
+import java.nio.ByteBuffer;
 import java.util.function.LongFunction;
 
-public class CqlD4RainbowTableDispenser extends Cqld4BaseOpDispenser {
+/**
+ * <p>Dispenses prepared statements in token order, as read from a token map file. Each record in the
+ * file is a (token, cycle) pair, sorted by token, where the token is the partitioner token of the
+ * key which the bindings produce for that cycle. Such a file can be created with
+ * {@code nb5 token-map-file}.</p>
+ *
+ * <p>For each cycle, the record at the same position in the file (modulo the number of records) is
+ * read directly from the shared memory-mapped buffer. The statement is bound with the record's cycle
+ * and the routing token is set from the record, so the driver does not need to hash the partition
+ * key. As cycles advance, the ops walk the token ring in order, which keeps reads and writes within
+ * a token range together.</p>
+ */
+public class CqlD4RainbowTableDispenser extends Cqld4PreparedStmtDispenser {
 
-//    private final LongFunction<Statement> stmtFunc;
-    private final LongFunction<String> targetFunction;
+    private final static int RECORD_LEN = Long.BYTES * 2;
+    private final ByteBuffer buffer;
+    private final long records;
 
-    public CqlD4RainbowTableDispenser(DriverAdapter adapter, LongFunction<CqlSession> sessionFunc, LongFunction<String> targetFunction, ParsedOp cmd) {
-        super(adapter, sessionFunc,cmd);
-        this.targetFunction=targetFunction;
-//        this.tableFunc =createTableFunc(cmd);
+    public CqlD4RainbowTableDispenser(DriverAdapter adapter, LongFunction<CqlSession> sessionFunc, ParsedOp op, ParsedTemplateString stmtTpl, RSProcessors processors) {
+        super(adapter, sessionFunc, op, stmtTpl, processors);
+        String tokenmap = op.getStaticConfigOr("tokenmap", "");
+        if (tokenmap.isEmpty()) {
+            throw new OpConfigError("The rainbow op type requires a tokenmap file, as created by 'nb5 token-map-file', for op '" + op.getName() + "'");
+        }
+        boolean ascending = op.getStaticConfigOr("ascending", true);
+        this.buffer = TokenMapFileSharedBuffers.getByteBuffer(tokenmap, false, ascending);
+        this.records = buffer.capacity() / RECORD_LEN;
+        if (records == 0) {
+            throw new OpConfigError("The tokenmap file '" + tokenmap + "' has no records.");
+        }
     }
 
     @Override
     public Cqld4CqlOp apply(long cycle) {
-        throw new RuntimeException("implement me");
-//        return new Cqld4RainbowTableOp(
-//            getSessionFunc().apply(value),
-//            (RainbowTable) stmtFunc.apply(value),
-//            getMaxPages(),
-//            isRetryReplace()
-//        );
+        int offset = (int) (cycle % records) * RECORD_LEN;
+        long token = buffer.getLong(offset);
+        long sourceCycle = buffer.getLong(offset + Long.BYTES);
+        try {
+            BoundStatement bound = ((BoundStatement) getStmtFunc().apply(sourceCycle))
+                .setRoutingToken(new Murmur3Token(token));
+            return new Cqld4RainbowTableOp(
+                getBoundSession(),
+                bound,
+                token,
+                sourceCycle,
+                getMaxPages(),
+                isRetryReplace(),
+                getMaxLwtRetries(),
+                getProcessors(),
+                getAsyncPaging()
+            );
+        } catch (Exception exception) {
+            return CQLD4PreparedStmtDiagnostics.rebindWithDiagnostics(
+                getPreparedStmt(),
+                getFieldsF(),
+                sourceCycle,
+                exception
+            );
+        }
     }
 
 }
@@ -23,9 +23,11 @@ import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
 import com.datastax.oss.driver.api.core.cql.*;
 import com.datastax.oss.driver.api.core.metadata.Node;
 import com.datastax.oss.driver.api.core.metadata.token.Token;
+import io.nosqlbench.adapter.cqld4.Cqld4AsyncPaging;
 import io.nosqlbench.adapter.cqld4.Cqld4OpMetrics;
 import io.nosqlbench.adapter.cqld4.Cqld4Space;
 import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlOp;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
 import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
 import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
 import io.nosqlbench.engine.api.templating.ParsedOp;
@@ -46,6 +48,7 @@ public abstract class Cqld4BaseOpDispenser extends BaseOpDispenser<Cqld4CqlOp, C
     private final LongFunction<CqlSession> sessionFunc;
     private final boolean isRetryReplace;
     private final int maxLwtRetries;
+    private final Cqld4AsyncPaging asyncPaging;
 
     public Cqld4BaseOpDispenser(DriverAdapter adapter, LongFunction<CqlSession> sessionFunc, ParsedOp op) {
         super(adapter, op);
@@ -53,6 +56,15 @@ public abstract class Cqld4BaseOpDispenser extends BaseOpDispenser<Cqld4CqlOp, C
         this.maxpages = op.getStaticConfigOr("maxpages", 1);
         this.isRetryReplace = op.getStaticConfigOr("retryreplace", false);
         this.maxLwtRetries = op.getStaticConfigOr("maxlwtretries", 1);
+        if (op.getStaticConfigOr("asyncpaging", false)) {
+            this.asyncPaging = new Cqld4AsyncPaging(
+                ActivityMetrics.timer(getDefaultMetricsPrefix(op) + "page-latency"),
+                ActivityMetrics.histogram(getDefaultMetricsPrefix(op) + "page-rows"),
+                ActivityMetrics.histogram(getDefaultMetricsPrefix(op) + "page-bytes")
+            );
+        } else {
+            this.asyncPaging = null;
+        }
     }
 
     public int getMaxPages() {
@@ -67,6 +79,13 @@ public abstract class Cqld4BaseOpDispenser extends BaseOpDispenser<Cqld4CqlOp, C
         return maxLwtRetries;
     }
 
+    /**
+     * @return the async paging metrics, or null if async paging is not enabled for this op
+     */
+    public Cqld4AsyncPaging getAsyncPaging() {
+        return asyncPaging;
+    }
+
 
     public LongFunction<CqlSession> getSessionFunc() {
         return sessionFunc;
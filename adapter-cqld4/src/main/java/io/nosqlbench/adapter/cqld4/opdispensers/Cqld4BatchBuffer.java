@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>Per-thread buffers of statements which are waiting to be sent in a batch, grouped by a key
+ * such as a partition token or a replica set. Each thread only touches its own buffer while adding,
+ * so no locking is needed on the hot path.</p>
+ *
+ * <p>A group is returned to be sent when it reaches batchRows statements. Otherwise, the oldest
+ * group of the calling thread is returned when it is older than the age limit, or when the thread
+ * has more than bufferRows statements buffered.</p>
+ */
+public class Cqld4BatchBuffer {
+
+    private final int batchRows;
+    private final long batchAgeNanos;
+    private final int bufferRows;
+
+    private final Queue<Accumulator> accumulators = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Accumulator> tlAccumulator = ThreadLocal.withInitial(() -> {
+        Accumulator accumulator = new Accumulator();
+        accumulators.add(accumulator);
+        return accumulator;
+    });
+
+    public Cqld4BatchBuffer(int batchRows, long batchAgeNanos, int bufferRows) {
+        this.batchRows = batchRows;
+        this.batchAgeNanos = batchAgeNanos;
+        this.bufferRows = bufferRows;
+    }
+
+    /**
+     * Buffer a statement for the calling thread.
+     * @param key The group key, which must not be null
+     * @param statement The statement to buffer
+     * @param now The current time in nanoseconds
+     * @return a group of statements to send now, or null if nothing is ready
+     */
+    public List<BatchableStatement<?>> add(Object key, BatchableStatement<?> statement, long now) {
+        Accumulator accumulator = tlAccumulator.get();
+        List<BatchableStatement<?>> ready = accumulator.add(Objects.requireNonNull(key), statement, now);
+        accumulator.flushedRows = ready == null ? 0 : ready.size();
+        return ready;
+    }
+
+    /**
+     * Record that the calling thread sent its last statement directly, without buffering it.
+     */
+    public void skip() {
+        tlAccumulator.get().flushedRows = 0;
+    }
+
+    /**
+     * @return the number of statements returned by the last call to {@link #add} on this thread,
+     * or 0 if it only buffered or the statement was not buffered at all
+     */
+    public int getFlushedRows() {
+        return tlAccumulator.get().flushedRows;
+    }
+
+    /**
+     * Remove all pending groups from every thread's buffer. This should only be called once the
+     * threads which add to this buffer have stopped.
+     * @return the pending groups
+     */
+    public List<List<BatchableStatement<?>>> drain() {
+        List<List<BatchableStatement<?>>> pending = new ArrayList<>();
+        for (Accumulator accumulator : accumulators) {
+            pending.addAll(accumulator.drain());
+        }
+        return pending;
+    }
+
+    /**
+     * Pending statements for one thread. Groups are kept in insertion order, so that the first
+     * group is always the oldest.
+     */
+    private final class Accumulator {
+        private final LinkedHashMap<Object, Group> groups = new LinkedHashMap<>();
+        private int bufferedRows;
+        private int flushedRows;
+
+        List<BatchableStatement<?>> add(Object key, BatchableStatement<?> statement, long now) {
+            Group group = groups.get(key);
+            if (group == null) {
+                group = new Group(now);
+                groups.put(key, group);
+            }
+            group.statements.add(statement);
+            bufferedRows++;
+
+            if (group.statements.size() >= batchRows) {
+                return take(key);
+            }
+            Map.Entry<Object, Group> oldest = groups.entrySet().iterator().next();
+            if (now - oldest.getValue().startedAt > batchAgeNanos || bufferedRows > bufferRows) {
+                return take(oldest.getKey());
+            }
+            return null;
+        }
+
+        private List<BatchableStatement<?>> take(Object key) {
+            Group group = groups.remove(key);
+            bufferedRows -= group.statements.size();
+            return group.statements;
+        }
+
+        List<List<BatchableStatement<?>>> drain() {
+            List<List<BatchableStatement<?>>> pending = new ArrayList<>();
+            groups.values().forEach(g -> pending.add(g.statements));
+            groups.clear();
+            bufferedRows = 0;
+            return pending;
+        }
+    }
+
+    private final static class Group {
+        private final long startedAt;
+        private final List<BatchableStatement<?>> statements = new ArrayList<>();
+
+        Group(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
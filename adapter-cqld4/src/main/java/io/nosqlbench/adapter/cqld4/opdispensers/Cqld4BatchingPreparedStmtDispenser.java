@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import io.nosqlbench.adapter.cqld4.RSProcessors;
+import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlBatchStatement;
+import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlBufferedOp;
+import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlOp;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * <p>Accumulates prepared statements across cycles and sends them as unlogged batches, where
+ * each batch only contains statements for the same partition (batch_group: partition) or for the
+ * same set of replicas (batch_group: replica). The grouping is done with the driver's token map,
+ * so that each batch can be sent directly to a replica by the token-aware load balancing policy,
+ * instead of making a coordinator fan out the batch to other nodes.</p>
+ *
+ * <p>Each cycle adds its statement to a per-thread buffer. A group is sent when it reaches
+ * batch_rows statements, or when the oldest pending group is older than batch_age_ms. Cycles which
+ * only add to the buffer complete without any I/O. Any pending statements are sent when the
+ * activity shuts down.</p>
+ *
+ * <p>Statements which have no routing key, because the prepared statement does not bind every
+ * partition key column, can not be grouped safely. These are sent on their own, unbatched.</p>
+ */
+public class Cqld4BatchingPreparedStmtDispenser extends Cqld4PreparedStmtDispenser implements AutoCloseable {
+    private final static Logger logger = LogManager.getLogger(Cqld4BatchingPreparedStmtDispenser.class);
+
+    public enum GroupBy {
+        partition,
+        replica
+    }
+
+    private final GroupBy groupBy;
+    private final CqlSession session;
+    private final Cqld4CqlBufferedOp bufferedOp;
+    private final Histogram rowsPerBatch;
+    private final Timer batchLatency;
+    private final Cqld4BatchBuffer buffer;
+
+    public Cqld4BatchingPreparedStmtDispenser(
+        DriverAdapter adapter, LongFunction<CqlSession> sessionFunc, ParsedOp op, ParsedTemplateString stmtTpl, RSProcessors processors) {
+        super(adapter, sessionFunc, op, stmtTpl, processors);
+        int batchRows = op.getStaticConfigOr("batch_rows", 100);
+        long batchAgeNanos = TimeUnit.MILLISECONDS.toNanos(op.getStaticConfigOr("batch_age_ms", 1000));
+        int bufferRows = op.getStaticConfigOr("batch_buffer_rows", batchRows * 10);
+        this.groupBy = GroupBy.valueOf(op.getStaticConfigOr("batch_group", "replica"));
+        if (batchRows < 2 || bufferRows < batchRows) {
+            throw new OpConfigError("batch_rows must be at least 2, and batch_buffer_rows must be no less than batch_rows, for op '" + op.getName() + "'");
+        }
+        this.buffer = new Cqld4BatchBuffer(batchRows, batchAgeNanos, bufferRows);
+        this.session = sessionFunc.apply(0);
+        this.bufferedOp = new Cqld4CqlBufferedOp(session);
+        this.rowsPerBatch = ActivityMetrics.histogram(getDefaultMetricsPrefix(op) + "batch-rows");
+        this.batchLatency = ActivityMetrics.timer(getDefaultMetricsPrefix(op) + "batch-latency");
+    }
+
+    @Override
+    public Cqld4CqlOp apply(long cycle) {
+        Cqld4CqlOp single = super.apply(cycle);
+        BoundStatement bound = (BoundStatement) single.getStmt();
+        Object key = groupKey(bound, session.getMetadata().getTokenMap(), groupBy);
+        if (key == null) {
+            buffer.skip();
+            return single;
+        }
+        List<BatchableStatement<?>> ready = buffer.add(key, bound, System.nanoTime());
+        if (ready == null) {
+            return bufferedOp;
+        }
+        return new Cqld4CqlBatchStatement(session, batchOf(ready), getMaxPages(), getMaxLwtRetries(), isRetryReplace());
+    }
+
+    @Override
+    public void onSuccess(long cycleValue, long nanoTime, long resultsize) {
+        super.onSuccess(cycleValue, nanoTime, resultsize);
+        int flushedRows = buffer.getFlushedRows();
+        if (flushedRows > 0) {
+            rowsPerBatch.update(flushedRows);
+            batchLatency.update(nanoTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * The routing key of a bound statement is computed by the driver from the values bound to the
+     * partition key columns of the prepared statement, unless it was set explicitly.
+     * @return the group for the statement, or null if it has neither a routing token nor a routing key
+     */
+    static Object groupKey(BoundStatement bound, Optional<TokenMap> tokenMap, GroupBy groupBy) {
+        Token token = bound.getRoutingToken();
+        ByteBuffer routingKey = bound.getRoutingKey();
+        if (token == null && routingKey != null && tokenMap.isPresent()) {
+            token = tokenMap.get().newToken(routingKey);
+        }
+        if (token == null) {
+            return routingKey;
+        }
+        if (groupBy == GroupBy.replica && tokenMap.isPresent()) {
+            CqlIdentifier keyspace = bound.getRoutingKeyspace();
+            if (keyspace != null) {
+                return tokenMap.get().getReplicas(keyspace, token);
+            }
+        }
+        return token;
+    }
+
+    private BatchStatement batchOf(List<BatchableStatement<?>> statements) {
+        BoundStatement first = (BoundStatement) statements.get(0);
+        BatchStatement batch = BatchStatement.newInstance(DefaultBatchType.UNLOGGED, statements);
+        if (first.getConsistencyLevel() != null) {
+            batch = batch.setConsistencyLevel(first.getConsistencyLevel());
+        }
+        if (first.isIdempotent() != null) {
+            batch = batch.setIdempotent(first.isIdempotent());
+        }
+        if (first.getTimeout() != null) {
+            batch = batch.setTimeout(first.getTimeout());
+        }
+        return batch;
+    }
+
+    /**
+     * Send all pending statements. This should only be called once the threads which
+     * used this dispenser have stopped.
+     */
+    @Override
+    public void close() {
+        List<List<BatchableStatement<?>>> pending = buffer.drain();
+        for (List<BatchableStatement<?>> statements : pending) {
+            session.execute(batchOf(statements));
+            rowsPerBatch.update(statements.size());
+        }
+        int sent = pending.size();
+        logger.debug(() -> "flushed " + sent + " pending batches for " + getOpName());
+    }
+}
@@ -78,6 +78,26 @@ public class Cqld4PreparedStmtDispenser extends Cqld4BaseOpDispenser {
         return super.getEnhancedStmtFunc(boundStmtFunc, op);
     }
 
+    protected LongFunction<Statement> getStmtFunc() {
+        return stmtFunc;
+    }
+
+    protected LongFunction<Object[]> getFieldsF() {
+        return fieldsF;
+    }
+
+    protected PreparedStatement getPreparedStmt() {
+        return preparedStmt;
+    }
+
+    protected CqlSession getBoundSession() {
+        return boundSession;
+    }
+
+    protected RSProcessors getProcessors() {
+        return processors;
+    }
+
     @Override
     public Cqld4CqlOp apply(long cycle) {
 
@@ -90,7 +110,8 @@ public class Cqld4PreparedStmtDispenser extends Cqld4BaseOpDispenser {
                 getMaxPages(),
                 isRetryReplace(),
                 getMaxLwtRetries(),
-                processors
+                processors,
+                getAsyncPaging()
             );
         } catch (Exception exception) {
             return CQLD4PreparedStmtDiagnostics.rebindWithDiagnostics(
@@ -16,38 +16,122 @@
 
 package io.nosqlbench.adapter.cqld4.opdispensers;
 
-import com.datastax.oss.driver.api.core.CqlSession;
-import com.datastax.oss.driver.api.core.cql.Statement;
-import io.nosqlbench.adapter.cqld4.Cqld4DriverAdapter;
-import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlOp;
+import io.nosqlbench.adapter.cqld4.Cqld4Space;
+import io.nosqlbench.adapter.cqld4.optypes.Cqld4SsTableOp;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
 import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
-public class Cqld4SsTableDispenser extends Cqld4BaseOpDispenser {
+/**
+ * <p>Writes rows directly into SSTables on local disk, instead of sending them to a cluster. The
+ * insert statement is bound in the same way as a prepared statement, and each thread writes into its
+ * own directory under the configured directory, named shard-N. The resulting files can be loaded
+ * with sstableloader or copied into a table's data directory. The shards are not merged with each
+ * other, as explained in {@link Cqld4SsTableWriterShard}.</p>
+ *
+ * <p>When the activity shuts down, all writers are closed and the overall rows/s and MB/s are logged,
+ * measured from the first row written to the last file being closed.</p>
+ */
+public class Cqld4SsTableDispenser extends BaseOpDispenser<Cqld4SsTableOp, Cqld4Space> implements AutoCloseable {
+    private final static Logger logger = LogManager.getLogger(Cqld4SsTableDispenser.class);
+    private final static String WRITER_CLASS = "org.apache.cassandra.io.sstable.CQLSSTableWriter";
+
+    private final LongFunction<Object[]> fieldsF;
+    private final Path directory;
+    private final String schema;
+    private final String insert;
+    private final int bufferMB;
 
-//    private final LongFunction<Statement> stmtFunc;
-//    private final LongFunction<String> targetFunction;
+    private final AtomicInteger shardCount = new AtomicInteger();
+    private final Queue<Cqld4SsTableWriterShard> shards = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Cqld4SsTableWriterShard> tlShard = ThreadLocal.withInitial(this::newShard);
+    private final Supplier<Cqld4SsTableWriterShard> shardSupplier = tlShard::get;
+    private volatile long startedAt = 0L;
+
+    public Cqld4SsTableDispenser(DriverAdapter adapter, ParsedOp op, ParsedTemplateString stmtTpl) {
+        super(adapter, op);
+        requireWriterClass();
+        this.schema = op.getStaticConfigOr("schema", "");
+        if (schema.isEmpty()) {
+            throw new OpConfigError("The sstable op type requires a 'schema' field with the CREATE TABLE statement " +
+                "for the table, for op '" + op.getName() + "'");
+        }
+        this.directory = Path.of(op.getStaticConfigOr("directory", "sstables"));
+        this.bufferMB = op.getStaticConfigOr("buffer_mb", 128);
+        this.insert = stmtTpl.getPositionalStatement(s -> "?");
+        this.fieldsF = op.newArrayBinderFromBindPoints(stmtTpl.getBindPoints());
+    }
 
-    public Cqld4SsTableDispenser(Cqld4DriverAdapter adapter, LongFunction<CqlSession> sessionFunc, LongFunction<String> targetFunction, ParsedOp cmd) {
-        super(adapter,sessionFunc,cmd);
-//        this.targetFunction=targetFunction;
-//        this.tableFunc =createTableFunc(cmd);
+    /**
+     * Fail during activity init, rather than on the first cycle, when cassandra-all is missing.
+     */
+    private static void requireWriterClass() {
+        try {
+            Class.forName(WRITER_CLASS, false, Cqld4SsTableDispenser.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new OpConfigError("The sstable op type requires the Cassandra server library (cassandra-all) " +
+                "on the classpath, but " + WRITER_CLASS + " was not found.");
+        }
     }
 
-    protected LongFunction<Statement> createTableFunc(ParsedOp op) {
-        return null;
+    private Cqld4SsTableWriterShard newShard() {
+        if (startedAt == 0L) {
+            startedAt = System.nanoTime();
+        }
+        Path shardDir = directory.resolve("shard-" + shardCount.getAndIncrement());
+        Cqld4SsTableWriterShard shard = new Cqld4SsTableWriterShard(shardDir, schema, insert, bufferMB);
+        shards.add(shard);
+        return shard;
     }
 
     @Override
-    public Cqld4CqlOp apply(long cycle) {
-//        return new CqlD4SsTable(
-//            getSessionFunc().apply(value),
-//            (SsTable) stmtFunc.apply(value),
-//            getMaxPages(),
-//            isRetryReplace()
-//        );
-        return null;
+    public Cqld4SsTableOp apply(long cycle) {
+        return new Cqld4SsTableOp(shardSupplier, fieldsF.apply(cycle));
     }
 
+    /**
+     * Close all writers, which writes out any buffered rows. This should only be called once the
+     * threads which used this dispenser have stopped.
+     */
+    @Override
+    public void close() {
+        long rows = 0L;
+        for (Cqld4SsTableWriterShard shard : shards) {
+            shard.close();
+            rows += shard.getRows();
+        }
+        if (rows == 0L) {
+            return;
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0d;
+        double megabytes = sizeOf(directory) / (1024.0d * 1024.0d);
+        long totalRows = rows;
+        logger.info(() -> String.format(
+            "wrote %d rows (%.1f MB) of SSTables for %s into %d shards under %s in %.1fs: %.0f rows/s, %.1f MB/s",
+            totalRows, megabytes, getOpName(), shards.size(), directory, seconds, totalRows / seconds, megabytes / seconds
+        ));
+    }
+
+    private static long sizeOf(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
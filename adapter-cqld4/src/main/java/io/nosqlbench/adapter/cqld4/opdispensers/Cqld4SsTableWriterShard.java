@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import io.nosqlbench.api.errors.OpConfigError;
+import org.apache.cassandra.dht.Murmur3Partitioner;
+import org.apache.cassandra.exceptions.RequestValidationException;
+import org.apache.cassandra.io.sstable.CQLSSTableWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * <p>One thread's SSTable writer, backed by Cassandra's {@code CQLSSTableWriter}. The Cassandra server
+ * library is a provided dependency. It is not bundled with nb5, since it is large and conflicts with
+ * the driver's dependencies, so it must be added to the classpath by the user, as in
+ * {@code java -cp nb5.jar:cassandra-all.jar io.nosqlbench.engine.cli.NBCLI ...}.</p>
+ *
+ * <p>The writer is used in its unsorted mode, where rows are buffered in memory, sorted by partition
+ * token, and written out as a new SSTable each time the buffer fills. Every SSTable is ordered by
+ * token, but the SSTables of different shards, and successive SSTables of one shard, overlap in token
+ * range. They are deliberately not merged into a single token-ordered run here. Both sstableloader and
+ * compaction already merge overlapping SSTables by token, so a merge pass would rewrite every byte
+ * once more, and would serialize the threads on one writer.</p>
+ */
+public class Cqld4SsTableWriterShard implements AutoCloseable {
+
+    private final Path directory;
+    private final CQLSSTableWriter writer;
+    private long rows;
+
+    public Cqld4SsTableWriterShard(Path directory, String schema, String insert, int bufferMB) {
+        this.directory = directory;
+        File dir = directory.toFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new OpConfigError("Unable to create SSTable directory " + directory);
+        }
+        try {
+            this.writer = CQLSSTableWriter.builder()
+                .inDirectory(dir)
+                .forTable(schema)
+                .using(insert)
+                .withPartitioner(Murmur3Partitioner.instance)
+                .withBufferSizeInMiB(bufferMB)
+                .build();
+        } catch (IllegalArgumentException | RequestValidationException e) {
+            throw new OpConfigError("Unable to create SSTable writer in " + directory + ": " + e.getMessage(), e);
+        }
+    }
+
+    public void addRow(Object[] values) {
+        try {
+            writer.addRow(values);
+            rows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing SSTable row to " + directory, e);
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error closing SSTable writer for " + directory, e);
+        }
+    }
+}
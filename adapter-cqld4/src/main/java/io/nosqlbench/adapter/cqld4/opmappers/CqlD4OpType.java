@@ -66,11 +66,20 @@ public enum CqlD4OpType {
     fluent,
 
     /**
-     * reserved for future use
+     * uses {@link com.datastax.oss.driver.api.core.cql.BoundStatement}
+     * This works like {@link #prepared}, except that each cycle is first mapped
+     * through a token map file, which is a list of (token, cycle) pairs sorted by
+     * token. The statement is bound with the cycle from the file, and the routing
+     * token is set from the file, so that ops are sent in token order without the
+     * driver hashing each partition key.
      */
     rainbow,
-//    /**
-//     * reserved for future use
-//     */
-//    sst
+
+    /**
+     * uses {@code org.apache.cassandra.io.sstable.CQLSSTableWriter}
+     * The insert statement is bound like a prepared statement, but rows are
+     * written into SSTables on local disk instead of being sent to a cluster.
+     * This requires the Cassandra server library on the classpath.
+     */
+    sst
 }
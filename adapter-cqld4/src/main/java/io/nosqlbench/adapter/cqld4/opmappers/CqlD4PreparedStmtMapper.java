@@ -20,6 +20,7 @@ import com.datastax.oss.driver.api.core.CqlSession;
 import io.nosqlbench.adapter.cqld4.Cqld4Processors;
 import io.nosqlbench.adapter.cqld4.RSProcessors;
 import io.nosqlbench.adapter.cqld4.ResultSetProcessor;
+import io.nosqlbench.adapter.cqld4.opdispensers.Cqld4BatchingPreparedStmtDispenser;
 import io.nosqlbench.adapter.cqld4.opdispensers.Cqld4PreparedStmtDispenser;
 import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlOp;
 import io.nosqlbench.adapter.cqld4.processors.CqlFieldCaptureProcessor;
@@ -70,6 +71,14 @@ public class CqlD4PreparedStmtMapper implements OpMapper<Cqld4CqlOp> {
             });
         });
 
+        if (op.getOptionalStaticConfig("batch_rows", Integer.class).isPresent()) {
+            if (stmtTpl.getCaptures().size() > 0 || processorList.isPresent()) {
+                throw new BasicError("Captures and result set processors can not be used with batch_rows, since " +
+                    "batched statements do not return rows, for op '" + op.getName() + "'");
+            }
+            return new Cqld4BatchingPreparedStmtDispenser(adapter, sessionFunc, op, stmtTpl, processors);
+        }
+
         return new Cqld4PreparedStmtDispenser(adapter, sessionFunc, op, stmtTpl, processors);
 
     }
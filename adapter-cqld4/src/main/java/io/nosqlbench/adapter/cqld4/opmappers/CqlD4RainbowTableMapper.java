@@ -17,28 +17,42 @@
 package io.nosqlbench.adapter.cqld4.opmappers;
 
 import com.datastax.oss.driver.api.core.CqlSession;
-import io.nosqlbench.adapter.cqld4.optypes.Cqld4RainbowTableOp;
+import io.nosqlbench.adapter.cqld4.RSProcessors;
+import io.nosqlbench.adapter.cqld4.opdispensers.CqlD4RainbowTableDispenser;
+import io.nosqlbench.adapter.cqld4.optypes.Cqld4CqlOp;
+import io.nosqlbench.adapter.cqld4.processors.CqlFieldCaptureProcessor;
+import io.nosqlbench.api.errors.BasicError;
 import io.nosqlbench.engine.api.activityimpl.OpDispenser;
 import io.nosqlbench.engine.api.activityimpl.OpMapper;
 import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
 import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.engine.api.templating.TypeAndTarget;
+import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
 
 import java.util.function.LongFunction;
 
-public class CqlD4RainbowTableMapper implements OpMapper<Cqld4RainbowTableOp> {
+public class CqlD4RainbowTableMapper implements OpMapper<Cqld4CqlOp> {
     private final LongFunction<CqlSession> sessionFunc;
-    private final LongFunction<String> targetFunction;
+    private final TypeAndTarget<CqlD4OpType, String> target;
     private final DriverAdapter adapter;
 
-    public CqlD4RainbowTableMapper(DriverAdapter adapter, LongFunction<CqlSession> sessionFunc, LongFunction<String> targetFunction) {
+    public CqlD4RainbowTableMapper(DriverAdapter adapter, LongFunction<CqlSession> sessionFunc, TypeAndTarget<CqlD4OpType, String> target) {
         this.sessionFunc = sessionFunc;
-        this.targetFunction = targetFunction;
+        this.target = target;
         this.adapter = adapter;
     }
 
     @Override
-    public OpDispenser<? extends Cqld4RainbowTableOp> apply(ParsedOp op) {
-        return null;
-//        return new CqlD4RainbowTableDispenser(adapter, sessionFunc,targetFunction, op);
+    public OpDispenser<Cqld4CqlOp> apply(ParsedOp op) {
+        ParsedTemplateString stmtTpl = op.getAsTemplate(target.field).orElseThrow(() -> new BasicError(
+            "No statement was found in the op template:" + op
+        ));
+
+        RSProcessors processors = new RSProcessors();
+        if (stmtTpl.getCaptures().size() > 0) {
+            processors.add(() -> new CqlFieldCaptureProcessor(stmtTpl.getCaptures()));
+        }
+
+        return new CqlD4RainbowTableDispenser(adapter, sessionFunc, op, stmtTpl, processors);
     }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.optypes;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import io.nosqlbench.adapter.cqld4.RSProcessors;
+
+/**
+ * An op for a cycle whose statement was buffered into a pending batch. It has no statement
+ * of its own, so nothing is executed for it. The statement will be sent later as part of
+ * a {@link Cqld4CqlBatchStatement}.
+ */
+public class Cqld4CqlBufferedOp extends Cqld4CqlOp {
+
+    public Cqld4CqlBufferedOp(CqlSession session) {
+        super(session, 1, false, 1, new RSProcessors());
+    }
+
+    @Override
+    public Statement<?> getStmt() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return "(buffered for batch)";
+    }
+}
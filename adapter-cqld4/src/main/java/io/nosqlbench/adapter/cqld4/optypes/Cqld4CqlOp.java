@@ -17,7 +17,9 @@
 package io.nosqlbench.adapter.cqld4.optypes;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.Statement;
@@ -38,7 +40,6 @@ import java.util.Map;
 // TODO: add/document max tries exhausted exception
 // TODO: add/document UnexpectedPagingException
 // TODO: add/document chnge unapplied exception
-// TODO: add total rows metrics
 // TODO: add rows histogram resultSetSizeHisto
 
 
@@ -53,27 +54,39 @@ public abstract class Cqld4CqlOp implements CycleOp<ResultSet>, VariableCapture,
     private ResultSet rs;
     private Cqld4CqlOp nextOp;
     private final RSProcessors processors;
+    private final Cqld4AsyncPaging asyncPaging;
+    private long totalRows = -1;
+    private Statement<?> executed;
 
     public Cqld4CqlOp(CqlSession session, int maxPages, boolean retryReplace, int maxLwtRetries, RSProcessors processors) {
-        this.session = session;
-        this.maxPages = maxPages;
-        this.retryReplace = retryReplace;
-        this.maxLwtRetries =maxLwtRetries;
-        this.processors = processors;
+        this(session, maxPages, retryReplace, maxLwtRetries, 0, processors, null);
     }
 
-    protected Cqld4CqlOp(CqlSession session, int maxPages, boolean retryReplace, int maxLwtRetries, int retryRplaceCount, RSProcessors processors) {
+    public Cqld4CqlOp(CqlSession session, int maxPages, boolean retryReplace, int maxLwtRetries, RSProcessors processors, Cqld4AsyncPaging asyncPaging) {
+        this(session, maxPages, retryReplace, maxLwtRetries, 0, processors, asyncPaging);
+    }
+
+    protected Cqld4CqlOp(CqlSession session, int maxPages, boolean retryReplace, int maxLwtRetries, int retryRplaceCount, RSProcessors processors, Cqld4AsyncPaging asyncPaging) {
         this.session = session;
         this.maxPages = maxPages;
         this.retryReplace = retryReplace;
         this.maxLwtRetries =maxLwtRetries;
         this.retryReplaceCount=retryRplaceCount;
         this.processors = processors;
+        this.asyncPaging = asyncPaging;
     }
 
     public final ResultSet apply(long cycle) {
 
         Statement<?> stmt = getStmt();
+        if (stmt == null) {
+            // deferred, as when the statement was buffered into a later batch
+            return null;
+        }
+        executed = stmt;
+        if (asyncPaging != null) {
+            return applyAsync(cycle, stmt);
+        }
         rs = session.execute(stmt);
         processors.start(cycle, rs);
         int totalRows = 0;
@@ -103,18 +116,86 @@ public abstract class Cqld4CqlOp implements CycleOp<ResultSet>, VariableCapture,
                 Row row = reader.next();
                 processors.buffer(row);
             }
-            if (pages++ > maxPages) {
-                throw new UnexpectedPagingException(rs, getQueryString(), pages, maxPages, stmt.getPageSize());
-            }
+            pages++;
+            totalRows += pageRows;
             if (rs.isFullyFetched()) {
                 break;
             }
-            totalRows += pageRows;
+            if (Cqld4AsyncPaging.atPageLimit(pages, maxPages)) {
+                throw new UnexpectedPagingException(rs, getQueryString(), pages + 1, maxPages, stmt.getPageSize());
+            }
+        }
+        processors.flush();
+        this.totalRows = totalRows;
+        return rs;
+    }
+
+    /**
+     * Execute the statement asynchronously, and stream the rows of each page through the processors,
+     * with the request for the next page already in flight while the current page is processed. Rows
+     * are never collected beyond the current page.
+     */
+    private ResultSet applyAsync(long cycle, Statement<?> stmt) {
+        AsyncResultSet first = Cqld4AsyncPaging.await(asyncPaging.track(session.executeAsync(stmt)));
+        Cqld4PagedResultSet paged = new Cqld4PagedResultSet(first);
+        rs = paged;
+        processors.start(cycle, rs);
+        long lwtRows = 0;
+
+        if (!first.wasApplied()) {
+            if (!retryReplace) {
+                throw new ChangeUnappliedCycleException(rs, getQueryString());
+            }
+            retryReplaceCount++;
+            if (retryReplaceCount > maxLwtRetries) {
+                throw new ExceededRetryReplaceException(rs, getQueryString(), retryReplaceCount);
+            }
+            Row one = first.one();
+            processors.buffer(one);
+            lwtRows++;
+            nextOp = this.rebindLwt(stmt, one);
+        }
+
+        asyncPaging.readPages(first, paged, maxPages, processors::buffer);
+        if (!paged.isFullyFetched()) {
+            throw new UnexpectedPagingException(rs, getQueryString(), paged.getPages() + 1, maxPages, stmt.getPageSize());
         }
         processors.flush();
+        this.totalRows = lwtRows + paged.getRows();
         return rs;
     }
 
+    /**
+     * @return the number of rows which were read for this op, or -1 if it has not completed
+     */
+    @Override
+    public long getResultSize() {
+        return totalRows;
+    }
+
+    /**
+     * @return the encoded size of the statement as sent, or -1 if nothing was sent
+     */
+    @Override
+    public long getRequestBytes() {
+        return executed == null ? -1L : executed.computeSizeInBytes(session.getContext());
+    }
+
+    /**
+     * @return the size of all response frames for this op as reported by the driver, summed over pages
+     */
+    @Override
+    public long getResponseBytes() {
+        if (rs == null) {
+            return -1L;
+        }
+        long bytes = 0;
+        for (ExecutionInfo info : rs.getExecutionInfos()) {
+            bytes += Math.max(0, info.getResponseSizeInBytes());
+        }
+        return bytes;
+    }
+
     @Override
     public Op getNextOp() {
         Op next = nextOp;
@@ -136,7 +217,7 @@ public abstract class Cqld4CqlOp implements CycleOp<ResultSet>, VariableCapture,
 
     private Cqld4CqlOp rebindLwt(Statement<?> stmt, Row row) {
         BoundStatement rebound = LWTRebinder.rebindUnappliedStatement(stmt, row);
-        return new Cqld4CqlReboundStatement(session, maxPages, retryReplace, maxLwtRetries, retryReplaceCount, rebound, processors);
+        return new Cqld4CqlReboundStatement(session, maxPages, retryReplace, maxLwtRetries, retryReplaceCount, rebound, processors, asyncPaging);
     }
 
 }
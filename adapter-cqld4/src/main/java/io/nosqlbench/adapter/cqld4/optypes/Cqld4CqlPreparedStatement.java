@@ -18,14 +18,15 @@ package io.nosqlbench.adapter.cqld4.optypes;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import io.nosqlbench.adapter.cqld4.Cqld4AsyncPaging;
 import io.nosqlbench.adapter.cqld4.RSProcessors;
 
 public class Cqld4CqlPreparedStatement extends Cqld4CqlOp {
 
     private final BoundStatement stmt;
 
-    public Cqld4CqlPreparedStatement(CqlSession session, BoundStatement stmt, int maxPages, boolean retryReplace, int maxLwtRetries, RSProcessors processors) {
-        super(session,maxPages,retryReplace,maxLwtRetries,processors);
+    public Cqld4CqlPreparedStatement(CqlSession session, BoundStatement stmt, int maxPages, boolean retryReplace, int maxLwtRetries, RSProcessors processors, Cqld4AsyncPaging asyncPaging) {
+        super(session,maxPages,retryReplace,maxLwtRetries,processors,asyncPaging);
         this.stmt = stmt;
     }
 
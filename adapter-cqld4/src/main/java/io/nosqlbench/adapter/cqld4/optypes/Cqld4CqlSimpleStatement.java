@@ -18,13 +18,14 @@ package io.nosqlbench.adapter.cqld4.optypes;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import io.nosqlbench.adapter.cqld4.Cqld4AsyncPaging;
 import io.nosqlbench.adapter.cqld4.RSProcessors;
 
 public class Cqld4CqlSimpleStatement extends Cqld4CqlOp {
     private final SimpleStatement stmt;
 
-    public Cqld4CqlSimpleStatement(CqlSession session, SimpleStatement stmt, int maxPages, boolean retryReplace, int maxLwtRetries) {
-        super(session, maxPages,retryReplace, maxLwtRetries, new RSProcessors());
+    public Cqld4CqlSimpleStatement(CqlSession session, SimpleStatement stmt, int maxPages, boolean retryReplace, int maxLwtRetries, Cqld4AsyncPaging asyncPaging) {
+        super(session, maxPages,retryReplace, maxLwtRetries, new RSProcessors(), asyncPaging);
         this.stmt = stmt;
     }
 
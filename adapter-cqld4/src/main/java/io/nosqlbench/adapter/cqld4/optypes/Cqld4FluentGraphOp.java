@@ -26,6 +26,7 @@ public class Cqld4FluentGraphOp implements CycleOp<GraphResultSet>, OpResultSize
     private final CqlSession session;
     private final FluentGraphStatement stmt;
     private int resultSize=0;
+    private long responseBytes=-1;
 
     public Cqld4FluentGraphOp(CqlSession session, FluentGraphStatement stmt) {
         this.session = session;
@@ -36,6 +37,7 @@ public class Cqld4FluentGraphOp implements CycleOp<GraphResultSet>, OpResultSize
     public GraphResultSet apply(long value) {
         GraphResultSet result = session.execute(stmt);
         this.resultSize = result.all().size();
+        this.responseBytes = result.getRequestExecutionInfo().getResponseSizeInBytes();
         return result;
     }
 
@@ -43,4 +45,9 @@ public class Cqld4FluentGraphOp implements CycleOp<GraphResultSet>, OpResultSize
     public long getResultSize() {
         return resultSize;
     }
+
+    @Override
+    public long getResponseBytes() {
+        return responseBytes;
+    }
 }
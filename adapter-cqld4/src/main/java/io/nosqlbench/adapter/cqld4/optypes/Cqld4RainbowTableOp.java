@@ -16,35 +16,43 @@
 
 package io.nosqlbench.adapter.cqld4.optypes;
 
-import com.datastax.oss.driver.api.core.cql.ResultSet;
-import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.*;
-
-import java.util.Map;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import io.nosqlbench.adapter.cqld4.Cqld4AsyncPaging;
+import io.nosqlbench.adapter.cqld4.RSProcessors;
+
+/**
+ * A prepared statement which was bound from a token map file record. The routing token is
+ * taken from the record rather than computed from the partition key by the driver.
+ */
+public class Cqld4RainbowTableOp extends Cqld4CqlOp {
 
-// Need to create RainbowTableStatement
-public class Cqld4RainbowTableOp implements CycleOp<ResultSet>, VariableCapture, OpGenerator, OpResultSize {
-//    private final CqlSession session;
-//    private final RainbowTableStatement stmt;
+    private final BoundStatement stmt;
+    private final long token;
+    private final long sourceCycle;
 
-    // Rename ResultSet to something more appropriate
-    public final ResultSet apply(long cycle) {
-        throw new RuntimeException("implement me");
-        // TODO: actually write to sstables
-        // sstable passed to shared memory object
+    public Cqld4RainbowTableOp(CqlSession session, BoundStatement stmt, long token, long sourceCycle, int maxPages, boolean retryReplace, int maxLwtRetries, RSProcessors processors, Cqld4AsyncPaging asyncPaging) {
+        super(session, maxPages, retryReplace, maxLwtRetries, processors, asyncPaging);
+        this.stmt = stmt;
+        this.token = token;
+        this.sourceCycle = sourceCycle;
     }
 
     @Override
-    public Op getNextOp() {
-        throw new RuntimeException("implement me");
+    public BoundStatement getStmt() {
+        return stmt;
     }
 
-    @Override
-    public Map<String, ?> capture() {
-        throw new RuntimeException("implement me");
-   }
-//
-//    public Cqld4RainbowTableOp(CqlSession session, RainbowTableStatement stmt, int maxpages, boolean retryreplace) {
-//        //
-//    }
+    public long getToken() {
+        return token;
+    }
 
+    public long getSourceCycle() {
+        return sourceCycle;
+    }
+
+    @Override
+    public String getQueryString() {
+        return stmt.getPreparedStatement().getQuery();
+    }
 }
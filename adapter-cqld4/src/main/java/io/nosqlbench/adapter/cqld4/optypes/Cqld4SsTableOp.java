@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.optypes;
+
+import io.nosqlbench.adapter.cqld4.opdispensers.Cqld4SsTableWriterShard;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.CycleOp;
+
+import java.util.function.Supplier;
+
+/**
+ * Writes one row to the calling thread's SSTable writer.
+ */
+public class Cqld4SsTableOp implements CycleOp<Object[]> {
+
+    private final Supplier<Cqld4SsTableWriterShard> shard;
+    private final Object[] values;
+
+    public Cqld4SsTableOp(Supplier<Cqld4SsTableWriterShard> shard, Object[] values) {
+        this.shard = shard;
+        this.values = values;
+    }
+
+    @Override
+    public Object[] apply(long cycle) {
+        shard.get().addRow(values);
+        return values;
+    }
+}
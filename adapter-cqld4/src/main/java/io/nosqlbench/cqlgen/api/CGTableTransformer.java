@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.cqlgen.api;
+
+import io.nosqlbench.cqlgen.model.CqlModel;
+import io.nosqlbench.cqlgen.model.CqlTable;
+
+/**
+ * A {@link CGModelTransformer} whose work can be done one table at a time. After
+ * {@link #prepare(CqlModel)} has been called, {@link #transformTable(CqlTable)} may be
+ * called concurrently for different tables, so it must only modify the table it is given.
+ * Structural changes to the model, like removing tables, belong in {@link #finish(CqlModel)},
+ * which is called once all tables have been transformed.
+ */
+public interface CGTableTransformer extends CGModelTransformer {
+
+    default CqlModel prepare(CqlModel model) {
+        return model;
+    }
+
+    void transformTable(CqlTable table);
+
+    default CqlModel finish(CqlModel model) {
+        return model;
+    }
+
+    @Override
+    default CqlModel apply(CqlModel model) {
+        CqlModel prepared = prepare(model);
+        for (CqlTable table : prepared.getTableDefs()) {
+            transformTable(table);
+        }
+        return finish(prepared);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.cqlgen.core;
+
+import io.nosqlbench.cqlgen.model.CqlTable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Divide tables into a number of shards with roughly equal shares of the estimated operations,
+ * so that each shard can be rendered as its own workload and run as a separate activity.
+ * Tables are placed heaviest first into whichever shard currently has the least weight and
+ * still has room, which keeps the heaviest shard within one table's weight of the average.
+ * Within each shard, tables keep the order they had in the schema.
+ */
+public class CGTableSharder {
+
+    private final int shards;
+    private final int maxTablesPerShard;
+
+    /**
+     * @param shards The minimum number of shards to create
+     * @param maxTablesPerShard The maximum number of tables in any shard, or 0 for no limit.
+     *                          More shards are added as needed to honor this.
+     */
+    public CGTableSharder(int shards, int maxTablesPerShard) {
+        if (shards < 1) {
+            throw new RuntimeException("shards must be at least 1, but was " + shards);
+        }
+        if (maxTablesPerShard < 0) {
+            throw new RuntimeException("max_tables_per_shard must not be negative, but was " + maxTablesPerShard);
+        }
+        this.shards = shards;
+        this.maxTablesPerShard = maxTablesPerShard;
+    }
+
+    public int shardCountFor(int tableCount) {
+        int count = shards;
+        if (maxTablesPerShard > 0) {
+            count = Math.max(count, (tableCount + maxTablesPerShard - 1) / maxTablesPerShard);
+        }
+        return Math.max(1, Math.min(count, tableCount));
+    }
+
+    public List<List<CqlTable>> shard(List<CqlTable> tables, ToDoubleFunction<CqlTable> weightF) {
+        int count = shardCountFor(tables.size());
+        int capacity = maxTablesPerShard > 0 ? maxTablesPerShard : Integer.MAX_VALUE;
+
+        Map<CqlTable, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < tables.size(); i++) {
+            positions.put(tables.get(i), i);
+        }
+
+        List<CqlTable> heaviestFirst = new ArrayList<>(tables);
+        heaviestFirst.sort(Comparator.comparingDouble(weightF).reversed().thenComparing(positions::get));
+
+        PriorityQueue<Shard> lightestFirst = new PriorityQueue<>(
+            Comparator.comparingDouble((Shard s) -> s.weight).thenComparingInt(s -> s.tables.size()).thenComparingInt(s -> s.index)
+        );
+        List<Shard> all = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Shard shard = new Shard(i);
+            all.add(shard);
+            lightestFirst.add(shard);
+        }
+
+        for (CqlTable table : heaviestFirst) {
+            Shard shard = lightestFirst.poll();
+            if (shard == null) {
+                throw new RuntimeException("no shard capacity left for table " + table.getFullName());
+            }
+            shard.tables.add(table);
+            shard.weight += weightF.applyAsDouble(table);
+            if (shard.tables.size() < capacity) {
+                lightestFirst.add(shard);
+            }
+        }
+
+        List<List<CqlTable>> result = new ArrayList<>(count);
+        for (Shard shard : all) {
+            shard.tables.sort(Comparator.comparing(positions::get));
+            result.add(shard.tables);
+        }
+        return result;
+    }
+
+    /**
+     * Divide a total number of cycles between shards in proportion to their weights, so that the
+     * shards together run the total. Remainders go to the shards with the largest fractional
+     * parts, and every shard gets at least one cycle when there are enough to go around. When
+     * no shard has any weight, the cycles are divided equally.
+     */
+    public static long[] apportion(long total, double[] weights) {
+        int count = weights.length;
+        long[] cycles = new long[count];
+        if (count == 0) {
+            return cycles;
+        }
+        double sum = 0.0d;
+        for (double weight : weights) {
+            sum += Math.max(0.0d, weight);
+        }
+        long reserved = (total >= count) ? count : 0L;
+        long remaining = total - reserved;
+        double[] fractions = new double[count];
+        long assigned = 0L;
+        for (int i = 0; i < count; i++) {
+            double share = (sum > 0.0d) ? remaining * (Math.max(0.0d, weights[i]) / sum) : (double) remaining / count;
+            cycles[i] = (long) Math.floor(share) + (reserved > 0 ? 1L : 0L);
+            fractions[i] = share - Math.floor(share);
+            assigned += cycles[i];
+        }
+        List<Integer> byFraction = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byFraction.add(i);
+        }
+        byFraction.sort(Comparator.comparingDouble((Integer i) -> fractions[i]).reversed().thenComparing(i -> i));
+        for (int i = 0; assigned < total; i = (i + 1) % count) {
+            cycles[byFraction.get(i)]++;
+            assigned++;
+        }
+        return cycles;
+    }
+
+    /**
+     * The weight of a table is its share of all operations when table stats are available, otherwise
+     * all tables weigh the same.
+     */
+    public static double opShareOf(CqlTable table) {
+        return (table.getComputedStats() != null) ? table.getComputedStats().getOpShareOfTotalOps() : 1.0d;
+    }
+
+    private final static class Shard {
+        private final int index;
+        private final List<CqlTable> tables = new ArrayList<>();
+        private double weight;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+    }
+}
@@ -44,6 +44,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -64,6 +65,9 @@ public class CGWorkloadExporter implements BundledApp {
     private CqlModel model;
 
     private final int DEFAULT_RESOLUTION = 10000;
+    private final static int STATEMENTS_PER_CHUNK = 64;
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+    private final static Set<String> DATA_COMPONENTS = Set.of("insert-seq", "select-seq", "scan-10-seq", "update-seq");
 
     // TODO: move this to a transformer
     private String replication;
@@ -71,6 +75,8 @@ public class CGWorkloadExporter implements BundledApp {
     // TODO: Move these to a config object
     private String namingTemplate;
     private double partitionMultiplier;
+    private long shardRampupCycles;
+    private long shardMainCycles;
     private int quantizerDigits;
     private Map<String, List<String>> blockplan = Map.of();
 
@@ -143,18 +149,6 @@ public class CGWorkloadExporter implements BundledApp {
 //            textTransformers.accept((List<Map<String, ?>>) cfgmap.get("text_transformers"));
 //        }
 
-        String ddl;
-        try {
-            ddl = Files.readString(srcpath);
-            logger.info("read " + ddl.length() + " character DDL file, parsing");
-            if (textTransformers != null) {
-                ddl = textTransformers.process(ddl);
-            }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
-
         String defaultNamingTemplate = cfgmap.get("naming_template").toString();
         setNamingTemplate(defaultNamingTemplate);
 
@@ -163,8 +157,18 @@ public class CGWorkloadExporter implements BundledApp {
         configureTimeouts(cfgmap.get("timeouts"));
         configureBlocks(cfgmap.get("blockplan"));
         configureQuantizerDigits(cfgmap.get("quantizer_digits"));
-
-        this.model = CqlModelParser.parse(ddl, srcpath);
+        int threads = configureThreads(cfgmap.get("threads"));
+        modelTransformers.setThreads(threads);
+        String parserMode = Optional.ofNullable(cfgmap.get("parser")).map(String::valueOf).orElse("streaming");
+        CGTableSharder sharder = new CGTableSharder(
+            Integer.parseInt(String.valueOf(Optional.ofNullable(cfgmap.get("shards")).orElse(1))),
+            Integer.parseInt(String.valueOf(Optional.ofNullable(cfgmap.get("max_tables_per_shard")).orElse(0)))
+        );
+
+        this.shardRampupCycles = Long.parseLong(String.valueOf(Optional.ofNullable(cfgmap.get("shard_rampup_cycles")).orElse(10000)));
+        this.shardMainCycles = Long.parseLong(String.valueOf(Optional.ofNullable(cfgmap.get("shard_main_cycles")).orElse(10000)));
+
+        this.model = timed("parse", () -> parseModel(srcpath, parserMode, threads, textTransformers));
         List<String> errorlist = model.getReferenceErrors();
         if (errorlist.size() > 0) {
             for (String error : errorlist) {
@@ -172,24 +176,117 @@ public class CGWorkloadExporter implements BundledApp {
             }
             throw new RuntimeException("there were " + errorlist.size() + " reference errors in the model.");
         }
-        this.model = modelTransformers.apply(this.model);
+        this.model = timed("transform", () -> modelTransformers.apply(this.model));
+
+        List<List<CqlTable>> shards = sharder.shard(model.getTableDefs(), CGTableSharder::opShareOf);
+        if (shards.size() > 1) {
+            exportShards(target, shards);
+        } else {
+            Path workloadPath = target;
+            String workload = timed("generate", this::getWorkloadAsYaml);
+            timed("write", () -> writeWorkload(workloadPath, workload));
+            logger.info("Wrote workload template as '" + target + "'. Bear in mind that this is simply one version " +
+                "of a workload using this schema, and may not be representative of actual production usage patterns.");
+        }
+        modelTransformers.getStageNanos().forEach((name, nanos) -> stageNanos.put("transform/" + name, nanos));
+        logStageTimings();
+
+        return 0;
+    }
 
-        String workload = getWorkloadAsYaml();
+    private Path writeWorkload(Path target, String workload) {
         try {
             Files.writeString(
                     target,
                     workload,
                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
             );
-            logger.info("Wrote workload template as '" + target + "'. Bear in mind that this is simply one version " +
-                    "of a workload using this schema, and may not be representative of actual production usage patterns.");
+            return target;
         } catch (IOException e) {
             String errmsg = "There was an error writing '" + target + "'.";
             logger.error(errmsg);
             throw new RuntimeException(errmsg);
         }
+    }
 
-        return 0;
+    /**
+     * Write the schema-level blocks to the target workload, and the data blocks for each shard of tables to
+     * a workload of its own. Each shard is rendered and written before the next one is started. The target
+     * workload gets rampup and main scenarios which start one activity per shard, so that no single activity
+     * has to initialize op templates and bindings for all tables. Each shard runs its weight's share of the
+     * configured total cycles.
+     */
+    private void exportShards(Path target, List<List<CqlTable>> shards) {
+        Map<String, List<String>> schemaPlan = new LinkedHashMap<>();
+        Map<String, List<String>> shardPlan = new LinkedHashMap<>();
+        blockplan.forEach((blockname, components) ->
+            (DATA_COMPONENTS.containsAll(components) ? shardPlan : schemaPlan).put(blockname, components));
+
+        String basename = target.getFileName().toString().replaceAll("\\.yaml$", "");
+        List<Path> shardPaths = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            Path shardPath = target.resolveSibling(String.format("%s-shard-%03d.yaml", basename, i + 1));
+            if (Files.exists(shardPath) && !shardPath.getFileName().toString().startsWith("_")) {
+                throw new RuntimeException("Target file '" + shardPath + "' exists. Please remove it first or use a different target file name.");
+            }
+            shardPaths.add(shardPath);
+        }
+
+        double[] weights = shards.stream()
+            .mapToDouble(shardTables -> shardTables.stream().mapToDouble(CGTableSharder::opShareOf).sum())
+            .toArray();
+        String index = timed("generate", () -> renderWorkload(model, schemaPlan, genShardIndexScenarios(model, shardPaths, weights)));
+        timed("write", () -> writeWorkload(target, index));
+
+        for (int i = 0; i < shards.size(); i++) {
+            List<CqlTable> shardTables = shards.get(i);
+            Path shardPath = shardPaths.get(i);
+            CqlModel shardModel = model.withTables(shardTables);
+            String shardWorkload = timed("generate", () -> renderWorkload(shardModel, shardPlan, genShardScenarios()));
+            timed("write", () -> writeWorkload(shardPath, shardWorkload));
+            double opShare = weights[i];
+            logger.info(() -> String.format("wrote shard '%s' with %d tables, weight %.4f", shardPath, shardTables.size(), opShare));
+        }
+        logger.info("Wrote sharded workload as '" + target + "' with " + shards.size() + " shards. Bear in mind that this " +
+            "is simply one version of a workload using this schema, and may not be representative of actual production usage patterns.");
+    }
+
+    private CqlModel parseModel(Path srcpath, String parserMode, int threads, CGTextTransformers textTransformers) {
+        if (!parserMode.equals("streaming") && !parserMode.equals("whole")) {
+            throw new RuntimeException("Unrecognized parser mode '" + parserMode + "', use either 'streaming' or 'whole'.");
+        }
+        if (parserMode.equals("streaming")) {
+            if (textTransformers.get().isEmpty()) {
+                return CqlModelParser.parseStreaming(srcpath, threads, STATEMENTS_PER_CHUNK);
+            }
+            logger.info("text transformers operate on the whole DDL text, so the streaming parser is not used.");
+        }
+        String ddl = textTransformers.process(loadFile(srcpath));
+        return CqlModelParser.parse(ddl, srcpath);
+    }
+
+    private int configureThreads(Object threadsSpec) {
+        if (threadsSpec == null || threadsSpec.toString().equals("auto")) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        int threads = Integer.parseInt(threadsSpec.toString());
+        if (threads < 1) {
+            throw new RuntimeException("threads must be 'auto' or a positive number, but was '" + threadsSpec + "'");
+        }
+        return threads;
+    }
+
+    private <T> T timed(String stage, Supplier<T> supplier) {
+        long startAt = System.nanoTime();
+        T result = supplier.get();
+        stageNanos.merge(stage, System.nanoTime() - startAt, Long::sum);
+        return result;
+    }
+
+    private void logStageTimings() {
+        StringBuilder sb = new StringBuilder("stage timings:");
+        stageNanos.forEach((stage, nanos) -> sb.append(String.format("\n %20s: %10.3fms", stage, nanos / 1_000_000.0d)));
+        logger.info(sb.toString());
     }
 
     private String loadFile(Path path) {
@@ -211,10 +308,14 @@ public class CGWorkloadExporter implements BundledApp {
     }
 
     public Map<String, Object> generateBlocks() {
+        return generateBlocks(model, blockplan, genScenarios(model));
+    }
+
+    private Map<String, Object> generateBlocks(CqlModel model, Map<String, List<String>> blockplan, Map<String, Object> scenarios) {
 
         Map<String, Object> workload = new LinkedHashMap<>();
         workload.put("description", "Auto-generated workload from source schema.");
-        workload.put("scenarios", genScenarios(model));
+        workload.put("scenarios", scenarios);
         workload.put("bindings", new LinkedHashMap<String, String>());
         Map<String, Object> blocks = new LinkedHashMap<>();
         workload.put("params", new LinkedHashMap<>(
@@ -315,6 +416,52 @@ public class CGWorkloadExporter implements BundledApp {
         this.namingTemplate = namingTemplate;
     }
 
+    /**
+     * Scenarios for a shard workload, which only has data blocks.
+     */
+    private LinkedHashMap<String, Object> genShardScenarios() {
+        LinkedHashMap<String, Object> scenarios = new LinkedHashMap<>();
+        Map<String, String> defaultScenario = new LinkedHashMap<>();
+        defaultScenario.put("rampup", "run driver=cql tags=block:rampup threads=auto cycles===TEMPLATE(rampup-cycles,10000)");
+        defaultScenario.put("main", "run driver=cql tags=block:\"main.*\" threads=auto cycles===TEMPLATE(main-cycles,10000)");
+        scenarios.put("default", defaultScenario);
+        for (String blockname : List.of("main-insert", "main-select", "main-scan", "main-update")) {
+            scenarios.put(blockname, "run driver=cql tags=block:" + blockname + " threads=auto cycles===TEMPLATE(main-cycles,10000)");
+        }
+        return scenarios;
+    }
+
+    /**
+     * Scenarios for the workload which holds the schema blocks when tables are sharded. Rampup runs each
+     * shard in turn, so that all data is loaded before main starts. Main starts every shard at once, and
+     * the scenario waits for all of them to complete. The default scenario does schema, rampup and main in
+     * that order. Each shard's cycles are its weight's share of the configured totals, and may be
+     * overridden per shard with the rampup-cycles-shard-NNN and main-cycles-shard-NNN template variables.
+     */
+    private LinkedHashMap<String, Object> genShardIndexScenarios(CqlModel model, List<Path> shardPaths, double[] weights) {
+        LinkedHashMap<String, Object> scenarios = genScenarios(model);
+        Map<String, String> defaultScenario = (Map<String, String>) scenarios.get("default");
+        defaultScenario.remove("rampup");
+        defaultScenario.remove("main");
+        scenarios.keySet().removeIf(name -> name.startsWith("main-"));
+
+        long[] rampupCycles = CGTableSharder.apportion(shardRampupCycles, weights);
+        long[] mainCycles = CGTableSharder.apportion(shardMainCycles, weights);
+        Map<String, String> rampup = new LinkedHashMap<>();
+        Map<String, String> main = new LinkedHashMap<>();
+        for (int i = 0; i < shardPaths.size(); i++) {
+            String shard = String.format("shard-%03d", i + 1);
+            String workload = shardPaths.get(i).toString();
+            rampup.put(shard, "run driver=cql workload=" + workload + " tags=block:rampup threads=TEMPLATE(shard-threads,auto) cycles===TEMPLATE(rampup-cycles-" + shard + "," + rampupCycles[i] + ")");
+            main.put(shard, "start driver=cql workload=" + workload + " tags=block:\"main.*\" threads=TEMPLATE(shard-threads,auto) cycles===TEMPLATE(main-cycles-" + shard + "," + mainCycles[i] + ")");
+        }
+        rampup.forEach((shard, step) -> defaultScenario.put("rampup-" + shard, step));
+        main.forEach((shard, step) -> defaultScenario.put("main-" + shard, step));
+        scenarios.put("rampup", rampup);
+        scenarios.put("main", main);
+        return scenarios;
+    }
+
     private LinkedHashMap<String, Object> genScenarios(CqlModel model) {
         return new LinkedHashMap<>() {{
 
@@ -588,6 +735,10 @@ public class CGWorkloadExporter implements BundledApp {
 
 
     public String getWorkloadAsYaml() {
+        return renderWorkload(model, blockplan, genScenarios(model));
+    }
+
+    private String renderWorkload(CqlModel model, Map<String, List<String>> blockplan, Map<String, Object> scenarios) {
 
         if (model.isEmpty()) {
             throw new RuntimeException("Can't build a workload yaml with no elements to process. The parsed model is empty. Did you filter everything out?");
@@ -598,7 +749,7 @@ public class CGWorkloadExporter implements BundledApp {
         this.binder = new CGColumnRebinder(bindingslib, 10, 1);
         namer.informNamerOfAllKnownNames(model);
 
-        Map<String, Object> workload = generateBlocks();
+        Map<String, Object> workload = generateBlocks(model, blockplan, scenarios);
         ((Map<String, String>) workload.get("bindings")).putAll(bindingslib.getAccumulatedBindings());
 
         DumpSettings dumpSettings = DumpSettings.builder()
@@ -32,14 +32,25 @@ public class CGErrorListener extends BaseErrorListener implements Supplier<List<
     List<String> errors = new ArrayList<>();
 
     private final Path origin;
+    private final int lineOffset;
 
     public CGErrorListener(Path origin) {
+        this(origin, 0);
+    }
+
+    /**
+     * @param origin The source file being parsed
+     * @param lineOffset The number of source lines which precede the parsed text, when only a
+     *                   part of the source file is given to the parser
+     */
+    public CGErrorListener(Path origin, int lineOffset) {
         this.origin = origin;
+        this.lineOffset = lineOffset;
     }
 
     @Override
     public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
-        String locref= getLocationRef(origin,line, charPositionInLine);
+        String locref= getLocationRef(origin,line+lineOffset, charPositionInLine);
         String errmsg = "Error in " + origin.toString()+ ":\n" +
             e.toString() + ":\n"+locref;
         errors.add(errmsg);
@@ -108,7 +108,7 @@ public class CqlKeyspaceDef implements NBNamedElement, Labeled {
     }
 
     public void removeTable(CqlTable table) {
-        this.tableDefs.remove(table.getName());
+        this.tableDefs.remove(table);
     }
 
     public void getReferenceErrors(List<String> errors) {
@@ -130,6 +130,44 @@ public class CqlKeyspaceDef implements NBNamedElement, Labeled {
         this.defined=true;
     }
 
+    /**
+     * @return a copy of this keyspace definition which holds only the given tables. The tables are
+     * shared with this instance and still refer to it as their keyspace.
+     */
+    public CqlKeyspaceDef withTables(List<CqlTable> tables) {
+        CqlKeyspaceDef subset = new CqlKeyspaceDef(keyspaceName);
+        subset.stats = this.stats;
+        subset.isDurableWrites = this.isDurableWrites;
+        subset.replicationData = this.replicationData;
+        subset.defined = this.defined;
+        subset.typeDefs.addAll(this.typeDefs);
+        subset.tableDefs.addAll(tables);
+        return subset;
+    }
+
+    public boolean isDefined() {
+        return this.defined;
+    }
+
+    /**
+     * Take the definition, types and tables of another instance of the same keyspace,
+     * as when separate parts of a schema are parsed into their own models.
+     */
+    public void merge(CqlKeyspaceDef other) {
+        if (other.isDefined()) {
+            this.replicationData = other.replicationData;
+            this.isDurableWrites = other.isDurableWrites;
+            this.defined = true;
+        }
+        for (CqlType typeDef : other.getTypeDefs()) {
+            typeDef.setKeyspace(this);
+            addType(typeDef);
+        }
+        for (CqlTable tableDef : other.getTableDefs()) {
+            addTable(tableDef);
+        }
+    }
+
     public void validate() {
         Strings.requireNotEmpty(this.keyspaceName, "keyspace name");
     }
@@ -22,9 +22,7 @@ import io.nosqlbench.cqlgen.core.CGWorkloadExporter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.function.Supplier;
 
 /**
@@ -68,6 +66,19 @@ public class CqlModel {
         return computedSchemaStats;
     }
 
+    /**
+     * Attach schema stats to this model and its keyspaces, leaving table stats to the caller.
+     */
+    public void setSchemaStats(CGSchemaStats schemaStats) {
+        this.schemaStats = schemaStats;
+        for (CqlKeyspaceDef ksdef : keyspaceDefs) {
+            CGKeyspaceStats keyspaceStats = schemaStats.getKeyspace(ksdef.getName());
+            if (keyspaceStats != null) {
+                ksdef.setStats(keyspaceStats);
+            }
+        }
+    }
+
     public void setKeyspaceAttributes(CGSchemaStats schemaStats) {
         this.schemaStats = schemaStats;
         for (String statsKeyspacename : schemaStats.getKeyspaces().keySet()) {
@@ -154,6 +165,37 @@ public class CqlModel {
         return errors;
     }
 
+    /**
+     * Fold the elements of another model into this one, as when a schema is parsed in
+     * separate chunks. Keyspaces which are only referenced in one model take their
+     * definition from whichever model defines them.
+     */
+    public void merge(CqlModel other) {
+        for (CqlKeyspaceDef ksdef : other.getKeyspaceDefs()) {
+            CqlKeyspaceDef extant = getKeyspace(ksdef.getName());
+            if (extant == null) {
+                this.keyspaceDefs.add(ksdef);
+            } else {
+                extant.merge(ksdef);
+            }
+        }
+    }
+
+    /**
+     * @return a model with the same keyspaces, types and stats as this one, but only the given tables
+     */
+    public CqlModel withTables(Collection<CqlTable> tables) {
+        Set<CqlTable> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+        selected.addAll(tables);
+        CqlModel subset = new CqlModel(errors);
+        subset.schemaStats = this.schemaStats;
+        subset.computedSchemaStats = this.computedSchemaStats;
+        for (CqlKeyspaceDef ksdef : keyspaceDefs) {
+            subset.keyspaceDefs.add(ksdef.withTables(ksdef.getTableDefs().stream().filter(selected::contains).toList()));
+        }
+        return subset;
+    }
+
     public void addKeyspace(CqlKeyspaceDef keyspace) {
         this.keyspaceDefs.add(keyspace);
     }
@@ -30,9 +30,18 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class CqlModelParser {
@@ -52,6 +61,87 @@ public class CqlModelParser {
         }
     }
 
+    /**
+     * Parse a DDL file in chunks of statements, using the given number of threads. Chunks are read
+     * from the file as parser threads become available, and the resulting partial models are merged
+     * in source order, so the result is the same as {@link #parse(Path)} without the whole file or its
+     * full token stream needing to be held in memory at once.
+     *
+     * @param path The DDL file
+     * @param threads The number of parser threads
+     * @param statementsPerChunk How many statements to give to each parser invocation
+     * @return A merged model of the whole file
+     */
+    public static CqlModel parseStreaming(Path path, int threads, int statementsPerChunk) {
+        AtomicInteger threadIdx = new AtomicInteger();
+        ExecutorService parsers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "cqlgen-parser-" + threadIdx.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<String> errors = new ArrayList<>();
+        CqlModel merged = new CqlModel(() -> errors);
+        Deque<Future<CqlModelBuilder>> inflight = new ArrayDeque<>();
+        int chunks = 0;
+        int statements = 0;
+
+        try (CqlStatementChunker chunker = new CqlStatementChunker(Files.newBufferedReader(path), statementsPerChunk)) {
+            while (chunker.hasNext()) {
+                CqlStatementChunker.Chunk chunk = chunker.next();
+                chunks++;
+                statements += chunk.statements();
+                inflight.addLast(parsers.submit(() -> parseChunk(chunk, path)));
+                // bound the amount of unparsed text which is read ahead
+                while (inflight.size() > threads * 2) {
+                    mergeChunk(inflight.removeFirst(), merged, errors);
+                }
+            }
+            while (!inflight.isEmpty()) {
+                mergeChunk(inflight.removeFirst(), merged, errors);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            parsers.shutdownNow();
+        }
+
+        if (errors.size() > 0) {
+            throw new RuntimeException("Unable to render model for unparsable input with errors:\n" + errors);
+        }
+        int finalChunks = chunks;
+        int finalStatements = statements;
+        logger.info(() -> "parsed " + finalStatements + " statements in " + finalChunks + " chunks with " + threads
+            + " threads: " + merged.getSummaryLine());
+        return merged;
+    }
+
+    private static CqlModelBuilder parseChunk(CqlStatementChunker.Chunk chunk, Path origin) {
+        CGErrorListener errorListener = new CGErrorListener(origin, chunk.startLine() - 1);
+        CqlLexer lexer = new CqlLexer(CharStreams.fromString(chunk.text()));
+        CqlParser parser = new CqlParser(new CommonTokenStream(lexer));
+        CqlModelBuilder cqlModelBuilder = new CqlModelBuilder(errorListener);
+        parser.addParseListener(cqlModelBuilder);
+        parser.addErrorListener(errorListener);
+        parser.root();
+        return cqlModelBuilder;
+    }
+
+    private static void mergeChunk(Future<CqlModelBuilder> future, CqlModel merged, List<String> errors) {
+        try {
+            CqlModelBuilder builder = future.get();
+            errors.addAll(builder.getErrors());
+            merged.merge(builder.getModel());
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
     public static CqlType parseCqlType(String input) {
         CqlModel parsed = parse(input, null);
         List<CqlType> types = parsed.getTypeDefs();
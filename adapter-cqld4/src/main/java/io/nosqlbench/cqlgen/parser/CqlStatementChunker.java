@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.cqlgen.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads CQL DDL from a {@link Reader} in groups of complete statements, so that a large schema
+ * can be parsed piecewise without holding the whole source text in memory. Statement boundaries
+ * are found by looking for semicolons which are not within quoted strings, quoted identifiers,
+ * dollar-quoted strings or comments. Each chunk remembers the source line it starts on so that
+ * parse errors can be reported against the original file.
+ */
+public class CqlStatementChunker implements Iterator<CqlStatementChunker.Chunk>, AutoCloseable {
+
+    public record Chunk(int index, int startLine, int statements, String text) {
+    }
+
+    private enum State {
+        NORMAL, SQUOTE, DQUOTE, DOLLAR, LINE_COMMENT, BLOCK_COMMENT
+    }
+
+    private final Reader reader;
+    private final int statementsPerChunk;
+    private int line = 1;
+    private int index = 0;
+    private Chunk pending;
+    private boolean exhausted;
+
+    public CqlStatementChunker(Reader reader, int statementsPerChunk) {
+        if (statementsPerChunk < 1) {
+            throw new RuntimeException("statements per chunk must be at least 1, but was " + statementsPerChunk);
+        }
+        this.reader = reader;
+        this.statementsPerChunk = statementsPerChunk;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending == null && !exhausted) {
+            try {
+                pending = readChunk();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return pending != null;
+    }
+
+    @Override
+    public Chunk next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Chunk chunk = pending;
+        pending = null;
+        return chunk;
+    }
+
+    private Chunk readChunk() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int startLine = line;
+        int statements = 0;
+        boolean substantive = false;
+        State state = State.NORMAL;
+        int prev = -1;
+        int c;
+
+        while ((c = reader.read()) != -1) {
+            sb.append((char) c);
+            if (c == '\n') {
+                line++;
+            }
+            switch (state) {
+                case NORMAL -> {
+                    if (c == ';') {
+                        statements++;
+                        substantive = false;
+                        if (statements >= statementsPerChunk) {
+                            return new Chunk(index++, startLine, statements, sb.toString());
+                        }
+                    } else if (c == '\'') {
+                        state = State.SQUOTE;
+                    } else if (c == '"') {
+                        state = State.DQUOTE;
+                    } else if (c == '$' && prev == '$') {
+                        state = State.DOLLAR;
+                        c = -1;
+                    } else if ((c == '-' && prev == '-') || (c == '/' && prev == '/')) {
+                        state = State.LINE_COMMENT;
+                    } else if (c == '*' && prev == '/') {
+                        state = State.BLOCK_COMMENT;
+                        c = -1;
+                    } else if (!Character.isWhitespace(c) && c != '-' && c != '/' && c != '$') {
+                        substantive = true;
+                    }
+                }
+                case SQUOTE -> {
+                    if (prev == '\\') {
+                        c = -1;
+                    } else if (c == '\'') {
+                        state = State.NORMAL;
+                    }
+                }
+                case DQUOTE -> state = (c == '"') ? State.NORMAL : state;
+                case LINE_COMMENT -> state = (c == '\n') ? State.NORMAL : state;
+                case BLOCK_COMMENT -> {
+                    if (c == '/' && prev == '*') {
+                        state = State.NORMAL;
+                        c = -1;
+                    }
+                }
+                case DOLLAR -> {
+                    if (c == '$' && prev == '$') {
+                        state = State.NORMAL;
+                        c = -1;
+                    }
+                }
+            }
+            prev = c;
+        }
+
+        exhausted = true;
+        if (statements > 0 || substantive) {
+            return new Chunk(index++, startLine, statements + (substantive ? 1 : 0), sb.toString());
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
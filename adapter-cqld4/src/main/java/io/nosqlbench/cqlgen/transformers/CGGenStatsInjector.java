@@ -16,11 +16,14 @@
 
 package io.nosqlbench.cqlgen.transformers;
 
-import io.nosqlbench.cqlgen.api.CGModelTransformer;
+import io.nosqlbench.cqlgen.api.CGTableTransformer;
 import io.nosqlbench.cqlgen.api.CGTransformerConfigurable;
+import io.nosqlbench.cqlgen.core.CGKeyspaceStats;
 import io.nosqlbench.cqlgen.core.CGSchemaStats;
+import io.nosqlbench.cqlgen.core.CGTableStats;
 import io.nosqlbench.cqlgen.core.CGWorkloadExporter;
 import io.nosqlbench.cqlgen.model.CqlModel;
+import io.nosqlbench.cqlgen.model.CqlTable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -30,7 +33,7 @@ import java.nio.file.Path;
 import java.util.Locale;
 import java.util.Map;
 
-public class CGGenStatsInjector implements CGModelTransformer, CGTransformerConfigurable {
+public class CGGenStatsInjector implements CGTableTransformer, CGTransformerConfigurable {
     private final static Logger logger = LogManager.getLogger(CGWorkloadExporter.APPNAME+"/stats-injector");
 
     private CGSchemaStats schemaStats = null;
@@ -40,13 +43,28 @@ public class CGGenStatsInjector implements CGModelTransformer, CGTransformerConf
     }
 
     @Override
-    public CqlModel apply(CqlModel model) {
+    public CqlModel prepare(CqlModel model) {
         if (schemaStats != null) {
-            model.setKeyspaceAttributes(schemaStats);
+            model.setSchemaStats(schemaStats);
         }
         return model;
     }
 
+    @Override
+    public void transformTable(CqlTable table) {
+        if (schemaStats == null) {
+            return;
+        }
+        CGKeyspaceStats keyspaceStats = schemaStats.getKeyspace(table.getKeyspace().getName());
+        if (keyspaceStats == null) {
+            return;
+        }
+        CGTableStats tableStats = keyspaceStats.getKeyspaceTable(table.getName());
+        if (tableStats != null) {
+            table.setStats(tableStats);
+        }
+    }
+
     @Override
     public void setName(String name) {
         this.name = name;
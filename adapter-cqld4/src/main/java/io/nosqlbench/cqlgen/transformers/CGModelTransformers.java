@@ -19,18 +19,22 @@ package io.nosqlbench.cqlgen.transformers;
 import io.nosqlbench.api.config.standard.NBConfigurable;
 import io.nosqlbench.api.config.standard.NBConfiguration;
 import io.nosqlbench.cqlgen.api.CGModelTransformer;
+import io.nosqlbench.cqlgen.api.CGTableTransformer;
 import io.nosqlbench.cqlgen.api.CGTransformerConfigurable;
 import io.nosqlbench.cqlgen.core.CGWorkloadExporter;
 import io.nosqlbench.cqlgen.model.CqlModel;
+import io.nosqlbench.cqlgen.model.CqlTable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -42,10 +46,21 @@ public class CGModelTransformers implements
 
     private final static Logger logger = LogManager.getLogger(CGWorkloadExporter.APPNAME+"/transformers");
     private final List<CGModelTransformer> transformers = new ArrayList<>();
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+    private int threads = 1;
 
     public CGModelTransformers() {
     }
 
+    /**
+     * Set the number of threads used to run {@link CGTableTransformer}s over tables.
+     * Other transformers always see the whole model on the calling thread.
+     */
+    public CGModelTransformers setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
     @Override
     public void accept(List<Map<String, ?>> configs) {
         List<CGModelTransformer> transformers = new ArrayList<>();
@@ -111,9 +126,39 @@ public class CGModelTransformers implements
 
     @Override
     public CqlModel apply(CqlModel cqlModel) {
-        for (CGModelTransformer transformer : transformers) {
-            cqlModel=transformer.apply(cqlModel);
+        ForkJoinPool pool = (threads > 1) ? new ForkJoinPool(threads) : null;
+        try {
+            for (CGModelTransformer transformer : transformers) {
+                long startAt = System.nanoTime();
+                if (pool != null && transformer instanceof CGTableTransformer tableTransformer) {
+                    cqlModel = applyByTable(tableTransformer, cqlModel, pool);
+                } else {
+                    cqlModel = transformer.apply(cqlModel);
+                }
+                long nanos = System.nanoTime() - startAt;
+                stageNanos.merge(transformer.getName(), nanos, Long::sum);
+                logger.info(() -> String.format("transformer '%s' (%s) completed in %.3fms",
+                    transformer.getName(), transformer.getClass().getSimpleName(), nanos / 1_000_000.0d));
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
         }
         return cqlModel;
     }
+
+    private CqlModel applyByTable(CGTableTransformer transformer, CqlModel model, ForkJoinPool pool) {
+        CqlModel prepared = transformer.prepare(model);
+        List<CqlTable> tables = prepared.getTableDefs();
+        pool.submit(() -> tables.parallelStream().forEach(transformer::transformTable)).join();
+        return transformer.finish(prepared);
+    }
+
+    /**
+     * @return the elapsed time of each transformer, by name, in nanoseconds
+     */
+    public Map<String, Long> getStageNanos() {
+        return stageNanos;
+    }
 }
@@ -16,26 +16,32 @@
 
 package io.nosqlbench.cqlgen.transformers;
 
-import io.nosqlbench.cqlgen.api.CGModelTransformer;
+import io.nosqlbench.cqlgen.api.CGTableTransformer;
 import io.nosqlbench.cqlgen.core.CGTableStats;
 import io.nosqlbench.cqlgen.model.CqlModel;
 import io.nosqlbench.cqlgen.model.CqlTable;
 
-public class CGRatioCalculator implements CGModelTransformer {
+public class CGRatioCalculator implements CGTableTransformer {
 
     private String name;
+    private boolean active;
+    private double totalReads;
+    private double totalWrites;
+    private double totalSpace;
+    private double totalOps;
 
     @Override
-    public CqlModel apply(CqlModel model) {
-        if (!model.hasStats()) {
+    public CqlModel prepare(CqlModel model) {
+        this.active = model.hasStats();
+        if (!active) {
             // TODO: True this up
             return model;
         }
 
-        double totalReads = 0.0d;
-        double totalWrites = 0.0d;
-        double totalSpace = 0.0d;
-        double totalOps = 0.0d;
+        totalReads = 0.0d;
+        totalWrites = 0.0d;
+        totalSpace = 0.0d;
+        totalOps = 0.0d;
 
         for (CqlTable table : model.getTableDefs()) {
             CGTableStats tableAttributes = table.getTableAttributes();
@@ -56,27 +62,30 @@ public class CGRatioCalculator implements CGModelTransformer {
             double space = Double.parseDouble(space_used_total);
             totalSpace += space;
         }
+        return model;
+    }
 
-        for (CqlTable table : model.getTableDefs()) {
-            double reads = Double.parseDouble(table.getTableAttributes().getAttribute("Local read count"));
-            double writes = Double.parseDouble(table.getTableAttributes().getAttribute("Local write count"));
-
-            double totalTableReads = reads / totalOps;
-            double totalTableWrites = writes / totalOps;
-            double tableSpaceUsed = Double.parseDouble(table.getTableAttributes().getAttribute("Space used (total)"));
-            double weighted_space = tableSpaceUsed / totalSpace;
-            double op_share_of_total_ops = totalTableReads + totalTableWrites;
-            ComputedTableStats computedTableStats = new ComputedTableStats()
-                .setReadShareOfTotalOps(reads / totalOps)
-                .setReadShareOfTotalReads(reads / totalReads)
-                .setWriteShareOfTotalOps(writes / totalOps)
-                .setWriteShareOfTotalWrites(writes / totalWrites)
-                .setOpShareOfTotalOps(op_share_of_total_ops)
-                .setSpaceUsedOfTotalSpace(weighted_space);
-            table.setComputedStats(computedTableStats);
+    @Override
+    public void transformTable(CqlTable table) {
+        if (!active || table.getTableAttributes() == null) {
+            return;
         }
+        double reads = Double.parseDouble(table.getTableAttributes().getAttribute("Local read count"));
+        double writes = Double.parseDouble(table.getTableAttributes().getAttribute("Local write count"));
 
-        return model;
+        double totalTableReads = reads / totalOps;
+        double totalTableWrites = writes / totalOps;
+        double tableSpaceUsed = Double.parseDouble(table.getTableAttributes().getAttribute("Space used (total)"));
+        double weighted_space = tableSpaceUsed / totalSpace;
+        double op_share_of_total_ops = totalTableReads + totalTableWrites;
+        ComputedTableStats computedTableStats = new ComputedTableStats()
+            .setReadShareOfTotalOps(reads / totalOps)
+            .setReadShareOfTotalReads(reads / totalReads)
+            .setWriteShareOfTotalOps(writes / totalOps)
+            .setWriteShareOfTotalWrites(writes / totalWrites)
+            .setOpShareOfTotalOps(op_share_of_total_ops)
+            .setSpaceUsedOfTotalSpace(weighted_space);
+        table.setComputedStats(computedTableStats);
     }
 
     @Override
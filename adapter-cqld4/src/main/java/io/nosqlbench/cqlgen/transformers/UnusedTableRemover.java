@@ -16,7 +16,7 @@
 
 package io.nosqlbench.cqlgen.transformers;
 
-import io.nosqlbench.cqlgen.api.CGModelTransformer;
+import io.nosqlbench.cqlgen.api.CGTableTransformer;
 import io.nosqlbench.cqlgen.api.CGTransformerConfigurable;
 import io.nosqlbench.cqlgen.core.CGWorkloadExporter;
 import io.nosqlbench.cqlgen.model.CqlModel;
@@ -24,34 +24,49 @@ import io.nosqlbench.cqlgen.model.CqlTable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
-public class UnusedTableRemover implements CGModelTransformer, CGTransformerConfigurable {
+public class UnusedTableRemover implements CGTableTransformer, CGTransformerConfigurable {
     private final static Logger logger = LogManager.getLogger(CGWorkloadExporter.APPNAME+"/unused-table-remover");
     private double minimumThreshold = 0.0001;
     private String name;
+    private boolean active;
+    private final Queue<CqlTable> unused = new ConcurrentLinkedQueue<>();
 
     @Override
-    public CqlModel apply(CqlModel model) {
-        if (!model.hasStats()) {
+    public CqlModel prepare(CqlModel model) {
+        this.active = model.hasStats();
+        this.unused.clear();
+        if (!active) {
             logger.warn("Unused table remover is not active since there are no stats provided.");
-            return model;
         }
+        return model;
+    }
 
-        List<CqlTable> tableDefs = model.getTableDefs();
+    @Override
+    public void transformTable(CqlTable table) {
+        if (!active || table.getTableAttributes() == null) {
+            return;
+        }
+        String weightedOpsSpec = table.getTableAttributes().getAttribute("weighted_ops");
+        double weightedOps = Double.parseDouble(weightedOpsSpec);
+        if (weightedOps < minimumThreshold) {
+            logger.info(() -> String.format(
+                "removing table " + table.getKeyspace().getName() + "." + table.getName() + " with minimum weighted_ops of %1.5f under %1.5f",
+                weightedOps, minimumThreshold)
+            );
+            unused.add(table);
+        }
+    }
 
-        for (CqlTable table : tableDefs) {
-            String weightedOpsSpec = table.getTableAttributes().getAttribute("weighted_ops");
-            double weightedOps = Double.parseDouble(weightedOpsSpec);
-            if (weightedOps < minimumThreshold) {
-                logger.info(() -> String.format(
-                    "removing table " + table.getKeyspace().getName() + "." + table.getName() + " with minimum weighted_ops of %1.5f under %1.5f",
-                    weightedOps, minimumThreshold)
-                );
-                table.getKeyspace().removeTable(table);
-            }
+    @Override
+    public CqlModel finish(CqlModel model) {
+        for (CqlTable table : unused) {
+            table.getKeyspace().removeTable(table);
         }
+        unused.clear();
         return model;
     }
 
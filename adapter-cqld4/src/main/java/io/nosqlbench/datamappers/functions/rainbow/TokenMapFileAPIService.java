@@ -92,8 +92,9 @@ public class TokenMapFileAPIService {
     public void next(int position) {
 
         if (loopdata) {
-            position = (position % recordCount) * RECORD_LEN;
+            position = position % recordCount;
         }
+        position = position * RECORD_LEN;
         token = buffer.getLong(position+TOKEN_OFFSET);
         cycle = buffer.getLong(position+CYCLE_OFFSET);
     }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.datamappers.functions.rainbow;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3TokenFactory;
+import io.nosqlbench.api.apps.BundledApp;
+import io.nosqlbench.nb.annotations.Service;
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import io.nosqlbench.virtdata.core.bindings.VirtData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Creates a token map file for a range of cycles, for use with the rainbow op type and the
+ * TokenMapFile* binding functions. The key binding is applied to each cycle, the result is encoded
+ * with the default CQL codec for its type, and hashed with the partitioner. The (token, cycle) pairs
+ * are then sorted by token and written as pairs of big-endian longs.</p>
+ *
+ * <p>Only the Murmur3 partitioner is supported, since it is the only one with long tokens. A mapped
+ * file can hold at most {@code 2^27} records, which is 2GB.</p>
+ */
+@Service(value = BundledApp.class, selector = "token-map-file")
+@CommandLine.Command(name = "token-map-file", description = "Create a token map file for the cqld4 rainbow op type")
+public class TokenMapFileGenerator implements BundledApp {
+    private final static Logger logger = LogManager.getLogger(TokenMapFileGenerator.class);
+    private final static int RECORD_LEN = Long.BYTES * 2;
+
+    @CommandLine.Option(names = {"-o", "--output"}, required = true, description = "The token map file to write")
+    String output;
+
+    @CommandLine.Option(names = {"-k", "--key"}, defaultValue = "Identity()", description = "The binding recipe for the partition key, as used in the workload")
+    String keyBinding;
+
+    @CommandLine.Option(names = {"--cycles"}, required = true, description = "The cycle range, as <end> or <start>..<end>")
+    String cycles;
+
+    @CommandLine.Option(names = {"--partitioner"}, defaultValue = "murmur3", description = "The partitioner, only murmur3 is supported")
+    String partitioner;
+
+    public static void main(String[] args) {
+        System.exit(new TokenMapFileGenerator().applyAsInt(args));
+    }
+
+    @Override
+    public int applyAsInt(String[] args) {
+        new CommandLine(this).parseArgs(args);
+        if (!partitioner.equalsIgnoreCase("murmur3") && !partitioner.equals("Murmur3Partitioner")) {
+            throw new RuntimeException("Only the murmur3 partitioner is supported, not '" + partitioner + "'");
+        }
+        long start = 0L;
+        long end;
+        if (cycles.contains("..")) {
+            String[] parts = cycles.split("\\.\\.");
+            start = Long.parseLong(parts[0]);
+            end = Long.parseLong(parts[1]);
+        } else {
+            end = Long.parseLong(cycles);
+        }
+        if (end - start <= 0 || end - start > Integer.MAX_VALUE / RECORD_LEN) {
+            throw new RuntimeException("The cycle range " + cycles + " must be non-empty and contain no more than " + (Integer.MAX_VALUE / RECORD_LEN) + " cycles.");
+        }
+
+        ThreadLocal<DataMapper<Object>> keyMappers = ThreadLocal.withInitial(() -> VirtData.getMapper(keyBinding));
+        long[][] pairs = generate(keyMappers, start, (int) (end - start));
+        write(Path.of(output), pairs[0], pairs[1]);
+        logger.info(() -> "wrote " + pairs[0].length + " token map records to " + output);
+        return 0;
+    }
+
+    /**
+     * Keys are generated in parallel. Mappers are not guaranteed to be thread-safe, so each worker
+     * thread uses its own, as each motor thread does in an activity.
+     * @return tokens and cycles, sorted by token
+     */
+    public static long[][] generate(ThreadLocal<DataMapper<Object>> keyMappers, long start, int count) {
+        Murmur3TokenFactory tokenFactory = new Murmur3TokenFactory();
+        long[] tokens = new long[count];
+        long[] cycles = new long[count];
+        IntStream.range(0, count).parallel().forEach(i -> {
+            long cycle = start + i;
+            Object key = keyMappers.get().get(cycle);
+            ByteBuffer encoded = CodecRegistry.DEFAULT.codecFor(key).encode(key, ProtocolVersion.DEFAULT);
+            tokens[i] = ((Murmur3Token) tokenFactory.hash(encoded)).getValue();
+            cycles[i] = cycle;
+        });
+        sort(tokens, cycles);
+        return new long[][]{tokens, cycles};
+    }
+
+    /**
+     * An LSD radix sort of the tokens, carrying the cycles along. The sign bit is flipped so that
+     * signed tokens sort in ascending order.
+     */
+    static void sort(long[] tokens, long[] cycles) {
+        int n = tokens.length;
+        long[] keyBuf = new long[n];
+        long[] valBuf = new long[n];
+        long[] keys = tokens;
+        long[] vals = cycles;
+        int[] counts = new int[257];
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[digit(keys[i], shift) + 1]++;
+            }
+            for (int d = 0; d < 256; d++) {
+                counts[d + 1] += counts[d];
+            }
+            for (int i = 0; i < n; i++) {
+                int at = counts[digit(keys[i], shift)]++;
+                keyBuf[at] = keys[i];
+                valBuf[at] = vals[i];
+            }
+            long[] swap = keys;
+            keys = keyBuf;
+            keyBuf = swap;
+            swap = vals;
+            vals = valBuf;
+            valBuf = swap;
+        }
+        // after an even number of passes, the sorted data is back in the original arrays
+    }
+
+    private static int digit(long token, int shift) {
+        return (int) (((token ^ Long.MIN_VALUE) >>> shift) & 0xFF);
+    }
+
+    private static void write(Path path, long[] tokens, long[] cycles) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(RECORD_LEN * 65536);
+            for (int i = 0; i < tokens.length; i++) {
+                buf.putLong(tokens[i]).putLong(cycles[i]);
+                if (!buf.hasRemaining()) {
+                    flush(channel, buf);
+                }
+            }
+            flush(channel, buf);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write token map file " + path + ": " + e, e);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.SlidingWindowReservoir;
+import com.codahale.metrics.Timer;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class Cqld4AsyncPagingTest {
+
+    private final Timer pageLatency = new Timer();
+    private final Histogram pageRows = new Histogram(new SlidingWindowReservoir(100));
+    private final Histogram pageBytes = new Histogram(new SlidingWindowReservoir(100));
+    private final Cqld4AsyncPaging paging = new Cqld4AsyncPaging(pageLatency, pageRows, pageBytes);
+
+    /**
+     * Build a chain of mocked pages, each with the given number of rows and 100 bytes per row.
+     */
+    private List<AsyncResultSet> pages(int... rowsPerPage) {
+        List<AsyncResultSet> pages = new ArrayList<>();
+        for (int rows : rowsPerPage) {
+            AsyncResultSet page = mock(AsyncResultSet.class);
+            ExecutionInfo info = mock(ExecutionInfo.class);
+            when(info.getResponseSizeInBytes()).thenReturn(rows * 100);
+            when(page.getExecutionInfo()).thenReturn(info);
+            when(page.currentPage()).thenReturn(Collections.nCopies(rows, mock(Row.class)));
+            when(page.wasApplied()).thenReturn(true);
+            pages.add(page);
+        }
+        for (int i = 0; i < pages.size(); i++) {
+            boolean more = i + 1 < pages.size();
+            when(pages.get(i).hasMorePages()).thenReturn(more);
+            if (more) {
+                when(pages.get(i).fetchNextPage()).thenReturn(CompletableFuture.completedFuture(pages.get(i + 1)));
+            }
+        }
+        return pages;
+    }
+
+    @Test
+    public void testReadsAllPagesWithinLimit() {
+        List<AsyncResultSet> pages = pages(3, 3, 2);
+        AtomicInteger consumed = new AtomicInteger();
+        Cqld4PagedResultSet result = paging.readPages(pages.get(0), new Cqld4PagedResultSet(pages.get(0)), 10, r -> consumed.incrementAndGet());
+
+        assertThat(result.isFullyFetched()).isTrue();
+        assertThat(result.getPages()).isEqualTo(3);
+        assertThat(result.getRows()).isEqualTo(8);
+        assertThat(consumed.get()).isEqualTo(8);
+        assertThat(result.getResponseBytes()).isEqualTo(800);
+        assertThat(result.getExecutionInfos()).hasSize(3);
+        assertThat(pageRows.getCount()).isEqualTo(3);
+        assertThat(pageBytes.getCount()).isEqualTo(2);
+        assertThat(pageLatency.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testReadsExactlyMaxPages() {
+        List<AsyncResultSet> pages = pages(2, 2, 2);
+        Cqld4PagedResultSet result = paging.readPages(pages.get(0), new Cqld4PagedResultSet(pages.get(0)), 3, r -> {});
+
+        assertThat(result.isFullyFetched()).isTrue();
+        assertThat(result.getPages()).isEqualTo(3);
+        assertThat(result.getRows()).isEqualTo(6);
+    }
+
+    @Test
+    public void testStopsAtMaxPagesWhenMorePagesRemain() {
+        List<AsyncResultSet> pages = pages(2, 2, 2, 2);
+        Cqld4PagedResultSet result = paging.readPages(pages.get(0), new Cqld4PagedResultSet(pages.get(0)), 2, r -> {});
+
+        assertThat(result.isFullyFetched()).isFalse();
+        assertThat(result.getPages()).isEqualTo(2);
+        assertThat(result.getRows()).isEqualTo(4);
+        verify(pages.get(1), never()).fetchNextPage();
+    }
+
+    @Test
+    public void testSinglePageLimit() {
+        List<AsyncResultSet> pages = pages(5, 5);
+        Cqld4PagedResultSet result = paging.readPages(pages.get(0), new Cqld4PagedResultSet(pages.get(0)), 1, r -> {});
+
+        assertThat(result.isFullyFetched()).isFalse();
+        assertThat(result.getPages()).isEqualTo(1);
+        verify(pages.get(0), never()).fetchNextPage();
+    }
+
+    @Test
+    public void testPageLimitRule() {
+        assertThat(Cqld4AsyncPaging.atPageLimit(0, 1)).isFalse();
+        assertThat(Cqld4AsyncPaging.atPageLimit(1, 1)).isTrue();
+        assertThat(Cqld4AsyncPaging.atPageLimit(2, 3)).isFalse();
+        assertThat(Cqld4AsyncPaging.atPageLimit(3, 3)).isTrue();
+    }
+
+    @Test
+    public void testAwaitUnwrapsFailure() {
+        IllegalStateException cause = new IllegalStateException("page failed");
+        CompletableFuture<AsyncResultSet> failed = CompletableFuture.failedFuture(cause);
+        assertThatThrownBy(() -> Cqld4AsyncPaging.await(failed)).isSameAs(cause);
+    }
+}
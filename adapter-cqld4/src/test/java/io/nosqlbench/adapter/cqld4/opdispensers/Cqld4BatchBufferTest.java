@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class Cqld4BatchBufferTest {
+
+    private static final long NO_AGE_LIMIT = Long.MAX_VALUE;
+
+    private BoundStatement stmt() {
+        return mock(BoundStatement.class);
+    }
+
+    @Test
+    public void testGroupsAreKeptApart() {
+        Cqld4BatchBuffer buffer = new Cqld4BatchBuffer(3, NO_AGE_LIMIT, 100);
+        BoundStatement a1 = stmt(), b1 = stmt(), a2 = stmt(), b2 = stmt(), a3 = stmt();
+
+        assertThat(buffer.add("a", a1, 0)).isNull();
+        assertThat(buffer.add("b", b1, 0)).isNull();
+        assertThat(buffer.add("a", a2, 0)).isNull();
+        assertThat(buffer.add("b", b2, 0)).isNull();
+        assertThat(buffer.add("a", a3, 0)).containsExactly(a1, a2, a3);
+
+        List<List<BatchableStatement<?>>> pending = buffer.drain();
+        assertThat(pending).hasSize(1);
+        assertThat(pending.get(0)).containsExactly(b1, b2);
+    }
+
+    @Test
+    public void testFlushOnSize() {
+        Cqld4BatchBuffer buffer = new Cqld4BatchBuffer(2, NO_AGE_LIMIT, 100);
+        assertThat(buffer.add("k", stmt(), 0)).isNull();
+        assertThat(buffer.getFlushedRows()).isEqualTo(0);
+        assertThat(buffer.add("k", stmt(), 0)).hasSize(2);
+        assertThat(buffer.getFlushedRows()).isEqualTo(2);
+        assertThat(buffer.add("k", stmt(), 0)).isNull();
+        assertThat(buffer.getFlushedRows()).isEqualTo(0);
+    }
+
+    @Test
+    public void testFlushOldestOnAge() {
+        Cqld4BatchBuffer buffer = new Cqld4BatchBuffer(10, 100, 100);
+        BoundStatement old = stmt();
+        assertThat(buffer.add("old", old, 0)).isNull();
+        assertThat(buffer.add("new", stmt(), 50)).isNull();
+        assertThat(buffer.add("new", stmt(), 101)).containsExactly(old);
+        assertThat(buffer.drain()).hasSize(1);
+    }
+
+    @Test
+    public void testFlushOldestOnBufferOverflow() {
+        Cqld4BatchBuffer buffer = new Cqld4BatchBuffer(3, NO_AGE_LIMIT, 3);
+        BoundStatement first = stmt();
+        assertThat(buffer.add("a", first, 0)).isNull();
+        assertThat(buffer.add("b", stmt(), 0)).isNull();
+        assertThat(buffer.add("c", stmt(), 0)).isNull();
+        assertThat(buffer.add("d", stmt(), 0)).containsExactly(first);
+    }
+
+    @Test
+    public void testSkipClearsFlushedRows() {
+        Cqld4BatchBuffer buffer = new Cqld4BatchBuffer(2, NO_AGE_LIMIT, 100);
+        buffer.add("k", stmt(), 0);
+        buffer.add("k", stmt(), 0);
+        assertThat(buffer.getFlushedRows()).isEqualTo(2);
+        buffer.skip();
+        assertThat(buffer.getFlushedRows()).isEqualTo(0);
+    }
+
+    @Test
+    public void testDrainCollectsPendingGroupsOfAllThreads() throws InterruptedException {
+        Cqld4BatchBuffer buffer = new Cqld4BatchBuffer(100, NO_AGE_LIMIT, 1000);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10; i++) {
+                    buffer.add("k" + (i % 2), stmt(), 0);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<List<BatchableStatement<?>>> pending = buffer.drain();
+        assertThat(pending).hasSize(8);
+        assertThat(pending.stream().mapToInt(List::size).sum()).isEqualTo(40);
+        assertThat(buffer.drain()).isEmpty();
+    }
+}
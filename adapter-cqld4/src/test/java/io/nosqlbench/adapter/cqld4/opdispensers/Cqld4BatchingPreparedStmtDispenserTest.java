@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import io.nosqlbench.adapter.cqld4.opdispensers.Cqld4BatchingPreparedStmtDispenser.GroupBy;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class Cqld4BatchingPreparedStmtDispenserTest {
+
+    @Test
+    public void testKeylessStatementHasNoGroup() {
+        BoundStatement bound = mock(BoundStatement.class);
+        TokenMap tokenMap = mock(TokenMap.class);
+        assertThat(Cqld4BatchingPreparedStmtDispenser.groupKey(bound, Optional.of(tokenMap), GroupBy.partition)).isNull();
+        assertThat(Cqld4BatchingPreparedStmtDispenser.groupKey(bound, Optional.of(tokenMap), GroupBy.replica)).isNull();
+        assertThat(Cqld4BatchingPreparedStmtDispenser.groupKey(bound, Optional.empty(), GroupBy.partition)).isNull();
+    }
+
+    @Test
+    public void testRoutingKeyWithoutTokenMap() {
+        BoundStatement bound = mock(BoundStatement.class);
+        ByteBuffer key = ByteBuffer.wrap(new byte[]{1, 2, 3});
+        when(bound.getRoutingKey()).thenReturn(key);
+        assertThat(Cqld4BatchingPreparedStmtDispenser.groupKey(bound, Optional.empty(), GroupBy.replica)).isEqualTo(key);
+    }
+
+    @Test
+    public void testPartitionGroupIsToken() {
+        BoundStatement bound = mock(BoundStatement.class);
+        ByteBuffer key = ByteBuffer.wrap(new byte[]{1, 2, 3});
+        Token token = mock(Token.class);
+        TokenMap tokenMap = mock(TokenMap.class);
+        when(bound.getRoutingKey()).thenReturn(key);
+        when(tokenMap.newToken(key)).thenReturn(token);
+        assertThat(Cqld4BatchingPreparedStmtDispenser.groupKey(bound, Optional.of(tokenMap), GroupBy.partition)).isSameAs(token);
+    }
+
+    @Test
+    public void testReplicaGroupIsReplicaSet() {
+        BoundStatement bound = mock(BoundStatement.class);
+        Token token = mock(Token.class);
+        CqlIdentifier keyspace = CqlIdentifier.fromInternal("ks");
+        Set<Node> replicas = Set.of(mock(Node.class), mock(Node.class));
+        TokenMap tokenMap = mock(TokenMap.class);
+        when(bound.getRoutingToken()).thenReturn(token);
+        when(bound.getRoutingKeyspace()).thenReturn(keyspace);
+        when(tokenMap.getReplicas(keyspace, token)).thenReturn(replicas);
+        assertThat(Cqld4BatchingPreparedStmtDispenser.groupKey(bound, Optional.of(tokenMap), GroupBy.replica)).isSameAs(replicas);
+    }
+}
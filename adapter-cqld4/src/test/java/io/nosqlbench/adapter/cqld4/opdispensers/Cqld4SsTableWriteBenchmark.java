@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rows/s of the sst op type's writer, with one shard per benchmark thread as in an
+ * activity. Each row is about 1KB, so ops/s x 1KB approximates MB/s. The final flush of each shard
+ * happens in the trial teardown, and is not included. Run {@link #main(String[])} from the IDE.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class Cqld4SsTableWriteBenchmark {
+
+    private final static String SCHEMA = "create table ks.kv (key bigint, value text, primary key (key))";
+    private final static String INSERT = "insert into ks.kv (key, value) values (?, ?)";
+    private final static String VALUE = "v".repeat(1000);
+
+    @State(Scope.Thread)
+    public static class ShardState {
+
+        @Param({"16", "128"})
+        public int bufferMB;
+
+        private Path directory;
+        private Cqld4SsTableWriterShard shard;
+        private long key;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            directory = Files.createTempDirectory("sstable-bench");
+            shard = new Cqld4SsTableWriterShard(directory, SCHEMA, INSERT, bufferMB);
+        }
+
+        @TearDown(Level.Trial)
+        public void teardown() throws IOException {
+            shard.close();
+            try (var files = Files.walk(directory)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void writeRowOneThread(ShardState state) {
+        state.shard.addRow(new Object[]{state.key++, VALUE});
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void writeRowFourThreads(ShardState state) {
+        state.shard.addRow(new Object[]{state.key++, VALUE});
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(Cqld4SsTableWriteBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
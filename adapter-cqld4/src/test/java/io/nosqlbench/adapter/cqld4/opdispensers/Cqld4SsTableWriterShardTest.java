@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.cqld4.opdispensers;
+
+import org.apache.cassandra.cql3.ColumnIdentifier;
+import org.apache.cassandra.cql3.statements.schema.CreateTableStatement;
+import org.apache.cassandra.db.DecoratedKey;
+import org.apache.cassandra.db.marshal.Int32Type;
+import org.apache.cassandra.db.marshal.UTF8Type;
+import org.apache.cassandra.db.rows.Cell;
+import org.apache.cassandra.db.rows.Row;
+import org.apache.cassandra.db.rows.UnfilteredRowIterator;
+import org.apache.cassandra.dht.Murmur3Partitioner;
+import org.apache.cassandra.dht.Token;
+import org.apache.cassandra.io.sstable.Descriptor;
+import org.apache.cassandra.io.sstable.ISSTableScanner;
+import org.apache.cassandra.io.sstable.format.SSTableReader;
+import org.apache.cassandra.schema.ColumnMetadata;
+import org.apache.cassandra.schema.TableMetadata;
+import org.apache.cassandra.schema.TableMetadataRef;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Cqld4SsTableWriterShardTest {
+
+    private final static String SCHEMA = "create table ks.kv (key int, value text, primary key (key))";
+    private final static String INSERT = "insert into ks.kv (key, value) values (?, ?)";
+
+    @Test
+    public void testWriteShardsAndReadBack(@TempDir Path dir) throws IOException {
+        Cqld4SsTableWriterShard shard0 = new Cqld4SsTableWriterShard(dir.resolve("shard-0"), SCHEMA, INSERT, 1);
+        Cqld4SsTableWriterShard shard1 = new Cqld4SsTableWriterShard(dir.resolve("shard-1"), SCHEMA, INSERT, 1);
+        for (int i = 0; i < 1000; i++) {
+            (i % 2 == 0 ? shard0 : shard1).addRow(new Object[]{i, "value-" + i});
+        }
+        shard0.close();
+        shard1.close();
+        assertThat(shard0.getRows()).isEqualTo(500);
+        assertThat(shard1.getRows()).isEqualTo(500);
+
+        List<Path> dataFiles = dataFiles(dir);
+        assertThat(dataFiles).extracting(p -> p.getParent().getFileName().toString())
+            .contains("shard-0", "shard-1");
+
+        TableMetadata metadata = CreateTableStatement.parse(SCHEMA, "ks")
+            .partitioner(Murmur3Partitioner.instance)
+            .build();
+        Map<Integer, String> values = new HashMap<>();
+        for (Path dataFile : dataFiles) {
+            values.putAll(read(dataFile, metadata));
+        }
+        assertThat(values).hasSize(1000);
+        assertThat(values.get(0)).isEqualTo("value-0");
+        assertThat(values.get(777)).isEqualTo("value-777");
+    }
+
+    private static List<Path> dataFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith("-Data.db")).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Read all rows of one SSTable, checking that its partitions are in token order.
+     */
+    private static Map<Integer, String> read(Path dataFile, TableMetadata metadata) {
+        ColumnMetadata valueColumn = metadata.getColumn(ColumnIdentifier.getInterned("value", false));
+        Map<Integer, String> values = new HashMap<>();
+        SSTableReader reader = SSTableReader.openNoValidation(
+            Descriptor.fromFilename(dataFile.toString()), TableMetadataRef.forOfflineTools(metadata));
+        try (ISSTableScanner scanner = reader.getScanner()) {
+            Token previous = null;
+            while (scanner.hasNext()) {
+                try (UnfilteredRowIterator partition = scanner.next()) {
+                    DecoratedKey key = partition.partitionKey();
+                    if (previous != null) {
+                        assertThat(key.getToken().compareTo(previous)).isPositive();
+                    }
+                    previous = key.getToken();
+                    while (partition.hasNext()) {
+                        Cell<?> cell = ((Row) partition.next()).getCell(valueColumn);
+                        values.put(Int32Type.instance.compose(key.getKey()), UTF8Type.instance.compose(cell.buffer()));
+                    }
+                }
+            }
+        } finally {
+            reader.selfRef().release();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.cqlgen.core;
+
+import io.nosqlbench.cqlgen.model.CqlKeyspaceDef;
+import io.nosqlbench.cqlgen.model.CqlTable;
+import io.nosqlbench.cqlgen.transformers.ComputedTableStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class CGTableSharderTest {
+
+    private List<CqlTable> tables(double... weights) {
+        CqlKeyspaceDef ks = new CqlKeyspaceDef("ks");
+        List<CqlTable> tables = new ArrayList<>();
+        for (int i = 0; i < weights.length; i++) {
+            CqlTable table = new CqlTable();
+            table.setName("t" + i);
+            ks.addTable(table);
+            table.setComputedStats(new ComputedTableStats().setOpShareOfTotalOps(weights[i]));
+            tables.add(table);
+        }
+        return tables;
+    }
+
+    @Test
+    public void testBalancedByOpShare() {
+        List<CqlTable> tables = tables(0.40, 0.05, 0.20, 0.05, 0.10, 0.10, 0.05, 0.05);
+        List<List<CqlTable>> shards = new CGTableSharder(2, 0).shard(tables, CGTableSharder::opShareOf);
+        assertThat(shards).hasSize(2);
+        for (List<CqlTable> shard : shards) {
+            assertThat(shard.stream().mapToDouble(CGTableSharder::opShareOf).sum()).isCloseTo(0.5d, offset(0.0001d));
+        }
+        assertThat(shards.get(0).get(0).getName()).isEqualTo("t0");
+        assertThat(shards.stream().mapToInt(List::size).sum()).isEqualTo(tables.size());
+    }
+
+    @Test
+    public void testMaxTablesPerShard() {
+        List<CqlTable> tables = tables(0.9, 0.01, 0.01, 0.01, 0.01, 0.01, 0.01, 0.01, 0.01, 0.01);
+        CGTableSharder sharder = new CGTableSharder(1, 3);
+        assertThat(sharder.shardCountFor(tables.size())).isEqualTo(4);
+        List<List<CqlTable>> shards = sharder.shard(tables, CGTableSharder::opShareOf);
+        assertThat(shards).hasSize(4);
+        assertThat(shards).allSatisfy(shard -> assertThat(shard.size()).isLessThanOrEqualTo(3));
+        assertThat(shards.stream().mapToInt(List::size).sum()).isEqualTo(tables.size());
+    }
+
+    @Test
+    public void testSingleShardKeepsSchemaOrder() {
+        List<CqlTable> tables = tables(0.1, 0.5, 0.4);
+        List<List<CqlTable>> shards = new CGTableSharder(1, 0).shard(tables, CGTableSharder::opShareOf);
+        assertThat(shards).hasSize(1);
+        assertThat(shards.get(0)).containsExactlyElementsOf(tables);
+    }
+
+    @Test
+    public void testApportionCyclesByWeight() {
+        long[] cycles = CGTableSharder.apportion(10000L, new double[]{0.5d, 0.3d, 0.2d});
+        assertThat(cycles).containsExactly(5000L, 3000L, 2000L);
+
+        long[] uneven = CGTableSharder.apportion(10L, new double[]{1.0d, 1.0d, 1.0d});
+        assertThat(uneven).containsExactly(4L, 3L, 3L);
+
+        long[] tiny = CGTableSharder.apportion(100L, new double[]{0.999d, 0.0005d, 0.0005d});
+        assertThat(tiny).allSatisfy(c -> assertThat(c).isGreaterThanOrEqualTo(1L));
+        assertThat(tiny[0] + tiny[1] + tiny[2]).isEqualTo(100L);
+
+        long[] unweighted = CGTableSharder.apportion(9L, new double[]{0.0d, 0.0d, 0.0d});
+        assertThat(unweighted).containsExactly(3L, 3L, 3L);
+    }
+}
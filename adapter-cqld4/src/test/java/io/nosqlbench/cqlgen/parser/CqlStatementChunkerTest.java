@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.cqlgen.parser;
+
+import io.nosqlbench.cqlgen.model.CqlModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CqlStatementChunkerTest {
+
+    private final static String DDL = """
+        CREATE KEYSPACE ks1 WITH replication = {'class': 'SimpleStrategy', 'replication_factor': '1'};
+        -- a comment with a semicolon; in it
+        CREATE TYPE ks1.addr (
+            street text,
+            city text
+        );
+        /* a block comment;
+           over two lines */
+        CREATE TABLE ks1.t1 (
+            id int PRIMARY KEY,
+            val text
+        ) WITH comment = 'semi;colon';
+        CREATE TABLE ks1.t2 (
+            id int,
+            ts timestamp,
+            PRIMARY KEY (id, ts)
+        );
+        CREATE KEYSPACE ks2 WITH replication = {'class': 'SimpleStrategy', 'replication_factor': '1'};
+        CREATE TABLE ks2.t3 (
+            id int PRIMARY KEY
+        ) WITH comment = 'it\\'s';
+        """;
+
+    @Test
+    public void testStatementBoundaries() {
+        List<CqlStatementChunker.Chunk> chunks = new ArrayList<>();
+        try (CqlStatementChunker chunker = new CqlStatementChunker(new StringReader(DDL), 1)) {
+            chunker.forEachRemaining(chunks::add);
+        }
+        assertThat(chunks).hasSize(6);
+        assertThat(chunks.get(1).text()).contains("CREATE TYPE ks1.addr");
+        assertThat(chunks.get(2).text()).contains("'semi;colon';");
+        assertThat(chunks.get(5).text()).contains("it\\'s';");
+        assertThat(chunks.get(0).startLine()).isEqualTo(1);
+        assertThat(chunks.get(1).startLine()).isEqualTo(1);
+        assertThat(chunks.get(2).startLine()).isEqualTo(6);
+        assertThat(String.join("", chunks.stream().map(CqlStatementChunker.Chunk::text).toList())).isEqualTo(DDL.stripTrailing());
+    }
+
+    @Test
+    public void testQuotedIdentifiers() {
+        try (CqlStatementChunker chunker = new CqlStatementChunker(new StringReader("select \"a;b\" from t; select $$x;y$$;"), 1)) {
+            assertThat(chunker.next().text()).isEqualTo("select \"a;b\" from t;");
+            assertThat(chunker.next().text()).isEqualTo(" select $$x;y$$;");
+            assertThat(chunker.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    public void testGroupedChunksAndTrailingStatement() {
+        List<CqlStatementChunker.Chunk> chunks = new ArrayList<>();
+        try (CqlStatementChunker chunker = new CqlStatementChunker(new StringReader(DDL + "DROP TABLE ks1.t1"), 4)) {
+            chunker.forEachRemaining(chunks::add);
+        }
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0).statements()).isEqualTo(4);
+        assertThat(chunks.get(1).statements()).isEqualTo(3);
+    }
+
+    @Test
+    public void testStreamingParseMatchesWholeParse() throws IOException {
+        Path ddlfile = Files.createTempFile("cqlgen", ".cql");
+        Files.writeString(ddlfile, DDL);
+        CqlModel whole = CqlModelParser.parse(ddlfile);
+        CqlModel streamed = CqlModelParser.parseStreaming(ddlfile, 3, 1);
+        assertThat(streamed.getSummaryLine()).isEqualTo(whole.getSummaryLine());
+        assertThat(streamed.getTableDefs().stream().map(t -> t.getFullName()).toList())
+            .containsExactlyInAnyOrderElementsOf(whole.getTableDefs().stream().map(t -> t.getFullName()).toList());
+        assertThat(streamed.getReferenceErrors()).isEmpty();
+        Files.delete(ddlfile);
+    }
+}
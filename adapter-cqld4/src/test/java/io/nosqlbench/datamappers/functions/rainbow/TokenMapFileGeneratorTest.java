@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.datamappers.functions.rainbow;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenMapFileGeneratorTest {
+
+    @Test
+    public void testSortKeepsPairsTogether() {
+        Random random = new Random(42);
+        int count = 10000;
+        long[] tokens = new long[count];
+        long[] cycles = new long[count];
+        for (int i = 0; i < count; i++) {
+            tokens[i] = random.nextLong();
+            cycles[i] = i;
+        }
+        long[] original = tokens.clone();
+
+        TokenMapFileGenerator.sort(tokens, cycles);
+
+        for (int i = 1; i < count; i++) {
+            assertThat(tokens[i]).isGreaterThanOrEqualTo(tokens[i - 1]);
+        }
+        for (int i = 0; i < count; i++) {
+            assertThat(original[(int) cycles[i]]).isEqualTo(tokens[i]);
+        }
+        assertThat(tokens[0]).isNegative();
+        assertThat(tokens[count - 1]).isPositive();
+    }
+
+    @Test
+    public void testGenerateUsesOneMapperPerThread() {
+        Set<Thread> owners = ConcurrentHashMap.newKeySet();
+        ThreadLocal<DataMapper<Object>> keyMappers = ThreadLocal.withInitial(() -> {
+            Thread owner = Thread.currentThread();
+            assertThat(owners.add(owner)).isTrue();
+            return cycle -> {
+                assertThat(Thread.currentThread()).isSameAs(owner);
+                return "key-" + cycle;
+            };
+        });
+
+        long[][] pairs = TokenMapFileGenerator.generate(keyMappers, 100L, 50000);
+        long[][] again = TokenMapFileGenerator.generate(keyMappers, 100L, 50000);
+
+        assertThat(pairs[0]).isSorted();
+        assertThat(pairs[1]).containsExactly(again[1]);
+        assertThat(pairs[0]).containsExactly(again[0]);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.diag.optasks;
+
+import io.nosqlbench.api.config.standard.ConfigModel;
+import io.nosqlbench.api.config.standard.NBConfigModel;
+import io.nosqlbench.api.config.standard.NBConfiguration;
+import io.nosqlbench.api.config.standard.Param;
+import io.nosqlbench.engine.api.simtarget.SimResponse;
+import io.nosqlbench.engine.api.simtarget.SimTargetSpec;
+import io.nosqlbench.engine.api.simtarget.SimulatedTarget;
+import io.nosqlbench.nb.annotations.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Make a blocking request to a {@link SimulatedTarget} with the cycle as the key. Requests which
+ * are rejected or which fail throw an error, so that they are handled like any other op error.
+ * All tasks which use the same target name share the same target.
+ */
+@Service(value = DiagTask.class, selector = "simtarget")
+public class DiagTask_simtarget implements DiagTask {
+
+    private String name;
+    private SimulatedTarget target;
+
+    @Override
+    public void applyConfig(NBConfiguration cfg) {
+        this.name = cfg.get("name", String.class);
+        this.target = SimulatedTarget.getOrCreate(new SimTargetSpec(
+            cfg.get("target", String.class),
+            cfg.get("workers", Integer.class),
+            cfg.get("queue", Integer.class),
+            cfg.get("servicetime", String.class),
+            cfg.get("errors", Double.class),
+            SimTargetSpec.Shed.valueOf(cfg.get("shed", String.class))
+        ));
+    }
+
+    @Override
+    public NBConfigModel getConfigModel() {
+        return ConfigModel.of(DiagTask_simtarget.class)
+            .add(Param.required("name", String.class))
+            .add(Param.defaultTo("target", "default"))
+            .add(Param.defaultTo("workers", 8))
+            .add(Param.defaultTo("queue", 64))
+            .add(Param.defaultTo("servicetime", SimTargetSpec.DEFAULT_SERVICETIME))
+            .add(Param.defaultTo("errors", 0.0d))
+            .add(Param.defaultTo("shed", "reject"))
+            .asReadOnly();
+    }
+
+    @Override
+    public Map<String, Object> apply(Long cycle, Map<String, Object> opstate) {
+        SimResponse response = target.call(cycle);
+        Map<String, Object> state = new HashMap<>(opstate);
+        state.put("queue_nanos", response.queueNanos());
+        state.put("service_nanos", response.serviceNanos());
+        return state;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
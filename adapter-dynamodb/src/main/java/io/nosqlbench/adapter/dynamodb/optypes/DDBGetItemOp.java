@@ -20,6 +20,7 @@ import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.Table;
 import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpPayloadSize;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpResultSize;
 
 /**
@@ -30,6 +31,7 @@ public class DDBGetItemOp extends DynamoDBOp implements OpResultSize {
     private final Table table;
     private final GetItemSpec getItemSpec;
     private long resultSize=0;
+    private Item item;
 
     public DDBGetItemOp(DynamoDB ddb, Table table, GetItemSpec getItemSpec) {
         super(ddb);
@@ -40,6 +42,7 @@ public class DDBGetItemOp extends DynamoDBOp implements OpResultSize {
     @Override
     public Item apply(long value) {
         Item result = table.getItem(getItemSpec);
+        this.item = result;
         if (result!=null) {
             resultSize=result.numberOfAttributes();
         }
@@ -50,4 +53,12 @@ public class DDBGetItemOp extends DynamoDBOp implements OpResultSize {
     public long getResultSize() {
         return resultSize;
     }
+
+    /**
+     * The size of the returned item in its JSON form, which is how it is received from DynamoDB.
+     */
+    @Override
+    public long getResponseBytes() {
+        return item == null ? 0L : OpPayloadSize.utf8Length(item.toJSON());
+    }
 }
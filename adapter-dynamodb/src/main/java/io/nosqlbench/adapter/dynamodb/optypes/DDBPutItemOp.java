@@ -19,6 +19,7 @@ package io.nosqlbench.adapter.dynamodb.optypes;
 import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.PutItemOutcome;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpPayloadSize;
 
 public class DDBPutItemOp extends DynamoDBOp {
     private final String tablename;
@@ -35,4 +36,12 @@ public class DDBPutItemOp extends DynamoDBOp {
         PutItemOutcome outcome = ddb.getTable(tablename).putItem(item);
         return outcome;
     }
+
+    /**
+     * The size of the item in its JSON form, which is how it is sent to DynamoDB.
+     */
+    @Override
+    public long getRequestBytes() {
+        return OpPayloadSize.utf8Length(item.toJSON());
+    }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.http.core;
+
+import java.net.http.HttpResponse;
+
+/**
+ * How a response body is received by an {@link HttpOp}. Buffering the whole body as a string
+ * is only needed when the body is to be checked with a regex or shown in diagnostics. The other
+ * modes trade that away for less memory and CPU on large responses.
+ */
+public enum HttpBodyMode {
+    /**
+     * Buffer the whole body as a string. This is the default, and is needed for whole-body
+     * {@code ok-body} checks.
+     */
+    string(HttpResponse.BodyHandlers.ofString()),
+    /**
+     * Read and drop the body without counting it. The response size is taken from the
+     * content-length header when there is one.
+     */
+    discard(HttpResponse.BodyHandlers.discarding()),
+    /**
+     * Read and drop the body, counting the bytes as they arrive.
+     */
+    count((HttpResponse.BodyHandler<Long>) info ->
+        HttpResponse.BodySubscribers.fromSubscriber(new ByteCountingSubscriber(), ByteCountingSubscriber::getBytes)),
+    /**
+     * Hand the body to the op thread as a stream, so that it can be checked incrementally
+     * with {@code ok-body} or {@code ok-json} without keeping it in memory.
+     */
+    stream(HttpResponse.BodyHandlers.ofInputStream());
+
+    private final HttpResponse.BodyHandler<?> handler;
+
+    HttpBodyMode(HttpResponse.BodyHandler<?> handler) {
+        this.handler = handler;
+    }
+
+    public HttpResponse.BodyHandler<?> getHandler() {
+        return handler;
+    }
+
+    /**
+     * @return true if this mode can check the body contents
+     */
+    public boolean canValidate() {
+        return this == string || this == stream;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.http.core;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.Semaphore;
+
+/**
+ * One of the http clients in an {@link HttpSpace}, along with an optional limit on how many
+ * requests may be in flight on it at once. For HTTP/2 this caps the streams which are
+ * multiplexed over the client's connection. For HTTP/1.1 it caps the connections the client
+ * will open, since each in-flight request has a connection to itself.
+ */
+public class HttpClientShard {
+
+    private final int index;
+    private final HttpClient client;
+    private final Semaphore streams;
+
+    public HttpClientShard(int index, HttpClient client, int maxStreams) {
+        this.index = index;
+        this.client = client;
+        this.streams = maxStreams > 0 ? new Semaphore(maxStreams) : null;
+    }
+
+    public HttpClient getClient() {
+        return client;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void acquire() throws InterruptedException {
+        if (streams != null) {
+            streams.acquire();
+        }
+    }
+
+    public void release() {
+        if (streams != null) {
+            streams.release();
+        }
+    }
+}
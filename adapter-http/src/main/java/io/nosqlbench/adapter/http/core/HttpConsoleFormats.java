@@ -149,15 +149,15 @@ public class HttpConsoleFormats {
         this.enabled = Diag.enabledSummary(mask);
     }
 
-    public void summarizeResponseChain(Exception e, HttpResponse<String> lastResponse, PrintStream out, long cycle, long nanos) {
+    public void summarizeResponseChain(Exception e, HttpResponse<?> lastResponse, PrintStream out, long cycle, long nanos) {
         if ((cycle % modulo) != 0) {
             return;
         }
 
         out.println(CYCLE_CUE + "DIAGNOSTICS (cycle " + cycle + ") (filters " + enabled + ")");
 
-        LinkedList<HttpResponse<String>> responses = new LinkedList<>();
-        HttpResponse<String> walking = lastResponse;
+        LinkedList<HttpResponse<?>> responses = new LinkedList<>();
+        HttpResponse<?> walking = lastResponse;
 
         while (lastResponse != null) {
             responses.add(lastResponse);
@@ -165,11 +165,11 @@ public class HttpConsoleFormats {
         }
 
 
-        Iterator<HttpResponse<String>> iter = responses.descendingIterator();
+        Iterator<HttpResponse<?>> iter = responses.descendingIterator();
         int index = 0;
         while (iter.hasNext()) {
             index++;
-            HttpResponse<String> resp = iter.next();
+            HttpResponse<?> resp = iter.next();
             if (Diag.requests.includedIn(mask) && (Diag.redirects.includedIn(mask) || index == 1)) {
                 summarizeRequest("REQUEST [" + index + "]", null, resp.request(), out, cycle, nanos);
             }
@@ -202,7 +202,7 @@ public class HttpConsoleFormats {
 
     }
 
-    public void summarizeResponse(String caption, Exception e, HttpResponse<String> response, PrintStream out, long cycle, long nanos) {
+    public void summarizeResponse(String caption, Exception e, HttpResponse<?> response, PrintStream out, long cycle, long nanos) {
         if ((cycle % modulo) != 0) {
             return;
         }
@@ -236,12 +236,13 @@ public class HttpConsoleFormats {
         return PRINTABLE.contains(contentType.split("/")[0].toLowerCase());
     }
 
-    private void summarizedResponseContent(HttpResponse<String> response, PrintStream out) {
+    private void summarizedResponseContent(HttpResponse<?> response, PrintStream out) {
         if (Diag.anyIncluded(mask, Diag.data, Diag.data10, Diag.data100, Diag.data1000)) {
 
             String contentLenStr = response.headers().map().getOrDefault("content-length", List.of("0")).get(0);
             Long contentLength = Long.parseLong(contentLenStr);
-            String body = response.body();
+            Object rawBody = response.body();
+            String body = rawBody instanceof String text ? text : null;
 
             if (contentLength == 0L && (body==null||body.length()==0)) {
                 return;
@@ -261,6 +262,9 @@ public class HttpConsoleFormats {
                     if (toprint == null) {
                         toprint = "content-length was " + contentLength + ", but body was null";
                     }
+                    if (!(rawBody instanceof String)) {
+                        toprint = "body was not retained for this body-mode";
+                    }
 
                     if (Diag.data1000.includedIn(mask)) {
                         if (toprint.length() > 1000) {
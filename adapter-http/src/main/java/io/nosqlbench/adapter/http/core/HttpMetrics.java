@@ -17,16 +17,27 @@
 package io.nosqlbench.adapter.http.core;
 
 import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 import io.nosqlbench.api.config.NBNamedElement;
 import io.nosqlbench.api.engine.metrics.ActivityMetrics;
 
 public class HttpMetrics implements NBNamedElement {
     private final HttpSpace space;
     final Histogram statusCodeHistogram;
+    /**
+     * Time from sending a request until its response headers are received
+     */
+    final Timer firstByteTimer;
+    /**
+     * Time from sending a request until its response body is fully received
+     */
+    final Timer fullBodyTimer;
 
     public HttpMetrics(HttpSpace space) {
         this.space = space;
         statusCodeHistogram = ActivityMetrics.histogram(this, "statuscode",space.getHdrDigits());
+        firstByteTimer = ActivityMetrics.timer(this, "ttfb", space.getHdrDigits());
+        fullBodyTimer = ActivityMetrics.timer(this, "ttlb", space.getHdrDigits());
     }
 
     @Override
@@ -18,11 +18,14 @@ package io.nosqlbench.adapter.http.core;
 
 import io.nosqlbench.adapter.http.errors.InvalidResponseBodyException;
 import io.nosqlbench.adapter.http.errors.InvalidStatusCodeException;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpPayloadSize;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.RunnableOp;
 
-import java.net.http.HttpClient;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
@@ -32,39 +35,49 @@ public class HttpOp implements RunnableOp {
     public final Pattern ok_status;
     public final Pattern ok_body;
     public final HttpRequest request;
-    private final HttpClient client;
+    private final HttpClientShard shard;
+    private final HttpBodyMode bodyMode;
+    private final HttpStreamValidator streamValidator;
     private final HttpSpace space;
     private final long cycle;
+    private volatile long headersAt;
+    private long responseBytes = -1L;
 
-    public HttpOp(HttpClient client, HttpRequest request, Pattern ok_status, Pattern ok_body, HttpSpace space, long cycle) {
-        this.client = client;
+    public HttpOp(HttpClientShard shard, HttpRequest request, Pattern ok_status, Pattern ok_body,
+                  HttpBodyMode bodyMode, HttpStreamValidator streamValidator, HttpSpace space, long cycle) {
+        this.shard = shard;
         this.request = request;
         this.ok_status = ok_status;
         this.ok_body = ok_body;
+        this.bodyMode = bodyMode;
+        this.streamValidator = streamValidator;
         this.space = space;
         this.cycle = cycle;
     }
 
     @Override
     public void run() {
-        HttpResponse.BodyHandler<String> bodyreader = HttpResponse.BodyHandlers.ofString();
-        HttpResponse<String> response = null;
+        HttpResponse<?> response = null;
         Exception error = null;
         long startat = System.nanoTime();
         try {
-            CompletableFuture<HttpResponse<String>> responseFuture = client.sendAsync(request, bodyreader);
-             response = responseFuture.get(space.getTimeoutMillis(), TimeUnit.MILLISECONDS);
-             space.getHttpMetrics().statusCodeHistogram.update(response.statusCode());
+            shard.acquire();
+            try {
+                CompletableFuture<? extends HttpResponse<?>> responseFuture = shard.getClient().sendAsync(request, timed(bodyMode.getHandler()));
+                response = responseFuture.get(space.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+                space.getHttpMetrics().statusCodeHistogram.update(response.statusCode());
+                space.getHttpMetrics().firstByteTimer.update(headersAt - startat, TimeUnit.NANOSECONDS);
 
-            if (ok_status != null) {
-                if (!ok_status.matcher(String.valueOf(response.statusCode())).matches()) {
-                    throw new InvalidStatusCodeException(ok_status, response.statusCode());
-                }
-            }
-            if (ok_body != null) {
-                if (!ok_body.matcher(response.body()).matches()) {
-                    throw new InvalidResponseBodyException(ok_body, response.body());
+                if (ok_status != null) {
+                    if (!ok_status.matcher(String.valueOf(response.statusCode())).matches()) {
+                        closeBody(response);
+                        throw new InvalidStatusCodeException(ok_status, response.statusCode());
+                    }
                 }
+                responseBytes = readBody(response);
+                space.getHttpMetrics().fullBodyTimer.update(System.nanoTime() - startat, TimeUnit.NANOSECONDS);
+            } finally {
+                shard.release();
             }
         } catch (Exception e) {
             error = e;
@@ -86,4 +99,62 @@ public class HttpOp implements RunnableOp {
         }
 
     }
+
+    /**
+     * Note when the response headers arrive, which is when the client hands the response
+     * to the body handler.
+     */
+    private <T> HttpResponse.BodyHandler<T> timed(HttpResponse.BodyHandler<T> handler) {
+        return info -> {
+            headersAt = System.nanoTime();
+            return handler.apply(info);
+        };
+    }
+
+    /**
+     * Finish reading the body, as needed for the body mode, and check it against ok-body.
+     * @return the number of bytes in the body, or -1 if it is not known
+     */
+    private long readBody(HttpResponse<?> response) throws IOException {
+        Object body = response.body();
+        switch (bodyMode) {
+            case string -> {
+                String text = (String) body;
+                if (ok_body != null) {
+                    if (!ok_body.matcher(text).matches()) {
+                        throw new InvalidResponseBodyException(ok_body, text);
+                    }
+                }
+                OptionalLong contentLength = response.headers().firstValueAsLong("content-length");
+                return contentLength.isPresent() ? contentLength.getAsLong() : OpPayloadSize.utf8Length(text);
+            }
+            case count -> {
+                return (Long) body;
+            }
+            case stream -> {
+                try (InputStream in = (InputStream) body) {
+                    return streamValidator.consume(in);
+                }
+            }
+            default -> {
+                return response.headers().firstValueAsLong("content-length").orElse(-1L);
+            }
+        }
+    }
+
+    private void closeBody(HttpResponse<?> response) throws IOException {
+        if (response.body() instanceof InputStream in) {
+            in.close();
+        }
+    }
+
+    @Override
+    public long getRequestBytes() {
+        return request.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(0L);
+    }
+
+    @Override
+    public long getResponseBytes() {
+        return responseBytes;
+    }
 }
@@ -16,6 +16,7 @@
 
 package io.nosqlbench.adapter.http.core;
 
+import io.nosqlbench.api.errors.OpConfigError;
 import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
 import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
 import io.nosqlbench.engine.api.templating.ParsedOp;
@@ -25,6 +26,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.function.LongFunction;
 import java.util.regex.Pattern;
@@ -43,6 +45,68 @@ public class HttpOpDispenser extends BaseOpDispenser<HttpOp, HttpSpace> {
 
     private LongFunction<HttpOp> getOpFunc(LongFunction<HttpSpace> ctxF, ParsedOp op) {
 
+        // Add support for URLENCODE on the uri field if either it statically or dynamically contains the E or URLENCODE pattern,
+        // OR the enable_urlencode op field is set to true.
+        boolean urlencode = op.getAsOptionalFunction("uri", String.class)
+            .map(f -> HttpFormatParser.URLENCODER_PATTERN.matcher(f.apply(0L)).find()
+                || op.getStaticConfigOr("enable_urlencode", true))
+            .orElse(false);
+
+        op.getOptionalStaticValue("follow_redirects", boolean.class);
+
+        /**
+         * Add header adders for any key provided in the op template which is capitalized
+         */
+        List<String> headerNames = op.getDefinedNames().stream()
+            .filter(n -> n.charAt(0) >= 'A')
+            .filter(n -> n.charAt(0) <= 'Z')
+            .toList();
+
+        LongFunction<HttpRequest> reqF = op.getStaticConfigOr("request-template", false)
+            ? new HttpRequestTemplate(op, headerNames, urlencode)
+            : getBuilderRequestFunc(op, headerNames, urlencode);
+
+        Pattern ok_status = op.getOptionalStaticValue("ok-status", String.class)
+            .map(Pattern::compile)
+            .orElse(Pattern.compile(DEFAULT_OK_STATUS));
+
+        Pattern ok_body = op.getOptionalStaticValue("ok-body", String.class)
+            .map(Pattern::compile)
+            .orElse(null);
+
+        HttpBodyMode bodyMode = op.getOptionalStaticValue("body-mode", String.class)
+            .map(m -> HttpBodyMode.valueOf(m.toLowerCase(Locale.ROOT)))
+            .orElse(HttpBodyMode.string);
+
+        String ok_json = op.getOptionalStaticValue("ok-json", String.class).orElse(null);
+
+        if (ok_body != null && !bodyMode.canValidate()) {
+            throw new OpConfigError("ok-body can't be checked with body-mode '" + bodyMode + "'. Use body-mode string or stream.");
+        }
+        if (ok_json != null && bodyMode != HttpBodyMode.stream) {
+            throw new OpConfigError("ok-json is only supported with body-mode stream, but body-mode was '" + bodyMode + "'");
+        }
+        HttpStreamValidator streamValidator = bodyMode == HttpBodyMode.stream ? new HttpStreamValidator(ok_body, ok_json) : null;
+
+        LongFunction<HttpOp> opFunc = cycle -> {
+            HttpSpace space = ctxF.apply(cycle);
+            return new HttpOp(
+                space.getClientShard(),
+                reqF.apply(cycle),
+                ok_status,
+                ok_body,
+                bodyMode,
+                streamValidator,
+                space, cycle
+            );
+        };
+        return opFunc;
+    }
+
+    /**
+     * Build each request from scratch through the builder API, evaluating every field for every cycle.
+     */
+    private LongFunction<HttpRequest> getBuilderRequestFunc(ParsedOp op, List<String> headerNames, boolean urlencode) {
         LongFunction<HttpRequest.Builder> builderF = l -> HttpRequest.newBuilder();
         LongFunction<String> bodyF = op.getAsFunctionOr("body", null);
         LongFunction<HttpRequest.BodyPublisher> bodyPublisherF =
@@ -63,63 +127,26 @@ public class HttpOpDispenser extends BaseOpDispenser<HttpOp, HttpSpace> {
             )
         );
 
-        Optional<LongFunction<String>> optionalUriFunc = op.getAsOptionalFunction("uri", String.class);
-        LongFunction<String> urifunc;
-        // Add support for URLENCODE on the uri field if either it statically or dynamically contains the E or URLENCODE pattern,
-        // OR the enable_urlencode op field is set to true.
-        if (optionalUriFunc.isPresent()) {
-            String testUriValue = optionalUriFunc.get().apply(0L);
-            if (HttpFormatParser.URLENCODER_PATTERN.matcher(testUriValue).find()
-                || op.getStaticConfigOr("enable_urlencode", true)) {
-                initBuilderF =
-                    op.enhanceFuncOptionally(
-                        initBuilderF,
-                        "uri",
-                        String.class,
-                        (b, v) -> b.uri(URI.create(HttpFormatParser.rewriteExplicitSections(v)))
-                    );
-            }
+        if (urlencode) {
+            initBuilderF =
+                op.enhanceFuncOptionally(
+                    initBuilderF,
+                    "uri",
+                    String.class,
+                    (b, v) -> b.uri(URI.create(HttpFormatParser.rewriteExplicitSections(v)))
+                );
         } else {
             initBuilderF = op.enhanceFuncOptionally(initBuilderF, "uri", String.class, (b, v) -> b.uri(URI.create(v)));
         }
 
-        op.getOptionalStaticValue("follow_redirects", boolean.class);
-
-        /**
-         * Add header adders for any key provided in the op template which is capitalized
-         */
-        List<String> headerNames = op.getDefinedNames().stream()
-            .filter(n -> n.charAt(0) >= 'A')
-            .filter(n -> n.charAt(0) <= 'Z')
-            .toList();
-        if (headerNames.size() > 0) {
-            for (String headerName : headerNames) {
-                initBuilderF = op.enhanceFunc(initBuilderF, headerName, String.class, (b, h) -> b.header(headerName, h));
-            }
+        for (String headerName : headerNames) {
+            initBuilderF = op.enhanceFunc(initBuilderF, headerName, String.class, (b, h) -> b.header(headerName, h));
         }
 
         initBuilderF = op.enhanceFuncOptionally(initBuilderF, "timeout", long.class, (b, v) -> b.timeout(Duration.ofMillis(v)));
 
         LongFunction<HttpRequest.Builder> finalInitBuilderF = initBuilderF;
-        LongFunction<HttpRequest> reqF = l -> finalInitBuilderF.apply(l).build();
-
-
-        Pattern ok_status = op.getOptionalStaticValue("ok-status", String.class)
-            .map(Pattern::compile)
-            .orElse(Pattern.compile(DEFAULT_OK_STATUS));
-
-        Pattern ok_body = op.getOptionalStaticValue("ok-body", String.class)
-            .map(Pattern::compile)
-            .orElse(null);
-
-        LongFunction<HttpOp> opFunc = cycle -> new HttpOp(
-            ctxF.apply(cycle).getClient(),
-            reqF.apply(cycle),
-            ok_status,
-            ok_body,
-            ctxF.apply(cycle), cycle
-        );
-        return opFunc;
+        return l -> finalInitBuilderF.apply(l).build();
     }
 
     @Override
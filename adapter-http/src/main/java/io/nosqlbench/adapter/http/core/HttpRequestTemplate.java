@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.http.core;
+
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import io.nosqlbench.virtdata.core.templates.ByteCompositor;
+import io.nosqlbench.virtdata.core.templates.ParsedTemplateString;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * <p>Builds requests for an op template by separating its static and dynamic parts once,
+ * at init time. The static parts are applied to a base {@link HttpRequest.Builder}, which is
+ * copied for each cycle, and only the dynamic fields are rebound onto the copy. A request
+ * with no dynamic fields at all is built once and reused for every cycle.</p>
+ *
+ * <p>Bodies are published from byte arrays. A static body is encoded once and its publisher
+ * is shared. A dynamic string body is assembled with a {@link ByteCompositor}, which encodes
+ * only the bound values, into a single array per cycle.</p>
+ *
+ * <p>This is used for op templates with {@code request-template: true}.</p>
+ */
+public class HttpRequestTemplate implements LongFunction<HttpRequest> {
+
+    private interface Rebinder {
+        void bind(HttpRequest.Builder builder, long cycle);
+    }
+
+    private final HttpRequest.Builder base = HttpRequest.newBuilder();
+    private final List<Rebinder> rebinders = new ArrayList<>();
+    private final HttpRequest staticRequest;
+
+    public HttpRequestTemplate(ParsedOp op, List<String> headerNames, boolean urlencode) {
+        bindMethodAndBody(op);
+        bindField(op, "version", String.class, (b, v) -> b.version(HttpClient.Version.valueOf(
+            v.replaceAll("/1.1", "_1_1").replaceAll("/2.0", "_2"))));
+        if (urlencode) {
+            bindField(op, "uri", String.class, (b, v) -> b.uri(URI.create(HttpFormatParser.rewriteExplicitSections(v))));
+        } else {
+            bindField(op, "uri", String.class, (b, v) -> b.uri(URI.create(v)));
+        }
+        for (String headerName : headerNames) {
+            bindField(op, headerName, String.class, (b, h) -> b.header(headerName, h));
+        }
+        bindField(op, "timeout", long.class, (b, v) -> b.timeout(Duration.ofMillis(v)));
+        this.staticRequest = rebinders.isEmpty() ? base.build() : null;
+    }
+
+    /**
+     * @return true if every request is the same pre-built instance
+     */
+    public boolean isStatic() {
+        return staticRequest != null;
+    }
+
+    @Override
+    public HttpRequest apply(long cycle) {
+        if (staticRequest != null) {
+            return staticRequest;
+        }
+        HttpRequest.Builder builder = base.copy();
+        for (Rebinder rebinder : rebinders) {
+            rebinder.bind(builder, cycle);
+        }
+        return builder.build();
+    }
+
+    private <V> void bindField(ParsedOp op, String field, Class<V> type, BiConsumer<HttpRequest.Builder, V> setter) {
+        Optional<LongFunction<V>> optionalFunc = op.getAsOptionalFunction(field, type);
+        if (optionalFunc.isEmpty()) {
+            return;
+        }
+        LongFunction<V> func = optionalFunc.get();
+        if (op.isDynamic(field)) {
+            rebinders.add((b, cycle) -> setter.accept(b, func.apply(cycle)));
+        } else {
+            setter.accept(base, func.apply(0L));
+        }
+    }
+
+    /**
+     * The builder API sets the method and the body together, so they are rebound together
+     * if either is dynamic.
+     */
+    private void bindMethodAndBody(ParsedOp op) {
+        LongFunction<String> methodF = op.getAsFunctionOr("method", "GET");
+        LongFunction<HttpRequest.BodyPublisher> bodyF = bodyPublisherFunc(op);
+        boolean dynamicMethod = op.isDynamic("method");
+        boolean dynamicBody = op.isDynamic("body");
+        if (!dynamicMethod && !dynamicBody) {
+            base.method(methodF.apply(0L), bodyF.apply(0L));
+        } else if (!dynamicMethod) {
+            String method = methodF.apply(0L);
+            rebinders.add((b, cycle) -> b.method(method, bodyF.apply(cycle)));
+        } else if (!dynamicBody) {
+            HttpRequest.BodyPublisher body = bodyF.apply(0L);
+            rebinders.add((b, cycle) -> b.method(methodF.apply(cycle), body));
+        } else {
+            rebinders.add((b, cycle) -> b.method(methodF.apply(cycle), bodyF.apply(cycle)));
+        }
+    }
+
+    private LongFunction<HttpRequest.BodyPublisher> bodyPublisherFunc(ParsedOp op) {
+        if (!op.isDefined("body")) {
+            return l -> HttpRequest.BodyPublishers.noBody();
+        }
+        if (!op.isDynamic("body")) {
+            LongFunction<String> staticBodyF = op.getAsRequiredFunction("body", String.class);
+            String body = staticBodyF.apply(0L);
+            HttpRequest.BodyPublisher shared = HttpRequest.BodyPublishers.ofByteArray(body.getBytes(StandardCharsets.UTF_8));
+            return l -> shared;
+        }
+        Class<?> bodyType = op.getValueType("body");
+        boolean composable = CharSequence.class.isAssignableFrom(bodyType) || bodyType == byte[].class
+            || ByteBuffer.class.isAssignableFrom(bodyType);
+        Optional<ParsedTemplateString> template = composable ? op.getAsTemplate("body") : Optional.empty();
+        if (template.isPresent()) {
+            ByteCompositor compositor = new ByteCompositor(template.get());
+            return l -> HttpRequest.BodyPublishers.ofByteArray(compositor.apply(l));
+        }
+        LongFunction<String> bodyF = op.getAsRequiredFunction("body", String.class);
+        return l -> HttpRequest.BodyPublishers.ofByteArray(bodyF.apply(l).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -28,11 +28,16 @@ import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ThreadLocal http clients have been removed from this version, as the built-in
  * HTTP client implementation is meant to be immutable. If shared-state issues
  * occur, thread-local support will be re-added.
+ *
+ * A space may hold several clients, set with {@code clients}. Each thread is bound
+ * to one of them on first use, round-robin, so that connection pools and HTTP/2
+ * connections are spread over the clients rather than contended by all threads.
  */
 public class HttpSpace implements NBNamedElement {
     private final static Logger logger = LogManager.getLogger(HttpSpace.class);
@@ -43,7 +48,13 @@ public class HttpSpace implements NBNamedElement {
     private HttpClient.Redirect followRedirects;
     private Duration timeout;
     private long timeoutMillis;
-    private final HttpClient httpclient;
+    private HttpClient.Version clientVersion;
+    private int clientCount;
+    private int maxStreams;
+    private final HttpClientShard[] shards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final ThreadLocal<HttpClientShard> threadShard =
+        ThreadLocal.withInitial(() -> getShards()[Math.floorMod(nextShard.getAndIncrement(), getShards().length)]);
     private int hdrDigits;
     private HttpMetrics httpMetrics;
     private boolean diagnosticsEnabled;
@@ -53,11 +64,30 @@ public class HttpSpace implements NBNamedElement {
         this.name = spaceName;
         this.cfg = cfg;
         applyConfig(cfg);
-        this.httpclient = newClient();
+        this.shards = new HttpClientShard[clientCount];
+        for (int i = 0; i < clientCount; i++) {
+            shards[i] = new HttpClientShard(i, newClient(), maxStreams);
+        }
+        logger.debug(() -> "created " + clientCount + " http client(s) for space '" + spaceName + "'" +
+            (maxStreams > 0 ? " with up to " + maxStreams + " requests in flight per client" : ""));
     }
 
+    /**
+     * @return the client which the calling thread is bound to
+     */
     public HttpClient getClient() {
-        return this.httpclient;
+        return getClientShard().getClient();
+    }
+
+    /**
+     * @return the client shard which the calling thread is bound to
+     */
+    public HttpClientShard getClientShard() {
+        return threadShard.get();
+    }
+
+    private HttpClientShard[] getShards() {
+        return shards;
     }
 
     private HttpClient newClient() {
@@ -65,6 +95,9 @@ public class HttpSpace implements NBNamedElement {
         logger.debug(() -> "follow_redirects=>" + followRedirects);
         builder = builder.followRedirects(this.followRedirects);
         builder = builder.connectTimeout(this.timeout);
+        if (this.clientVersion != null) {
+            builder = builder.version(this.clientVersion);
+        }
         return builder.build();
     }
 
@@ -75,6 +108,13 @@ public class HttpSpace implements NBNamedElement {
             );
         this.timeout = Duration.ofMillis(cfg.get("timeout", long.class));
         this.timeoutMillis = cfg.get("timeout", long.class);
+        this.hdrDigits = cfg.get("hdr_digits", Integer.class);
+        this.clientCount = cfg.get("clients", Integer.class);
+        if (clientCount < 1) {
+            throw new RuntimeException("clients must be at least 1, but was " + clientCount);
+        }
+        this.maxStreams = cfg.get("max_streams", Integer.class);
+        this.clientVersion = cfg.getOptional("client_version").map(HttpSpace::parseVersion).orElse(null);
         this.httpMetrics = new HttpMetrics(this);
 
         this.console = cfg.getOptional("diag").map(s -> HttpConsoleFormats.apply(s, this.console))
@@ -109,6 +149,18 @@ public class HttpSpace implements NBNamedElement {
         return console;
     }
 
+    /**
+     * Accept the version forms used in op templates, like {@code HTTP/1.1} and {@code HTTP/2.0},
+     * as well as the enum names of {@link HttpClient.Version}.
+     */
+    static HttpClient.Version parseVersion(String version) {
+        return HttpClient.Version.valueOf(
+            version.toUpperCase(Locale.ROOT)
+                .replaceAll("/1.1", "_1_1")
+                .replaceAll("/2(\\.0)?", "_2")
+        );
+    }
+
     public static NBConfigModel getConfigModel() {
         return ConfigModel.of(HttpSpace.class)
             .add(Param.defaultTo("follow_redirects", "normal")
@@ -124,6 +176,15 @@ public class HttpSpace implements NBNamedElement {
                 .setDescription("How long to wait for requests before timeout out. Default is forever."))
             .add(Param.defaultTo("hdr_digits", 4)
                 .setDescription("number of digits of precision to keep in HDR histograms"))
+            .add(Param.defaultTo("clients", 1)
+                .setDescription("How many http clients to create. Threads are bound to clients round-robin."))
+            .add(Param.optional("client_version", String.class)
+                .setRegex("(?i)http/1.1|http/2(.0)?|http_1_1|http_2")
+                .setDescription("The preferred HTTP version for the clients, HTTP/1.1 or HTTP/2.0. " +
+                    "By default, HTTP/2 is attempted and HTTP/1.1 is used if the server does not support it."))
+            .add(Param.defaultTo("max_streams", 0)
+                .setDescription("The most requests which may be in flight on each client at once, " +
+                    "or 0 for no limit. For HTTP/2, this is the number of multiplexed streams per client."))
             .asReadOnly();
 
     }
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.http.core;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.nosqlbench.adapter.http.errors.InvalidResponseBodyException;
+import io.nosqlbench.adapter.http.errors.MissingResponseFieldException;
+import io.nosqlbench.api.errors.OpConfigError;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Checks a response body as it is read from the wire, for {@link HttpBodyMode#stream}. The
+ * body is never held in memory as a whole. Once a check has passed, the rest of the body is
+ * drained without decoding it. The whole body is always read, so that the connection can be
+ * reused and the full-body latency is comparable to the other modes.</p>
+ *
+ * <p>With a JSON path, the body is parsed incrementally up to the value at that path. If a
+ * pattern is also given, it must match the whole string form of that value. With only a
+ * pattern, it is searched for in a sliding window over the decoded text. Matches which are
+ * longer than {@link #WINDOW} characters may be missed in that case, and anchors apply to the
+ * window rather than the whole body.</p>
+ */
+public class HttpStreamValidator {
+
+    public final static int WINDOW = 4096;
+    private final static int CHUNK = 8192;
+
+    private final Pattern pattern;
+    private final String jsonPath;
+    private final List<Object> steps;
+
+    /**
+     * @param pattern  A pattern to check the body or JSON value with, or null
+     * @param jsonPath A JSON path like {@code $.data.items[0].id}, or null
+     */
+    public HttpStreamValidator(Pattern pattern, String jsonPath) {
+        this.pattern = pattern;
+        this.jsonPath = jsonPath;
+        this.steps = jsonPath == null ? null : parsePath(jsonPath);
+    }
+
+    /**
+     * Read the whole body, checking it along the way.
+     *
+     * @return the number of bytes in the body
+     */
+    public long consume(InputStream body) throws IOException {
+        CountingInputStream in = new CountingInputStream(body);
+        if (steps != null) {
+            checkJson(in);
+        } else if (pattern != null) {
+            checkText(in);
+        }
+        in.drain();
+        return in.getCount();
+    }
+
+    private void checkText(CountingInputStream in) throws IOException {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        StringBuilder window = new StringBuilder(WINDOW + CHUNK);
+        char[] chunk = new char[CHUNK];
+        int read;
+        while ((read = reader.read(chunk)) >= 0) {
+            window.append(chunk, 0, read);
+            if (pattern.matcher(window).find()) {
+                return;
+            }
+            if (window.length() > WINDOW) {
+                window.delete(0, window.length() - WINDOW);
+            }
+        }
+        throw new InvalidResponseBodyException(pattern, window.toString());
+    }
+
+    private void checkJson(CountingInputStream in) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        reader.setLenient(true);
+        if (!seek(reader, 0)) {
+            throw new MissingResponseFieldException(jsonPath);
+        }
+    }
+
+    /**
+     * Descend into the value at the reader's position along the remaining path steps. This
+     * returns as soon as the target is found, leaving the reader mid-document.
+     */
+    private boolean seek(JsonReader reader, int step) throws IOException {
+        if (step == steps.size()) {
+            return checkValue(reader);
+        }
+        Object at = steps.get(step);
+        if (at instanceof String name) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                return false;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals(name)) {
+                    return seek(reader, step + 1);
+                }
+                reader.skipValue();
+            }
+            reader.endObject();
+            return false;
+        }
+        int index = (Integer) at;
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return false;
+        }
+        reader.beginArray();
+        for (int i = 0; reader.hasNext(); i++) {
+            if (i == index) {
+                return seek(reader, step + 1);
+            }
+            reader.skipValue();
+        }
+        reader.endArray();
+        return false;
+    }
+
+    private boolean checkValue(JsonReader reader) throws IOException {
+        if (pattern == null) {
+            return true;
+        }
+        String value = switch (reader.peek()) {
+            case STRING, NUMBER -> reader.nextString();
+            case BOOLEAN -> String.valueOf(reader.nextBoolean());
+            case NULL -> "null";
+            default -> throw new InvalidResponseBodyException(pattern, "(non-scalar value at " + jsonPath + ")");
+        };
+        Matcher matcher = pattern.matcher(value);
+        if (!matcher.matches()) {
+            throw new InvalidResponseBodyException(pattern, value);
+        }
+        return true;
+    }
+
+    /**
+     * Parse a simple JSON path of dotted names and bracketed indices, with an optional
+     * leading {@code $}, into a list of String names and Integer indices.
+     */
+    static List<Object> parsePath(String path) {
+        List<Object> steps = new ArrayList<>();
+        String spec = path.startsWith("$") ? path.substring(1) : path;
+        int pos = 0;
+        while (pos < spec.length()) {
+            char c = spec.charAt(pos);
+            if (c == '.') {
+                pos++;
+            } else if (c == '[') {
+                int end = spec.indexOf(']', pos);
+                if (end < 0) {
+                    throw new OpConfigError("Unclosed index in JSON path '" + path + "'");
+                }
+                try {
+                    steps.add(Integer.parseInt(spec.substring(pos + 1, end).trim()));
+                } catch (NumberFormatException e) {
+                    throw new OpConfigError("Only numeric indices are supported in JSON path '" + path + "'");
+                }
+                pos = end + 1;
+            } else {
+                int end = pos;
+                while (end < spec.length() && spec.charAt(end) != '.' && spec.charAt(end) != '[') {
+                    end++;
+                }
+                steps.add(spec.substring(pos, end));
+                pos = end;
+            }
+        }
+        if (steps.isEmpty()) {
+            throw new OpConfigError("JSON path '" + path + "' does not name any field");
+        }
+        return steps;
+    }
+
+    private final static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        private void drain() throws IOException {
+            byte[] buf = new byte[CHUNK];
+            while (read(buf, 0, buf.length) >= 0) {
+            }
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+}
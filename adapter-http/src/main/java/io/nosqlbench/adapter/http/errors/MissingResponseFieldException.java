@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.http.errors;
+
+public class MissingResponseFieldException extends RuntimeException {
+    private final String path;
+
+    public MissingResponseFieldException(String path) {
+        this.path = path;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Server returned body which did not contain a value at JSON path '" + path + "'";
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.http;
+
+import io.nosqlbench.adapter.http.core.HttpOp;
+import io.nosqlbench.adapter.http.core.HttpOpMapper;
+import io.nosqlbench.adapter.http.core.HttpSpace;
+import io.nosqlbench.api.config.standard.NBConfiguration;
+import io.nosqlbench.engine.api.activityconfig.OpsLoader;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplate;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplateFormat;
+import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares per-cycle request construction cost between the builder chain and
+ * {@code request-template: true}. Run {@link #main(String[])} from the IDE; the gc
+ * profiler reports allocation rate alongside ns/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpRequestBuildBenchmark {
+
+    private final static String OP = """
+        ops:
+         - s1: |
+            post http://localhost:8080/users/{id}?trace=true HTTP/1.1
+            Content-Type: application/json
+            Accept: application/json
+            X-Request: {id}
+
+            {"id":"{id}","name":"{name}","tags":["alpha","beta","gamma"],"active":true}
+        bindings:
+         id: Identity(); ToString()
+         name: NumberNameToString()
+        """;
+
+    @Param({"false", "true"})
+    public boolean template;
+
+    private OpDispenser<? extends HttpOp> dispenser;
+    private long cycle;
+
+    @Setup
+    public void setup() {
+        NBConfiguration cfg = HttpSpace.getConfigModel().apply(Map.of());
+        HttpDriverAdapter adapter = new HttpDriverAdapter();
+        adapter.applyConfig(cfg);
+        HttpOpMapper mapper = new HttpOpMapper(adapter, cfg, adapter.getSpaceCache());
+        String yaml = OP + "params:\n request-template: " + template + "\n";
+        OpTemplate opTemplate = OpsLoader.loadString(yaml, OpTemplateFormat.yaml, Map.of(), null).getOps().get(0);
+        dispenser = mapper.apply(new ParsedOp(opTemplate, cfg, List.of(adapter.getPreprocessor())));
+    }
+
+    @Benchmark
+    public void buildRequest(Blackhole bh) {
+        bh.consume(dispenser.apply(cycle++).request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(HttpRequestBuildBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
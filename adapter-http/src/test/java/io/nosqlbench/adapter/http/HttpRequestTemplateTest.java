@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.http;
+
+import io.nosqlbench.adapter.http.core.HttpOp;
+import io.nosqlbench.adapter.http.core.HttpOpMapper;
+import io.nosqlbench.adapter.http.core.HttpSpace;
+import io.nosqlbench.api.config.standard.NBConfiguration;
+import io.nosqlbench.engine.api.activityconfig.OpsLoader;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplate;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplateFormat;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpsDocList;
+import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HttpRequestTemplateTest {
+
+    static NBConfiguration cfg;
+    static HttpDriverAdapter adapter;
+    static HttpOpMapper mapper;
+
+    @BeforeAll
+    public static void initializeTestMapper() {
+        cfg = HttpSpace.getConfigModel().apply(Map.of());
+        adapter = new HttpDriverAdapter();
+        adapter.applyConfig(cfg);
+        mapper = new HttpOpMapper(adapter, cfg, adapter.getSpaceCache());
+    }
+
+    private static OpDispenser<? extends HttpOp> dispenserFor(String yaml, boolean template) {
+        String withParams = yaml + (template ? "params:\n request-template: true\n" : "");
+        OpsDocList docs = OpsLoader.loadString(withParams, OpTemplateFormat.yaml, Map.of(), null);
+        OpTemplate opTemplate = docs.getOps().get(0);
+        ParsedOp parsedOp = new ParsedOp(opTemplate, cfg, List.of(adapter.getPreprocessor()));
+        return mapper.apply(parsedOp);
+    }
+
+    private static byte[] bodyOf(HttpRequest request) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        request.bodyPublisher().orElseThrow().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                out.writeBytes(bytes);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        return out.toByteArray();
+    }
+
+    private static void assertSameRequests(String yaml) {
+        OpDispenser<? extends HttpOp> built = dispenserFor(yaml, false);
+        OpDispenser<? extends HttpOp> templated = dispenserFor(yaml, true);
+        for (long cycle = 0; cycle < 10; cycle++) {
+            HttpRequest expected = built.apply(cycle).request;
+            HttpRequest actual = templated.apply(cycle).request;
+            assertThat(actual.method()).isEqualTo(expected.method());
+            assertThat(actual.uri()).isEqualTo(expected.uri());
+            assertThat(actual.version()).isEqualTo(expected.version());
+            assertThat(actual.timeout()).isEqualTo(expected.timeout());
+            assertThat(actual.headers().map()).isEqualTo(expected.headers().map());
+            assertThat(actual.bodyPublisher().orElseThrow().contentLength())
+                .isEqualTo(expected.bodyPublisher().orElseThrow().contentLength());
+            assertThat(bodyOf(actual)).isEqualTo(bodyOf(expected));
+        }
+    }
+
+    @Test
+    public void testStaticRequestIsReused() {
+        String yaml = """
+            ops:
+             - s1: |
+                post http://localhost/users HTTP/1.1
+                Content-Type: application/json
+
+                {"name":"static"}
+            """;
+        assertSameRequests(yaml);
+        OpDispenser<? extends HttpOp> templated = dispenserFor(yaml, true);
+        assertThat(templated.apply(1L).request).isSameAs(templated.apply(2L).request);
+    }
+
+    @Test
+    public void testDynamicFieldsAreRebound() {
+        assertSameRequests("""
+            ops:
+             - s1: |
+                post http://localhost/users/{id}?q=E[[a b]] HTTP/1.1
+                Content-Type: application/json
+                X-Request: {id}
+
+                {"id":"{id}","name":"{name}"}
+            bindings:
+             id: Identity(); ToString()
+             name: NumberNameToString()
+            """);
+    }
+}
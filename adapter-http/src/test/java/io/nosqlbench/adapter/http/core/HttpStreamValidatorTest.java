@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.http.core;
+
+import io.nosqlbench.adapter.http.errors.InvalidResponseBodyException;
+import io.nosqlbench.adapter.http.errors.MissingResponseFieldException;
+import io.nosqlbench.api.errors.OpConfigError;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HttpStreamValidatorTest {
+
+    private final static String BODY = "{\"status\":\"ok\",\"data\":{\"items\":[{\"id\":\"first\"},{\"id\":\"second\"}]}," +
+        "\"padding\":\"" + "x".repeat(20000) + "\"}";
+    private final static long BODY_BYTES = BODY.getBytes(StandardCharsets.UTF_8).length;
+
+    private long consume(Pattern pattern, String path) throws IOException {
+        return new HttpStreamValidator(pattern, path).consume(new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testJsonPathFoundReadsWholeBody() throws IOException {
+        assertThat(consume(null, "$.data.items[1].id")).isEqualTo(BODY_BYTES);
+        assertThat(consume(Pattern.compile("sec.*"), "data.items[1].id")).isEqualTo(BODY_BYTES);
+    }
+
+    @Test
+    public void testJsonPathMissingOrValueMismatch() {
+        assertThatThrownBy(() -> consume(null, "$.data.items[2].id"))
+            .isInstanceOf(MissingResponseFieldException.class);
+        assertThatThrownBy(() -> consume(Pattern.compile("first"), "$.data.items[1].id"))
+            .isInstanceOf(InvalidResponseBodyException.class);
+    }
+
+    @Test
+    public void testPatternFoundInWindow() throws IOException {
+        assertThat(consume(Pattern.compile("x{100}\"}$"), null)).isEqualTo(BODY_BYTES);
+        assertThatThrownBy(() -> consume(Pattern.compile("missing"), null))
+            .isInstanceOf(InvalidResponseBodyException.class);
+    }
+
+    @Test
+    public void testNoChecksOnlyCounts() throws IOException {
+        assertThat(consume(null, null)).isEqualTo(BODY_BYTES);
+    }
+
+    @Test
+    public void testParsePath() {
+        assertThat(HttpStreamValidator.parsePath("$.a.b[3].c")).containsExactly("a", "b", 3, "c");
+        assertThat(HttpStreamValidator.parsePath("a[0][1]")).isEqualTo(List.of("a", 0, 1));
+        assertThatThrownBy(() -> HttpStreamValidator.parsePath("$.a[x]")).isInstanceOf(OpConfigError.class);
+        assertThatThrownBy(() -> HttpStreamValidator.parsePath("$")).isInstanceOf(OpConfigError.class);
+    }
+}
@@ -35,6 +35,7 @@ public class JDBCExecuteOp extends JDBCOp {
     public void run() {
         try {
             if (!statement.execute(queryString)) {
+                finalResultCount = statement.getUpdateCount();
                 LOGGER.debug(() -> {
                     try {
                         return String.format(LOG_UPDATE_COUNT, statement.getUpdateCount());
@@ -56,4 +57,12 @@ public class JDBCExecuteOp extends JDBCOp {
             throw new RuntimeException(LOG_GENERIC_ERROR, ex);
         }
     }
+
+    /**
+     * For DML, the number of records updated, or -1 if the driver did not report it.
+     */
+    @Override
+    public long getResultSize() {
+        return finalResultCount;
+    }
 }
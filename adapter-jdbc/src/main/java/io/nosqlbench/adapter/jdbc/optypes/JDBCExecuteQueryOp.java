@@ -65,4 +65,9 @@ public class JDBCExecuteQueryOp extends JDBCOp {
             throw new RuntimeException(LOG_GENERIC_ERROR, ex);
         }
     }
+
+    @Override
+    public long getResultSize() {
+        return finalResultCount;
+    }
 }
@@ -16,6 +16,7 @@
 
 package io.nosqlbench.adapter.jdbc.optypes;
 
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpPayloadSize;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.RunnableOp;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -60,4 +61,12 @@ public abstract class JDBCOp implements RunnableOp {
         LOG_GENERIC_ERROR = String.format("Exception while attempting to run the jdbc query %s", queryString);
         LOGGER.debug(() -> "Query to be executed: " + queryString);
     }
+
+    /**
+     * The request payload for JDBC is the query text as sent to the driver.
+     */
+    @Override
+    public long getRequestBytes() {
+        return OpPayloadSize.utf8Length(queryString);
+    }
 }
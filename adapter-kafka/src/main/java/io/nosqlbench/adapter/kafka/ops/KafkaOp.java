@@ -21,6 +21,8 @@ import com.codahale.metrics.Histogram;
 import io.nosqlbench.adapter.kafka.KafkaSpace;
 import io.nosqlbench.adapter.kafka.util.KafkaAdapterMetrics;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.CycleOp;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpPayloadSize;
+import org.apache.kafka.clients.producer.ProducerRecord;
 
 public class KafkaOp implements CycleOp<Object> {
     private final KafkaAdapterMetrics kafkaAdapterMetrics;
@@ -28,6 +30,7 @@ public class KafkaOp implements CycleOp<Object> {
     private final OpTimeTrackKafkaClient opTimeTrackKafkaClient;
     private final Object cycleObj;
     protected final Histogram messageSizeHistogram;
+    private long responseBytes = -1L;
 
 
     public KafkaOp(KafkaAdapterMetrics kafkaAdapterMetrics,
@@ -44,7 +47,27 @@ public class KafkaOp implements CycleOp<Object> {
 
     @Override
     public Object apply(long value) {
-        opTimeTrackKafkaClient.process(value, cycleObj);
+        responseBytes = opTimeTrackKafkaClient.process(value, cycleObj);
         return  null;
     }
+
+    @Override
+    public long getRequestBytes() {
+        if (cycleObj instanceof ProducerRecord<?, ?> producerRecord) {
+            return sizeOf(producerRecord.key()) + sizeOf(producerRecord.value());
+        }
+        return -1L;
+    }
+
+    @Override
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    private static long sizeOf(Object field) {
+        if (field instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        return field == null ? 0L : OpPayloadSize.utf8Length(field.toString());
+    }
 }
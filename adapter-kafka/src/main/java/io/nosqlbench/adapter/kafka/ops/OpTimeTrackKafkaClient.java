@@ -40,7 +40,10 @@ abstract public class OpTimeTrackKafkaClient {
         this.maxOpTimeInSec = kafkaSpace.getMaxOpTimeInSec();
     }
 
-    public void process(long cycle, Object cycleObj) {
+    /**
+     * @return the number of payload bytes received by this cycle, or -1 if nothing was received
+     */
+    public long process(long cycle, Object cycleObj) {
 
         long timeElapsedMills = System.currentTimeMillis() - activityStartTime;
 
@@ -48,11 +51,12 @@ abstract public class OpTimeTrackKafkaClient {
         // before the maximum duration threshold is reached. Otherwise, this is
         // just no-op.
         if ( (maxOpTimeInSec == 0) || (timeElapsedMills <= (maxOpTimeInSec*1000)) ) {
-            cycleMsgProcess(cycle, cycleObj);
+            return cycleMsgProcess(cycle, cycleObj);
         }
+        return -1L;
     }
 
-    abstract void cycleMsgProcess(long cycle, Object cycleObj);
+    abstract long cycleMsgProcess(long cycle, Object cycleObj);
 
     abstract public void close();
 }
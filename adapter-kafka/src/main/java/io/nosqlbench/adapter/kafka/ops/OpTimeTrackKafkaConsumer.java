@@ -113,15 +113,17 @@ public class OpTimeTrackKafkaConsumer extends OpTimeTrackKafkaClient {
     }
 
     @Override
-    void cycleMsgProcess(long cycle, Object cycleObj) {
+    long cycleMsgProcess(long cycle, Object cycleObj) {
         if (kafkaSpace.isShuttigDown()) {
-            return;
+            return -1L;
         }
 
+        long receivedBytes = 0L;
         synchronized (this) {
             ConsumerRecords<String, String> records = consumer.poll(msgPoolIntervalInMs);
             for (ConsumerRecord<String, String> record : records) {
                 if (record != null) {
+                    receivedBytes += Math.max(0, record.serializedKeySize()) + Math.max(0, record.serializedValueSize());
                     if (logger.isDebugEnabled()) {
                         logger.debug(
                             "Receiving message is successful: [{}] - offset({}), cycle ({}), e2e_latency_ms({})",
@@ -176,6 +178,7 @@ public class OpTimeTrackKafkaConsumer extends OpTimeTrackKafkaClient {
                 }
             }
         }
+        return receivedBytes;
     }
 
     private void updateE2ELatencyMetric(ConsumerRecord<String, String> record) {
@@ -156,7 +156,7 @@ public class OpTimeTrackKafkaProducer extends OpTimeTrackKafkaClient {
     }
 
     @Override
-    void cycleMsgProcess(long cycle, Object cycleObj) {
+    long cycleMsgProcess(long cycle, Object cycleObj) {
         // For producer, cycleObj represents a "message" (ProducerRecord)
         assert (cycleObj != null);
 
@@ -173,7 +173,7 @@ public class OpTimeTrackKafkaProducer extends OpTimeTrackKafkaClient {
                     e.printStackTrace();
                 }
             }
-            return;
+            return -1L;
         }
 
         processMsgTransaction(cycle, producer);
@@ -243,6 +243,7 @@ public class OpTimeTrackKafkaProducer extends OpTimeTrackKafkaClient {
         catch (Exception e) {
             throw new KafkaAdapterUnexpectedException(e);
         }
+        return -1L;
     }
 
     public void close() {
@@ -16,9 +16,14 @@
 
 package io.nosqlbench.adapter.mongodb.ops;
 
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.CycleOp;
+import org.bson.BsonDocument;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DocumentCodec;
 import org.bson.conversions.Bson;
 
 public class MongoDirectCommandOp implements CycleOp<Document> {
@@ -27,6 +32,7 @@ public class MongoDirectCommandOp implements CycleOp<Document> {
     private final Bson rqBson;
     private final String database;
     private int resultSize;
+    private Document response;
 
     // https://docs.mongodb.com/manual/reference/method/db.runCommand/#command-response
     public MongoDirectCommandOp(MongoClient client, String database, Bson rqBson) {
@@ -38,6 +44,7 @@ public class MongoDirectCommandOp implements CycleOp<Document> {
     @Override
     public Document apply(long value) {
         Document document = client.getDatabase(database).runCommand(rqBson);
+        this.response = document;
         int okcode =0;
 
         Object ok = document.get("ok");
@@ -58,4 +65,24 @@ public class MongoDirectCommandOp implements CycleOp<Document> {
     public long getResultSize() {
         return resultSize;
     }
+
+    /**
+     * The encoded BSON size of the command, computed only when asked for.
+     */
+    @Override
+    public long getRequestBytes() {
+        BsonDocument command = rqBson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        return new RawBsonDocument(command, new BsonDocumentCodec()).getByteBuffer().remaining();
+    }
+
+    /**
+     * The encoded BSON size of the command response, computed only when asked for.
+     */
+    @Override
+    public long getResponseBytes() {
+        if (response == null) {
+            return -1L;
+        }
+        return new RawBsonDocument(response, new DocumentCodec()).getByteBuffer().remaining();
+    }
 }
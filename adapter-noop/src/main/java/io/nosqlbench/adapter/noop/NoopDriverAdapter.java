@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.noop;
+
+import io.nosqlbench.api.config.standard.ConfigModel;
+import io.nosqlbench.api.config.standard.NBConfigModel;
+import io.nosqlbench.api.config.standard.NBConfiguration;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpData;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplate;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpsDocList;
+import io.nosqlbench.engine.api.activityimpl.OpMapper;
+import io.nosqlbench.engine.api.activityimpl.uniform.BaseDriverAdapter;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.activityimpl.uniform.decorators.SyntheticOpTemplateProvider;
+import io.nosqlbench.nb.annotations.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Service(value = DriverAdapter.class, selector = "noop")
+public class NoopDriverAdapter extends BaseDriverAdapter<NoopOp, NoopSpace> implements SyntheticOpTemplateProvider {
+
+    @Override
+    public OpMapper<NoopOp> getOpMapper() {
+        return new NoopOpMapper(this);
+    }
+
+    @Override
+    public Function<String, ? extends NoopSpace> getSpaceInitializer(NBConfiguration cfg) {
+        return (s) -> new NoopSpace(s, cfg);
+    }
+
+    @Override
+    public NBConfigModel getConfigModel() {
+        return ConfigModel.of(this.getClass())
+            .add(super.getConfigModel())
+            .add(NoopSpace.getConfigModel());
+    }
+
+    /**
+     * Without any op templates, a single op is made which has a field for each document binding,
+     * so that {@code consume=true} can be used to measure the bindings alone.
+     */
+    @Override
+    public List<OpTemplate> getSyntheticOpTemplates(OpsDocList opsDocList, Map<String, Object> cfg) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        opsDocList.getDocBindings().keySet().forEach(name -> fields.put(name, "{" + name + "}"));
+        if (fields.isEmpty()) {
+            fields.put("noop", "noop");
+        }
+        OpData op = new OpData("synthetic", "synthetic", Map.of(), opsDocList.getDocBindings(), cfg, fields);
+        return List.of(op);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.noop;
+
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.CycleOp;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An op which does nothing but wait out its service time, if it has one. The result is the
+ * checksum of any consumed field values.
+ */
+public class NoopOp implements CycleOp<Long> {
+
+    private final long checksum;
+    private final long serviceTimeNanos;
+    private final boolean spin;
+
+    public NoopOp(long checksum, long serviceTimeNanos, boolean spin) {
+        this.checksum = checksum;
+        this.serviceTimeNanos = serviceTimeNanos;
+        this.spin = spin;
+    }
+
+    @Override
+    public Long apply(long value) {
+        if (serviceTimeNanos > 0L) {
+            long deadline = System.nanoTime() + serviceTimeNanos;
+            if (spin) {
+                while (System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+            } else {
+                long remaining = serviceTimeNanos;
+                while (remaining > 0L) {
+                    LockSupport.parkNanos(remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+            }
+        }
+        return checksum;
+    }
+
+    public long getServiceTimeNanos() {
+        return serviceTimeNanos;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.noop;
+
+import io.nosqlbench.api.engine.util.Unit;
+import io.nosqlbench.api.errors.OpConfigError;
+import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * Dispenses {@link NoopOp}s with as little work per cycle as the settings allow. Without
+ * {@code consume} or {@code service_time}, the same op instance is returned for every cycle.
+ */
+public class NoopOpDispenser extends BaseOpDispenser<NoopOp, NoopSpace> {
+
+    private final static Set<String> CONTROL_FIELDS = Set.of("consume", "service_time", "wait");
+
+    private final LongFunction<NoopOp> opFunction;
+
+    public NoopOpDispenser(DriverAdapter adapter, ParsedOp op) {
+        super(adapter, op);
+        this.opFunction = createOpFunction(op);
+    }
+
+    private LongFunction<NoopOp> createOpFunction(ParsedOp op) {
+        boolean consume = op.getStaticConfigOr("consume", false);
+        boolean spin = op.getStaticConfigOr("wait", "park").equals("spin");
+        LongFunction<Long> serviceTimeF = serviceTimeFunction(op);
+
+        if (!consume) {
+            if (serviceTimeF == null) {
+                NoopOp fixed = new NoopOp(0L, 0L, spin);
+                return l -> fixed;
+            }
+            return l -> new NoopOp(0L, serviceTimeF.apply(l), spin);
+        }
+
+        List<String> fields = op.getDefinedNames().stream().filter(n -> !CONTROL_FIELDS.contains(n)).toList();
+        LongFunction<Object[]> valuesF = op.newArrayBinder(fields);
+        if (serviceTimeF == null) {
+            return l -> new NoopOp(checksum(valuesF.apply(l)), 0L, spin);
+        }
+        return l -> new NoopOp(checksum(valuesF.apply(l)), serviceTimeF.apply(l), spin);
+    }
+
+    private static LongFunction<Long> serviceTimeFunction(ParsedOp op) {
+        if (op.isDefined("service_time")) {
+            if (op.isStatic("service_time")) {
+                long nanos = toNanos(op.getStaticValue("service_time", Object.class));
+                return nanos > 0L ? l -> nanos : null;
+            }
+            LongFunction<Object> f = op.getAsRequiredFunction("service_time", Object.class);
+            return l -> toNanos(f.apply(l));
+        }
+        return op.getOptionalStaticConfig("service_time", String.class)
+            .map(NoopOpDispenser::toNanos)
+            .filter(nanos -> nanos > 0L)
+            .<LongFunction<Long>>map(nanos -> l -> nanos)
+            .orElse(null);
+    }
+
+    private static long toNanos(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        String spec = String.valueOf(value);
+        return Unit.nanosecondsFor(spec)
+            .orElseThrow(() -> new OpConfigError("Unable to parse service_time '" + spec + "' as a duration"));
+    }
+
+    private static long checksum(Object[] values) {
+        long sum = 1L;
+        for (Object value : values) {
+            sum = 31L * sum + (value == null ? 0 : value.hashCode());
+        }
+        return sum;
+    }
+
+    @Override
+    public NoopOp apply(long value) {
+        return opFunction.apply(value);
+    }
+}
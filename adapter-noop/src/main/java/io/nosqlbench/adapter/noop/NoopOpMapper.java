@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.noop;
+
+import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.activityimpl.OpMapper;
+import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+
+public class NoopOpMapper implements OpMapper<NoopOp> {
+
+    private final DriverAdapter adapter;
+
+    public NoopOpMapper(DriverAdapter adapter) {
+        this.adapter = adapter;
+    }
+
+    @Override
+    public OpDispenser<NoopOp> apply(ParsedOp op) {
+        return new NoopOpDispenser(adapter, op);
+    }
+
+}
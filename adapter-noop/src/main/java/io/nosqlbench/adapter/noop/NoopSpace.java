@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.noop;
+
+import io.nosqlbench.api.config.standard.ConfigModel;
+import io.nosqlbench.api.config.standard.NBConfigModel;
+import io.nosqlbench.api.config.standard.NBConfiguration;
+import io.nosqlbench.api.config.standard.Param;
+
+/**
+ * The noop driver has no client state. The space only carries the settings which are used as
+ * defaults for op templates.
+ */
+public class NoopSpace {
+
+    private final String name;
+    private final NBConfiguration cfg;
+
+    public NoopSpace(String name, NBConfiguration cfg) {
+        this.name = name;
+        this.cfg = cfg;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static NBConfigModel getConfigModel() {
+        return ConfigModel.of(NoopSpace.class)
+            .add(
+                Param.defaultTo("consume", false)
+                    .setDescription("If true, every op field is evaluated for each cycle and folded into the op result.\n" +
+                        "Use this to include the cost of bindings, and to keep the JIT from eliminating them.")
+            )
+            .add(
+                Param.optional("service_time")
+                    .setDescription("A simulated service time for each op, as a duration like 250us or a number of nanoseconds.\n" +
+                        "In op templates, this may also be bound to a distribution, like service_time: \"{svc}\".")
+            )
+            .add(
+                Param.defaultTo("wait", "park")
+                    .setRegex("park|spin")
+                    .setDescription("How to wait for service_time: park the thread, or busy-spin on the clock.")
+            )
+            .asReadOnly();
+    }
+}
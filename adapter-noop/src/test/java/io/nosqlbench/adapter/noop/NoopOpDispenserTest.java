@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.adapter.noop;
+
+import io.nosqlbench.api.config.standard.NBConfiguration;
+import io.nosqlbench.engine.api.activityconfig.OpsLoader;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplate;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplateFormat;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpsDocList;
+import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NoopOpDispenserTest {
+
+    static NBConfiguration cfg;
+    static NoopDriverAdapter adapter;
+
+    @BeforeAll
+    public static void initializeTestAdapter() {
+        adapter = new NoopDriverAdapter();
+        cfg = adapter.getConfigModel().apply(Map.of());
+        adapter.applyConfig(cfg);
+    }
+
+    private static OpDispenser<? extends NoopOp> dispenserFor(String yaml) {
+        OpsDocList docs = OpsLoader.loadString(yaml, OpTemplateFormat.yaml, Map.of(), null);
+        OpTemplate opTemplate = docs.getOps().get(0);
+        ParsedOp parsedOp = new ParsedOp(opTemplate, cfg, List.of(adapter.getPreprocessor()));
+        return adapter.getOpMapper().apply(parsedOp);
+    }
+
+    @Test
+    public void testBareOpIsShared() {
+        OpDispenser<? extends NoopOp> dispenser = dispenserFor("""
+            ops:
+              op1:
+                noop: noop
+            """);
+        NoopOp op = dispenser.apply(1L);
+        assertThat(dispenser.apply(2L)).isSameAs(op);
+        assertThat(op.apply(1L)).isEqualTo(0L);
+        assertThat(op.getServiceTimeNanos()).isEqualTo(0L);
+    }
+
+    @Test
+    public void testConsumedFieldsAreChecksummed() {
+        OpDispenser<? extends NoopOp> dispenser = dispenserFor("""
+            bindings:
+              id: Identity()
+              name: NumberNameToString()
+            params:
+              consume: true
+            ops:
+              op1:
+                id: "{id}"
+                name: "{name}"
+            """);
+        assertThat(dispenser.apply(3L).apply(3L)).isEqualTo(dispenser.apply(3L).apply(3L));
+        assertThat(dispenser.apply(3L).apply(3L)).isNotEqualTo(dispenser.apply(4L).apply(4L));
+    }
+
+    @Test
+    public void testStaticServiceTime() {
+        OpDispenser<? extends NoopOp> dispenser = dispenserFor("""
+            ops:
+              op1:
+                service_time: 2ms
+            """);
+        NoopOp op = dispenser.apply(1L);
+        assertThat(op.getServiceTimeNanos()).isEqualTo(2_000_000L);
+        long startAt = System.nanoTime();
+        op.apply(1L);
+        assertThat(System.nanoTime() - startAt).isGreaterThanOrEqualTo(2_000_000L);
+    }
+
+    @Test
+    public void testBoundServiceTimeWithSpin() {
+        OpDispenser<? extends NoopOp> dispenser = dispenserFor("""
+            bindings:
+              svc: Mod(5); Add(1); Mul(100000)
+            params:
+              wait: spin
+            ops:
+              op1:
+                service_time: "{svc}"
+            """);
+        assertThat(dispenser.apply(0L).getServiceTimeNanos()).isEqualTo(100_000L);
+        assertThat(dispenser.apply(4L).getServiceTimeNanos()).isEqualTo(500_000L);
+        long startAt = System.nanoTime();
+        dispenser.apply(4L).apply(4L);
+        assertThat(System.nanoTime() - startAt).isGreaterThanOrEqualTo(500_000L);
+    }
+}
@@ -285,6 +285,7 @@ public class MessageConsumerOp extends PulsarClientOp {
 
         int messageSize = message.getData().length;
         messageSizeHistogram.update(messageSize);
+        responseBytes = messageSize;
     }
 
     private void checkAndUpdateMessageErrorCounter(Message<?> message) {
@@ -177,6 +177,7 @@ public class MessageProducerOp extends PulsarClientOp {
         }
 
         messageSizeHistogram.update(messageSize);
+        requestBytes = messageSize;
 
         //TODO: add error handling with failed message production
         if (!asyncApi) {
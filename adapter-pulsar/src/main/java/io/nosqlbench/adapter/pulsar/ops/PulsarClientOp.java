@@ -39,6 +39,10 @@ public abstract class PulsarClientOp extends PulsarOp {
 
     protected final Timer transactionCommitTimer;
 
+    // payload sizes observed by this op, reported through OpPayloadSize
+    protected long requestBytes = -1L;
+    protected volatile long responseBytes = -1L;
+
     public PulsarClientOp(PulsarAdapterMetrics pulsarAdapterMetrics,
                           PulsarClient pulsarClient,
                           Schema<?> pulsarScheam,
@@ -86,4 +90,14 @@ public abstract class PulsarClientOp extends PulsarOp {
         }
         return avroKeySchema;
     }
+
+    @Override
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    @Override
+    public long getResponseBytes() {
+        return responseBytes;
+    }
 }
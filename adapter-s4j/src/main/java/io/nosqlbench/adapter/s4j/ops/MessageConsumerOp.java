@@ -98,6 +98,7 @@ public class MessageConsumerOp extends S4JOp {
                         int messageSize = recvdMsgBody.length;
 
                         messageSizeHistogram.update(messageSize);
+                        responseBytes = messageSize;
 
                         if (logger.isDebugEnabled()) {
                             // for testing purpose
@@ -68,6 +68,7 @@ public class MessageProducerOp extends S4JOp {
 
                 int msgSize = message.getIntProperty(S4JAdapterUtil.NB_MSG_SIZE_PROP);
                 messageSizeHistogram.update(msgSize);
+                requestBytes = msgSize;
 
                 // Please see S4JBaseOpDispenser::getOrCreateJmsProducer() for async processing
                 if (!asyncApi) {
@@ -36,6 +36,10 @@ public abstract class S4JOp implements CycleOp<Object> {
     protected final long maxS4jOpDurationInSec;
     protected final Histogram messageSizeHistogram;
 
+    // payload sizes observed by this op, reported through OpPayloadSize
+    protected long requestBytes = -1L;
+    protected long responseBytes = -1L;
+
 
     public S4JOp(
         S4JAdapterMetrics s4jAdapterMetrics,
@@ -55,4 +59,14 @@ public abstract class S4JOp implements CycleOp<Object> {
         this.maxS4jOpDurationInSec = s4jSpace.getMaxS4JOpTimeInSec();
         this.messageSizeHistogram = s4jAdapterMetrics.getMessagesizeHistogram();
     }
+
+    @Override
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    @Override
+    public long getResponseBytes() {
+        return responseBytes;
+    }
 }
@@ -16,6 +16,7 @@
 
 package io.nosqlbench.adapter.stdout;
 
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpPayloadSize;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.RunnableOp;
 
 public class StdoutOp implements RunnableOp {
@@ -33,4 +34,9 @@ public class StdoutOp implements RunnableOp {
         ctx.writeflush(text);
 
     }
+
+    @Override
+    public long getRequestBytes() {
+        return OpPayloadSize.utf8Length(text);
+    }
 }
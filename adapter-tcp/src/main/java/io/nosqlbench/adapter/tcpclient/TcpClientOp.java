@@ -16,6 +16,7 @@
 
 package io.nosqlbench.adapter.tcpclient;
 
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpPayloadSize;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.RunnableOp;
 
 public class TcpClientOp implements RunnableOp {
@@ -30,4 +31,9 @@ public class TcpClientOp implements RunnableOp {
     public void run() {
         ctx.writeflush(text);
     }
+
+    @Override
+    public long getRequestBytes() {
+        return OpPayloadSize.utf8Length(text);
+    }
 }
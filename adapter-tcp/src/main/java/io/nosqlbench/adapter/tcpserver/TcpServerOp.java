@@ -16,6 +16,7 @@
 
 package io.nosqlbench.adapter.tcpserver;
 
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.OpPayloadSize;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.RunnableOp;
 
 public class TcpServerOp implements RunnableOp {
@@ -29,4 +30,9 @@ public class TcpServerOp implements RunnableOp {
     public void run() {
         ctx.writeflush(text);
     }
+
+    @Override
+    public long getRequestBytes() {
+        return OpPayloadSize.utf8Length(text);
+    }
 }
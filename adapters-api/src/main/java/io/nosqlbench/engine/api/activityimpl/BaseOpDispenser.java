@@ -17,6 +17,7 @@
 package io.nosqlbench.engine.api.activityimpl;
 
 import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
@@ -43,6 +44,11 @@ public abstract class BaseOpDispenser<T extends Op, S> implements OpDispenser<T>
     private Histogram resultSizeHistogram;
     private Timer successTimer;
     private Timer errorTimer;
+    private Meter resultRecordsMeter;
+    private Meter requestBytesMeter;
+    private Meter responseBytesMeter;
+    private Histogram requestSizeHistogram;
+    private Histogram responseSizeHistogram;
     private String[] timerStarts = new String[0];
     private String[] timerStops = new String[0];
 
@@ -69,6 +75,13 @@ public abstract class BaseOpDispenser<T extends Op, S> implements OpDispenser<T>
         return adapter;
     }
 
+    /**
+     * @return The name of the op template which this dispenser was created from
+     */
+    public String getOpName() {
+        return name;
+    }
+
 //    public BaseOpDispenser(CommandTemplate cmdtpl) {
 //        this.name = cmdtpl.getName();
 //    }
@@ -93,6 +106,11 @@ public abstract class BaseOpDispenser<T extends Op, S> implements OpDispenser<T>
             this.successTimer = ActivityMetrics.timer(getDefaultMetricsPrefix(pop) + "success");
             this.errorTimer = ActivityMetrics.timer(getDefaultMetricsPrefix(pop) + "error");
             this.resultSizeHistogram = ActivityMetrics.histogram(getDefaultMetricsPrefix(pop) + "resultset-size");
+            this.resultRecordsMeter = ActivityMetrics.meter(getDefaultMetricsPrefix(pop) + "result-records");
+            this.requestBytesMeter = ActivityMetrics.meter(getDefaultMetricsPrefix(pop) + "request-bytes");
+            this.responseBytesMeter = ActivityMetrics.meter(getDefaultMetricsPrefix(pop) + "response-bytes");
+            this.requestSizeHistogram = ActivityMetrics.histogram(getDefaultMetricsPrefix(pop) + "request-size");
+            this.responseSizeHistogram = ActivityMetrics.histogram(getDefaultMetricsPrefix(pop) + "response-size");
         }
     }
 
@@ -109,6 +127,7 @@ public abstract class BaseOpDispenser<T extends Op, S> implements OpDispenser<T>
             successTimer.update(nanoTime, TimeUnit.NANOSECONDS);
             if (resultsize>-1) {
                 resultSizeHistogram.update(resultsize);
+                resultRecordsMeter.mark(resultsize);
             }
         }
         if (timerStops!=null) {
@@ -118,6 +137,25 @@ public abstract class BaseOpDispenser<T extends Op, S> implements OpDispenser<T>
 //        ThreadLocalNamedTimers.TL_INSTANCE.get().stop(stopTimers);
     }
 
+    @Override
+    public boolean isPayloadTracked() {
+        return instrument;
+    }
+
+    @Override
+    public void onPayload(long cycleValue, long requestBytes, long responseBytes) {
+        if (instrument) {
+            if (requestBytes>-1) {
+                requestBytesMeter.mark(requestBytes);
+                requestSizeHistogram.update(requestBytes);
+            }
+            if (responseBytes>-1) {
+                responseBytesMeter.mark(responseBytes);
+                responseSizeHistogram.update(responseBytes);
+            }
+        }
+    }
+
     @Override
     public void onError(long cycleValue, long resultNanos, Throwable t) {
         if (instrument) {
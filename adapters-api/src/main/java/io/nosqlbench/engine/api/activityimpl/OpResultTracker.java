@@ -20,4 +20,20 @@ public interface OpResultTracker {
     void onStart(long cycleValue);
     void onSuccess(long cycleValue, long nanoTime, long resultsize);
     void onError(long cycleValue, long resultNanos, Throwable t);
+
+    /**
+     * Payload sizes may be costly for some ops to compute, so they are only asked for
+     * when the tracker will use them.
+     * @return true if {@link #onPayload(long, long, long)} should be called
+     */
+    default boolean isPayloadTracked() {
+        return false;
+    }
+
+    /**
+     * Called after a successful operation with the payload sizes reported by the op.
+     * Values less than 0 mean that the op did not report that size.
+     */
+    default void onPayload(long cycleValue, long requestBytes, long responseBytes) {
+    }
 }
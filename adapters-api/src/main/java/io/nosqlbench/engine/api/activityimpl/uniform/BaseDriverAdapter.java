@@ -163,8 +163,14 @@ public abstract class BaseDriverAdapter<R extends Op, S> implements DriverAdapte
             .add(Param.optional("recycles").setDescription("allow cycles to be re-used this many times"))
             .add(Param.optional(List.of("cyclerate", "targetrate", "rate"), String.class, "rate limit for cycles per second"))
             .add(Param.optional("phaserate", String.class, "rate limit for phases per second"))
+            .add(Param.optional("openloop", Boolean.class, "measure per-op response time from the cyclerate schedule"))
             .add(Param.optional("seq", String.class, "sequencing algorithm"))
             .add(Param.optional("instrument", Boolean.class))
+            .add(Param.optional("lazyinit", Boolean.class, "create op dispensers on first use instead of at activity start"))
+            .add(Param.optional("worker", Integer.class, "worker index, set by a distributed coordinator"))
+            .add(Param.optional("slo", String.class, "latency objective for adaptive rate and thread control, like p99:10ms"))
+            .add(Param.optional("slo_window", String.class, "measurement window for each slo control step"))
+            .add(Param.optional("slo_max_threads", Integer.class, "upper bound on threads for slo control"))
             .add(Param.optional(List.of("workload", "yaml"), String.class, "location of workload yaml file"))
             .add(Param.optional("driver", String.class))
             .add(Param.defaultTo("dryrun","none").setRegex("(op|jsonnet|none)"))
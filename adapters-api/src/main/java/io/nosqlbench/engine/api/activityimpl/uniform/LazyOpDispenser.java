@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.uniform;
+
+import com.codahale.metrics.Timer;
+import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * An op dispenser which creates the real dispenser for its op template the first time it is used.
+ * This allows activities with many op templates to start without creating dispensers (and all of
+ * the driver-side resources which go with them, like prepared statements) for op templates which
+ * are rarely or never selected. The real dispenser is created exactly once, by whichever thread
+ * gets to it first, while any other threads asking for it at the same time wait for it.
+ * <p>The time taken to create the real dispenser is recorded in its own timer. Callers which keep
+ * per-cycle timers should call {@link #initialize()} before starting them, so that this one-time
+ * cost is not counted as part of any cycle.</p>
+ *
+ * @param <T> The type of operation
+ */
+public class LazyOpDispenser<T extends Op> implements OpDispenser<T>, AutoCloseable {
+
+    private final String opName;
+    private Supplier<OpDispenser<? extends T>> initializer;
+    private final Timer initTimer;
+    private volatile OpDispenser<? extends T> dispenser;
+
+    public LazyOpDispenser(String opName, Supplier<OpDispenser<? extends T>> initializer, Timer initTimer) {
+        this.opName = opName;
+        this.initializer = initializer;
+        this.initTimer = initTimer;
+    }
+
+    /**
+     * @return The name of the op template which this dispenser was created from
+     */
+    public String getOpName() {
+        return opName;
+    }
+
+    public boolean isInitialized() {
+        return dispenser != null;
+    }
+
+    /**
+     * Create the real dispenser if it has not been created yet. This is safe to call from any
+     * number of threads, and only the first caller creates it.
+     */
+    public void initialize() {
+        getDispenser();
+    }
+
+    private OpDispenser<? extends T> getDispenser() {
+        OpDispenser<? extends T> initialized = dispenser;
+        if (initialized == null) {
+            synchronized (this) {
+                initialized = dispenser;
+                if (initialized == null) {
+                    long startedAt = System.nanoTime();
+                    initialized = initializer.get();
+                    if (initTimer != null) {
+                        initTimer.update(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                    dispenser = initialized;
+                    initializer = null;
+                }
+            }
+        }
+        return initialized;
+    }
+
+    @Override
+    public T apply(long cycle) {
+        return getDispenser().apply(cycle);
+    }
+
+    @Override
+    public void onStart(long cycleValue) {
+        getDispenser().onStart(cycleValue);
+    }
+
+    @Override
+    public void onSuccess(long cycleValue, long nanoTime, long resultsize) {
+        getDispenser().onSuccess(cycleValue, nanoTime, resultsize);
+    }
+
+    @Override
+    public void onError(long cycleValue, long resultNanos, Throwable t) {
+        getDispenser().onError(cycleValue, resultNanos, t);
+    }
+
+    @Override
+    public boolean isPayloadTracked() {
+        return getDispenser().isPayloadTracked();
+    }
+
+    @Override
+    public void onPayload(long cycleValue, long requestBytes, long responseBytes) {
+        getDispenser().onPayload(cycleValue, requestBytes, responseBytes);
+    }
+
+    /**
+     * Closes the real dispenser if it was ever created and is itself closeable.
+     */
+    @Override
+    public void close() throws Exception {
+        OpDispenser<? extends T> initialized = dispenser;
+        if (initialized instanceof AutoCloseable autoCloseable) {
+            autoCloseable.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LazyOpDispenser{" + opName + ", " + (dispenser != null ? dispenser : "uninitialized") + "}";
+    }
+}
@@ -32,5 +32,5 @@ package io.nosqlbench.engine.api.activityimpl.uniform.flowtypes;
  * </p>
  */
 // TODO: optimize the runtime around the specific op type
-public interface Op extends OpResultSize {
+public interface Op extends OpResultSize, OpPayloadSize {
 }
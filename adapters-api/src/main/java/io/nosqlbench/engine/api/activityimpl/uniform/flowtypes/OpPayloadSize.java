@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.uniform.flowtypes;
+
+/**
+ * Provide the payload sizes for an operation, in bytes on the wire or as close to it
+ * as the driver can cheaply observe. These are reported alongside {@link OpResultSize}
+ * so that throughput can be tracked in bytes as well as ops and rows.
+ * They are only asked for when the op template is instrumented, so an op may compute
+ * them lazily after it has completed.
+ */
+public interface OpPayloadSize {
+
+    /**
+     * Provide the number of bytes sent by this operation.
+     * If this value is less than 0, it is disregarded, since not every
+     * operation has a meaningful request payload.
+     */
+    default long getRequestBytes() {
+        return -1L;
+    }
+
+    /**
+     * Provide the number of bytes received by this operation.
+     * If this value is less than 0, it is disregarded, since not every
+     * operation has a meaningful response payload.
+     */
+    default long getResponseBytes() {
+        return -1L;
+    }
+
+    /**
+     * Compute the UTF-8 encoded length of a character sequence without allocating
+     * the encoded form. This is the common case for text payloads which are built as
+     * strings and encoded by the driver.
+     * @param chars The characters which will be encoded, possibly null
+     * @return the number of bytes, or 0 for null
+     */
+    static long utf8Length(CharSequence chars) {
+        if (chars == null) {
+            return 0L;
+        }
+        long bytes = 0L;
+        int len = chars.length();
+        for (int i = 0; i < len; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    bytes += 4;
+                    i++;
+                } else {
+                    bytes++; // unpaired surrogates are encoded as '?'
+                }
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.uniform;
+
+import com.codahale.metrics.Timer;
+import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyOpDispenserTest {
+
+    private final static Op op = new Op() {
+    };
+
+    private static class CountingDispenser implements OpDispenser<Op>, AutoCloseable {
+        private boolean closed;
+
+        @Override
+        public Op apply(long value) {
+            return op;
+        }
+
+        @Override
+        public void onStart(long cycleValue) {
+        }
+
+        @Override
+        public void onSuccess(long cycleValue, long nanoTime, long resultsize) {
+        }
+
+        @Override
+        public void onError(long cycleValue, long resultNanos, Throwable t) {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void testSingleInitializationAcrossThreads() throws Exception {
+        AtomicInteger inits = new AtomicInteger();
+        CountingDispenser real = new CountingDispenser();
+        Timer initTimer = new Timer();
+        LazyOpDispenser<Op> lazy = new LazyOpDispenser<>("test", () -> {
+            inits.incrementAndGet();
+            return real;
+        }, initTimer);
+        assertThat(lazy.isInitialized()).isFalse();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                lazy.initialize();
+                assertThat(lazy.apply(1L)).isSameAs(op);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(inits.get()).isEqualTo(1);
+        assertThat(initTimer.getCount()).isEqualTo(1);
+        assertThat(lazy.isInitialized()).isTrue();
+        lazy.close();
+        assertThat(real.closed).isTrue();
+    }
+
+    @Test
+    public void testCloseWithoutInitialization() throws Exception {
+        LazyOpDispenser<Op> lazy = new LazyOpDispenser<>("test", () -> {
+            throw new RuntimeException("should not be initialized");
+        }, null);
+        lazy.close();
+        assertThat(lazy.isInitialized()).isFalse();
+    }
+}
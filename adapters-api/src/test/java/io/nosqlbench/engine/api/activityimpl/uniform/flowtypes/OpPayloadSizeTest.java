@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.uniform.flowtypes;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpPayloadSizeTest {
+
+    @Test
+    public void testUtf8LengthMatchesEncoder() {
+        String[] samples = {"", "plain ascii", "caf\u00e9", "\u20ac100", "emoji \uD83D\uDE00 here", "lone \uD800 high", "\uDC00 low"};
+        for (String sample : samples) {
+            assertThat(OpPayloadSize.utf8Length(sample))
+                .as(sample)
+                .isEqualTo(sample.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    @Test
+    public void testUtf8LengthOfNull() {
+        assertThat(OpPayloadSize.utf8Length(null)).isEqualTo(0L);
+    }
+
+    @Test
+    public void testDefaultsAreUnreported() {
+        Op op = new Op() {};
+        assertThat(op.getRequestBytes()).isEqualTo(-1L);
+        assertThat(op.getResponseBytes()).isEqualTo(-1L);
+    }
+}
@@ -77,6 +77,20 @@ public interface ActivityInstrumentation {
 
     Counter getOrCreateOpTrackerBlockedCounter();
 
+    /**
+     * The pending ops histogram records how many ops were already in flight for a thread
+     * each time it starts another async op.
+     * @return a new or existing {@link Histogram}
+     */
+    Histogram getOrCreatePendingOpsHistogram();
+
+    /**
+     * The op tracker wait timer measures how long a thread was parked waiting for room
+     * in its window of in-flight async ops. It is only updated when the window was full.
+     * @return a new or existing {@link Timer}
+     */
+    Timer getOrCreateOpTrackerWaitTimer();
+
     /**
      * The bind timer keeps track of how long it takes for NoSQLBench to create an instance
      * of an executable operation, given the cycle. This is usually done by using an
@@ -93,6 +93,16 @@ public class CoreActivityInstrumentation implements ActivityInstrumentation {
         return ActivityMetrics.counter(def, metricName);
     }
 
+    @Override
+    public synchronized Histogram getOrCreatePendingOpsHistogram() {
+        return ActivityMetrics.histogram(def, "pending_ops_depth", activity.getHdrDigits());
+    }
+
+    @Override
+    public synchronized Timer getOrCreateOpTrackerWaitTimer() {
+        return ActivityMetrics.timer(def, "optracker_wait", activity.getHdrDigits());
+    }
+
     @Override
     public synchronized Timer getOrCreateBindTimer() {
         return ActivityMetrics.timer(def, "bind",  activity.getHdrDigits());
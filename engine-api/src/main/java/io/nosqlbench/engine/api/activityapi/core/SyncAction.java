@@ -30,4 +30,28 @@ public interface SyncAction extends Action {
         return (int) cycle % 100;
     }
 
+    /**
+     * <p>Do any one-time work which must happen before the given cycle can run, such as creating
+     * an op dispenser on first use. This is called before the cycle timers are started, so that
+     * such work is not counted as part of the cycle.</p>
+     *
+     * @param cycle a long input
+     */
+    default void prepareCycle(long cycle) {
+    }
+
+    /**
+     * <p>Apply a work function to an input value, as with {@link #runCycle(long)}, but also
+     * provide the time at which the cycle was intended to start according to the activity's
+     * rate schedule. This is used in open-loop mode so that actions which keep their own timers
+     * can measure response time from the intended start, and service time from the actual start.</p>
+     *
+     * @param cycle a long input
+     * @param intendedStartNanos the {@link System#nanoTime()} at which the cycle was scheduled to start
+     * @return an int status
+     */
+    default int runCycle(long cycle, long intendedStartNanos) {
+        return runCycle(cycle);
+    }
+
 }
@@ -27,8 +27,9 @@ import java.util.function.LongFunction;
  * <OL>
  *     <LI>It provides a single control point for tracking the state of all operations
  *     for an activity.</LI>
- *     <LI>It provides a synchronization object for parameter updates which might affect
- *     whether new operations should block callers.</LI>
+ *     <LI>It blocks callers which would start new operations while the limit of
+ *     operations in flight is reached, and releases them when operations complete or the
+ *     limit is changed by a parameter update.</LI>
  * </OL>
  * @param <D>
  */
@@ -51,6 +52,14 @@ public interface OpTracker<D> extends OpEvents<D> {
 
     boolean isFull();
 
+    /**
+     * Return as soon as there is room for another op in flight, parking the calling thread
+     * only while the tracker is full. If the calling thread is interrupted, this returns
+     * early with the interrupt flag still set, and the tracker may still be full.
+     * @return the nanoseconds spent waiting, or 0 if the tracker was not full
+     */
+    long awaitCapacity();
+
     int getPendingOps();
 
     // By making the op tracker the factory for ops, we allow it to hook their event streams
@@ -17,6 +17,7 @@
 package io.nosqlbench.engine.api.activityapi.core.ops.fluent;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Timer;
 import io.nosqlbench.engine.api.activityapi.core.Activity;
 import io.nosqlbench.engine.api.activityapi.core.ActivityDefObserver;
@@ -25,22 +26,39 @@ import io.nosqlbench.api.engine.activityimpl.ActivityDef;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.LongFunction;
 
 /**
  * This tracker keeps track of the state of operations associated with it.
  *
+ * <p>The pending op count acts as a counting semaphore over a window of {@link #getMaxPendingOps()}
+ * ops, without taking a monitor on either side. The owning thread checks the count before starting
+ * an op, and only parks when the window is full. It publishes itself as the waiter before checking
+ * the count again, and completions read the waiter after releasing their count, so a completion
+ * which makes room can't be missed. Completions only pay for an unpark when a thread is actually
+ * waiting.</p>
+ *
+ * <p>Parking returns immediately while the thread's interrupt flag is set, so both waits give up
+ * as soon as the waiting thread is interrupted, leaving the flag set for the caller to act on.</p>
+ *
  * @param <D> The payload data type of the associated Op, based on OpImpl
  */
 public class OpTrackerImpl<D> implements OpTracker<D>, ActivityDefObserver {
+    private final static long MAX_PARK_NANOS = TimeUnit.SECONDS.toNanos(10);
+
     private final AtomicInteger pendingOps = new AtomicInteger(0);
     private final String label;
     private final long slot;
     private final Timer cycleServiceTimer;
     private final Timer cycleResponseTimer;
     private final Counter pendingOpsCounter;
+    private final Histogram pendingOpsHistogram;
+    private final Timer waitTimer;
+    private final Counter blockedCounter;
 
-    private int maxPendingOps =1;
+    private volatile int maxPendingOps =1;
+    private volatile Thread waiter;
     private LongFunction<D> cycleOpFunction;
 
 
@@ -51,6 +69,9 @@ public class OpTrackerImpl<D> implements OpTracker<D>, ActivityDefObserver {
         this.pendingOpsCounter = activity.getInstrumentation().getOrCreatePendingOpCounter();
         this.cycleServiceTimer = activity.getInstrumentation().getOrCreateCyclesServiceTimer();
         this.cycleResponseTimer = activity.getInstrumentation().getCyclesResponseTimerOrNull();
+        this.pendingOpsHistogram = activity.getInstrumentation().getOrCreatePendingOpsHistogram();
+        this.waitTimer = activity.getInstrumentation().getOrCreateOpTrackerWaitTimer();
+        this.blockedCounter = activity.getInstrumentation().getOrCreateOpTrackerBlockedCounter();
     }
 
     // for testing
@@ -60,75 +81,83 @@ public class OpTrackerImpl<D> implements OpTracker<D>, ActivityDefObserver {
         this.cycleResponseTimer = cycleResponseTimer;
         this.cycleServiceTimer = cycleServiceTimer;
         this.pendingOpsCounter = pendingOpsCounter;
+        this.pendingOpsHistogram = null;
+        this.waitTimer = null;
+        this.blockedCounter = null;
     }
 
     @Override
     public void onOpStarted(StartedOp<D> op) {
-        pendingOps.incrementAndGet();
+        int pending = pendingOps.getAndIncrement();
         pendingOpsCounter.inc();
+        if (pendingOpsHistogram != null) { pendingOpsHistogram.update(pending); }
     }
 
     @Override
     public void onOpSuccess(SucceededOp<D> op) {
-        pendingOpsCounter.dec();
-        int pending = this.pendingOps.decrementAndGet();
-
         cycleServiceTimer.update(op.getServiceTimeNanos(), TimeUnit.NANOSECONDS);
         if (cycleResponseTimer !=null) { cycleResponseTimer.update(op.getResponseTimeNanos(), TimeUnit.NANOSECONDS); }
-
-        if (pending< maxPendingOps) {
-            synchronized (this) {
-                notify();
-            }
-        }
+        release();
     }
 
     @Override
     public void onOpSkipped(SkippedOp<D> op) {
-        pendingOpsCounter.dec();
-        int pending = this.pendingOps.decrementAndGet();
-
-        if (pending< maxPendingOps) {
-            synchronized (this) {
-                notify();
-            }
-        }
-
+        release();
     }
 
-
-
     @Override
     public void onOpFailure(FailedOp<D> op) {
-        pendingOpsCounter.dec();
-        int pending = this.pendingOps.decrementAndGet();
-
         cycleServiceTimer.update(op.getServiceTimeNanos(), TimeUnit.NANOSECONDS);
         if (cycleResponseTimer !=null) { cycleResponseTimer.update(op.getResponseTimeNanos(), TimeUnit.NANOSECONDS); }
+        release();
+    }
 
-        if (pending< maxPendingOps) {
-            synchronized (this) {
-                notify();
-            }
+    private void release() {
+        pendingOpsCounter.dec();
+        pendingOps.decrementAndGet();
+        Thread parked = waiter;
+        if (parked != null) {
+            LockSupport.unpark(parked);
         }
     }
 
     @Override
     public void setMaxPendingOps(int maxPendingOps) {
         this.maxPendingOps =maxPendingOps;
-        synchronized (this) {
-            notifyAll();
+        Thread parked = waiter;
+        if (parked != null) {
+            LockSupport.unpark(parked);
         }
     }
 
     @Override
     public boolean isFull() {
-        return this.pendingOps.intValue()>=maxPendingOps;
+        return this.pendingOps.get()>=maxPendingOps;
+    }
+
+    @Override
+    public long awaitCapacity() {
+        if (!isFull()) {
+            return 0L;
+        }
+        if (blockedCounter != null) { blockedCounter.inc(); }
+        long startAt = System.nanoTime();
+        waiter = Thread.currentThread();
+        try {
+            while (isFull() && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+        } finally {
+            waiter = null;
+        }
+        long waited = System.nanoTime() - startAt;
+        if (waitTimer != null) { waitTimer.update(waited, TimeUnit.NANOSECONDS); }
+        return waited;
     }
 
     @Override
     public int getPendingOps() {
-        return pendingOps.intValue();
+        return pendingOps.get();
     }
 
     @Override
@@ -150,14 +179,17 @@ public class OpTrackerImpl<D> implements OpTracker<D>, ActivityDefObserver {
     }
 
     @Override
-    public synchronized boolean awaitCompletion(long timeout) {
-        long endAt = System.currentTimeMillis() + timeout;
-        while (getPendingOps() > 0 && System.currentTimeMillis() < endAt) {
-            try {
-                long waitfor = Math.max(0, endAt - System.currentTimeMillis());
-                wait(waitfor);
-            } catch (InterruptedException ignored) {
+    public boolean awaitCompletion(long timeout) {
+        long endAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        waiter = Thread.currentThread();
+        try {
+            long remaining;
+            while (getPendingOps() > 0 && (remaining = endAt - System.nanoTime()) > 0
+                && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(this, remaining);
             }
+        } finally {
+            waiter = null;
         }
         return getPendingOps() == 0;
     }
@@ -169,7 +201,7 @@ public class OpTrackerImpl<D> implements OpTracker<D>, ActivityDefObserver {
 
     @Override
     public void onActivityDefUpdate(ActivityDef activityDef) {
-        this.maxPendingOps=getMaxPendingOpsForThisThread(activityDef);
+        setMaxPendingOps(getMaxPendingOpsForThisThread(activityDef));
     }
 
     private int getMaxPendingOpsForThisThread(ActivityDef def) {
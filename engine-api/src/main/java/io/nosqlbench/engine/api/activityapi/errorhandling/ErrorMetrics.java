@@ -21,6 +21,7 @@ import io.nosqlbench.engine.api.metrics.ExceptionCountMetrics;
 import io.nosqlbench.engine.api.metrics.ExceptionHistoMetrics;
 import io.nosqlbench.engine.api.metrics.ExceptionMeterMetrics;
 import io.nosqlbench.engine.api.metrics.ExceptionTimerMetrics;
+import io.nosqlbench.engine.api.metrics.RetryPolicyMetrics;
 
 import java.util.function.Supplier;
 
@@ -31,6 +32,7 @@ public class ErrorMetrics {
     private ExceptionHistoMetrics exceptionHistoMetrics;
     private ExceptionMeterMetrics exceptionMeterMetrics;
     private ExceptionTimerMetrics exceptionTimerMetrics;
+    private RetryPolicyMetrics retryPolicyMetrics;
 
     public ErrorMetrics(ActivityDef activityDef) {
         this.activityDef = activityDef;
@@ -64,6 +66,13 @@ public class ErrorMetrics {
         return exceptionTimerMetrics;
     }
 
+    public synchronized RetryPolicyMetrics getRetryPolicyMetrics() {
+        if (retryPolicyMetrics == null) {
+            retryPolicyMetrics = new RetryPolicyMetrics(activityDef);
+        }
+        return retryPolicyMetrics;
+    }
+
     public interface Aware {
         void setErrorMetricsSupplier(Supplier<ErrorMetrics> supplier);
     }
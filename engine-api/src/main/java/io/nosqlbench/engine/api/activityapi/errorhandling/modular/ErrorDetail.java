@@ -20,6 +20,7 @@ public class ErrorDetail {
     public final Retry retryable;
     public final int resultCode;
     public final String name;
+    public final long retryDelayNanos;
 
     public boolean isRetryable() {
         return retryable == Retry.DoRetry;
@@ -32,23 +33,46 @@ public class ErrorDetail {
     }
 
     public ErrorDetail(String name, Retry retryable, int resultCode) {
+        this(name, retryable, resultCode, 0L);
+    }
+
+    public ErrorDetail(String name, Retry retryable, int resultCode, long retryDelayNanos) {
         this.name = name;
         this.resultCode = resultCode;
         this.retryable = retryable;
+        this.retryDelayNanos = retryDelayNanos;
     }
 
     public ErrorDetail withResultCode(int resultCode) {
         if (this.resultCode == resultCode) {
             return this;
         }
-        return new ErrorDetail(name, this.retryable, resultCode);
+        return new ErrorDetail(name, this.retryable, resultCode, this.retryDelayNanos);
     }
 
     public ErrorDetail withRetryable() {
         if (this.retryable == Retry.DoRetry) {
             return this;
         }
-        return new ErrorDetail(name, Retry.DoRetry, this.resultCode);
+        return new ErrorDetail(name, Retry.DoRetry, this.resultCode, this.retryDelayNanos);
+    }
+
+    public ErrorDetail withNotRetryable() {
+        if (this.retryable == Retry.DoNotRetry) {
+            return this;
+        }
+        return new ErrorDetail(name, Retry.DoNotRetry, this.resultCode, 0L);
+    }
+
+    /**
+     * @param retryDelayNanos How long the caller should wait before retrying the operation
+     * @return An error detail which is retryable after the given delay
+     */
+    public ErrorDetail withRetryDelay(long retryDelayNanos) {
+        if (this.retryable == Retry.DoRetry && this.retryDelayNanos == retryDelayNanos) {
+            return this;
+        }
+        return new ErrorDetail(name, Retry.DoRetry, this.resultCode, retryDelayNanos);
     }
 
     public static ErrorDetail OK = new ErrorDetail("OK",Retry.Unset, 0);
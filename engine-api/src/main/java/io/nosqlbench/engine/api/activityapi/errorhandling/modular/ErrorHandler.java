@@ -28,4 +28,13 @@ public interface ErrorHandler {
      * @return true if the operation should be retried, assuming retries available
      */
     ErrorDetail handleError(String name, Throwable t, long cycle, long durationInNanos, ErrorDetail detail);
+
+    /**
+     * Error handlers which need to see successful operations as well as errors,
+     * such as those which budget retries against the rate of successes, can
+     * implement this to be notified of each successful operation.
+     */
+    interface SuccessAware {
+        void handleSuccess(long cycle, long durationInNanos);
+    }
 }
@@ -37,6 +37,7 @@ public class NBErrorHandler {
     private final Function<Throwable, String> namer;
     private final Map<String, List<ErrorHandler>> handlerCache = new ConcurrentHashMap<>();
     private final List<HandlerMapping> configs = new ArrayList<>();
+    private volatile ErrorHandler.SuccessAware[] successHandlers = new ErrorHandler.SuccessAware[0];
 
     public NBErrorHandler(Supplier<String> configSpecSupplier, Supplier<ErrorMetrics> metricsSupplier) {
         this(configSpecSupplier, metricsSupplier, throwable -> throwable.getClass().getSimpleName());
@@ -70,6 +71,17 @@ public class NBErrorHandler {
         return detail;
     }
 
+    /**
+     * Notify any handlers which track successful operations. This is called for every
+     * successful operation, so it does nothing unless such a handler has been resolved.
+     */
+    public void handleSuccess(long cycle, long durationInNanos) {
+        ErrorHandler.SuccessAware[] handlers = this.successHandlers;
+        for (ErrorHandler.SuccessAware handler : handlers) {
+            handler.handleSuccess(cycle, durationInNanos);
+        }
+    }
+
     private synchronized List<ErrorHandler> lookup(String errorName) {
         for (HandlerMapping config : configs) {
             for (Pattern errorPattern : config.matchers) {
@@ -103,6 +115,11 @@ public class NBErrorHandler {
         if (handler instanceof ErrorMetrics.Aware) {
             ((ErrorMetrics.Aware) handler).setErrorMetricsSupplier(errorMetricsSupplier);
         }
+        if (handler instanceof ErrorHandler.SuccessAware) {
+            ErrorHandler.SuccessAware[] handlers = Arrays.copyOf(successHandlers, successHandlers.length + 1);
+            handlers[handlers.length - 1] = (ErrorHandler.SuccessAware) handler;
+            successHandlers = handlers;
+        }
         return handler;
     }
 
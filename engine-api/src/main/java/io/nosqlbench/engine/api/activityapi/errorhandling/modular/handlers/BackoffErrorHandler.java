@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.errorhandling.modular.handlers;
+
+import io.nosqlbench.api.config.standard.ConfigModel;
+import io.nosqlbench.api.config.standard.NBConfigModel;
+import io.nosqlbench.api.config.standard.NBMapConfigurable;
+import io.nosqlbench.api.config.standard.Param;
+import io.nosqlbench.engine.api.activityapi.errorhandling.ErrorMetrics;
+import io.nosqlbench.engine.api.activityapi.errorhandling.modular.ErrorDetail;
+import io.nosqlbench.engine.api.activityapi.errorhandling.modular.ErrorHandler;
+import io.nosqlbench.engine.api.metrics.RetryPolicyMetrics;
+import io.nosqlbench.engine.api.metrics.RetryPolicyMetrics.BreakerState;
+import io.nosqlbench.nb.annotations.Service;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * <p>The backoff error handler marks errors as retryable, like the retry handler, but
+ * also tells the caller how long to wait before retrying, and withholds retries when
+ * doing so would only amplify load on a target which is already failing.</p>
+ *
+ * <ul>
+ *     <li><em>backoff</em> - Each retry of the same cycle waits longer, starting at
+ *     {@code base} milliseconds, doubling each time, up to {@code cap} milliseconds.
+ *     With {@code jitter=full}, a random delay between zero and the exponential delay
+ *     is used. With {@code jitter=decorrelated}, a random delay between {@code base} and
+ *     three times the previous delay is used. With {@code jitter=none}, the exponential
+ *     delay is used as is.</li>
+ *     <li><em>budget</em> - Retries are drawn from a token bucket which is shared by all
+ *     threads in the activity. Each successful operation adds {@code budget} tokens, and
+ *     each retry takes one, so {@code budget=0.1} allows about one retry for every ten
+ *     successful operations. The bucket holds at most {@code budget_cap} tokens, and starts
+ *     full. When the bucket is empty, errors are not retried.</li>
+ *     <li><em>breaker</em> - After {@code breaker} consecutive errors, with no successful
+ *     operations between them, the breaker opens and errors are not retried. After
+ *     {@code cooldown} milliseconds, the breaker is half-open and allows a single retry to
+ *     probe the target. A successful operation closes the breaker. {@code breaker=0}
+ *     disables this behavior.</li>
+ * </ul>
+ *
+ * <p>The delay before each retry is tracked as {@code retrydelay} in nanoseconds, along with
+ * {@code retrybudget.exhausted}, {@code retrybudget.tokens}, {@code retrybreaker.trips} and
+ * {@code retrybreaker.state} (0=closed, 1=open, 2=halfopen).</p>
+ */
+@Service(value = ErrorHandler.class, selector = "backoff")
+public class BackoffErrorHandler implements ErrorHandler, ErrorHandler.SuccessAware, ErrorMetrics.Aware, NBMapConfigurable {
+
+    public enum Jitter {
+        none,
+        full,
+        decorrelated
+    }
+
+    private long baseNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private long capNanos = TimeUnit.SECONDS.toNanos(1);
+    private Jitter jitter = Jitter.decorrelated;
+    private double budgetRatio = 0.1d;
+    private double budgetCap = 100.0d;
+    private int breakerThreshold = 0;
+    private long cooldownNanos = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Budget tokens are kept in fixed point, so that they can be updated without locking.
+     */
+    private final static long TOKEN_SCALE = 1000L;
+    private final AtomicLong budgetTokens = new AtomicLong();
+    private final AtomicInteger consecutiveErrors = new AtomicInteger();
+    private final AtomicLong breakerOpenedAt = new AtomicLong(-1L);
+    private volatile BreakerState breakerState = BreakerState.closed;
+
+    /**
+     * Per thread: the last cycle which was retried, the attempt number for that cycle, and the last delay.
+     * Retries of a cycle always happen on the same thread as the first attempt.
+     */
+    private final ThreadLocal<long[]> attempts = ThreadLocal.withInitial(() -> new long[]{-1L, 0L, 0L});
+
+    private RetryPolicyMetrics metrics;
+
+    @Override
+    public ErrorDetail handleError(String name, Throwable t, long cycle, long durationInNanos, ErrorDetail detail) {
+        int errors = consecutiveErrors.incrementAndGet();
+
+        if (breakerThreshold > 0 && !allowedByBreaker(errors)) {
+            return detail.withNotRetryable();
+        }
+
+        if (!takeBudgetToken()) {
+            metrics.countBudgetExhausted();
+            return detail.withNotRetryable();
+        }
+
+        long delay = nextDelay(cycle);
+        metrics.updateRetryDelay(delay);
+        return detail.withRetryDelay(delay);
+    }
+
+    @Override
+    public void handleSuccess(long cycle, long durationInNanos) {
+        if (consecutiveErrors.get() != 0) {
+            consecutiveErrors.set(0);
+        }
+        if (breakerState != BreakerState.closed) {
+            setBreakerState(BreakerState.closed);
+        }
+        long deposit = (long) (budgetRatio * TOKEN_SCALE);
+        long capacity = (long) (budgetCap * TOKEN_SCALE);
+        long current;
+        do {
+            current = budgetTokens.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!budgetTokens.compareAndSet(current, Math.min(capacity, current + deposit)));
+    }
+
+    private boolean allowedByBreaker(int errors) {
+        long now = System.nanoTime();
+        switch (breakerState) {
+            case closed:
+                if (errors >= breakerThreshold) {
+                    breakerOpenedAt.set(now);
+                    setBreakerState(BreakerState.open);
+                    return false;
+                }
+                return true;
+            case open:
+                long openedAt = breakerOpenedAt.get();
+                if (now - openedAt >= cooldownNanos && breakerOpenedAt.compareAndSet(openedAt, now)) {
+                    setBreakerState(BreakerState.halfopen);
+                    return true;
+                }
+                return false;
+            case halfopen:
+            default:
+                breakerOpenedAt.set(now);
+                setBreakerState(BreakerState.open);
+                return false;
+        }
+    }
+
+    private void setBreakerState(BreakerState state) {
+        this.breakerState = state;
+        metrics.setBreakerState(state);
+    }
+
+    private boolean takeBudgetToken() {
+        long current;
+        do {
+            current = budgetTokens.get();
+            if (current < TOKEN_SCALE) {
+                return false;
+            }
+        } while (!budgetTokens.compareAndSet(current, current - TOKEN_SCALE));
+        return true;
+    }
+
+    private long nextDelay(long cycle) {
+        long[] state = attempts.get();
+        if (state[0] != cycle) {
+            state[0] = cycle;
+            state[1] = 0L;
+            state[2] = baseNanos;
+        }
+        long attempt = state[1]++;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay;
+        switch (jitter) {
+            case full:
+                delay = random.nextLong(exponential(attempt) + 1);
+                break;
+            case decorrelated:
+                long upper = Math.max(baseNanos, Math.min(capNanos, state[2] * 3));
+                delay = upper > baseNanos ? random.nextLong(baseNanos, upper + 1) : baseNanos;
+                break;
+            case none:
+            default:
+                delay = exponential(attempt);
+        }
+        state[2] = delay;
+        return delay;
+    }
+
+    private long exponential(long attempt) {
+        if (attempt >= 62 || (baseNanos << attempt) >>> attempt != baseNanos) {
+            return capNanos;
+        }
+        return Math.min(capNanos, baseNanos << attempt);
+    }
+
+    @Override
+    public void applyConfig(Map<String, ?> providedConfig) {
+        if (providedConfig.containsKey("base")) {
+            baseNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(providedConfig.get("base").toString()));
+        }
+        if (providedConfig.containsKey("cap")) {
+            capNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(providedConfig.get("cap").toString()));
+        }
+        if (providedConfig.containsKey("jitter")) {
+            jitter = Jitter.valueOf(providedConfig.get("jitter").toString());
+        }
+        if (providedConfig.containsKey("budget")) {
+            budgetRatio = Double.parseDouble(providedConfig.get("budget").toString());
+        }
+        if (providedConfig.containsKey("budget_cap")) {
+            budgetCap = Double.parseDouble(providedConfig.get("budget_cap").toString());
+        }
+        if (providedConfig.containsKey("breaker")) {
+            breakerThreshold = Integer.parseInt(providedConfig.get("breaker").toString());
+        }
+        if (providedConfig.containsKey("cooldown")) {
+            cooldownNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(providedConfig.get("cooldown").toString()));
+        }
+        if (baseNanos <= 0 || capNanos < baseNanos) {
+            throw new RuntimeException("backoff requires 0 < base <= cap, but base=" +
+                TimeUnit.NANOSECONDS.toMillis(baseNanos) + "ms and cap=" + TimeUnit.NANOSECONDS.toMillis(capNanos) + "ms");
+        }
+        budgetTokens.set((long) (budgetCap * TOKEN_SCALE));
+    }
+
+    @Override
+    public NBConfigModel getConfigModel() {
+        return ConfigModel.of(this.getClass())
+            .add(Param.defaultTo("base", 10L, "initial retry delay in milliseconds"))
+            .add(Param.defaultTo("cap", 1000L, "maximum retry delay in milliseconds"))
+            .add(Param.defaultTo("jitter", "decorrelated", "one of none, full, or decorrelated"))
+            .add(Param.defaultTo("budget", 0.1d, "retry tokens added for each successful op"))
+            .add(Param.defaultTo("budget_cap", 100.0d, "the maximum number of retry tokens"))
+            .add(Param.defaultTo("breaker", 0, "consecutive errors which open the breaker, or 0 to disable"))
+            .add(Param.defaultTo("cooldown", 1000L, "milliseconds before an open breaker allows a probe retry"))
+            .asReadOnly();
+    }
+
+    @Override
+    public void setErrorMetricsSupplier(Supplier<ErrorMetrics> supplier) {
+        this.metrics = supplier.get().getRetryPolicyMetrics();
+        this.metrics.setBudgetTokensSupplier(() -> (double) budgetTokens.get() / TOKEN_SCALE);
+    }
+}
@@ -57,6 +57,10 @@ public class SequencePlanner<T> {
             case concat:
                 logger.trace("sequencing elements by concatenation");
                 this.elementIndex = new ConcatSequencer<T>().seqIndexesByRatios(elements, ratios);
+                break;
+            case weighted:
+                logger.trace("sequencing elements by weighted alias sampling");
+                return new WeightedSequence<>(elements, ratios);
         }
         return new Sequence<>(sequencerType, elements, elementIndex);
     }
@@ -31,5 +31,9 @@ public enum SequencerType {
     /** Space out elements each according to their frequency over the unit interval, with
     // order of appearance taking precedence over equal timing, then take all events in
     // the order that they appear on the unit interval. */
-    interval
+    interval,
+
+    /** Select elements pseudo-randomly per cycle, weighted by their ratios, using an alias table.
+    // Selection is O(1) and memory is proportional to the number of elements, not the ratio sum. */
+    weighted
 }
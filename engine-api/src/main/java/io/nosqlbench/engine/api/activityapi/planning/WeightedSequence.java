@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.planning;
+
+import io.nosqlbench.virtdata.library.basics.core.stathelpers.AliasSamplerDoubleInt;
+import io.nosqlbench.virtdata.library.basics.core.stathelpers.EvProbD;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * <p>A weighted sequence selects an element for each cycle by sampling a discrete
+ * probability distribution, where each element's probability is its ratio over the
+ * sum of all ratios. Unlike the {@link BucketSequencer}, {@link ConcatSequencer} and
+ * {@link IntervalSequencer} plans, no look-up table of size <em>sum(ratios)</em> is
+ * built. Instead, an {@link AliasSamplerDoubleInt} table is built with one slot per
+ * element, and each cycle is hashed to a unit interval value which is used to sample
+ * it. This makes selection O(1) and memory proportional to the number of elements,
+ * regardless of how large the ratios are.</p>
+ *
+ * <p>The selection is stochastic over the cycle range, but deterministic for any given
+ * cycle, so the same cycle will always select the same element.</p>
+ *
+ * @param <T> The type of element which is to be sequenced
+ */
+public class WeightedSequence<T> implements OpSequence<T> {
+
+    private final static double UNIT_SCALE = 0x1.0p-53;
+
+    private final List<T> elems;
+    private final List<Long> ratios;
+    private final AliasSamplerDoubleInt sampler;
+    private final int[] seq;
+
+    WeightedSequence(List<T> elems, List<Long> ratios) {
+        if (elems.size() != ratios.size()) {
+            throw new RuntimeException("There must be exactly one ratio per element, but there were " +
+                elems.size() + " elements and " + ratios.size() + " ratios.");
+        }
+        this.elems = elems;
+        this.ratios = ratios;
+
+        List<EvProbD> events = new ArrayList<>();
+        List<Integer> active = new ArrayList<>();
+        for (int i = 0; i < ratios.size(); i++) {
+            long ratio = ratios.get(i);
+            if (ratio < 0) {
+                throw new RuntimeException("Ratios must be non-negative, but element " + i + " had ratio " + ratio);
+            }
+            if (ratio > 0) {
+                events.add(new EvProbD(i, (double) ratio));
+                active.add(i);
+            }
+        }
+        if (events.isEmpty()) {
+            throw new RuntimeException("At least one element must have a non-zero ratio for a weighted sequence.");
+        }
+        this.sampler = new AliasSamplerDoubleInt(events);
+        this.seq = active.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private WeightedSequence(List<T> elems, List<Long> ratios, AliasSamplerDoubleInt sampler, int[] seq) {
+        this.elems = elems;
+        this.ratios = ratios;
+        this.sampler = sampler;
+        this.seq = seq;
+    }
+
+    @Override
+    public T apply(long selector) {
+        return elems.get(sampler.applyAsInt(unitInterval(selector)));
+    }
+
+    /**
+     * Map a cycle value to the unit interval [0.0,1.0) with the murmur3 64-bit finalizer.
+     * This is stateless and allocation free, so it is safe to call from any thread.
+     */
+    private static double unitInterval(long value) {
+        value ^= (value >>> 33);
+        value *= 0xff51afd7ed558ccdL;
+        value ^= (value >>> 33);
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= (value >>> 33);
+        return (value >>> 11) * UNIT_SCALE;
+    }
+
+    @Override
+    public List<T> getOps() {
+        return elems;
+    }
+
+    /**
+     * For a weighted sequence, there is no pre-planned look-up table. Instead, the indices
+     * of all elements which may be selected are returned, once each. The length of this array
+     * is used as a default stride, in the same way as for the other sequence types.
+     * @return the indices of all elements with a non-zero ratio
+     */
+    @Override
+    public int[] getSequence() {
+        return seq;
+    }
+
+    public SequencerType getSequencerType() {
+        return SequencerType.weighted;
+    }
+
+    @Override
+    public <U> WeightedSequence<U> transform(Function<T, U> func) {
+        return new WeightedSequence<U>(elems.stream().map(func).collect(Collectors.toList()), ratios, sampler, seq);
+    }
+
+    @Override
+    public String toString() {
+        return "weighted:" + ratios + " over " + Arrays.toString(this.seq);
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.ratelimits;
+
+import com.codahale.metrics.Timer;
+import io.nosqlbench.api.engine.activityimpl.ParameterMap;
+import io.nosqlbench.api.engine.metrics.HdrDeltaHistogramAttachment;
+import io.nosqlbench.api.engine.metrics.HdrDeltaHistogramProvider;
+import io.nosqlbench.api.engine.util.Unit;
+import io.nosqlbench.engine.api.activityapi.core.Activity;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A closed-loop controller which searches for the highest cyclerate an activity can sustain
+ * while meeting a latency {@link SloSpec}, adjusting the {@code cyclerate} and {@code threads}
+ * params of the activity while it runs.</p>
+ *
+ * <p>Each step applies a rate and thread count, waits a quarter of a window for the activity to
+ * settle, and then measures one window from a delta histogram attached to the service timer.
+ * The search starts by doubling the rate until the objective is missed, and then continues with
+ * additive increases and multiplicative decreases (AIMD). Increases are never past the midpoint
+ * between the best rate which met the objective and the lowest rate which missed it, so the
+ * two close in on each other. The search has converged when they are within
+ * {@link #RESOLUTION} of each other. The activity is then left at the best rate.</p>
+ *
+ * <p>If the objective is met but the activity can't reach the rate it is given, it is short of
+ * client concurrency, and the thread count is raised to what Little's law suggests for the
+ * rate at the measured mean latency, up to a maximum.</p>
+ *
+ * <p>Every measured window is kept as a point, and the report includes the frontier of these:
+ * the points for which no other point had both higher throughput and lower latency.</p>
+ */
+public class ConcurrencyController implements Runnable {
+    private final static Logger logger = LogManager.getLogger(ConcurrencyController.class);
+
+    public final static double RESOLUTION = 0.02d;
+    private final static double SLOW_START_FACTOR = 2.0d;
+    private final static double ADDITIVE_STEP = 0.05d;
+    private final static double DECREASE_FACTOR = 0.7d;
+    private final static double REACHED_FRACTION = 0.9d;
+    private final static double THREAD_HEADROOM = 1.25d;
+    private final static int MAX_STEPS = 200;
+
+    public record Point(int threads, double targetRate, double opsPerSec, long latencyNanos, boolean met) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "threads=%d target=%.1f/s achieved=%.1f/s latency=%.3fms %s",
+                threads, targetRate, opsPerSec, latencyNanos / 1_000_000.0d, met ? "met" : "missed");
+        }
+    }
+
+    private final String name;
+    private final ParameterMap params;
+    private final HdrDeltaHistogramProvider histograms;
+    private final SloSpec slo;
+    private final long windowMillis;
+    private final int maxThreads;
+
+    private final List<Point> points = new ArrayList<>();
+    private final CountDownLatch convergedLatch = new CountDownLatch(1);
+    private int threads;
+    private int appliedThreads;
+    private double targetRate;
+    private boolean slowStart = true;
+    private double bestMetRate = 0.0d;
+    private int bestMetThreads;
+    private double lowestMissedRate = Double.MAX_VALUE;
+    private volatile boolean converged;
+    private Thread thread;
+
+    /**
+     * @param initialRate the cyclerate to start at, or 0.0 to measure the first window unthrottled
+     */
+    public ConcurrencyController(String name, ParameterMap params, HdrDeltaHistogramProvider histograms,
+                                 SloSpec slo, long windowMillis, int initialThreads, int maxThreads, double initialRate) {
+        this.name = name;
+        this.params = params;
+        this.histograms = histograms;
+        this.slo = slo;
+        this.windowMillis = windowMillis;
+        this.threads = Math.max(1, initialThreads);
+        this.appliedThreads = this.threads;
+        this.maxThreads = Math.max(this.threads, maxThreads);
+        this.targetRate = initialRate;
+        this.bestMetThreads = this.threads;
+    }
+
+    /**
+     * Create a controller for an activity from its {@code slo}, {@code slo_window} and
+     * {@code slo_max_threads} params. The histogram is attached to the cycles service timer, so
+     * it sees only the data recorded after this is called. The search starts from the thread count
+     * which the activity resolved at init, so that specs like {@code threads=auto} are kept until
+     * the controller decides to change them.
+     */
+    public static ConcurrencyController forActivity(Activity activity) {
+        ParameterMap params = activity.getActivityDef().getParams();
+        SloSpec slo = new SloSpec(params.getOptionalString("slo")
+            .orElseThrow(() -> new RuntimeException("The slo param is required for an slo controller.")));
+        Timer serviceTimer = activity.getInstrumentation().getOrCreateCyclesServiceTimer();
+        if (!(serviceTimer instanceof HdrDeltaHistogramAttachment attachment)) {
+            throw new RuntimeException("The service timer of " + activity.getAlias() + " does not support delta histograms.");
+        }
+        return forParams(activity.getAlias(), params, attachment.attachHdrDeltaHistogram(), slo,
+            activity.getActivityDef().getThreads());
+    }
+
+    /**
+     * Create a controller from the {@code slo_window}, {@code slo_max_threads} and {@code cyclerate}
+     * values in a param map.
+     *
+     * @param threads the thread count the activity is running with, as resolved from its threads param
+     */
+    public static ConcurrencyController forParams(String name, ParameterMap params, HdrDeltaHistogramProvider histograms,
+                                                  SloSpec slo, int threads) {
+        String window = params.getOptionalString("slo_window").orElse("10s");
+        long windowMillis = Unit.msFor(window)
+            .orElseThrow(() -> new RuntimeException("Unable to parse slo_window '" + window + "'"));
+        int maxThreads = params.getOptionalInteger("slo_max_threads").orElse(Math.max(threads, 1024));
+        double rate = params.getOptionalString("cyclerate").map(r -> new RateSpec(r).getRate()).orElse(0.0d);
+        return new ConcurrencyController(name, params, histograms, slo, windowMillis, threads, maxThreads, rate);
+    }
+
+    public synchronized void start() {
+        if (thread == null) {
+            thread = new Thread(this, "SLOCONTROL-" + name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Stop searching, and log the report if it hasn't been logged yet. The activity keeps the
+     * params last applied.
+     */
+    public synchronized void stop() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * @return true if the search converged before the timeout
+     */
+    public boolean awaitConverged(long timeoutMillis) {
+        try {
+            return convergedLatch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void run() {
+        logger.info(() -> "searching for max throughput of " + name + " at " + slo);
+        try {
+            while (!converged) {
+                apply();
+                Thread.sleep(windowMillis / 4);
+                histograms.getNextHdrDeltaHistogram();
+                long startedAt = System.nanoTime();
+                Thread.sleep(windowMillis);
+                Histogram histogram = histograms.getNextHdrDeltaHistogram();
+                double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0d;
+                if (histogram.getTotalCount() == 0) {
+                    logger.debug(() -> "no operations measured for " + name + " in the last window");
+                    continue;
+                }
+                observe(histogram.getTotalCount(), seconds,
+                    histogram.getValueAtPercentile(slo.getPercentile()), histogram.getMean());
+            }
+            apply();
+        } catch (InterruptedException e) {
+            logger.debug(() -> "slo controller for " + name + " stopped before converging");
+        }
+        logger.info(() -> getReport());
+    }
+
+    /**
+     * Write the current rate and thread count to the activity params. The threads param is only
+     * written once the controller has chosen a thread count other than the one last applied.
+     */
+    synchronized void apply() {
+        if (threads != appliedThreads) {
+            params.set("threads", threads);
+            appliedThreads = threads;
+        }
+        if (targetRate > 0.0d) {
+            String current = params.getOptionalString("cyclerate").orElse("");
+            String burstAndVerb = current.contains(",") ? current.substring(current.indexOf(',')) : "";
+            String rate = String.format(Locale.ROOT, "%.3f", targetRate) + burstAndVerb;
+            if (!rate.equals(current)) {
+                params.set("cyclerate", rate);
+            }
+        }
+    }
+
+    /**
+     * Record one measured window and choose the rate and threads for the next one.
+     *
+     * @return true if the search has converged
+     */
+    public synchronized boolean observe(long count, double seconds, long latencyNanos, double meanLatencyNanos) {
+        double opsPerSec = count / seconds;
+        boolean met = slo.isMetBy(latencyNanos);
+        boolean unthrottled = targetRate <= 0.0d;
+        double target = unthrottled ? opsPerSec : targetRate;
+        Point point = new Point(threads, target, opsPerSec, latencyNanos, met);
+        points.add(point);
+        logger.debug(() -> "slo controller for " + name + ": " + point);
+
+        if (met && !unthrottled && opsPerSec < target * REACHED_FRACTION) {
+            if (threads >= maxThreads) {
+                logger.info(() -> name + " can't reach " + point.targetRate() + "/s within " + maxThreads + " threads");
+                bestMetRate = Math.max(bestMetRate, opsPerSec);
+                bestMetThreads = threads;
+                return converge();
+            }
+            double needed = target * (meanLatencyNanos / 1_000_000_000.0d) * THREAD_HEADROOM;
+            threads = (int) Math.min(maxThreads, Math.max(threads + 1, Math.ceil(needed)));
+        } else if (met) {
+            if (target >= bestMetRate) {
+                bestMetRate = target;
+                bestMetThreads = threads;
+            }
+            double next = slowStart ? target * SLOW_START_FACTOR : target * (1.0d + ADDITIVE_STEP);
+            if (lowestMissedRate < Double.MAX_VALUE) {
+                next = Math.min(next, (bestMetRate + lowestMissedRate) / 2.0d);
+            }
+            targetRate = next;
+        } else {
+            slowStart = false;
+            lowestMissedRate = Math.min(lowestMissedRate, target);
+            targetRate = Math.max(bestMetRate, target * DECREASE_FACTOR);
+        }
+
+        if (bestMetRate > 0.0d && lowestMissedRate < Double.MAX_VALUE
+            && (lowestMissedRate - bestMetRate) / lowestMissedRate <= RESOLUTION) {
+            return converge();
+        }
+        if (points.size() >= MAX_STEPS) {
+            logger.warn("slo controller for " + name + " did not converge in " + MAX_STEPS + " steps");
+            return converge();
+        }
+        return false;
+    }
+
+    private boolean converge() {
+        if (bestMetRate > 0.0d) {
+            targetRate = bestMetRate;
+            threads = bestMetThreads;
+        }
+        converged = true;
+        convergedLatch.countDown();
+        return true;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+
+    public synchronized double getTargetRate() {
+        return targetRate;
+    }
+
+    public synchronized int getThreads() {
+        return threads;
+    }
+
+    public synchronized List<Point> getPoints() {
+        return List.copyOf(points);
+    }
+
+    /**
+     * @return the best point which met the objective, by achieved throughput
+     */
+    public synchronized Optional<Point> getBest() {
+        return points.stream().filter(Point::met).max(Comparator.comparingDouble(Point::opsPerSec));
+    }
+
+    /**
+     * @return the points which no other point beats on both throughput and latency, in order
+     * of throughput
+     */
+    public synchronized List<Point> getFrontier() {
+        List<Point> byThroughput = new ArrayList<>(points);
+        byThroughput.sort(Comparator.comparingDouble(Point::opsPerSec).reversed());
+        List<Point> frontier = new ArrayList<>();
+        long lowestLatency = Long.MAX_VALUE;
+        for (Point point : byThroughput) {
+            if (point.latencyNanos() < lowestLatency) {
+                frontier.add(0, point);
+                lowestLatency = point.latencyNanos();
+            }
+        }
+        return frontier;
+    }
+
+    public synchronized String getReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("slo controller for ").append(name).append(" at ").append(slo)
+            .append(converged ? ", converged" : ", not converged")
+            .append(" after ").append(points.size()).append(" windows\n");
+        sb.append(" best: ").append(getBest().map(Point::toString).orElse("none met the objective")).append("\n");
+        sb.append(" throughput/latency frontier:\n");
+        for (Point point : getFrontier()) {
+            sb.append("  ").append(point).append("\n");
+        }
+        return sb.toString();
+    }
+}
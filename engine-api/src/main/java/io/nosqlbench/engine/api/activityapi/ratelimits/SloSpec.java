@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.ratelimits;
+
+import io.nosqlbench.api.engine.util.Unit;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A latency service level objective, like {@code p99:10ms}, which is met when the given
+ * percentile of service time is at or below the given limit.
+ */
+public class SloSpec {
+    private final static Pattern SPEC_PATTERN = Pattern.compile("p(?<percentile>\\d+(\\.\\d+)?)[:<](?<limit>.+)");
+
+    private final String percentileName;
+    private final double percentile;
+    private final long limitNanos;
+
+    public SloSpec(String spec) {
+        Matcher matcher = SPEC_PATTERN.matcher(spec.trim());
+        if (!matcher.matches()) {
+            throw new RuntimeException("Unable to parse slo spec '" + spec + "', expected a form like p99:10ms");
+        }
+        this.percentileName = matcher.group("percentile");
+        this.percentile = Double.parseDouble(percentileName);
+        if (percentile <= 0.0d || percentile > 100.0d) {
+            throw new RuntimeException("The percentile of slo spec '" + spec + "' must be in (0,100]");
+        }
+        String limit = matcher.group("limit");
+        this.limitNanos = Unit.nanosecondsFor(limit)
+            .orElseThrow(() -> new RuntimeException("Unable to parse slo limit '" + limit + "'"));
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public long getLimitNanos() {
+        return limitNanos;
+    }
+
+    public boolean isMetBy(long latencyNanos) {
+        return latencyNanos <= limitNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "p%s<=%.3fms", percentileName, limitNanos / 1_000_000.0d);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Track how long it takes to create op dispensers, and how much memory is allocated while doing so,
+ * for each driver adapter in an activity. Allocation is measured per creating thread when the JVM
+ * supports it, so dispensers created lazily on different threads are still accounted correctly.
+ */
+public class OpDispenserInitStats {
+
+    private final static com.sun.management.ThreadMXBean allocationBean = allocationBean();
+
+    private final Map<String, AdapterStats> byAdapter = new ConcurrentSkipListMap<>();
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return sunBean;
+        }
+        return null;
+    }
+
+    /**
+     * Count an op template which will have a dispenser for the named adapter, whether or not it is created yet.
+     */
+    public void declare(String adapterName) {
+        byAdapter.computeIfAbsent(adapterName, n -> new AdapterStats()).declared.increment();
+    }
+
+    /**
+     * Create a dispenser, recording the elapsed time and allocated bytes against the named adapter.
+     */
+    public <T> T measure(String adapterName, Supplier<T> initializer) {
+        AdapterStats stats = byAdapter.computeIfAbsent(adapterName, n -> new AdapterStats());
+        long allocatedBefore = allocatedBytes();
+        long startedAt = System.nanoTime();
+        try {
+            T initialized = initializer.get();
+            stats.initialized.increment();
+            return initialized;
+        } finally {
+            stats.nanos.add(System.nanoTime() - startedAt);
+            if (allocatedBefore >= 0) {
+                stats.bytes.add(allocatedBytes() - allocatedBefore);
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        return (allocationBean != null) ? allocationBean.getCurrentThreadAllocatedBytes() : -1L;
+    }
+
+    public String getSummary(String activityAlias) {
+        StringBuilder sb = new StringBuilder("op dispenser init for activity '").append(activityAlias).append("':");
+        byAdapter.forEach((adapterName, stats) -> sb.append(String.format(
+            "\n adapter=%s dispensers=%d/%d time=%.3fms allocated=%s",
+            adapterName,
+            stats.initialized.sum(),
+            stats.declared.sum(),
+            stats.nanos.sum() / 1_000_000.0d,
+            (allocationBean != null) ? String.format("%.3fMB", stats.bytes.sum() / 1048576.0d) : "unknown"
+        )));
+        return sb.toString();
+    }
+
+    private final static class AdapterStats {
+        private final LongAdder declared = new LongAdder();
+        private final LongAdder initialized = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+    }
+}
@@ -44,6 +44,7 @@ import io.nosqlbench.engine.api.activityconfig.yaml.OpsDocList;
 import io.nosqlbench.engine.api.activityimpl.motor.RunStateTally;
 import io.nosqlbench.engine.api.activityimpl.uniform.DriverAdapter;
 import io.nosqlbench.engine.api.activityimpl.uniform.DryRunOpDispenserWrapper;
+import io.nosqlbench.engine.api.activityimpl.uniform.LazyOpDispenser;
 import io.nosqlbench.engine.api.activityimpl.uniform.decorators.SyntheticOpTemplateProvider;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.Op;
 import io.nosqlbench.engine.api.templating.CommandTemplate;
@@ -86,6 +87,7 @@ public class SimpleActivity implements Activity, ProgressCapable, ActivityDefObs
     private ActivityMetricProgressMeter progressMeter;
     private String workloadSource = "unspecified";
     private final RunStateTally tally = new RunStateTally();
+    private final OpDispenserInitStats dispenserInitStats = new OpDispenserInitStats();
 
     public SimpleActivity(ActivityDef activityDef) {
         this.activityDef = activityDef;
@@ -291,6 +293,13 @@ public class SimpleActivity implements Activity, ProgressCapable, ActivityDefObs
         return phaseLimiter;
     }
 
+    /**
+     * @return the time and memory used to create op dispensers for this activity, by adapter
+     */
+    public OpDispenserInitStats getOpDispenserInitStats() {
+        return dispenserInitStats;
+    }
+
     @Override
     public synchronized ActivityInstrumentation getInstrumentation() {
         if (activityInstrumentation == null) {
@@ -487,6 +496,8 @@ public class SimpleActivity implements Activity, ProgressCapable, ActivityDefObs
                 .orElse(SequencerType.bucket);
             SequencePlanner<OpDispenser<? extends O>> planner = new SequencePlanner<>(sequencerType);
 
+            boolean lazyinit = getParams().getOptionalBoolean("lazyinit").orElse(false);
+            Timer lazyInitTimer = lazyinit ? ActivityMetrics.timer(activityDef, "lazyinit", getHdrDigits()) : null;
             int dryrunCount = 0;
             for (int i = 0; i < pops.size(); i++) {
                 long ratio = ratios.get(i);
@@ -499,22 +510,32 @@ public class SimpleActivity implements Activity, ProgressCapable, ActivityDefObs
                 boolean dryrun = dryrunSpec.equalsIgnoreCase("op");
 
                 DriverAdapter adapter = adapters.get(i);
-                OpMapper opMapper = adapter.getOpMapper();
-                OpDispenser<? extends Op> dispenser = opMapper.apply(pop);
-
+                String adapterName = adapter.getAdapterName();
+                Supplier<OpDispenser<? extends O>> initializer = () -> dispenserInitStats.measure(adapterName, () -> {
+                    OpMapper opMapper = adapter.getOpMapper();
+                    OpDispenser<? extends Op> dispenser = opMapper.apply(pop);
+                    if (dryrun) {
+                        dispenser = new DryRunOpDispenserWrapper(adapter, pop, dispenser);
+                    }
+                    return (OpDispenser<? extends O>) dispenser;
+                });
+                dispenserInitStats.declare(adapterName);
                 if (dryrun) {
-                    dispenser = new DryRunOpDispenserWrapper(adapter, pop, dispenser);
                     dryrunCount++;
                 }
 
 //                if (strict) {
 //                    optemplate.assertConsumed();
 //                }
-                planner.addOp((OpDispenser<? extends O>) dispenser, ratio);
+                OpDispenser<? extends O> dispenser = lazyinit
+                    ? new LazyOpDispenser<O>(pop.getName(), initializer, lazyInitTimer)
+                    : initializer.get();
+                planner.addOp(dispenser, ratio);
             }
             if (dryrunCount > 0) {
                 logger.warn("initialized " + dryrunCount + " op templates for dry run only. These ops will be synthesized for each cycle, but will not be executed.");
             }
+            logger.info(() -> dispenserInitStats.getSummary(getAlias()) + (lazyinit ? "\n (lazyinit=true, remaining dispensers are created on first use)" : ""));
 
 
             return planner.resolve();
@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.input;
+
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.api.engine.util.Unit;
+import io.nosqlbench.engine.api.activityapi.core.ActivityDefObserver;
+import io.nosqlbench.engine.api.activityapi.core.progress.CycleMeter;
+import io.nosqlbench.engine.api.activityapi.core.progress.ProgressCapable;
+import io.nosqlbench.engine.api.activityapi.core.progress.ProgressMeterDisplay;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegment;
+import io.nosqlbench.engine.api.activityapi.input.Input;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.security.InvalidParameterException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>This input provides the same cycles as {@link AtomicInput}, but instead of every motor
+ * taking each stride from one shared counter, each motor takes a lease on a large block of
+ * cycles from the shared counter, and then takes its strides from that block. The shared counter
+ * is touched once per lease rather than once per stride, and the counter of each lease is
+ * normally only touched by the motor holding it.</p>
+ *
+ * <p>Lease sizes shrink toward the end of the range, to a share of what is left for each lane,
+ * so that motors run out of work at about the same time. Once the shared counter is used up, a
+ * motor with nothing left in its lease steals the first half of the largest remaining lease of
+ * another motor, so that no motor sits idle while another still has a large block to run.</p>
+ *
+ * <p>Each motor slot gets its own {@link Lane} from {@link #laneFor(long)}, and a lane outlives
+ * the motor thread, so cycles leased to a motor that is stopped are run when it is started
+ * again, or are stolen by other motors.</p>
+ *
+ * <p>Unlike {@link AtomicInput}, a final stride which is cut short by the end of the range is
+ * provided as a shorter segment rather than being dropped.</p>
+ */
+public class LeasedInput implements ActivityDefObserver, ProgressCapable {
+    private final static Logger logger = LogManager.getLogger(LeasedInput.class);
+
+    public final static long DEFAULT_LEASE = 10000L;
+
+    private final AtomicLong cycleValue = new AtomicLong(0L);
+    private final AtomicLong min = new AtomicLong(0L);
+    private final AtomicLong max = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong recycleValue = new AtomicLong(0L);
+    private final AtomicLong recycleMax = new AtomicLong(0L);
+    private final long startedAt = System.currentTimeMillis();
+
+    private final ActivityDef activityDef;
+    private final long leaseSize;
+    private final List<Lane> lanes = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<Long, Lane> laneBySlot = new ConcurrentHashMap<>();
+    private volatile long epoch = 0L;
+
+    public LeasedInput(ActivityDef activityDef, long leaseSize) {
+        if (leaseSize < 1) {
+            throw new InvalidParameterException("lease size must be at least 1, but was " + leaseSize);
+        }
+        this.activityDef = activityDef;
+        this.leaseSize = leaseSize;
+        onActivityDefUpdate(activityDef);
+    }
+
+    public LeasedInput(ActivityDef activityDef) {
+        this(activityDef, DEFAULT_LEASE);
+    }
+
+    /**
+     * @return the lane for a motor slot, which is the same instance for every call with that slot
+     */
+    public Lane laneFor(long slot) {
+        return laneBySlot.computeIfAbsent(slot, s -> {
+            Lane lane = new Lane();
+            lanes.add(lane);
+            return lane;
+        });
+    }
+
+    /**
+     * Lease a block of whole strides from the shared counter. The block is {@link #leaseSize}
+     * cycles, or less near the end of the range, but always at least one stride.
+     */
+    private Lease leaseBlock(int stride) {
+        int laneCount = Math.max(1, lanes.size());
+        while (true) {
+            long currentEpoch = this.epoch;
+            long current = cycleValue.get();
+            long end = max.get();
+            if (current >= end) {
+                if (recycleValue.get() >= recycleMax.get()) {
+                    return null;
+                }
+                if (cycleValue.compareAndSet(current, min.get())) {
+                    recycleValue.getAndIncrement();
+                    logger.trace(() -> "recycling input for " + activityDef.getAlias() + " recycle:" + recycleValue.get());
+                }
+                continue;
+            }
+            long share = Math.min(leaseSize, (end - current) / (2L * laneCount));
+            long size = Math.max(stride, share - (share % stride));
+            long next = Math.min(end, current + size);
+            if (cycleValue.compareAndSet(current, next)) {
+                return new Lease(current, next, currentEpoch);
+            }
+        }
+    }
+
+    /**
+     * Steal the first half of the largest remaining lease held by another lane, in whole strides.
+     */
+    private Lease steal(int stride, Lane thief) {
+        while (true) {
+            Lease victim = null;
+            long victimRemaining = 0L;
+            for (Lane lane : lanes) {
+                Lease lease = lane.lease;
+                if (lane != thief && lease != null && lease.epoch == epoch) {
+                    long remaining = lease.remaining();
+                    if (remaining > victimRemaining) {
+                        victim = lease;
+                        victimRemaining = remaining;
+                    }
+                }
+            }
+            if (victim == null) {
+                return null;
+            }
+            long current = victim.cursor.get();
+            if (current >= victim.end) {
+                continue;
+            }
+            long half = (victim.end - current) / 2;
+            long size = Math.max(stride, half - (half % stride));
+            long next = Math.min(victim.end, current + size);
+            if (victim.cursor.compareAndSet(current, next)) {
+                logger.trace(() -> "stole " + current + ".." + next + " for " + activityDef.getAlias());
+                return new Lease(current, next, victim.epoch);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onActivityDefUpdate(ActivityDef activityDef) {
+        if (activityDef.getCycleCount() == 0) {
+            if (activityDef.getParams().containsKey("cycles")) {
+                throw new RuntimeException("You specified cycles, but the range specified means zero cycles: " + activityDef.getParams().get("cycles"));
+            }
+        }
+
+        long startCycle = activityDef.getStartCycle();
+        long endCycle = activityDef.getEndCycle();
+        if (startCycle > endCycle) {
+            throw new InvalidParameterException("min (" + min + ") must be less than or equal to max (" + max + ")");
+        }
+
+        if (max.get() != endCycle) {
+            max.set(endCycle);
+        }
+
+        if (min.get() != startCycle) {
+            min.set(startCycle);
+            cycleValue.set(min.get());
+            epoch++;
+        }
+
+        long recycles = activityDef.getParams().getOptionalString("recycles").flatMap(Unit::longCountFor).orElse(0L);
+        this.recycleMax.set(recycles);
+    }
+
+    public long getStartedAtMillis() {
+        return this.startedAt;
+    }
+
+    @Override
+    public ProgressMeterDisplay getProgressMeter() {
+        return new LeasedInputProgress(activityDef.getAlias(), this);
+    }
+
+    @Override
+    public String toString() {
+        return "LeasedInput{" +
+            "cycleValue=" + cycleValue +
+            ", min=" + min +
+            ", max=" + max +
+            ", lease=" + leaseSize +
+            ", lanes=" + lanes.size() +
+            ", activity=" + activityDef.getAlias() +
+            '}';
+    }
+
+    /**
+     * A contiguous block of cycles leased to one lane. Strides are taken from the front by the
+     * lane holding it, and halves are taken from the front by lanes stealing from it, both with a
+     * CAS on the cursor, so the end never moves.
+     */
+    private static class Lease {
+        private final long end;
+        private final long epoch;
+        private final AtomicLong cursor;
+
+        private Lease(long start, long end, long epoch) {
+            this.end = end;
+            this.epoch = epoch;
+            this.cursor = new AtomicLong(start);
+        }
+
+        private CycleSegment claim(int stride) {
+            while (true) {
+                long current = cursor.get();
+                if (current >= end) {
+                    return null;
+                }
+                long next = Math.min(end, current + stride);
+                if (cursor.compareAndSet(current, next)) {
+                    return new InputInterval.Segment(current, next);
+                }
+            }
+        }
+
+        private long remaining() {
+            return Math.max(0L, end - cursor.get());
+        }
+    }
+
+    /**
+     * The input for one motor slot.
+     */
+    public class Lane implements Input, ActivityDefObserver, ProgressCapable {
+        private volatile Lease lease;
+
+        private Lane() {
+        }
+
+        @Override
+        public CycleSegment getInputSegment(int stride) {
+            while (true) {
+                Lease current = this.lease;
+                if (current != null && current.epoch == epoch) {
+                    CycleSegment segment = current.claim(stride);
+                    if (segment != null) {
+                        return segment;
+                    }
+                }
+                Lease next = leaseBlock(stride);
+                if (next == null) {
+                    next = steal(stride, this);
+                }
+                if (next == null) {
+                    logger.trace(() -> "Exhausted input for " + activityDef.getAlias() + ", recycle count " + recycleValue.get());
+                    this.lease = null;
+                    return null;
+                }
+                this.lease = next;
+            }
+        }
+
+        @Override
+        public void onActivityDefUpdate(ActivityDef activityDef) {
+            LeasedInput.this.onActivityDefUpdate(activityDef);
+        }
+
+        @Override
+        public ProgressMeterDisplay getProgressMeter() {
+            return LeasedInput.this.getProgressMeter();
+        }
+    }
+
+    private static class LeasedInputProgress implements ProgressMeterDisplay, CycleMeter {
+        private final LeasedInput input;
+        private final String name;
+
+        public LeasedInputProgress(String name, LeasedInput input) {
+            this.name = name;
+            this.input = input;
+        }
+
+        @Override
+        public String getProgressName() {
+            return name;
+        }
+
+        @Override
+        public Instant getStartTime() {
+            return Instant.ofEpochMilli(input.getStartedAtMillis());
+        }
+
+        @Override
+        public double getMaxValue() {
+            return ((double) input.recycleMax.get() + 1.0d) * ((double) input.max.get() - (double) input.min.get());
+        }
+
+        /**
+         * This counts leased cycles as well as cycles which have been run, so it runs ahead of
+         * actual progress by up to one lease for each lane.
+         */
+        @Override
+        public double getCurrentValue() {
+            return ((double) input.recycleValue.get()) * ((double) input.max.get() - (double) input.min.get())
+                + (double) input.cycleValue.get() - (double) input.min.get();
+        }
+
+        @Override
+        public long getMinInputCycle() {
+            return input.min.get();
+        }
+
+        @Override
+        public long getCurrentInputCycle() {
+            return input.cycleValue.get();
+        }
+
+        @Override
+        public long getMaxInputCycle() {
+            return input.max.get();
+        }
+
+        @Override
+        public long getRecyclesCurrent() {
+            return input.recycleValue.get();
+        }
+
+        @Override
+        public long getRecyclesMax() {
+            return input.recycleMax.get();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.input;
+
+import io.nosqlbench.api.engine.util.Unit;
+import io.nosqlbench.engine.api.activityapi.core.Activity;
+import io.nosqlbench.engine.api.activityapi.input.Input;
+import io.nosqlbench.engine.api.activityapi.input.InputDispenser;
+import io.nosqlbench.engine.api.activityapi.input.InputType;
+import io.nosqlbench.engine.api.util.SimpleConfig;
+import io.nosqlbench.nb.annotations.Service;
+
+/**
+ * Selected with {@code input=type:leased}, optionally with a lease size in cycles, like
+ * {@code input=type:leased,lease:100K}. See {@link LeasedInput}.
+ */
+@Service(value= InputType.class, selector="leased")
+public class LeasedInputType implements InputType {
+
+    @Override
+    public InputDispenser getInputDispenser(Activity activity) {
+        return new Dispenser(activity);
+    }
+
+    public static class Dispenser implements InputDispenser {
+
+        private final LeasedInput input;
+
+        public Dispenser(Activity activity) {
+            long lease = new SimpleConfig(activity, "input").getString("lease")
+                .map(s -> Unit.longCountFor(s).orElseThrow(() -> new RuntimeException("Unable to parse lease size:" + s)))
+                .orElse(LeasedInput.DEFAULT_LEASE);
+            this.input = new LeasedInput(activity.getActivityDef(), lease);
+        }
+
+        @Override
+        public Input getInput(long slot) {
+            return input.laneFor(slot);
+        }
+    }
+}
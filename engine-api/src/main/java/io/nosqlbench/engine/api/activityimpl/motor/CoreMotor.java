@@ -15,7 +15,6 @@
  */
 package io.nosqlbench.engine.api.activityimpl.motor;
 
-import com.codahale.metrics.Counter;
 import com.codahale.metrics.Timer;
 import io.nosqlbench.engine.api.activityapi.core.*;
 import io.nosqlbench.engine.api.activityapi.core.ops.fluent.OpTracker;
@@ -75,7 +74,6 @@ public class CoreMotor<D> implements ActivityDefObserver, Motor<D>, Stoppable {
     private int stride = 1;
 
     private OpTracker<D> opTracker;
-    private Counter optrackerBlockCounter;
 
 
     /**
@@ -194,7 +192,6 @@ public class CoreMotor<D> implements ActivityDefObserver, Motor<D>, Stoppable {
             inputTimer = activity.getInstrumentation().getOrCreateInputTimer();
             strideServiceTimer = activity.getInstrumentation().getOrCreateStridesServiceTimer();
             stridesResponseTimer = activity.getInstrumentation().getStridesResponseTimerOrNull();
-            optrackerBlockCounter = activity.getInstrumentation().getOrCreateOpTrackerBlockedCounter();
 
             strideRateLimiter = activity.getStrideLimiter();
             cycleRateLimiter = activity.getCycleLimiter();
@@ -293,15 +290,13 @@ public class CoreMotor<D> implements ActivityDefObserver, Motor<D>, Stoppable {
                             TrackedOp<D> op = opTracker.newOp(cyclenum, strideTracker);
                             op.setWaitTime(cycleDelay);
 
-                            synchronized (opTracker) {
-                                while (opTracker.isFull()) {
-                                    try {
-                                        logger.trace(() -> "Blocking for enqueue with (" + opTracker.getPendingOps() + "/" + opTracker.getMaxPendingOps() + ") queued ops");
-                                        optrackerBlockCounter.inc();
-                                        opTracker.wait(10000);
-                                    } catch (InterruptedException ignored) {
-                                    }
+                            opTracker.awaitCapacity();
+                            if (Thread.currentThread().isInterrupted()) {
+                                logger.debug(() -> "motor " + slotId + " interrupted while waiting for capacity, stopping");
+                                if (motorState.get() == Running) {
+                                    requestStop();
                                 }
+                                break;
                             }
 
                             async.enqueue(op);
@@ -332,7 +327,9 @@ public class CoreMotor<D> implements ActivityDefObserver, Motor<D>, Stoppable {
             } else if (action instanceof SyncAction sync) {
 
                 cycleServiceTimer = activity.getInstrumentation().getOrCreateCyclesServiceTimer();
+                cycleResponseTimer = activity.getInstrumentation().getCyclesResponseTimerOrNull();
                 strideServiceTimer = activity.getInstrumentation().getOrCreateStridesServiceTimer();
+                boolean openloop = activity.getActivityDef().getParams().getOptionalBoolean("openloop").orElse(false);
 
                 if (activity.getActivityDef().getParams().containsKey("async")) {
                     throw new RuntimeException("The async parameter was given for this activity, but it does not seem to know how to do async.");
@@ -379,33 +376,45 @@ public class CoreMotor<D> implements ActivityDefObserver, Motor<D>, Stoppable {
                             }
                             int result = -1;
 
+                            sync.prepareCycle(cyclenum);
+
                             if (cycleRateLimiter != null) {
                                 // Block for cycle rate limiter
                                 cycleDelay = cycleRateLimiter.maybeWaitForOp();
                             }
 
                             long cycleStart = System.nanoTime();
+                            // The cycle delay is how far behind the rate schedule this cycle is starting
+                            long intendedStart = cycleStart - cycleDelay;
                             try {
                                 logger.trace(()->"cycle " + cyclenum);
 
                                 // runCycle
-                                long phaseStart = System.nanoTime();
-                                result = sync.runCycle(cyclenum);
-                                long phaseEnd = System.nanoTime();
+                                if (openloop) {
+                                    result = sync.runCycle(cyclenum, intendedStart);
+                                } else {
+                                    result = sync.runCycle(cyclenum);
+                                }
 
                             } catch (Exception e) {
                                 motorState.enterState(Errored);
                                 throw e;
                             } finally {
                                 long cycleEnd = System.nanoTime();
-                                cycleServiceTimer.update((cycleEnd - cycleStart) + cycleDelay, TimeUnit.NANOSECONDS);
+                                cycleServiceTimer.update(cycleEnd - cycleStart, TimeUnit.NANOSECONDS);
+                                if (cycleResponseTimer != null) {
+                                    cycleResponseTimer.update(cycleEnd - intendedStart, TimeUnit.NANOSECONDS);
+                                }
                             }
                             segBuffer.append(cyclenum, result);
                         }
 
                     } finally {
                         long strideEnd = System.nanoTime();
-                        strideServiceTimer.update((strideEnd - strideStart) + strideDelay, TimeUnit.NANOSECONDS);
+                        strideServiceTimer.update(strideEnd - strideStart, TimeUnit.NANOSECONDS);
+                        if (stridesResponseTimer != null) {
+                            stridesResponseTimer.update((strideEnd - strideStart) + strideDelay, TimeUnit.NANOSECONDS);
+                        }
                     }
 
                     if (output != null) {
@@ -16,11 +16,14 @@
 
 package io.nosqlbench.engine.api.activityimpl.uniform;
 
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
 import io.nosqlbench.api.config.standard.*;
 import io.nosqlbench.api.engine.activityimpl.ActivityDef;
 import io.nosqlbench.api.errors.BasicError;
 import io.nosqlbench.api.errors.OpConfigError;
 import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateLimiter;
 import io.nosqlbench.engine.api.activityconfig.OpsLoader;
 import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplate;
 import io.nosqlbench.engine.api.activityconfig.yaml.OpsDocList;
@@ -146,6 +149,9 @@ public class StandardActivity<R extends Op, S> extends SimpleActivity implements
     public void initActivity() {
         super.initActivity();
         setDefaultsFromOpSequence(sequence);
+        if (getParams().getOptionalBoolean("openloop").orElse(false) && getCycleLimiter() == null) {
+            throw new BasicError("openloop=true measures response time from the rate schedule, so cyclerate must also be set.");
+        }
     }
 
     public OpSequence<OpDispenser<? extends Op>> getOpSequence() {
@@ -177,6 +183,30 @@ public class StandardActivity<R extends Op, S> extends SimpleActivity implements
         }
     }
 
+    /**
+     * Summarize how far behind its rate schedule this activity ran, and how much that
+     * affected response time as opposed to service time.
+     */
+    private void reportSchedule() {
+        RateLimiter cycleLimiter = getCycleLimiter();
+        Timer responseTimer = getInstrumentation().getCyclesResponseTimerOrNull();
+        if (cycleLimiter == null || responseTimer == null) {
+            return;
+        }
+        Snapshot response = responseTimer.getSnapshot();
+        Snapshot service = getInstrumentation().getOrCreateCyclesServiceTimer().getSnapshot();
+        logger.info(() -> String.format(
+            "openloop schedule for '%s': %.3fms behind schedule at %s, responsetime p50=%.3fms p99=%.3fms, servicetime p50=%.3fms p99=%.3fms",
+            getAlias(),
+            cycleLimiter.getTotalWaitTime() / 1_000_000.0d,
+            cycleLimiter.getRateSpec(),
+            response.getMedian() / 1_000_000.0d,
+            response.get99thPercentile() / 1_000_000.0d,
+            service.getMedian() / 1_000_000.0d,
+            service.get99thPercentile() / 1_000_000.0d
+        ));
+    }
+
     @Override
     public List<OpTemplate> getSyntheticOpTemplates(OpsDocList opsDocList, Map<String, Object> cfg) {
         List<OpTemplate> opTemplates = new ArrayList<>();
@@ -192,10 +222,26 @@ public class StandardActivity<R extends Op, S> extends SimpleActivity implements
     /**
      * This is done here since driver adapters are intended to keep all of their state within
      * dedicated <em>state space</em> types. Any space which implements {@link io.nosqlbench.engine.api.activityapi.core.Shutdownable}
-     * will be closed when this activity shuts down.
+     * will be closed when this activity shuts down. Op dispensers which implement {@link AutoCloseable}
+     * are closed first, so that they can complete any deferred work with their spaces still open.
      */
     @Override
     public void shutdownActivity() {
+        if (getParams().getOptionalBoolean("openloop").orElse(false)) {
+            reportSchedule();
+        }
+        if (getParams().getOptionalBoolean("lazyinit").orElse(false)) {
+            logger.info(() -> getOpDispenserInitStats().getSummary(getAlias()));
+        }
+        for (OpDispenser<? extends Op> dispenser : new LinkedHashSet<>(sequence.getOps())) {
+            if (dispenser instanceof AutoCloseable autocloseable) {
+                try {
+                    autocloseable.close();
+                } catch (Exception e) {
+                    throw new RuntimeException("Error while closing op dispenser " + dispenser + ": " + e, e);
+                }
+            }
+        }
         for (Map.Entry<String, DriverAdapter> entry : adapters.entrySet()) {
             String adapterName = entry.getKey();
             DriverAdapter<?,?> adapter = entry.getValue();
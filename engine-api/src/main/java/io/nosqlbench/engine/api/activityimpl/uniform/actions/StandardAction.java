@@ -24,13 +24,17 @@ import io.nosqlbench.engine.api.activityapi.errorhandling.modular.ErrorDetail;
 import io.nosqlbench.engine.api.activityapi.errorhandling.modular.NBErrorHandler;
 import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
 import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import io.nosqlbench.engine.api.activityimpl.BaseOpDispenser;
 import io.nosqlbench.engine.api.activityimpl.OpDispenser;
+import io.nosqlbench.engine.api.activityimpl.uniform.LazyOpDispenser;
 import io.nosqlbench.engine.api.activityimpl.uniform.StandardActivity;
 import io.nosqlbench.engine.api.activityimpl.uniform.flowtypes.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * This is the generified version of an Action. All driver adapters us this, as opposed
@@ -55,6 +59,9 @@ public class StandardAction<A extends StandardActivity<R, ?>, R extends Op> impl
     private final NBErrorHandler errorHandler;
     private final OpSequence<OpDispenser<? extends Op>> opsequence;
     private final int maxTries;
+    private final OpSequence<OpScheduleTimers> scheduleTimers;
+    private final Histogram scheduleLagHistogram;
+    private final boolean lazyinit;
 
     public StandardAction(A activity, int slot) {
         this.activity = activity;
@@ -67,11 +74,52 @@ public class StandardAction<A extends StandardActivity<R, ?>, R extends Op> impl
         resultTimer = activity.getInstrumentation().getOrCreateResultTimer();
         resultSuccessTimer = activity.getInstrumentation().getOrCreateResultSuccessTimer();
         errorHandler = activity.getErrorHandler();
+
+        this.lazyinit = activity.getParams().getOptionalBoolean("lazyinit").orElse(false);
+        boolean openloop = activity.getParams().getOptionalBoolean("openloop").orElse(false);
+        this.scheduleTimers = openloop ? opsequence.transform(d -> new OpScheduleTimers(activity, d)) : null;
+        this.scheduleLagHistogram = openloop ? ActivityMetrics.histogram(activity.getActivityDef(), "schedulelag", activity.getHdrDigits()) : null;
+    }
+
+    /**
+     * With lazyinit, create the dispenser for this cycle if needed, outside of the cycle and op
+     * timers. The creation time is recorded in the lazyinit timer instead.
+     */
+    @Override
+    public void prepareCycle(long cycle) {
+        if (lazyinit && opsequence.apply(cycle) instanceof LazyOpDispenser<?> lazy) {
+            lazy.initialize();
+        }
     }
 
     @Override
     public int runCycle(long cycle) {
+        if (scheduleTimers == null) {
+            return execute(cycle);
+        }
+        return runCycle(cycle, System.nanoTime());
+    }
 
+    /**
+     * In open-loop mode, the service time and response time of each op are tracked
+     * per op template, with the response time measured from the intended start time
+     * of the cycle as given by the rate schedule. How late each cycle started is
+     * recorded in the schedulelag histogram while the activity runs. Otherwise, no
+     * extra clock reads are made.
+     */
+    @Override
+    public int runCycle(long cycle, long intendedStartNanos) {
+        if (scheduleTimers == null) {
+            return execute(cycle);
+        }
+        long actualStartNanos = System.nanoTime();
+        scheduleLagHistogram.update(actualStartNanos - intendedStartNanos);
+        int code = execute(cycle);
+        scheduleTimers.apply(cycle).update(intendedStartNanos, actualStartNanos, System.nanoTime());
+        return code;
+    }
+
+    private int execute(long cycle) {
         OpDispenser<? extends Op> dispenser;
         Op op = null;
 
@@ -112,6 +160,10 @@ public class StandardAction<A extends StandardActivity<R, ?>, R extends Op> impl
                     if (error == null) {
                         resultSuccessTimer.update(nanos, TimeUnit.NANOSECONDS);
                         dispenser.onSuccess(cycle, nanos, op.getResultSize());
+                        if (dispenser.isPayloadTracked()) {
+                            dispenser.onPayload(cycle, op.getRequestBytes(), op.getResponseBytes());
+                        }
+                        errorHandler.handleSuccess(cycle, nanos);
                         break;
                     } else {
                         ErrorDetail detail = errorHandler.handleError(error, cycle, nanos);
@@ -120,6 +172,9 @@ public class StandardAction<A extends StandardActivity<R, ?>, R extends Op> impl
                         if (!detail.isRetryable()) {
                             break;
                         }
+                        if (detail.retryDelayNanos > 0 && tries <= maxTries && !waitForRetry(detail.retryDelayNanos)) {
+                            break;
+                        }
                     }
                 }
             }
@@ -136,7 +191,43 @@ public class StandardAction<A extends StandardActivity<R, ?>, R extends Op> impl
         return code;
     }
 
+    /**
+     * Wait out a retry delay. If the motor thread is interrupted, as when the activity is stopped,
+     * the wait ends early with the interrupt flag still set.
+     *
+     * @return false if the retry should be abandoned because the thread was interrupted
+     */
+    private boolean waitForRetry(long delayNanos) {
+        long deadline = System.nanoTime() + delayNanos;
+        long remaining = delayNanos;
+        while (remaining > 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+
     @Override
     public void onActivityDefUpdate(ActivityDef activityDef) {
     }
+
+    private final static class OpScheduleTimers {
+        private final Timer serviceTimer;
+        private final Timer responseTimer;
+
+        OpScheduleTimers(StandardActivity<?, ?> activity, OpDispenser<? extends Op> dispenser) {
+            String name = (dispenser instanceof BaseOpDispenser<?, ?> base) ? base.getOpName()
+                : (dispenser instanceof LazyOpDispenser<?> lazy) ? lazy.getOpName() : "op";
+            this.serviceTimer = ActivityMetrics.timer(activity.getActivityDef(), name + ".servicetime", activity.getHdrDigits());
+            this.responseTimer = ActivityMetrics.timer(activity.getActivityDef(), name + ".responsetime", activity.getHdrDigits());
+        }
+
+        void update(long intendedStartNanos, long actualStartNanos, long endNanos) {
+            serviceTimer.update(endNanos - actualStartNanos, TimeUnit.NANOSECONDS);
+            responseTimer.update(endNanos - intendedStartNanos, TimeUnit.NANOSECONDS);
+        }
+    }
 }
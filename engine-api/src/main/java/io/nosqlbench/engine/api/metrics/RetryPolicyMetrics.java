@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Use this to provide retry policy metrics in a uniform way. This includes
+ * the delay applied before each retry, how often the retry budget was exhausted,
+ * and the state of the retry circuit breaker.
+ */
+public class RetryPolicyMetrics {
+
+    public enum BreakerState {
+        closed,
+        open,
+        halfopen
+    }
+
+    private final Histogram retryDelays;
+    private final Counter budgetExhausted;
+    private final Counter breakerTrips;
+    private final AtomicInteger breakerState = new AtomicInteger(BreakerState.closed.ordinal());
+    private volatile DoubleSupplier budgetTokens = () -> 0.0d;
+
+    public RetryPolicyMetrics(ActivityDef activityDef) {
+        retryDelays = ActivityMetrics.histogram(activityDef, "retrydelay", activityDef.getParams().getOptionalInteger("hdr_digits").orElse(4));
+        budgetExhausted = ActivityMetrics.counter(activityDef, "retrybudget.exhausted");
+        breakerTrips = ActivityMetrics.counter(activityDef, "retrybreaker.trips");
+        ActivityMetrics.gauge(activityDef, "retrybreaker.state", (Gauge<Integer>) breakerState::get);
+        ActivityMetrics.gauge(activityDef, "retrybudget.tokens", (Gauge<Double>) () -> budgetTokens.getAsDouble());
+    }
+
+    public void updateRetryDelay(long nanos) {
+        retryDelays.update(nanos);
+    }
+
+    public void countBudgetExhausted() {
+        budgetExhausted.inc();
+    }
+
+    public void setBreakerState(BreakerState state) {
+        int previous = breakerState.getAndSet(state.ordinal());
+        if (state == BreakerState.open && previous != BreakerState.open.ordinal()) {
+            breakerTrips.inc();
+        }
+    }
+
+    public void setBudgetTokensSupplier(DoubleSupplier budgetTokens) {
+        this.budgetTokens = budgetTokens;
+    }
+
+    public Histogram getRetryDelays() {
+        return retryDelays;
+    }
+
+    public Counter getBudgetExhausted() {
+        return budgetExhausted;
+    }
+
+    public Counter getBreakerTrips() {
+        return breakerTrips;
+    }
+}
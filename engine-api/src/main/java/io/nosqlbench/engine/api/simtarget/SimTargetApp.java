@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.simtarget;
+
+import io.nosqlbench.api.apps.BundledApp;
+import io.nosqlbench.nb.annotations.Service;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import picocli.CommandLine;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link SimulatedTarget} as a standalone service on localhost, so that the engine can be
+ * pointed at a server with known capacity without provisioning one.
+ */
+@Service(value = BundledApp.class, selector = "simtarget")
+@CommandLine.Command(name = "simtarget", description = "Serve a simulated target with bounded capacity over http or tcp")
+public class SimTargetApp implements BundledApp {
+    private final static Logger logger = LogManager.getLogger(SimTargetApp.class);
+
+    @CommandLine.Option(names = {"--name"}, defaultValue = "default", description = "The name of the target")
+    String name;
+
+    @CommandLine.Option(names = {"--http"}, description = "The port to serve http on")
+    Integer httpPort;
+
+    @CommandLine.Option(names = {"--tcp"}, description = "The port to serve line-oriented tcp on")
+    Integer tcpPort;
+
+    @CommandLine.Option(names = {"--host"}, defaultValue = "localhost", description = "The address to bind to")
+    String host;
+
+    @CommandLine.Option(names = {"--workers"}, defaultValue = "8", description = "The number of requests which can be in service at once")
+    int workers;
+
+    @CommandLine.Option(names = {"--queue"}, defaultValue = "64", description = "The number of requests which can wait for a worker")
+    int queue;
+
+    @CommandLine.Option(names = {"--servicetime"}, defaultValue = SimTargetSpec.DEFAULT_SERVICETIME, description = "A binding recipe for the service time in nanoseconds")
+    String servicetime;
+
+    @CommandLine.Option(names = {"--errors"}, defaultValue = "0.0", description = "The fraction of requests which fail")
+    double errors;
+
+    @CommandLine.Option(names = {"--shed"}, defaultValue = "reject", description = "What to do when the queue is full: ${COMPLETION-CANDIDATES}")
+    SimTargetSpec.Shed shed;
+
+    @CommandLine.Option(names = {"--report"}, defaultValue = "10", description = "Seconds between status reports, or 0 for none")
+    int reportSeconds;
+
+    public static void main(String[] args) {
+        System.exit(new SimTargetApp().applyAsInt(args));
+    }
+
+    @Override
+    public int applyAsInt(String[] args) {
+        new CommandLine(this).parseArgs(args);
+        if (httpPort == null && tcpPort == null) {
+            throw new RuntimeException("At least one of --http or --tcp must be given.");
+        }
+        SimulatedTarget target = SimulatedTarget.getOrCreate(new SimTargetSpec(name, workers, queue, servicetime, errors, shed));
+        SimTargetServer server = new SimTargetServer(target);
+        if (httpPort != null) {
+            server.startHttp(new InetSocketAddress(host, httpPort));
+        }
+        if (tcpPort != null) {
+            server.startTcp(new InetSocketAddress(host, tcpPort));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            target.close();
+        }));
+        while (!Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(Math.max(1, reportSeconds) * 1_000_000_000L);
+            if (reportSeconds > 0) {
+                logger.info(target.toString());
+            }
+        }
+        return 0;
+    }
+}
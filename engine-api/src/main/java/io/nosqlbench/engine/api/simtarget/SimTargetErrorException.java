@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.simtarget;
+
+/**
+ * A request to a {@link SimulatedTarget} failed after its service time, as configured by the
+ * error fraction of the target.
+ */
+public class SimTargetErrorException extends RuntimeException {
+    public SimTargetErrorException(String targetName, long key) {
+        super("simulated error from target '" + targetName + "' for key " + key);
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.simtarget;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Serves a {@link SimulatedTarget} over localhost, so that protocol drivers can be pointed at it
+ * like any other service.</p>
+ *
+ * <p>Over HTTP, every request to any path is one request to the target. The key is taken from a
+ * {@code key} query parameter if there is one. The response is sent when the request has been
+ * served, with status 200, or 503 if it was rejected, or 500 if it failed.</p>
+ *
+ * <p>Over TCP, every line received on a connection is one request to the target, with the line as
+ * the key if it is a number. For each line, a line of {@code OK <key> <queue nanos> <service nanos>},
+ * {@code OVERLOADED <key>} or {@code ERROR <key>} is written back when the request is done. Since
+ * requests on one connection are served concurrently, responses may be out of order. When the
+ * target blocks on a full queue, the connection stops being read, so the client sees backpressure
+ * through TCP flow control.</p>
+ */
+public class SimTargetServer implements AutoCloseable {
+    private final static Logger logger = LogManager.getLogger(SimTargetServer.class);
+
+    private final SimulatedTarget target;
+    private final AtomicLong sequence = new AtomicLong();
+    private HttpServer httpServer;
+    private ExecutorService httpExecutor;
+    private ServerSocket tcpServer;
+    private volatile boolean running = true;
+
+    public SimTargetServer(SimulatedTarget target) {
+        this.target = target;
+    }
+
+    /**
+     * Serve the target over HTTP on the given address. Use port 0 to bind to any available port.
+     */
+    public synchronized SimTargetServer startHttp(InetSocketAddress address) {
+        try {
+            httpServer = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to bind simulated target http server to " + address + ": " + e, e);
+        }
+        httpExecutor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "SIMTARGET-HTTP");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(httpExecutor);
+        httpServer.createContext("/", this::handle);
+        httpServer.start();
+        logger.info(() -> "serving simulated target '" + target.getSpec().name() + "' at http://"
+            + getHttpAddress().getHostString() + ":" + getHttpAddress().getPort() + "/");
+        return this;
+    }
+
+    /**
+     * Serve the target over TCP on the given address. Use port 0 to bind to any available port.
+     */
+    public synchronized SimTargetServer startTcp(InetSocketAddress address) {
+        try {
+            tcpServer = new ServerSocket();
+            tcpServer.bind(address);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to bind simulated target tcp server to " + address + ": " + e, e);
+        }
+        Thread acceptor = new Thread(this::accept, "SIMTARGET-TCP");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info(() -> "serving simulated target '" + target.getSpec().name() + "' at tcp://"
+            + getTcpAddress().getHostString() + ":" + getTcpAddress().getPort());
+        return this;
+    }
+
+    public InetSocketAddress getHttpAddress() {
+        return httpServer.getAddress();
+    }
+
+    public InetSocketAddress getTcpAddress() {
+        return (InetSocketAddress) tcpServer.getLocalSocketAddress();
+    }
+
+    private void handle(HttpExchange exchange) {
+        long key = keyOf(queryParam(exchange.getRequestURI().getRawQuery(), "key"));
+        target.submit(key).whenComplete((response, error) -> {
+            try (exchange) {
+                int status;
+                String body;
+                if (error == null) {
+                    status = 200;
+                    body = "{\"key\":" + response.key() + ",\"queue_nanos\":" + response.queueNanos()
+                        + ",\"service_nanos\":" + response.serviceNanos() + "}";
+                } else if (error instanceof SimTargetOverloadedException) {
+                    status = 503;
+                    body = "{\"key\":" + key + ",\"error\":\"overloaded\"}";
+                } else {
+                    status = 500;
+                    body = "{\"key\":" + key + ",\"error\":\"failed\"}";
+                }
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            } catch (IOException e) {
+                logger.debug(() -> "unable to send simulated target response: " + e);
+            }
+        });
+    }
+
+    private static String queryParam(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String param : query.split("&")) {
+            if (param.startsWith(name + "=")) {
+                return param.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    private long keyOf(String value) {
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return sequence.getAndIncrement();
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Socket socket = tcpServer.accept();
+                Thread connection = new Thread(() -> serve(socket), "SIMTARGET-TCP-" + socket.getPort());
+                connection.setDaemon(true);
+                connection.start();
+            } catch (SocketException e) {
+                if (running) {
+                    logger.warn("simulated target tcp server stopped: " + e);
+                }
+                return;
+            } catch (IOException e) {
+                logger.warn("error accepting simulated target connection: " + e);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (running && (line = in.readLine()) != null) {
+                long key = keyOf(line);
+                target.submit(key).whenComplete((response, error) -> {
+                    String reply;
+                    if (error == null) {
+                        reply = "OK " + response.key() + " " + response.queueNanos() + " " + response.serviceNanos() + "\n";
+                    } else if (error instanceof SimTargetOverloadedException) {
+                        reply = "OVERLOADED " + key + "\n";
+                    } else {
+                        reply = "ERROR " + key + "\n";
+                    }
+                    synchronized (out) {
+                        try {
+                            out.write(reply);
+                            out.flush();
+                        } catch (IOException ignored) {
+                        }
+                    }
+                });
+            }
+        } catch (IOException e) {
+            logger.debug(() -> "simulated target connection closed: " + e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpExecutor.shutdownNow();
+        }
+        if (tcpServer != null) {
+            try {
+                tcpServer.close();
+            } catch (IOException e) {
+                logger.warn("error closing simulated target tcp server: " + e);
+            }
+        }
+    }
+}
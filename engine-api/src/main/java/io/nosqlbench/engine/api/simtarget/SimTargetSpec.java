@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.simtarget;
+
+/**
+ * The settings of a {@link SimulatedTarget}. Service times are given by a binding recipe which
+ * yields nanoseconds for each request, so any distribution from the curves4 library can be used,
+ * like {@code Exponential(1000000.0)} for an exponential distribution with a mean of 1ms.
+ *
+ * @param name        the name of the target, which is shared by all users of the same name
+ * @param workers     the number of requests which can be in service at once
+ * @param queue       the number of requests which can wait for a worker
+ * @param servicetime a binding recipe for the service time of each request, in nanoseconds
+ * @param errors      the fraction of requests which fail after their service time
+ * @param shed        whether to reject requests when the queue is full, or to block the caller
+ */
+public record SimTargetSpec(String name, int workers, int queue, String servicetime, double errors, Shed shed) {
+
+    public final static String DEFAULT_SERVICETIME = "Exponential(1000000.0)";
+
+    public enum Shed {
+        /**
+         * Requests which arrive when the queue is full fail immediately, like a server which returns
+         * an overload error.
+         */
+        reject,
+        /**
+         * Callers wait for room in the queue, like a client held back by TCP flow control.
+         */
+        block
+    }
+
+    public SimTargetSpec {
+        if (workers < 1) {
+            throw new RuntimeException("A simulated target needs at least one worker, not " + workers);
+        }
+        if (queue < 0) {
+            throw new RuntimeException("The queue of a simulated target can't be negative: " + queue);
+        }
+        if (errors < 0.0d || errors > 1.0d) {
+            throw new RuntimeException("The error fraction of a simulated target must be in [0,1], not " + errors);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.simtarget;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import io.nosqlbench.virtdata.core.bindings.VirtData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>An in-process stand-in for a database or service, for testing the engine without one. It has
+ * a fixed number of workers, each of which serves one request at a time for a service time drawn
+ * from a distribution, and a bounded queue of requests waiting for a worker. When the queue is
+ * full, requests are either rejected or the caller is made to wait, according to
+ * {@link SimTargetSpec.Shed}. A configured fraction of requests fail after their service time.</p>
+ *
+ * <p>Since capacity is bounded, offered load past {@code workers / mean service time} turns into
+ * queueing delay and then rejections, as it would with a real server. This makes it possible to
+ * see saturation and coordinated omission in client measurements offline.</p>
+ *
+ * <p>Targets are shared by name within a process, so that all threads and activities which use
+ * the same name contend for the same workers.</p>
+ */
+public class SimulatedTarget implements AutoCloseable {
+    private final static Logger logger = LogManager.getLogger(SimulatedTarget.class);
+    private final static Map<String, SimulatedTarget> targets = new ConcurrentHashMap<>();
+
+    private final SimTargetSpec spec;
+    private final BlockingQueue<Request> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicInteger inService = new AtomicInteger();
+    private volatile boolean running = true;
+
+    private record Request(long key, long enqueuedAt, CompletableFuture<SimResponse> future) {
+    }
+
+    /**
+     * Get the running target of the given name, or start one with these settings. If a target
+     * with the same name is already running with other settings, it is used as is.
+     */
+    public static SimulatedTarget getOrCreate(SimTargetSpec spec) {
+        return targets.compute(spec.name(), (name, existing) -> {
+            if (existing != null && existing.running) {
+                if (!existing.spec.equals(spec)) {
+                    logger.warn("simulated target '" + name + "' is already running as " + existing.spec + ", ignoring " + spec);
+                }
+                return existing;
+            }
+            return new SimulatedTarget(spec);
+        });
+    }
+
+    public SimulatedTarget(SimTargetSpec spec) {
+        this.spec = spec;
+        this.queue = spec.queue() == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(spec.queue());
+        for (int i = 0; i < spec.workers(); i++) {
+            // mappers are not thread-safe, so each worker gets its own
+            DataMapper<Object> serviceTimes = serviceTimeMapper(spec);
+            Thread worker = new Thread(() -> work(serviceTimes), "SIMTARGET-" + spec.name() + "-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        logger.debug(() -> "started simulated target " + spec);
+    }
+
+    /**
+     * Make a request without waiting for it to be served.
+     *
+     * @param key a value which identifies the request, like the cycle
+     * @return a future which completes when the request has been served, or which fails with a
+     * {@link SimTargetOverloadedException} or {@link SimTargetErrorException}
+     */
+    public CompletableFuture<SimResponse> submit(long key) {
+        CompletableFuture<SimResponse> future = new CompletableFuture<>();
+        Request request = new Request(key, System.nanoTime(), future);
+        if (spec.shed() == SimTargetSpec.Shed.reject) {
+            if (!running || !queue.offer(request)) {
+                rejected.incrementAndGet();
+                future.completeExceptionally(new SimTargetOverloadedException(spec.name()));
+                return future;
+            }
+        } else {
+            try {
+                queue.put(request);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+                return future;
+            }
+        }
+        accepted.incrementAndGet();
+        return future;
+    }
+
+    /**
+     * Make a request and wait for it to be served.
+     *
+     * @throws SimTargetOverloadedException if the request was rejected
+     * @throws SimTargetErrorException      if the request failed
+     */
+    public SimResponse call(long key) {
+        try {
+            return submit(key).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private static DataMapper<Object> serviceTimeMapper(SimTargetSpec spec) {
+        return VirtData.<Object>getOptionalMapper(spec.servicetime()).orElseThrow(
+            () -> new RuntimeException("Unable to find a binding for service time '" + spec.servicetime() + "'")
+        );
+    }
+
+    private void work(DataMapper<Object> serviceTimes) {
+        while (running) {
+            Request request;
+            try {
+                request = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (request == null) {
+                continue;
+            }
+            inService.incrementAndGet();
+            long startedAt = System.nanoTime();
+            long seq = sequence.getAndIncrement();
+            long serviceNanos = serviceTimeFor(serviceTimes, seq);
+            long deadline = startedAt + serviceNanos;
+            long remaining = serviceNanos;
+            while (remaining > 0L) {
+                LockSupport.parkNanos(remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            inService.decrementAndGet();
+            if (isError(seq)) {
+                failed.incrementAndGet();
+                request.future().completeExceptionally(new SimTargetErrorException(spec.name(), request.key()));
+            } else {
+                completed.incrementAndGet();
+                request.future().complete(
+                    new SimResponse(request.key(), startedAt - request.enqueuedAt(), System.nanoTime() - startedAt)
+                );
+            }
+        }
+    }
+
+    private long serviceTimeFor(DataMapper<Object> serviceTimes, long seq) {
+        Object value = serviceTimes.get(seq);
+        if (value instanceof Number number) {
+            return Math.max(0L, number.longValue());
+        }
+        throw new RuntimeException("The service time binding '" + spec.servicetime() + "' must yield a number, not " + value);
+    }
+
+    private boolean isError(long seq) {
+        if (spec.errors() <= 0.0d) {
+            return false;
+        }
+        long z = (seq ^ 0x5DEECE66DL) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53 < spec.errors();
+    }
+
+    public SimTargetSpec getSpec() {
+        return spec;
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public int getInService() {
+        return inService.get();
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Stop the workers, and fail any requests which are still queued.
+     */
+    @Override
+    public void close() {
+        running = false;
+        targets.remove(spec.name(), this);
+        workers.forEach(Thread::interrupt);
+        Request request;
+        while ((request = queue.poll()) != null) {
+            request.future().completeExceptionally(new SimTargetOverloadedException(spec.name()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "simtarget '" + spec.name() + "': inservice=" + getInService() + "/" + spec.workers()
+            + " queued=" + getQueued() + "/" + spec.queue()
+            + " accepted=" + getAccepted() + " completed=" + getCompleted()
+            + " failed=" + getFailed() + " rejected=" + getRejected();
+    }
+}
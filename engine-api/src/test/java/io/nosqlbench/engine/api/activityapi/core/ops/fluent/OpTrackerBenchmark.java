@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.core.ops.fluent;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import io.nosqlbench.engine.api.activityapi.core.ops.fluent.opfacets.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the cost per async op of tracking a window of in-flight ops, where each benchmark
+ * thread starts ops and a completer thread of its own finishes them. The {@code parked} tracker is
+ * {@link OpTrackerImpl}. The {@code monitor} tracker takes a monitor on every completion and waits
+ * on it when full, as the tracker used to. Run {@link #main(String[])} from the IDE, or vary the
+ * thread count with -t.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class OpTrackerBenchmark {
+
+    @State(Scope.Thread)
+    public static class TrackerState {
+        @Param({"parked", "monitor"})
+        public String tracker;
+
+        @Param({"64", "256", "1024"})
+        public int inflight;
+
+        private OpEvents<Long> events;
+        private OpTrackerImpl<Long> parked;
+        private MonitorTracker monitor;
+        private final ConcurrentLinkedQueue<StartedOp<Long>> queue = new ConcurrentLinkedQueue<>();
+        private volatile boolean running;
+        private Thread completer;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            Timer timer = new Timer();
+            if (tracker.equals("parked")) {
+                parked = new OpTrackerImpl<>("bench", 0, timer, null, new Counter());
+                parked.setMaxPendingOps(inflight);
+                events = parked;
+            } else {
+                monitor = new MonitorTracker(inflight, timer);
+                events = monitor;
+            }
+            running = true;
+            completer = new Thread(() -> {
+                while (running) {
+                    StartedOp<Long> op = queue.poll();
+                    if (op == null) {
+                        Thread.onSpinWait();
+                    } else {
+                        op.succeed(0);
+                    }
+                }
+            });
+            completer.setDaemon(true);
+            completer.start();
+        }
+
+        @TearDown(Level.Iteration)
+        public void teardown() throws InterruptedException {
+            if (parked != null) {
+                parked.awaitCompletion(10000);
+            }
+            running = false;
+            completer.join();
+            queue.clear();
+        }
+
+        private void awaitCapacity() throws InterruptedException {
+            if (parked != null) {
+                parked.awaitCapacity();
+            } else {
+                monitor.awaitCapacity();
+            }
+        }
+    }
+
+    @Benchmark
+    public void trackOp(TrackerState state) throws InterruptedException {
+        state.awaitCapacity();
+        StartedOp<Long> op = new EventedOpImpl<>(state.events).start();
+        state.queue.add(op);
+    }
+
+    /**
+     * The monitor-based window, as it was before {@link OpTrackerImpl} parked threads directly.
+     */
+    private final static class MonitorTracker implements OpEvents<Long> {
+        private final AtomicInteger pendingOps = new AtomicInteger();
+        private final int maxPendingOps;
+        private final Timer timer;
+
+        private MonitorTracker(int maxPendingOps, Timer timer) {
+            this.maxPendingOps = maxPendingOps;
+            this.timer = timer;
+        }
+
+        private void awaitCapacity() throws InterruptedException {
+            synchronized (this) {
+                while (pendingOps.get() >= maxPendingOps) {
+                    wait(10000);
+                }
+            }
+        }
+
+        @Override
+        public void onOpStarted(StartedOp<Long> op) {
+            pendingOps.incrementAndGet();
+        }
+
+        @Override
+        public void onOpSuccess(SucceededOp<Long> op) {
+            timer.update(op.getServiceTimeNanos(), TimeUnit.NANOSECONDS);
+            release();
+        }
+
+        @Override
+        public void onOpSkipped(SkippedOp<Long> op) {
+            release();
+        }
+
+        @Override
+        public void onOpFailure(FailedOp<Long> op) {
+            timer.update(op.getServiceTimeNanos(), TimeUnit.NANOSECONDS);
+            release();
+        }
+
+        private void release() {
+            if (pendingOps.decrementAndGet() < maxPendingOps) {
+                synchronized (this) {
+                    notify();
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(OpTrackerBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
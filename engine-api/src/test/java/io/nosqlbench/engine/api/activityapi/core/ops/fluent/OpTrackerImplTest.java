@@ -24,6 +24,13 @@ import io.nosqlbench.engine.api.activityapi.core.ops.fluent.opfacets.StartedOp;
 import io.nosqlbench.engine.api.activityapi.core.ops.fluent.opfacets.TrackedOp;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class OpTrackerImplTest {
 
     @Test
@@ -35,4 +42,129 @@ public class OpTrackerImplTest {
         SucceededOp stop = started.succeed(23);
     }
 
+    @Test
+    public void testAwaitCapacityParksOnlyWhenFull() throws Exception {
+        OpTrackerImpl<String> tracker = new OpTrackerImpl<String>("test", 0, new Timer(), new Timer(), new Counter());
+        tracker.setMaxPendingOps(2);
+        assertThat(tracker.awaitCapacity()).isEqualTo(0L);
+        StartedOp<String> first = new EventedOpImpl<>(tracker).start();
+        StartedOp<String> second = new EventedOpImpl<>(tracker).start();
+        assertThat(tracker.isFull()).isTrue();
+
+        AtomicLong waited = new AtomicLong(-1L);
+        Thread producer = new Thread(() -> waited.set(tracker.awaitCapacity()));
+        producer.start();
+        Thread.sleep(100);
+        assertThat(producer.isAlive()).isTrue();
+
+        first.succeed(0);
+        producer.join(5000);
+        assertThat(producer.isAlive()).isFalse();
+        assertThat(waited.get()).isGreaterThan(0L);
+        second.succeed(0);
+        assertThat(tracker.getPendingOps()).isEqualTo(0);
+    }
+
+    @Test
+    public void testRaisingLimitReleasesWaiter() throws Exception {
+        OpTrackerImpl<String> tracker = new OpTrackerImpl<String>("test", 0, new Timer(), new Timer(), new Counter());
+        tracker.setMaxPendingOps(1);
+        new EventedOpImpl<>(tracker).start();
+        Thread producer = new Thread(tracker::awaitCapacity);
+        producer.start();
+        Thread.sleep(100);
+        assertThat(producer.isAlive()).isTrue();
+        tracker.setMaxPendingOps(2);
+        producer.join(5000);
+        assertThat(producer.isAlive()).isFalse();
+    }
+
+    @Test
+    public void testAwaitCompletion() {
+        OpTrackerImpl<String> tracker = new OpTrackerImpl<String>("test", 0, new Timer(), new Timer(), new Counter());
+        tracker.setMaxPendingOps(1);
+        StartedOp<String> op = new EventedOpImpl<>(tracker).start();
+        assertThat(tracker.awaitCompletion(50)).isFalse();
+        new Thread(() -> op.succeed(0)).start();
+        assertThat(tracker.awaitCompletion(5000)).isTrue();
+    }
+
+    @Test
+    public void testInterruptEndsAwaitCapacity() throws Exception {
+        OpTrackerImpl<String> tracker = new OpTrackerImpl<String>("test", 0, new Timer(), new Timer(), new Counter());
+        tracker.setMaxPendingOps(1);
+        new EventedOpImpl<>(tracker).start();
+        AtomicBoolean stillInterrupted = new AtomicBoolean();
+        Thread producer = new Thread(() -> {
+            tracker.awaitCapacity();
+            stillInterrupted.set(Thread.currentThread().isInterrupted());
+        });
+        producer.start();
+        Thread.sleep(100);
+        assertThat(producer.isAlive()).isTrue();
+
+        producer.interrupt();
+        producer.join(1000);
+        assertThat(producer.isAlive()).isFalse();
+        assertThat(stillInterrupted.get()).isTrue();
+        assertThat(tracker.isFull()).isTrue();
+    }
+
+    @Test
+    public void testInterruptEndsAwaitCompletion() throws Exception {
+        OpTrackerImpl<String> tracker = new OpTrackerImpl<String>("test", 0, new Timer(), new Timer(), new Counter());
+        tracker.setMaxPendingOps(1);
+        new EventedOpImpl<>(tracker).start();
+        AtomicBoolean completed = new AtomicBoolean(true);
+        AtomicBoolean stillInterrupted = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            completed.set(tracker.awaitCompletion(60000));
+            stillInterrupted.set(Thread.currentThread().isInterrupted());
+        });
+        waiter.start();
+        Thread.sleep(100);
+
+        waiter.interrupt();
+        waiter.join(1000);
+        assertThat(waiter.isAlive()).isFalse();
+        assertThat(completed.get()).isFalse();
+        assertThat(stillInterrupted.get()).isTrue();
+    }
+
+    @Test
+    public void testWindowIsNeverExceeded() throws Exception {
+        int window = 64;
+        int total = 200000;
+        OpTrackerImpl<String> tracker = new OpTrackerImpl<String>("test", 0, new Timer(), new Timer(), new Counter());
+        tracker.setMaxPendingOps(window);
+        ConcurrentLinkedQueue<StartedOp<String>> inflight = new ConcurrentLinkedQueue<>();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger maxSeen = new AtomicInteger();
+
+        Thread completer = new Thread(() -> {
+            while (completed.get() < total) {
+                StartedOp<String> op = inflight.poll();
+                if (op == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                op.succeed(0);
+                completed.incrementAndGet();
+            }
+        });
+        completer.start();
+
+        for (int i = 0; i < total; i++) {
+            tracker.awaitCapacity();
+            StartedOp<String> op = new EventedOpImpl<>(tracker).start();
+            maxSeen.accumulateAndGet(tracker.getPendingOps(), Math::max);
+            inflight.add(op);
+        }
+
+        assertThat(tracker.awaitCompletion(10000)).isTrue();
+        completer.join(10000);
+        assertThat(completed.get()).isEqualTo(total);
+        assertThat(maxSeen.get()).isLessThanOrEqualTo(window);
+    }
+
 }
@@ -153,6 +153,47 @@ class NBErrorHandlerTest {
         assertThat(detail.resultCode).isEqualTo(42);
     }
 
+    @Test
+    void testBackoffErrorHandler() {
+        ErrorMetrics errorMetrics = new ErrorMetrics(ActivityDef.parseActivityDef("alias=testalias_backoff"));
+        NBErrorHandler eh = new NBErrorHandler(() -> "handler=backoff base=5 cap=20 jitter=none budget_cap=2", () -> errorMetrics);
+
+        ErrorDetail first = eh.handleError(runtimeException, 1, 2);
+        assertThat(first.isRetryable()).isTrue();
+        assertThat(first.retryDelayNanos).isEqualTo(5_000_000L);
+
+        ErrorDetail second = eh.handleError(runtimeException, 1, 2);
+        assertThat(second.isRetryable()).isTrue();
+        assertThat(second.retryDelayNanos).isEqualTo(10_000_000L);
+
+        ErrorDetail exhausted = eh.handleError(runtimeException, 1, 2);
+        assertThat(exhausted.isRetryable()).isFalse();
+        assertThat(errorMetrics.getRetryPolicyMetrics().getBudgetExhausted().getCount()).isEqualTo(1);
+
+        for (int i = 0; i < 10; i++) {
+            eh.handleSuccess(2, 2);
+        }
+        ErrorDetail replenished = eh.handleError(runtimeException, 3, 2);
+        assertThat(replenished.isRetryable()).isTrue();
+        assertThat(replenished.retryDelayNanos).isEqualTo(5_000_000L);
+        assertThat(errorMetrics.getRetryPolicyMetrics().getRetryDelays().getCount()).isEqualTo(3);
+    }
+
+    @Test
+    void testBackoffBreaker() {
+        ErrorMetrics errorMetrics = new ErrorMetrics(ActivityDef.parseActivityDef("alias=testalias_breaker"));
+        NBErrorHandler eh = new NBErrorHandler(() -> "handler=backoff breaker=3 cooldown=60000", () -> errorMetrics);
+
+        assertThat(eh.handleError(runtimeException, 1, 2).isRetryable()).isTrue();
+        assertThat(eh.handleError(runtimeException, 1, 2).isRetryable()).isTrue();
+        assertThat(eh.handleError(runtimeException, 1, 2).isRetryable()).isFalse();
+        assertThat(eh.handleError(runtimeException, 2, 2).isRetryable()).isFalse();
+        assertThat(errorMetrics.getRetryPolicyMetrics().getBreakerTrips().getCount()).isEqualTo(1);
+
+        eh.handleSuccess(3, 2);
+        assertThat(eh.handleError(runtimeException, 4, 2).isRetryable()).isTrue();
+    }
+
     @Test
     void testErrorLogAppender() {
 
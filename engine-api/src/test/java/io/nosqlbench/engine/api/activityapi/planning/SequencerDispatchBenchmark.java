@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.planning;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-cycle cost of selecting an op from each {@link SequencerType}, with 1000 op
+ * templates and ratios from 1 to 1000. The planned sequences have about half a million slots,
+ * while the weighted sequence has one per template, so the retained size of each plan is given
+ * by the {@code indexBytes} counter. Run {@link #main(String[])} from the IDE, or add
+ * {@code -prof gc} to see allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SequencerDispatchBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Plan {
+        @Param({"concat", "bucket", "interval", "weighted"})
+        public SequencerType type;
+
+        @Param({"1000"})
+        public int templates;
+
+        private OpSequence<String> sequence;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            SequencePlanner<String> planner = new SequencePlanner<>(type);
+            for (int i = 0; i < templates; i++) {
+                planner.addOp("op" + i, i + 1L);
+            }
+            sequence = planner.resolve();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long indexBytes;
+        private long cycle;
+
+        @Setup(Level.Iteration)
+        public void setup(Plan plan) {
+            indexBytes = (long) plan.sequence.getSequence().length * Integer.BYTES;
+        }
+    }
+
+    @Benchmark
+    public void apply(Plan plan, Counters counters, Blackhole bh) {
+        bh.consume(plan.sequence.apply(counters.cycle++));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public OpSequence<String> resolve(Plan plan) {
+        SequencePlanner<String> planner = new SequencePlanner<>(plan.type);
+        for (int i = 0; i < plan.templates; i++) {
+            planner.addOp("op" + i, i + 1L);
+        }
+        return planner.resolve();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(SequencerDispatchBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
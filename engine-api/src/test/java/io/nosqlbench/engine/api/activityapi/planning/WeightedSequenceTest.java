@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+public class WeightedSequenceTest {
+
+    @Test
+    public void testWeightedRatios() {
+        SequencePlanner<String> planner = new SequencePlanner<>(SequencerType.weighted);
+        planner.addOp("a", 0L);
+        planner.addOp("b", 2L);
+        planner.addOp("c", 3L);
+        OpSequence<String> seq = planner.resolve();
+        assertThat(seq.getSequence()).containsExactly(1, 2);
+
+        int[] counts = new int[3];
+        for (long cycle = 0; cycle < 100000; cycle++) {
+            String op = seq.apply(cycle);
+            counts[op.charAt(0) - 'a']++;
+        }
+        assertThat(counts[0]).isEqualTo(0);
+        assertThat((double) counts[1] / 100000).isCloseTo(0.4d, within(0.01d));
+        assertThat((double) counts[2] / 100000).isCloseTo(0.6d, within(0.01d));
+    }
+
+    @Test
+    public void testSelectionMatchesBucketRatios() {
+        OpSequence<String> weighted = plan(SequencerType.weighted);
+        OpSequence<String> bucket = plan(SequencerType.bucket);
+        OpSequence<Integer> transformed = weighted.transform(String::length);
+        assertThat(bucket.getSequence()).hasSize(1101);
+
+        // whole bucket periods, so the bucket counts are the exact ratios
+        long cycles = 1101L * 1000;
+        Map<String, Integer> weightedCounts = new HashMap<>();
+        Map<String, Integer> bucketCounts = new HashMap<>();
+        for (long cycle = 0; cycle < cycles; cycle++) {
+            String op = weighted.apply(cycle);
+            assertThat(transformed.apply(cycle)).isEqualTo(op.length());
+            weightedCounts.merge(op, 1, Integer::sum);
+            bucketCounts.merge(bucket.apply(cycle), 1, Integer::sum);
+        }
+        assertThat(bucketCounts).containsOnly(entry("a", 1000), entry("bb", 1000000), entry("ccc", 100000));
+        assertThat(weightedCounts).containsOnlyKeys("a", "bb", "ccc");
+        bucketCounts.forEach((op, expected) ->
+            assertThat(weightedCounts.get(op)).as(op).isCloseTo(expected, withinPercentage(10))
+        );
+    }
+
+    private static OpSequence<String> plan(SequencerType type) {
+        SequencePlanner<String> planner = new SequencePlanner<>(type);
+        planner.addOp("a", 1L);
+        planner.addOp("bb", 1000L);
+        planner.addOp("ccc", 100L);
+        return planner.resolve();
+    }
+
+    @Test
+    public void testAllZeroRatiosFail() {
+        SequencePlanner<String> planner = new SequencePlanner<>(SequencerType.weighted);
+        planner.addOp("a", 0L);
+        assertThatThrownBy(planner::resolve).isInstanceOf(RuntimeException.class);
+    }
+
+}
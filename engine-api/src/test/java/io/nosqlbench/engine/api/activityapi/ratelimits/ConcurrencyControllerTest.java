@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.ratelimits;
+
+import io.nosqlbench.api.engine.activityimpl.ParameterMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class ConcurrencyControllerTest {
+
+    private final static double CAPACITY = 10000.0d;
+    private final static double BASE_NANOS = 1_000_000.0d;
+
+    /**
+     * Drive the controller against a simulated single queue with the given capacity, where mean
+     * latency grows as 1/(1-utilization) and p99 is three times the mean. With a p99 limit of 10ms,
+     * the highest rate which meets the objective is 7000 ops/s.
+     */
+    private ConcurrencyController simulate(double initialRate, int initialThreads) {
+        ConcurrencyController controller = new ConcurrencyController(
+            "test", new ParameterMap(new HashMap<>()), null, new SloSpec("p99:10ms"),
+            10000L, initialThreads, 512, initialRate
+        );
+        int steps = 0;
+        while (!controller.isConverged() && steps++ < 300) {
+            double target = controller.getTargetRate();
+            int threads = controller.getThreads();
+            double offered = Math.min(target <= 0.0d ? Double.MAX_VALUE : target, CAPACITY * 0.99d);
+            double achieved = offered;
+            for (int i = 0; i < 200; i++) {
+                double mean = BASE_NANOS / (1.0d - achieved / CAPACITY);
+                achieved = Math.min(offered, threads / (mean / 1_000_000_000.0d));
+            }
+            double mean = BASE_NANOS / (1.0d - achieved / CAPACITY);
+            controller.observe((long) (achieved * 10), 10.0d, (long) (mean * 3), mean);
+        }
+        return controller;
+    }
+
+    @Test
+    public void testConvergesFromUnthrottled() {
+        ConcurrencyController controller = simulate(0.0d, 4);
+        assertThat(controller.isConverged()).isTrue();
+        assertThat(controller.getTargetRate()).isCloseTo(7000.0d, within(350.0d));
+        assertThat(controller.getBest()).isPresent();
+        assertThat(controller.getBest().get().met()).isTrue();
+    }
+
+    @Test
+    public void testConvergesFromBelow() {
+        ConcurrencyController controller = simulate(1000.0d, 1);
+        assertThat(controller.isConverged()).isTrue();
+        assertThat(controller.getTargetRate()).isCloseTo(7000.0d, within(350.0d));
+        assertThat(controller.getThreads()).isGreaterThan(1);
+    }
+
+    @Test
+    public void testConvergesFromAbove() {
+        ConcurrencyController controller = simulate(50000.0d, 4);
+        assertThat(controller.isConverged()).isTrue();
+        assertThat(controller.getTargetRate()).isCloseTo(7000.0d, within(350.0d));
+    }
+
+    @Test
+    public void testFrontierIsNonDominated() {
+        ConcurrencyController controller = simulate(1000.0d, 4);
+        for (ConcurrencyController.Point a : controller.getFrontier()) {
+            for (ConcurrencyController.Point b : controller.getPoints()) {
+                assertThat(b.opsPerSec() > a.opsPerSec() && b.latencyNanos() < a.latencyNanos()).isFalse();
+            }
+        }
+        assertThat(controller.getReport()).contains("p99<=10.000ms");
+    }
+
+    @Test
+    public void testForParams() {
+        ParameterMap params = ParameterMap.parseOrException("threads=8;cyclerate=500;slo_window=5s;slo_max_threads=64");
+        ConcurrencyController controller = ConcurrencyController.forParams("test", params, null, new SloSpec("p99:10ms"), 8);
+        assertThat(controller.getThreads()).isEqualTo(8);
+        assertThat(controller.getTargetRate()).isEqualTo(500.0d);
+    }
+
+    @Test
+    public void testStartsFromResolvedAutoThreads() {
+        ParameterMap params = ParameterMap.parseOrException("threads=auto;cyclerate=500;slo_window=5s");
+        ConcurrencyController controller = ConcurrencyController.forParams("test", params, null, new SloSpec("p99:10ms"), 80);
+        assertThat(controller.getThreads()).isEqualTo(80);
+
+        controller.apply();
+        assertThat(params.getOptionalString("threads")).contains("auto");
+
+        // met the objective, but reached only half the target rate, so more threads are needed
+        controller.observe(2500L, 10.0d, 5_000_000L, 100_000_000.0d);
+        assertThat(controller.getThreads()).isGreaterThan(80);
+        controller.apply();
+        assertThat(params.getOptionalString("threads")).contains(String.valueOf(controller.getThreads()));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityapi.ratelimits;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SloSpecTest {
+
+    @Test
+    public void testParseSpec() {
+        SloSpec slo = new SloSpec("p99:10ms");
+        assertThat(slo.getPercentile()).isEqualTo(99.0d);
+        assertThat(slo.getLimitNanos()).isEqualTo(10_000_000L);
+        assertThat(slo.toString()).isEqualTo("p99<=10.000ms");
+    }
+
+    @Test
+    public void testFractionalPercentile() {
+        SloSpec slo = new SloSpec("p99.9<0.25ms");
+        assertThat(slo.getPercentile()).isEqualTo(99.9d);
+        assertThat(slo.getLimitNanos()).isEqualTo(250_000L);
+    }
+
+    @Test
+    public void testIsMetBy() {
+        SloSpec slo = new SloSpec("p95:2ms");
+        assertThat(slo.isMetBy(2_000_000L)).isTrue();
+        assertThat(slo.isMetBy(2_000_001L)).isFalse();
+    }
+
+    @Test
+    public void testInvalidSpecs() {
+        assertThatThrownBy(() -> new SloSpec("99:10ms")).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> new SloSpec("p101:10ms")).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> new SloSpec("p99:fast")).isInstanceOf(RuntimeException.class);
+    }
+}
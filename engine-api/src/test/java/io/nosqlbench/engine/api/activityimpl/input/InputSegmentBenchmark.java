@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.input;
+
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.engine.api.activityapi.input.Input;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the cost of getting a segment from the shared {@link AtomicInput} with getting one
+ * from a per-thread lane of {@link LeasedInput}. The range is large enough that it is not used up
+ * during a run. Run {@link #main(String[])} from the IDE, or vary the thread count with -t.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class InputSegmentBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedInput {
+        @Param({"atomicseq", "leased"})
+        public String type;
+
+        @Param({"1", "10"})
+        public int stride;
+
+        private AtomicInput atomicInput;
+        private LeasedInput leasedInput;
+        private final AtomicInteger slots = new AtomicInteger();
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            ActivityDef def = ActivityDef.parseActivityDef("alias=bench,cycles=0..4000000000000000000");
+            atomicInput = new AtomicInput(def);
+            leasedInput = new LeasedInput(def);
+            slots.set(0);
+        }
+
+        private Input inputFor(int slot) {
+            return type.equals("leased") ? leasedInput.laneFor(slot) : atomicInput;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadInput {
+        private Input input;
+
+        @Setup(Level.Iteration)
+        public void setup(SharedInput shared) {
+            input = shared.inputFor(shared.slots.getAndIncrement());
+        }
+    }
+
+    @Benchmark
+    public void getInputSegment(SharedInput shared, ThreadInput thread, Blackhole bh) {
+        bh.consume(thread.input.getInputSegment(shared.stride));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(InputSegmentBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
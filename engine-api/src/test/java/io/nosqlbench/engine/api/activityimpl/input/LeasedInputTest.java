@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.activityimpl.input;
+
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleSegment;
+import io.nosqlbench.engine.api.activityapi.input.Input;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LeasedInputTest {
+
+    private static long drain(Input lane, int stride, AtomicIntegerArray seen, long base) {
+        long count = 0L;
+        CycleSegment segment;
+        while ((segment = lane.getInputSegment(stride)) != null) {
+            long cycle;
+            while ((cycle = segment.nextCycle()) >= 0) {
+                seen.incrementAndGet((int) (cycle - base));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testEmptyIntervalShouldNotProvideValues() {
+        LeasedInput input = new LeasedInput(ActivityDef.parseActivityDef("alias=foo,cycles=23..23"));
+        assertThat(input.laneFor(0).getInputSegment(1)).isNull();
+    }
+
+    @Test
+    public void testLaneIsStablePerSlot() {
+        LeasedInput input = new LeasedInput(ActivityDef.parseActivityDef("alias=foo,cycles=10"));
+        assertThat(input.laneFor(3)).isSameAs(input.laneFor(3));
+        assertThat(input.laneFor(3)).isNotSameAs(input.laneFor(4));
+    }
+
+    @Test
+    public void testPartialFinalStride() {
+        LeasedInput input = new LeasedInput(ActivityDef.parseActivityDef("alias=foo,cycles=5..15"), 4);
+        AtomicIntegerArray seen = new AtomicIntegerArray(10);
+        assertThat(drain(input.laneFor(0), 3, seen, 5)).isEqualTo(10L);
+    }
+
+    @Test
+    public void testStealsFromIdleLane() {
+        LeasedInput input = new LeasedInput(ActivityDef.parseActivityDef("alias=foo,cycles=1000"), 1000);
+        Input idle = input.laneFor(0);
+        Input busy = input.laneFor(1);
+        CycleSegment first = idle.getInputSegment(10);
+        assertThat(first.nextCycle()).isEqualTo(0L);
+
+        AtomicIntegerArray seen = new AtomicIntegerArray(1000);
+        long stolen = drain(busy, 10, seen, 0);
+        assertThat(stolen).isEqualTo(990L);
+        assertThat(idle.getInputSegment(10)).isNull();
+    }
+
+    @Test
+    public void testConcurrentLanesCoverRangeOnce() throws InterruptedException {
+        LeasedInput input = new LeasedInput(ActivityDef.parseActivityDef("alias=foo,cycles=100..200103,recycles=1"), 5000);
+        AtomicIntegerArray seen = new AtomicIntegerArray(200003);
+        List<Thread> threads = new ArrayList<>();
+        for (int slot = 0; slot < 16; slot++) {
+            Input lane = input.laneFor(slot);
+            threads.add(new Thread(() -> drain(lane, 7, seen, 100)));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < seen.length(); i++) {
+            assertThat(seen.get(i)).as("cycle " + (i + 100)).isEqualTo(2);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.api.simtarget;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SimulatedTargetTest {
+
+    @Test
+    public void testRejectWhenQueueIsFull() throws Exception {
+        SimTargetSpec spec = new SimTargetSpec("reject", 2, 2, "FixedValue(500000000L)", 0.0d, SimTargetSpec.Shed.reject);
+        try (SimulatedTarget target = new SimulatedTarget(spec)) {
+            target.submit(0L);
+            target.submit(1L);
+            awaitInService(target, 2);
+            List<CompletableFuture<SimResponse>> waiting = new ArrayList<>();
+            for (long key = 2; key < 5; key++) {
+                waiting.add(target.submit(key));
+            }
+            assertThat(target.getQueued()).isEqualTo(2);
+            assertThat(target.getRejected()).isEqualTo(1L);
+            assertThat(target.getAccepted()).isEqualTo(4L);
+            assertThat(waiting.get(2)).isCompletedExceptionally();
+            assertThatThrownBy(() -> target.call(5L)).isInstanceOf(SimTargetOverloadedException.class);
+        }
+    }
+
+    @Test
+    public void testErrorFraction() {
+        SimTargetSpec spec = new SimTargetSpec("errors", 1, 4, "FixedValue(0L)", 1.0d, SimTargetSpec.Shed.block);
+        try (SimulatedTarget target = new SimulatedTarget(spec)) {
+            for (long key = 0; key < 10; key++) {
+                long finalKey = key;
+                assertThatThrownBy(() -> target.call(finalKey)).isInstanceOf(SimTargetErrorException.class);
+            }
+            assertThat(target.getFailed()).isEqualTo(10L);
+            assertThat(target.getCompleted()).isEqualTo(0L);
+        }
+    }
+
+    @Test
+    public void testQueueingDelay() {
+        SimTargetSpec spec = new SimTargetSpec("queueing", 1, 4, "FixedValue(20000000L)", 0.0d, SimTargetSpec.Shed.reject);
+        try (SimulatedTarget target = new SimulatedTarget(spec)) {
+            target.submit(0L);
+            target.submit(1L);
+            SimResponse third = target.submit(2L).join();
+            assertThat(third.key()).isEqualTo(2L);
+            assertThat(third.serviceNanos()).isGreaterThanOrEqualTo(20_000_000L);
+            assertThat(third.queueNanos()).isGreaterThanOrEqualTo(35_000_000L);
+        }
+    }
+
+    @Test
+    public void testHttpFrontEnd() throws Exception {
+        SimTargetSpec spec = new SimTargetSpec("http", 2, 4, "FixedValue(1000000L)", 0.0d, SimTargetSpec.Shed.reject);
+        try (SimulatedTarget target = new SimulatedTarget(spec);
+             SimTargetServer server = new SimTargetServer(target).startHttp(new InetSocketAddress("localhost", 0))) {
+            InetSocketAddress address = server.getHttpAddress();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + address.getPort() + "/?key=42")).build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).contains("\"key\":42");
+            assertThat(target.getCompleted()).isEqualTo(1L);
+        }
+    }
+
+    private static void awaitInService(SimulatedTarget target, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (target.getInService() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(target.getInService()).isEqualTo(count);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import io.nosqlbench.api.config.standard.NBConfiguration;
+import io.nosqlbench.engine.api.activityconfig.OpsLoader;
+import io.nosqlbench.engine.api.activityconfig.yaml.OpTemplateFormat;
+import io.nosqlbench.engine.api.templating.ParsedOp;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the fields of a parsed op for each cycle, which is the binding cost that an op
+ * dispenser pays before its driver sees any values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BindingBenchmark {
+
+    private final static Map<String, String> TEMPLATES = Map.of(
+        "static", """
+            ops:
+              op1:
+                stmt: "select * from table where key='constant'"
+            """,
+        "captured", """
+            bindings:
+              id: Identity()
+            ops:
+              op1:
+                key: "{id}"
+            """,
+        "templated", """
+            bindings:
+              id: Identity(); ToString()
+              name: NumberNameToString()
+              score: HashRange(0,100000); ToDouble()
+            ops:
+              op1:
+                stmt: "insert into table (id,name,score) values ('{id}','{name}',{score})"
+                ttl: 3600
+            """
+    );
+
+    @Param({"static", "captured", "templated"})
+    public String template;
+
+    private ParsedOp parsedOp;
+    private long cycle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        parsedOp = new ParsedOp(
+            OpsLoader.loadString(TEMPLATES.get(template), OpTemplateFormat.yaml, Map.of(), null).getOps().get(0),
+            NBConfiguration.empty()
+        );
+    }
+
+    @Benchmark
+    public void applyParsedOp(Blackhole bh) {
+        bh.consume(parsedOp.apply(cycle++));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import com.codahale.metrics.Timer;
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import io.nosqlbench.engine.api.activityapi.cyclelog.buffers.results.CycleResultSegmentBuffer;
+import io.nosqlbench.engine.api.activityapi.input.Input;
+import io.nosqlbench.engine.api.activityapi.planning.OpSequence;
+import io.nosqlbench.engine.api.activityapi.planning.SequencePlanner;
+import io.nosqlbench.engine.api.activityapi.planning.SequencerType;
+import io.nosqlbench.engine.api.activityapi.ratelimits.HybridRateLimiter;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateLimiter;
+import io.nosqlbench.engine.api.activityapi.ratelimits.RateSpec;
+import io.nosqlbench.engine.api.activityimpl.input.AtomicInput;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each of the engine calls made for every cycle, measured on its own. The rate limiter is
+ * given a rate high enough that it never waits, so only its accounting is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CyclePathBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        private Input input;
+        private RateLimiter rateLimiter;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            ActivityDef def = ActivityDef.parseActivityDef("alias=cyclepath,cycles=0..4000000000000000000");
+            input = new AtomicInput(def);
+            rateLimiter = new HybridRateLimiter(def, "cycles", new RateSpec(1.0E12, 1.1, RateSpec.Verb.start));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        @Param({"1", "100"})
+        public int stride;
+
+        private OpSequence<String> sequence;
+        private Timer timer;
+        private long cycle;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            SequencePlanner<String> planner = new SequencePlanner<>(SequencerType.bucket);
+            planner.addOp("read", 5);
+            planner.addOp("write", 3);
+            planner.addOp("scan", 1);
+            sequence = planner.resolve();
+            timer = ActivityMetrics.timer(ActivityDef.parseActivityDef("alias=cyclepath"), "bench", 4);
+        }
+    }
+
+    @Benchmark
+    public void inputSegment(SharedState shared, ThreadState state, Blackhole bh) {
+        bh.consume(shared.input.getInputSegment(state.stride));
+    }
+
+    @Benchmark
+    public void opSequence(ThreadState state, Blackhole bh) {
+        bh.consume(state.sequence.apply(state.cycle++));
+    }
+
+    @Benchmark
+    public void timerUpdate(ThreadState state) {
+        state.timer.update(state.cycle++ & 0xFFFFF, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void rateLimiter(SharedState shared, Blackhole bh) {
+        bh.consume(shared.rateLimiter.maybeWaitForOp());
+    }
+
+    /**
+     * Buffers the results of one stride, as the motor does, so the time is per stride.
+     */
+    @Benchmark
+    public void resultSegment(ThreadState state, Blackhole bh) {
+        CycleResultSegmentBuffer buffer = new CycleResultSegmentBuffer(state.stride);
+        long base = state.cycle;
+        for (int i = 0; i < state.stride; i++) {
+            buffer.append(base + i, i & 0x7F);
+        }
+        state.cycle += state.stride;
+        bh.consume(buffer.toReader());
+    }
+}
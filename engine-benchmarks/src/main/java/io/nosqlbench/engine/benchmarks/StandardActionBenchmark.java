@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.benchmarks;
+
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.engine.api.activityimpl.uniform.StandardActivity;
+import io.nosqlbench.engine.api.activityimpl.uniform.actions.StandardAction;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs whole cycles through {@link StandardAction#runCycle(long)}, including op sequencing, op
+ * binding, execution by the adapter, and the bind, execute, result and tries metrics. The
+ * difference between this and the sum of the {@link CyclePathBenchmark} calls is the cost of the
+ * action itself and of the adapter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StandardActionBenchmark {
+
+    private final static Map<String, String> ACTIVITIES = Map.of(
+        "diag", "driver=diag;op=noop",
+        "noop", "driver=noop;op=noop",
+        "noop_consume", "driver=noop;op=noop;consume=true"
+    );
+
+    @State(Scope.Benchmark)
+    public static class ActivityState {
+        @Param({"diag", "noop", "noop_consume"})
+        public String adapter;
+
+        private StandardActivity<?, ?> activity;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            ActivityDef def = ActivityDef.parseActivityDef("alias=action_" + adapter + ";" + ACTIVITIES.get(adapter));
+            activity = new StandardActivity<>(def);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ActionState {
+        private StandardAction<?, ?> action;
+        private long cycle;
+
+        @Setup(Level.Trial)
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        public void setup(ActivityState activityState) {
+            action = new StandardAction(activityState.activity, 0);
+        }
+    }
+
+    @Benchmark
+    public void runCycle(ActionState state, Blackhole bh) {
+        bh.consume(state.action.runCycle(state.cycle++));
+    }
+}
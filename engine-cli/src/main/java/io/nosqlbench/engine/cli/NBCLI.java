@@ -384,7 +384,7 @@ public class NBCLI implements Function<String[], Integer> {
                 .build()
         );
 
-        if (reportGraphiteTo != null || options.wantsReportCsvTo() != null) {
+        if (reportGraphiteTo != null || options.wantsReportCsvTo() != null || options.wantsReportSeriesTo() != null) {
             MetricReporters reporters = MetricReporters.getInstance();
             reporters.addRegistry("workloads", ActivityMetrics.getMetricRegistry());
 
@@ -394,9 +394,16 @@ public class NBCLI implements Function<String[], Integer> {
             if (options.wantsReportCsvTo() != null) {
                 reporters.addCSVReporter(options.wantsReportCsvTo(), options.wantsMetricsPrefix());
             }
+            if (options.wantsReportSeriesTo() != null) {
+                reporters.addSeriesReporter(options.wantsReportSeriesTo(), options.wantsMetricsPrefix());
+            }
             reporters.start(10, options.getReportInterval());
         }
 
+        if (options.wantsReportOpenMetricsAt() != null) {
+            ActivityMetrics.addOpenMetricsEndpoint(options.wantsMetricsPrefix(), ".*", options.wantsReportOpenMetricsAt());
+        }
+
         if (options.wantsEnableChart()) {
             logger.info("Charting enabled");
             if (options.getHistoLoggerConfigs().size() == 0) {
@@ -101,6 +101,8 @@ public class NBCLIOptions {
     private static final String REPORT_GRAPHITE_TO = "--report-graphite-to";
     private static final String GRAPHITE_LOG_LEVEL = "--graphite-log-level";
     private static final String REPORT_CSV_TO = "--report-csv-to";
+    private static final String REPORT_OPENMETRICS_AT = "--report-openmetrics-at";
+    private static final String REPORT_SERIES_TO = "--report-series-to";
     private static final String REPORT_SUMMARY_TO = "--report-summary-to";
     private final static String REPORT_SUMMARY_TO_DEFAULT = "stdout:60,_LOGS_/_SESSION_.summary";
     private static final String PROGRESS = "--progress";
@@ -138,6 +140,8 @@ public class NBCLIOptions {
     private boolean wantsBasicHelp = false;
     private String reportGraphiteTo = null;
     private String reportCsvTo = null;
+    private String reportOpenMetricsAt = null;
+    private String reportSeriesTo = null;
     private int reportInterval = 10;
     private String metricsPrefix = "nosqlbench";
     private String wantsMetricsForActivity;
@@ -582,6 +586,14 @@ public class NBCLIOptions {
                     arglist.removeFirst();
                     reportCsvTo = arglist.removeFirst();
                     break;
+                case REPORT_SERIES_TO:
+                    arglist.removeFirst();
+                    reportSeriesTo = readWordOrThrow(arglist, "metrics series file");
+                    break;
+                case REPORT_OPENMETRICS_AT:
+                    arglist.removeFirst();
+                    reportOpenMetricsAt = readWordOrThrow(arglist, "openmetrics [host:]port");
+                    break;
                 case REPORT_SUMMARY_TO:
                     arglist.removeFirst();
                     reportSummaryTo = readWordOrThrow(arglist, "report summary file");
@@ -826,6 +838,14 @@ public class NBCLIOptions {
         return reportCsvTo;
     }
 
+    public String wantsReportSeriesTo() {
+        return reportSeriesTo;
+    }
+
+    public String wantsReportOpenMetricsAt() {
+        return reportOpenMetricsAt;
+    }
+
     public Path getLogsDirectory() {
         return Path.of(logsDirectory);
     }
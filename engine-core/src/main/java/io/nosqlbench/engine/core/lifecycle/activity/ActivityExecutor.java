@@ -22,6 +22,7 @@ import io.nosqlbench.api.engine.activityimpl.ParameterMap;
 import io.nosqlbench.engine.api.activityapi.core.*;
 import io.nosqlbench.engine.api.activityapi.core.progress.ProgressCapable;
 import io.nosqlbench.engine.api.activityapi.core.progress.ProgressMeterDisplay;
+import io.nosqlbench.engine.api.activityapi.ratelimits.ConcurrencyController;
 import io.nosqlbench.engine.api.activityimpl.motor.RunStateImage;
 import io.nosqlbench.engine.api.activityimpl.motor.RunStateTally;
 import io.nosqlbench.engine.core.annotation.Annotators;
@@ -393,6 +394,7 @@ public class ActivityExecutor implements ActivityController, ParameterMap.Listen
     @Override
     public ExecutionResult call() throws Exception {
 
+        ConcurrencyController sloController = null;
         try {
             // instantiate and configure fixtures that need to be present
             // before threads start running such as metrics instruments
@@ -401,10 +403,17 @@ public class ActivityExecutor implements ActivityController, ParameterMap.Listen
             startRunningActivityThreads();
             awaitMotorsAtLeastRunning();
             logger.debug("STARTED " + activityDef.getAlias());
+            if (activityDef.getParams().getOptionalString("slo").isPresent()) {
+                sloController = ConcurrencyController.forActivity(activity);
+                sloController.start();
+            }
             awaitActivityCompletion();
         } catch (Exception e) {
             this.exception = e;
         } finally {
+            if (sloController != null) {
+                sloController.stop();
+            }
             activity.shutdownActivity();
             activity.closeAutoCloseables();
         }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.distributed;
+
+import io.nosqlbench.api.engine.util.Unit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits the cycle interval of an activity into contiguous, non-overlapping ranges, one for each
+ * worker, and splits rate limits in proportion to the size of each range. Since every worker
+ * covers a share of the cycles in the same time, its share of the rate is the same as its share
+ * of the cycles.
+ */
+public class CyclePartitioner {
+
+    public record Partition(int index, long startCycle, long endCycle, double share) {
+        public long getCycleCount() {
+            return endCycle - startCycle;
+        }
+
+        public String getCycleSpec() {
+            return startCycle + ".." + endCycle;
+        }
+    }
+
+    /**
+     * Partition the interval [startCycle, endCycle) into at most the given number of ranges.
+     * The remainder is spread over the first ranges, so range sizes differ by at most one.
+     * If there are fewer cycles than workers, only as many ranges as there are cycles are
+     * returned.
+     */
+    public static List<Partition> partition(long startCycle, long endCycle, int workers) {
+        if (workers < 1) {
+            throw new RuntimeException("workers must be at least 1, but was " + workers);
+        }
+        long total = endCycle - startCycle;
+        if (total < 1) {
+            throw new RuntimeException("Unable to partition an empty cycle interval " + startCycle + ".." + endCycle);
+        }
+        int count = (int) Math.min(workers, total);
+        long base = total / count;
+        long remainder = total % count;
+
+        List<Partition> partitions = new ArrayList<>(count);
+        long start = startCycle;
+        for (int i = 0; i < count; i++) {
+            long size = base + (i < remainder ? 1 : 0);
+            partitions.add(new Partition(i, start, start + size, (double) size / total));
+            start += size;
+        }
+        return partitions;
+    }
+
+    /**
+     * Scale the ops/s of a rate spec like {@code 50000} or {@code 50K,1.1,restart} by the
+     * given share, leaving any burst ratio and verb unchanged.
+     */
+    public static String splitRate(String rateSpec, double share) {
+        String[] parts = rateSpec.split("[,:;]", 2);
+        double opsPerSec = Unit.doubleCountFor(parts[0])
+            .orElseThrow(() -> new RuntimeException("Unparsable rate spec:" + rateSpec));
+        String scaled = String.format(Locale.ROOT, "%.3f", opsPerSec * share);
+        return parts.length > 1 ? scaled + "," + parts[1] : scaled;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.distributed;
+
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.api.engine.activityimpl.ParameterMap;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import io.nosqlbench.api.engine.util.Unit;
+import io.nosqlbench.engine.core.lifecycle.ExecutionResult;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>Runs an activity as several worker processes, each of which runs the same activity over its
+ * own range of the cycles, as chosen by {@link CyclePartitioner}. Rate limits are split across
+ * the workers in proportion to their cycles, both at start and when they are changed on the
+ * activity def of this coordinator while it runs.</p>
+ *
+ * <p>Each worker writes an HDR interval log of its own. When all workers have exited, these are
+ * merged into one log, and the counters and meters reported by the workers are summed into
+ * counters of the same names in this process. The result of the call carries a summary of the
+ * merged histograms.</p>
+ *
+ * <p>If any worker exits with a non-zero status, the others are told to stop, and are destroyed
+ * if they have not exited within {@value #STOP_GRACE_MILLIS}ms. The activity then fails with the
+ * status of the first worker which failed.</p>
+ *
+ * <p>Workers are local child processes by default, using the same JVM and classpath as this
+ * process. The launch command can be replaced with {@code worker_cmd}, for example to start
+ * workers on other hosts, in which case the logs directory must be shared with this host.</p>
+ */
+public class DistributedActivity implements Callable<ExecutionResult>, ParameterMap.Listener {
+    private final static Logger logger = LogManager.getLogger(DistributedActivity.class);
+
+    public final static String WORKERS = "workers";
+    public final static String WORKER = "worker";
+    public final static String WORKER_CMD = "worker_cmd";
+    public final static String WORKER_INTERVAL = "worker_interval";
+
+    public final static long STOP_GRACE_MILLIS = 5000L;
+
+    private final static String MAIN_CLASS = "io.nosqlbench.engine.cli.NBCLI";
+    private final static Set<String> COORDINATOR_PARAMS = Set.of(WORKERS, WORKER_CMD, WORKER_INTERVAL, "alias", "cycles");
+    private final static Set<String> RATE_PARAMS = Set.of("cyclerate", "targetrate", "rate", "striderate");
+
+    private final ActivityDef activityDef;
+    private final String sessionName;
+    private final Path logsPath;
+    private final List<CyclePartitioner.Partition> partitions;
+    private final String interval;
+    private final List<WorkerProcess> workers = new ArrayList<>();
+    private Map<String, String> lastParams;
+    private volatile boolean running;
+
+    public DistributedActivity(ActivityDef activityDef, String sessionName, Path logsPath) {
+        this.activityDef = activityDef;
+        this.sessionName = sessionName;
+        this.logsPath = logsPath;
+        int workerCount = activityDef.getParams().getOptionalInteger(WORKERS)
+            .orElseThrow(() -> new RuntimeException("The " + WORKERS + " parameter is required for distributed activities."));
+        this.partitions = CyclePartitioner.partition(activityDef.getStartCycle(), activityDef.getEndCycle(), workerCount);
+        this.interval = activityDef.getParams().getOptionalString(WORKER_INTERVAL).orElse("1s");
+        this.lastParams = activityDef.getParams().getStringStringMap();
+        activityDef.getParams().addListener(this);
+    }
+
+    /**
+     * The nb5 arguments for one worker: the activity params with the cycles and rates of its
+     * partition, followed by the options for its session and histogram log.
+     */
+    public static List<String> workerArgs(ActivityDef activityDef, CyclePartitioner.Partition partition,
+                                          String workerSession, Path logsPath, Path histoLog, String interval) {
+        List<String> args = new ArrayList<>();
+        args.add("run");
+        for (Map.Entry<String, String> param : new TreeMap<>(activityDef.getParams().getStringStringMap()).entrySet()) {
+            if (!COORDINATOR_PARAMS.contains(param.getKey())) {
+                args.add(param.getKey() + "=" + workerValue(param.getKey(), param.getValue(), partition));
+            }
+        }
+        args.add("alias=" + activityDef.getAlias());
+        args.add("cycles=" + partition.getCycleSpec());
+        args.add(WORKER + "=" + partition.index());
+        args.add("--session-name");
+        args.add(workerSession);
+        args.add("--logs-dir");
+        args.add(logsPath.toString());
+        args.add("--log-histograms");
+        args.add(histoLog + ":.*:" + interval);
+        return args;
+    }
+
+    private static String workerValue(String name, String value, CyclePartitioner.Partition partition) {
+        return RATE_PARAMS.contains(name) ? CyclePartitioner.splitRate(value, partition.share()) : value;
+    }
+
+    private List<String> launchCommand() {
+        Optional<String> workerCmd = activityDef.getParams().getOptionalString(WORKER_CMD);
+        if (workerCmd.isPresent()) {
+            return new ArrayList<>(Arrays.asList(workerCmd.get().trim().split("\\s+")));
+        }
+        String java = ProcessHandle.current().info().command()
+            .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        return new ArrayList<>(List.of(java, "-cp", System.getProperty("java.class.path"), MAIN_CLASS));
+    }
+
+    @Override
+    public ExecutionResult call() {
+        long startedAt = System.currentTimeMillis();
+        running = true;
+        Exception error = null;
+        try {
+            synchronized (this) {
+                for (CyclePartitioner.Partition partition : partitions) {
+                    String workerSession = sessionName + "_" + activityDef.getAlias() + "_w" + partition.index();
+                    Path histoLog = logsPath.resolve(workerSession + ".hdr");
+                    List<String> command = launchCommand();
+                    command.addAll(workerArgs(activityDef, partition, workerSession, logsPath, histoLog, interval));
+                    workers.add(new WorkerProcess(workerSession, command, partition, histoLog));
+                }
+            }
+            logger.info(() -> "started " + workers.size() + " workers for " + activityDef.getAlias()
+                + " over cycles " + activityDef.getCycleSummary());
+            Map<WorkerProcess, CompletableFuture<Process>> pending = new LinkedHashMap<>();
+            workers.forEach(w -> pending.put(w, w.onExit()));
+            while (!pending.isEmpty()) {
+                CompletableFuture.anyOf(pending.values().toArray(new CompletableFuture[0])).join();
+                Iterator<Map.Entry<WorkerProcess, CompletableFuture<Process>>> exited = pending.entrySet().iterator();
+                while (exited.hasNext()) {
+                    Map.Entry<WorkerProcess, CompletableFuture<Process>> entry = exited.next();
+                    if (!entry.getValue().isDone()) {
+                        continue;
+                    }
+                    exited.remove();
+                    WorkerProcess worker = entry.getKey();
+                    int status = worker.awaitExit();
+                    if (status != 0 && error == null) {
+                        error = new RuntimeException("worker " + worker.getName() + " for cycles "
+                            + worker.getPartition().getCycleSpec() + " exited with status " + status);
+                        logger.error(error.getMessage() + ", stopping the other workers of " + activityDef.getAlias());
+                        stopWorkers(pending.keySet());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            error = e;
+            workers.forEach(WorkerProcess::destroy);
+        } finally {
+            running = false;
+            activityDef.getParams().removeListener(this);
+        }
+
+        String summary = mergeResults();
+        logger.info(() -> "merged results for " + activityDef.getAlias() + ":\n" + summary);
+        return new ExecutionResult(startedAt, System.currentTimeMillis(), summary, error);
+    }
+
+    private String mergeResults() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (WorkerProcess worker : workers) {
+            worker.getCounts().forEach((name, count) -> counts.merge(name, count, Long::sum));
+        }
+        counts.forEach((name, count) -> ActivityMetrics.counter(activityDef, name).inc(count));
+
+        long intervalMillis = Unit.msFor(interval)
+            .orElseThrow(() -> new RuntimeException("Unable to parse interval spec:'" + interval + "'"));
+        HistoLogMerger merger = new HistoLogMerger(intervalMillis);
+        workers.forEach(w -> merger.add(w.getHistoLog()));
+        Path merged = logsPath.resolve(sessionName + "_" + activityDef.getAlias() + "_merged.hdr");
+        merger.writeTo(merged, sessionName);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("workers: ").append(workers.size()).append(", merged histograms: ").append(merged).append("\n");
+        for (Map.Entry<String, Histogram> total : merger.getTotals().entrySet()) {
+            Histogram h = total.getValue();
+            sb.append(String.format(Locale.ROOT, "%s count=%d p50=%d p99=%d p999=%d max=%d%n",
+                total.getKey(), h.getTotalCount(), h.getValueAtPercentile(50.0d), h.getValueAtPercentile(99.0d),
+                h.getValueAtPercentile(99.9d), h.getMaxValue()));
+        }
+        counts.forEach((name, count) -> sb.append(name).append(" count=").append(count).append("\n"));
+        return sb.toString();
+    }
+
+    /**
+     * Forward changed params to the workers. Rate params are split by partition, and the cycles
+     * and coordinator params can't be changed while running.
+     */
+    @Override
+    public synchronized void handleParameterMapUpdate(ParameterMap parameterMap) {
+        Map<String, String> params = parameterMap.getStringStringMap();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            String name = param.getKey();
+            if (param.getValue().equals(lastParams.get(name))) {
+                continue;
+            }
+            if (COORDINATOR_PARAMS.contains(name)) {
+                logger.warn("the " + name + " param of distributed activity " + activityDef.getAlias()
+                    + " can't be changed while it is running");
+                continue;
+            }
+            for (WorkerProcess worker : workers) {
+                String value = workerValue(name, param.getValue(), worker.getPartition());
+                worker.send("set " + activityDef.getAlias() + " " + name + "=" + value);
+            }
+        }
+        this.lastParams = params;
+    }
+
+    /**
+     * Ask the given workers to stop, and destroy any which have not exited after the grace period.
+     */
+    private void stopWorkers(Collection<WorkerProcess> toStop) throws InterruptedException {
+        toStop.forEach(w -> w.send("stop " + activityDef.getAlias()));
+        long deadline = System.currentTimeMillis() + STOP_GRACE_MILLIS;
+        for (WorkerProcess worker : toStop) {
+            worker.awaitOrDestroy(Math.max(0L, deadline - System.currentTimeMillis()));
+        }
+    }
+
+    public synchronized void stop() {
+        workers.forEach(w -> w.send("stop " + activityDef.getAlias()));
+    }
+
+    public synchronized void forceStop() {
+        workers.forEach(WorkerProcess::destroy);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public ActivityDef getActivityDef() {
+        return activityDef;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.distributed;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.HdrHistogram.HistogramLogWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Merges the HDR interval logs written by the {@link io.nosqlbench.api.engine.metrics.HistoIntervalLogger}
+ * of several workers into one log in the same format. Intervals are aligned on wall-clock
+ * boundaries of the logging interval, and histograms with the same tag in the same interval are
+ * added together. Since HDR histograms merge without loss, percentiles of the merged log are
+ * exact for the combined population, which is not true of averaging the per-worker percentiles.
+ */
+public class HistoLogMerger {
+    private final static Logger logger = LogManager.getLogger(HistoLogMerger.class);
+
+    private final long intervalMillis;
+    private final Map<Long, Map<String, Histogram>> intervals = new TreeMap<>();
+    private final Map<String, Histogram> totals = new TreeMap<>();
+
+    public HistoLogMerger(long intervalMillis) {
+        if (intervalMillis < 1) {
+            throw new RuntimeException("interval must be at least 1ms, but was " + intervalMillis);
+        }
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Read all interval histograms from an HDR log and add them to the merged intervals.
+     * A missing log is skipped, since a worker which failed at startup may not have written one.
+     */
+    public HistoLogMerger add(Path logfile) {
+        if (!Files.exists(logfile)) {
+            logger.warn("histogram log " + logfile + " does not exist, skipping it in merged results");
+            return this;
+        }
+        try {
+            HistogramLogReader reader = new HistogramLogReader(logfile.toFile());
+            EncodableHistogram encodable;
+            while ((encodable = reader.nextIntervalHistogram()) != null) {
+                if (encodable instanceof Histogram histogram) {
+                    long bucket = histogram.getStartTimeStamp() / intervalMillis;
+                    Map<String, Histogram> interval = intervals.computeIfAbsent(bucket, b -> new TreeMap<>());
+                    accumulate(interval, histogram);
+                    accumulate(totals, histogram);
+                } else {
+                    logger.warn("skipping non-integer histogram " + encodable.getTag() + " in " + logfile);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        return this;
+    }
+
+    private static void accumulate(Map<String, Histogram> target, Histogram histogram) {
+        String tag = histogram.getTag() != null ? histogram.getTag() : "";
+        Histogram merged = target.computeIfAbsent(tag, t -> {
+            Histogram fresh = new Histogram(histogram.getNumberOfSignificantValueDigits());
+            fresh.setTag(histogram.getTag());
+            fresh.setStartTimeStamp(histogram.getStartTimeStamp());
+            fresh.setEndTimeStamp(histogram.getEndTimeStamp());
+            return fresh;
+        });
+        merged.add(histogram);
+        merged.setStartTimeStamp(Math.min(merged.getStartTimeStamp(), histogram.getStartTimeStamp()));
+        merged.setEndTimeStamp(Math.max(merged.getEndTimeStamp(), histogram.getEndTimeStamp()));
+    }
+
+    /**
+     * Write the merged intervals in time order, with the same header that
+     * {@link io.nosqlbench.api.engine.metrics.HistoIntervalLogger} writes.
+     */
+    public void writeTo(Path logfile, String sessionName) {
+        long startTime = intervals.values().stream()
+            .flatMap(m -> m.values().stream())
+            .mapToLong(Histogram::getStartTimeStamp)
+            .min().orElse(System.currentTimeMillis());
+        try (PrintStream out = new PrintStream(logfile.toFile())) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputComment("logging merged histograms for session " + sessionName);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startTime);
+            writer.setBaseTime(startTime);
+            writer.outputLegend();
+            for (Map<String, Histogram> interval : intervals.values()) {
+                for (Histogram histogram : interval.values()) {
+                    writer.outputIntervalHistogram(histogram);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException("Error while writing merged histogram log", e);
+        }
+    }
+
+    /**
+     * @return the merged histogram of each tag over all intervals, by tag
+     */
+    public Map<String, Histogram> getTotals() {
+        return totals;
+    }
+
+    /**
+     * @return the merged histograms of each interval, in time order
+     */
+    public List<Map<String, Histogram>> getIntervals() {
+        return List.copyOf(intervals.values());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.distributed;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Counting;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import io.nosqlbench.api.engine.metrics.ActivityMetrics;
+import io.nosqlbench.engine.core.lifecycle.scenario.ScenarioController;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * <p>The worker side of the control channel between a {@link DistributedActivity} and the
+ * worker processes it launches. The coordinator holds the stdin and stdout of each worker, so
+ * the channel is just lines of text:</p>
+ * <ul>
+ *     <li>coordinator to worker, on stdin: {@code set <alias> <param>=<value>} and
+ *     {@code stop <alias>}</li>
+ *     <li>worker to coordinator, on stdout: {@code nbworker:count <metric> <count>} for each
+ *     counter and meter of the activity, once it completes</li>
+ * </ul>
+ * <p>If stdin is closed, the coordinator has gone away, and all activities are stopped.</p>
+ */
+public class WorkerControl implements Runnable {
+    private final static Logger logger = LogManager.getLogger(WorkerControl.class);
+
+    public final static String COUNT_PREFIX = "nbworker:count ";
+
+    private static WorkerControl instance;
+
+    private final ScenarioController controller;
+
+    private WorkerControl(ScenarioController controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * Start reading control commands from stdin for the given controller. Only the first call
+     * in a process has any effect, since there is only one stdin.
+     */
+    public synchronized static void start(ScenarioController controller) {
+        if (instance == null) {
+            instance = new WorkerControl(controller);
+            Thread thread = new Thread(instance, "WORKERCONTROL");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void run() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    handle(line.trim());
+                } catch (Exception e) {
+                    logger.error("error handling worker control command '" + line + "': " + e, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("error reading worker control channel: " + e, e);
+        }
+        logger.warn("worker control channel closed, stopping all activities");
+        for (String alias : controller.getAliases()) {
+            if (controller.isRunningActivity(alias)) {
+                controller.stop(alias);
+            }
+        }
+    }
+
+    private void handle(String command) {
+        if (command.isEmpty()) {
+            return;
+        }
+        String[] words = command.split(" ", 3);
+        if (words[0].equals("set") && words.length == 3) {
+            String[] assignment = words[2].split("=", 2);
+            if (assignment.length != 2) {
+                throw new RuntimeException("expected <param>=<value>, but got '" + words[2] + "'");
+            }
+            logger.info(() -> "coordinator set " + words[1] + "." + assignment[0] + "=" + assignment[1]);
+            controller.getActivityDef(words[1]).getParams().set(assignment[0], assignment[1]);
+        } else if (words[0].equals("stop") && words.length == 2) {
+            logger.info(() -> "coordinator stopped " + words[1]);
+            controller.stop(words[1]);
+        } else {
+            throw new RuntimeException("unrecognized worker control command");
+        }
+    }
+
+    /**
+     * Print the counts of all counters and meters of an activity to the control channel, with
+     * the alias removed from the metric names, so that the coordinator can sum them by name.
+     */
+    public static void reportCounts(String alias, PrintStream out) {
+        String prefix = alias + ".";
+        for (Map.Entry<String, Metric> entry : ActivityMetrics.getMetricRegistry().getMetrics().entrySet()) {
+            if (entry.getKey().startsWith(prefix)
+                && (entry.getValue() instanceof Counter || entry.getValue() instanceof Meter)) {
+                long count = ((Counting) entry.getValue()).getCount();
+                out.println(COUNT_PREFIX + entry.getKey().substring(prefix.length()) + " " + count);
+            }
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.distributed;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A worker process launched by a {@link DistributedActivity}. The output of the worker is
+ * forwarded to the log, except for count reports from {@link WorkerControl}, which are kept.
+ */
+public class WorkerProcess {
+    private final static Logger logger = LogManager.getLogger(WorkerProcess.class);
+
+    private final String name;
+    private final CyclePartitioner.Partition partition;
+    private final Path histoLog;
+    private final Process process;
+    private final Writer control;
+    private final Thread outputPump;
+    private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+    public WorkerProcess(String name, List<String> command, CyclePartitioner.Partition partition, Path histoLog) {
+        this.name = name;
+        this.partition = partition;
+        this.histoLog = histoLog;
+        logger.debug(() -> "starting worker " + name + ": " + String.join(" ", command));
+        try {
+            this.process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to start worker " + name + ": " + e, e);
+        }
+        this.control = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        this.outputPump = new Thread(this::pumpOutput, name + "-output");
+        this.outputPump.setDaemon(true);
+        this.outputPump.start();
+    }
+
+    private void pumpOutput() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(WorkerControl.COUNT_PREFIX)) {
+                    String[] words = line.substring(WorkerControl.COUNT_PREFIX.length()).split(" ");
+                    counts.put(words[0], Long.parseLong(words[1]));
+                } else {
+                    logger.info("[" + name + "] " + line);
+                }
+            }
+        } catch (IOException e) {
+            logger.debug(() -> "output of worker " + name + " closed: " + e);
+        }
+    }
+
+    /**
+     * Send a control command. Commands to a worker which has already exited are dropped.
+     */
+    public synchronized void send(String command) {
+        if (!process.isAlive()) {
+            logger.debug(() -> "not sending '" + command + "' to exited worker " + name);
+            return;
+        }
+        try {
+            control.write(command + "\n");
+            control.flush();
+        } catch (IOException e) {
+            logger.warn("unable to send '" + command + "' to worker " + name + ": " + e);
+        }
+    }
+
+    /**
+     * Wait for the worker to exit and for all of its output to be read.
+     *
+     * @return the exit status of the worker process
+     */
+    public int awaitExit() throws InterruptedException {
+        int status = process.waitFor();
+        outputPump.join();
+        return status;
+    }
+
+    /**
+     * @return a future which completes when the worker process exits
+     */
+    public CompletableFuture<Process> onExit() {
+        return process.onExit();
+    }
+
+    /**
+     * Wait up to the given time for the worker to exit, and destroy it if it has not.
+     */
+    public void awaitOrDestroy(long millis) throws InterruptedException {
+        if (!process.waitFor(millis, TimeUnit.MILLISECONDS)) {
+            logger.warn("worker " + name + " did not exit within " + millis + "ms, destroying it");
+            destroy();
+        }
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    public void destroy() {
+        process.destroyForcibly();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CyclePartitioner.Partition getPartition() {
+        return partition;
+    }
+
+    public Path getHistoLog() {
+        return histoLog;
+    }
+
+    /**
+     * @return the counter and meter counts reported by the worker, by metric name without alias
+     */
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+}
@@ -520,5 +520,9 @@ public class Scenario implements Callable<ExecutionMetricsResult> {
     public String getReportSummaryTo() {
         return reportSummaryTo;
     }
+
+    public Path getLogsPath() {
+        return logsPath;
+    }
 }
 
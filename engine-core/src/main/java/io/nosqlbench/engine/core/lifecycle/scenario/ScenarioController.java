@@ -26,6 +26,8 @@ import io.nosqlbench.engine.core.annotation.Annotators;
 import io.nosqlbench.engine.core.lifecycle.ExecutionResult;
 import io.nosqlbench.engine.core.lifecycle.IndexedThreadFactory;
 import io.nosqlbench.engine.core.lifecycle.activity.*;
+import io.nosqlbench.engine.core.lifecycle.distributed.DistributedActivity;
+import io.nosqlbench.engine.core.lifecycle.distributed.WorkerControl;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -37,6 +39,9 @@ import java.util.stream.Collectors;
 /**
  * A ScenarioController provides a way to start Activities,
  * modify them while running, and forceStopMotors, pause or restart them.
+ *
+ * An activity with a {@code workers} param is run as a {@link DistributedActivity}, which
+ * partitions its cycles across worker processes instead of running them here.
  */
 public class ScenarioController {
 
@@ -46,6 +51,8 @@ public class ScenarioController {
     private final ActivityLoader activityLoader;
 
     private final Map<String, ActivityRuntimeInfo> activityInfoMap = new ConcurrentHashMap<>();
+    private final Map<String, DistributedActivity> distributedMap = new ConcurrentHashMap<>();
+    private final Map<String, Future<ExecutionResult>> distributedFutures = new ConcurrentHashMap<>();
     private final Scenario scenario;
 
     private final ExecutorService activitiesExecutor;
@@ -79,15 +86,34 @@ public class ScenarioController {
     }
 
 
-    private synchronized ActivityRuntimeInfo doStartActivity(ActivityDef activityDef) {
-        if (!this.activityInfoMap.containsKey(activityDef.getAlias())) {
+    private synchronized void doStartActivity(ActivityDef activityDef) {
+        if (activityDef.getParams().containsKey(DistributedActivity.WORKERS)) {
+            doStartDistributedActivity(activityDef);
+        } else if (!this.activityInfoMap.containsKey(activityDef.getAlias())) {
             Activity activity = this.activityLoader.loadActivity(activityDef);
             ActivityExecutor executor = new ActivityExecutor(activity, this.scenario.getScenarioName());
-            Future<ExecutionResult> startedActivity = activitiesExecutor.submit(executor);
+            Callable<ExecutionResult> task = executor;
+            if (activityDef.getParams().containsKey(DistributedActivity.WORKER)) {
+                WorkerControl.start(this);
+                task = () -> {
+                    ExecutionResult result = executor.call();
+                    WorkerControl.reportCounts(activity.getAlias(), System.out);
+                    return result;
+                };
+            }
+            Future<ExecutionResult> startedActivity = activitiesExecutor.submit(task);
             ActivityRuntimeInfo activityRuntimeInfo = new ActivityRuntimeInfo(activity, startedActivity, executor);
             this.activityInfoMap.put(activity.getAlias(), activityRuntimeInfo);
         }
-        return this.activityInfoMap.get(activityDef.getAlias());
+    }
+
+    private synchronized void doStartDistributedActivity(ActivityDef activityDef) {
+        if (!this.distributedMap.containsKey(activityDef.getAlias())) {
+            DistributedActivity distributed =
+                new DistributedActivity(activityDef, scenario.getScenarioName(), scenario.getLogsPath());
+            this.distributedFutures.put(activityDef.getAlias(), activitiesExecutor.submit(distributed));
+            this.distributedMap.put(activityDef.getAlias(), distributed);
+        }
     }
 
     /**
@@ -160,6 +186,10 @@ public class ScenarioController {
     }
 
     public boolean isRunningActivity(ActivityDef activityDef) {
+        DistributedActivity distributed = this.distributedMap.get(activityDef.getAlias());
+        if (distributed != null) {
+            return distributed.isRunning();
+        }
         ActivityRuntimeInfo runtimeInfo = this.activityInfoMap.get(activityDef.getAlias());
         return (runtimeInfo != null && runtimeInfo.isRunning());
     }
@@ -186,6 +216,13 @@ public class ScenarioController {
             .detail("params", activityDef.toString())
             .build());
 
+        DistributedActivity distributed = this.distributedMap.get(activityDef.getAlias());
+        if (distributed != null) {
+            scenariologger.debug("STOP distributed " + activityDef.getAlias());
+            distributed.stop();
+            return;
+        }
+
         ActivityRuntimeInfo runtimeInfo = this.activityInfoMap.get(activityDef.getAlias());
         if (runtimeInfo == null) {
             throw new RuntimeException("could not stop missing activity:" + activityDef);
@@ -247,6 +284,13 @@ public class ScenarioController {
             .detail("params", activityDef.toString())
             .build());
 
+        DistributedActivity distributed = this.distributedMap.get(activityDef.getAlias());
+        if (distributed != null) {
+            scenariologger.debug("FORCE STOP distributed " + activityDef.getAlias());
+            distributed.forceStop();
+            return;
+        }
+
         ActivityRuntimeInfo runtimeInfo = this.activityInfoMap.get(activityDef.getAlias());
         if (runtimeInfo == null) {
             throw new RuntimeException("could not force stop missing activity:" + activityDef);
@@ -301,7 +345,7 @@ public class ScenarioController {
             matcher = Pattern.compile(pattern);
         }
 
-        List<String> matching = activityInfoMap.keySet().stream()
+        List<String> matching = getAliases().stream()
             .filter(a -> Pattern.matches(pattern, a))
             .peek(p -> logger.debug("MATCH " + pattern + " -> " + p))
             .collect(Collectors.toList());
@@ -336,7 +380,9 @@ public class ScenarioController {
      * @return set of activity names
      */
     public Set<String> getAliases() {
-        return activityInfoMap.keySet();
+        Set<String> aliases = new LinkedHashSet<>(activityInfoMap.keySet());
+        aliases.addAll(distributedMap.keySet());
+        return aliases;
     }
 
     /**
@@ -349,6 +395,7 @@ public class ScenarioController {
     public synchronized void forceStopScenario(int waitTimeMillis, boolean rethrow) {
         logger.debug("force stopping scenario " + this.scenario.getScenarioName());
         activityInfoMap.values().forEach(a -> a.getActivityExecutor().forceStopActivity(10000));
+        distributedMap.values().forEach(DistributedActivity::forceStop);
         logger.debug("Scenario force stopped.");
     }
 
@@ -382,6 +429,23 @@ public class ScenarioController {
                 }
             }
         }
+        for (Map.Entry<String, Future<ExecutionResult>> distributed : this.distributedFutures.entrySet()) {
+            ExecutionResult activityResult;
+            try {
+                activityResult = distributed.getValue().get(waitTimeMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                logger.error("Unable to retrieve distributed activity result for " + distributed.getKey());
+                completed = false;
+                continue;
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+            if (activityResult.getException() instanceof RuntimeException e) {
+                throw e;
+            } else if (activityResult.getException() != null) {
+                throw new RuntimeException(activityResult.getException());
+            }
+        }
         return completed;
     }
 
@@ -417,14 +481,17 @@ public class ScenarioController {
 
     public boolean awaitActivity(ActivityDef activityDef, long timeoutMs) {
         ActivityRuntimeInfo ari = this.activityInfoMap.get(activityDef.getAlias());
-        if (ari == null) {
+        Future<ExecutionResult> distributedFuture = this.distributedFutures.get(activityDef.getAlias());
+        if (ari == null && distributedFuture == null) {
             throw new RuntimeException("Could not await missing activity: " + activityDef.getAlias());
         }
         scenariologger.debug("AWAIT/before alias=" + activityDef.getAlias());
         ExecutionResult result = null;
-        Future<ExecutionResult> future=null;
+        Future<ExecutionResult> future=distributedFuture;
         try {
-            future = ari.getFuture();
+            if (future == null) {
+                future = ari.getFuture();
+            }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -448,7 +515,10 @@ public class ScenarioController {
     }
 
     public List<ActivityDef> getActivityDefs() {
-        return activityInfoMap.values().stream().map(ari -> ari.getActivity().getActivityDef()).toList();
+        List<ActivityDef> defs = new ArrayList<>();
+        activityInfoMap.values().forEach(ari -> defs.add(ari.getActivity().getActivityDef()));
+        distributedMap.values().forEach(d -> defs.add(d.getActivityDef()));
+        return defs;
     }
 
     public void reportMetrics() {
@@ -471,6 +541,10 @@ public class ScenarioController {
     }
 
     public ActivityDef getActivityDef(String alias) {
+        DistributedActivity distributed = distributedMap.get(alias);
+        if (distributed != null) {
+            return distributed.getActivityDef();
+        }
         return activityInfoMap.get(alias).getActivity().getActivityDef();
     }
 
@@ -28,6 +28,7 @@ import org.apache.logging.log4j.LogManager;
 
 import java.io.File;
 import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -90,6 +91,25 @@ public class MetricReporters implements Shutdownable {
         }
     }
 
+    public void addSeriesReporter(String filename, String prefix) {
+        logger.debug(() -> "Adding metrics series reporter to " + filename + " with prefix " + prefix);
+
+        if (metricRegistries.isEmpty()) {
+            throw new RuntimeException("There are no metric registries.");
+        }
+
+        for (PrefixedRegistry prefixedRegistry : metricRegistries) {
+            String _filename = metricRegistries.size() > 1 ? filename + "." + prefixedRegistry.prefix : filename;
+            MetricsSeriesReporter seriesReporter = new MetricsSeriesReporter(
+                prefixedRegistry.metricRegistry,
+                ActivityMetrics.METRIC_FILTER,
+                Path.of(_filename),
+                prefix
+            );
+            scheduledReporters.add(seriesReporter);
+        }
+    }
+
     public MetricReporters addGraphite(String host, int graphitePort, String globalPrefix) {
 
         logger.debug(() -> "Adding graphite reporter to " + host + " with port " + graphitePort + " and prefix " + globalPrefix);
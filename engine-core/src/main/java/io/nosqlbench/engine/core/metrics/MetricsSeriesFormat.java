@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.metrics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>Constants and encoding helpers for the metrics series file format, which is written by
+ * {@link MetricsSeriesWriter} and read by {@link MetricsSeriesReader}.</p>
+ *
+ * <p>A series file starts with a 5 byte header (magic and version), followed by records. Each
+ * record is framed as a type byte and a 4 byte payload length, so that a reader can step over
+ * records without decoding them. The record types are:</p>
+ * <ul>
+ *     <li>{@link #DICTIONARY} - definitions of new columns: id, kind and name</li>
+ *     <li>{@link #BLOCK} - a run of frames stored column-wise. Timestamps and long values are
+ *     stored as zig-zag varint deltas against the previous value in the column, and double values
+ *     are stored as varints of the bit-reversed XOR against the previous value's bits, so that
+ *     unchanged values and values which differ only in their high order bits stay small. Each block can be
+ *     decoded on its own, given the dictionary.</li>
+ *     <li>{@link #INDEX} - the offsets and time ranges of the records written since the previous
+ *     index, along with the offset of the previous index</li>
+ * </ul>
+ * <p>A cleanly closed file ends with a trailer holding the offset of the last index record and
+ * a trailer magic. When the trailer is missing, as after a crash, a reader can still recover every
+ * complete record by stepping through the record headers.</p>
+ */
+public final class MetricsSeriesFormat {
+
+    public final static int MAGIC = 0x4e424d53; // NBMS
+    public final static int TRAILER_MAGIC = 0x4e424d58; // NBMX
+    public final static byte VERSION = 1;
+    public final static int HEADER_SIZE = 5;
+    public final static int RECORD_HEADER_SIZE = 5;
+    public final static int TRAILER_SIZE = 12;
+
+    public final static byte DICTIONARY = 'D';
+    public final static byte BLOCK = 'B';
+    public final static byte INDEX = 'I';
+
+    public final static byte KIND_LONG = 'L';
+    public final static byte KIND_DOUBLE = 'F';
+
+    private MetricsSeriesFormat() {
+    }
+
+    public static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    public static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    public static long readVarLong(ByteBuffer buf) {
+        long result = 0L;
+        int shift = 0;
+        while (true) {
+            byte b = buf.get();
+            result |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new RuntimeException("Malformed varint in metrics series data at position " + buf.position());
+            }
+        }
+    }
+
+    /**
+     * A minimal growable byte buffer for building record payloads.
+     */
+    public static final class Output {
+        private byte[] bytes;
+        private int size;
+
+        public Output(int initialSize) {
+            this.bytes = new byte[initialSize];
+        }
+
+        private void ensure(int more) {
+            if (size + more > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + more));
+            }
+        }
+
+        public Output writeByte(int b) {
+            ensure(1);
+            bytes[size++] = (byte) b;
+            return this;
+        }
+
+        public Output writeLong(long v) {
+            ensure(8);
+            for (int i = 56; i >= 0; i -= 8) {
+                bytes[size++] = (byte) (v >>> i);
+            }
+            return this;
+        }
+
+        public Output writeVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7fL) != 0) {
+                bytes[size++] = (byte) ((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            bytes[size++] = (byte) v;
+            return this;
+        }
+
+        public Output writeBytes(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+            return this;
+        }
+
+        public Output writeBytes(Output other) {
+            ensure(other.size);
+            System.arraycopy(other.bytes, 0, bytes, size, other.size);
+            size += other.size;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void reset() {
+            size = 0;
+        }
+
+        public ByteBuffer asByteBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+    }
+}
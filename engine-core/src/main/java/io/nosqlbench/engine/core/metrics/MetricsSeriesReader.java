@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static io.nosqlbench.engine.core.metrics.MetricsSeriesFormat.*;
+
+/**
+ * <p>Reads a series file written by {@link MetricsSeriesWriter}. When the file was closed cleanly, the
+ * chain of index records is used to find the dictionary and block records, and blocks outside of a
+ * requested time range are never read. Otherwise, the record headers are stepped through from the
+ * start of the file, and any partially written record at the end is ignored.</p>
+ */
+public class MetricsSeriesReader implements AutoCloseable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final List<Entry> entries;
+    private final List<ColumnDef> columns = new ArrayList<>();
+    private final boolean indexed;
+
+    public record ColumnDef(int id, String name, byte kind) {
+        public boolean isDouble() {
+            return kind == KIND_DOUBLE;
+        }
+    }
+
+    private record Entry(byte type, long offset, long startMillis, long endMillis) {
+    }
+
+    public MetricsSeriesReader(Path path) {
+        this.path = path;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            ByteBuffer header = read(0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new RuntimeException("File " + path + " is not a metrics series file.");
+            }
+            byte version = header.get();
+            if (version != VERSION) {
+                throw new RuntimeException("Unsupported metrics series file version " + version + " in " + path);
+            }
+            List<Entry> fromIndex = readIndexChain();
+            this.indexed = fromIndex != null;
+            this.entries = indexed ? fromIndex : scanRecords();
+            for (Entry entry : entries) {
+                if (entry.type == DICTIONARY) {
+                    readDictionary(entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read metrics series file " + path + ": " + e, e);
+        }
+    }
+
+    /**
+     * @return whether the file was read by way of its index, meaning that it was closed cleanly
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    public List<ColumnDef> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    private ByteBuffer read(long offset, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, offset + buf.position()) < 0) {
+                throw new IOException("Unexpected end of file in " + path + " at " + (offset + buf.position()));
+            }
+        }
+        return buf.flip();
+    }
+
+    private ByteBuffer readPayload(long offset, byte expectedType) throws IOException {
+        ByteBuffer header = read(offset, RECORD_HEADER_SIZE);
+        byte type = header.get();
+        if (type != expectedType) {
+            throw new RuntimeException("Expected record type " + (char) expectedType + " at offset " + offset + " in " + path + ", but found " + (char) type);
+        }
+        return read(offset + RECORD_HEADER_SIZE, header.getInt());
+    }
+
+    private List<Entry> readIndexChain() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE + TRAILER_SIZE) {
+            return null;
+        }
+        ByteBuffer trailer = read(size - TRAILER_SIZE, TRAILER_SIZE);
+        long indexOffset = trailer.getLong();
+        if (trailer.getInt() != TRAILER_MAGIC) {
+            return null;
+        }
+        List<List<Entry>> chunks = new ArrayList<>();
+        while (indexOffset >= 0) {
+            ByteBuffer index = readPayload(indexOffset, INDEX);
+            long previous = index.getLong();
+            int count = (int) readVarLong(index);
+            List<Entry> chunk = new ArrayList<>(count);
+            long offset = 0L;
+            for (int i = 0; i < count; i++) {
+                byte type = index.get();
+                offset += readVarLong(index);
+                long start = unzigzag(readVarLong(index));
+                long end = start + readVarLong(index);
+                chunk.add(new Entry(type, offset, start, end));
+            }
+            chunks.add(chunk);
+            indexOffset = previous;
+        }
+        Collections.reverse(chunks);
+        List<Entry> all = new ArrayList<>();
+        chunks.forEach(all::addAll);
+        return all;
+    }
+
+    private List<Entry> scanRecords() throws IOException {
+        List<Entry> found = new ArrayList<>();
+        long size = channel.size();
+        long offset = HEADER_SIZE;
+        while (offset + RECORD_HEADER_SIZE <= size) {
+            ByteBuffer header = read(offset, RECORD_HEADER_SIZE);
+            byte type = header.get();
+            int length = header.getInt();
+            if (length < 0 || offset + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+            if (type == DICTIONARY || type == BLOCK) {
+                found.add(new Entry(type, offset, Long.MIN_VALUE, Long.MAX_VALUE));
+            } else if (type != INDEX) {
+                break;
+            }
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        return found;
+    }
+
+    private void readDictionary(Entry entry) throws IOException {
+        ByteBuffer buf = readPayload(entry.offset, DICTIONARY);
+        int count = (int) readVarLong(buf);
+        for (int i = 0; i < count; i++) {
+            int id = (int) readVarLong(buf);
+            byte kind = buf.get();
+            byte[] name = new byte[(int) readVarLong(buf)];
+            buf.get(name);
+            if (id != columns.size()) {
+                throw new RuntimeException("Column id " + id + " is out of order in " + path);
+            }
+            columns.add(new ColumnDef(id, new String(name, StandardCharsets.UTF_8), kind));
+        }
+    }
+
+    /**
+     * Visit each frame with a timestamp within the given range, in the order they were written. The
+     * same {@link Frame} instance is reused for each call, so it must not be retained.
+     */
+    public void forEachFrame(long fromMillis, long toMillis, Consumer<Frame> consumer) {
+        Frame frame = new Frame(columns);
+        try {
+            for (Entry entry : entries) {
+                if (entry.type != BLOCK || entry.endMillis < fromMillis || entry.startMillis > toMillis) {
+                    continue;
+                }
+                ByteBuffer buf = readPayload(entry.offset, BLOCK);
+                int frames = (int) readVarLong(buf);
+                long[] timestamps = new long[frames];
+                long ts = 0L;
+                for (int i = 0; i < frames; i++) {
+                    ts += unzigzag(readVarLong(buf));
+                    timestamps[i] = ts;
+                }
+                int present = (int) readVarLong(buf);
+                int[] ids = new int[present];
+                int[] firstFrames = new int[present];
+                long[][] values = new long[present][];
+                for (int c = 0; c < present; c++) {
+                    ids[c] = (int) readVarLong(buf);
+                    firstFrames[c] = (int) readVarLong(buf);
+                    boolean isDouble = columns.get(ids[c]).isDouble();
+                    long[] columnValues = new long[frames];
+                    long prev = 0L;
+                    for (int i = firstFrames[c]; i < frames; i++) {
+                        long raw = readVarLong(buf);
+                        prev = isDouble ? (Long.reverse(raw) ^ prev) : (prev + unzigzag(raw));
+                        columnValues[i] = prev;
+                    }
+                    values[c] = columnValues;
+                }
+                for (int i = 0; i < frames; i++) {
+                    if (timestamps[i] < fromMillis || timestamps[i] > toMillis) {
+                        continue;
+                    }
+                    frame.reset(timestamps[i]);
+                    for (int c = 0; c < present; c++) {
+                        if (i >= firstFrames[c]) {
+                            frame.set(ids[c], values[c][i]);
+                        }
+                    }
+                    consumer.accept(frame);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error while reading metrics series file " + path + ": " + e, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * One row of values. Columns which were not present at this time are reported as absent.
+     */
+    public static final class Frame {
+        private final List<ColumnDef> columns;
+        private long timestamp;
+        private long[] bits = new long[0];
+        private boolean[] present = new boolean[0];
+
+        private Frame(List<ColumnDef> columns) {
+            this.columns = columns;
+        }
+
+        private void reset(long timestamp) {
+            this.timestamp = timestamp;
+            if (bits.length != columns.size()) {
+                bits = new long[columns.size()];
+                present = new boolean[columns.size()];
+            } else {
+                Arrays.fill(present, false);
+            }
+        }
+
+        private void set(int id, long value) {
+            bits[id] = value;
+            present[id] = true;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public boolean has(int id) {
+            return present[id];
+        }
+
+        public long getLong(int id) {
+            return columns.get(id).isDouble() ? (long) Double.longBitsToDouble(bits[id]) : bits[id];
+        }
+
+        public double getDouble(int id) {
+            return columns.get(id).isDouble() ? Double.longBitsToDouble(bits[id]) : bits[id];
+        }
+
+        /**
+         * @return the value as text, or an empty string if the column is absent from this frame
+         */
+        public String format(int id) {
+            if (!present[id]) {
+                return "";
+            }
+            return columns.get(id).isDouble() ? String.valueOf(Double.longBitsToDouble(bits[id])) : String.valueOf(bits[id]);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.metrics;
+
+import com.codahale.metrics.*;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports all metrics of a registry into a single {@link MetricsSeriesWriter} file, with one frame
+ * per reporting interval. Durations are recorded in nanoseconds and rates in events per second,
+ * in the same units as the CSV reporter.
+ *
+ * <p>The writer is flushed after every {@value #BLOCK_FRAMES} frames, when each block is complete,
+ * and again when the reporter is stopped. If the process dies without stopping the reporter, the
+ * file is still readable and is missing at most the last {@value #BLOCK_FRAMES} intervals.</p>
+ */
+public class MetricsSeriesReporter extends ScheduledReporter {
+
+    /**
+     * Frames per block. This bounds how many intervals are lost if the process dies, while keeping
+     * blocks large enough for the column deltas to compress well.
+     */
+    public final static int BLOCK_FRAMES = 10;
+    private final static int BLOCKS_PER_INDEX = 64;
+
+    private final MetricsSeriesWriter writer;
+    private final String prefix;
+    private final Clock clock;
+
+    public MetricsSeriesReporter(MetricRegistry registry, MetricFilter filter, Path path, String prefix) {
+        super(registry, "metrics-series-reporter", filter, TimeUnit.SECONDS, TimeUnit.NANOSECONDS);
+        this.writer = new MetricsSeriesWriter(path, BLOCK_FRAMES, BLOCKS_PER_INDEX);
+        this.prefix = (prefix == null || prefix.isEmpty()) ? "" : prefix + ".";
+        this.clock = Clock.defaultClock();
+    }
+
+    @Override
+    public void report(
+        SortedMap<String, Gauge> gauges,
+        SortedMap<String, Counter> counters,
+        SortedMap<String, Histogram> histograms,
+        SortedMap<String, Meter> meters,
+        SortedMap<String, Timer> timers) {
+
+        synchronized (writer) {
+            writer.beginFrame(clock.getTime());
+            for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+                Object value = entry.getValue().getValue();
+                if (value instanceof Number number) {
+                    writer.setDouble(prefix + entry.getKey(), number.doubleValue());
+                } else if (value instanceof Boolean bool) {
+                    writer.setLong(prefix + entry.getKey(), bool ? 1L : 0L);
+                }
+            }
+            for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+                writer.setLong(prefix + entry.getKey() + ".count", entry.getValue().getCount());
+            }
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                String name = prefix + entry.getKey();
+                writer.setLong(name + ".count", entry.getValue().getCount());
+                writeSnapshot(name, entry.getValue().getSnapshot());
+            }
+            for (Map.Entry<String, Meter> entry : meters.entrySet()) {
+                writeMetered(prefix + entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+                String name = prefix + entry.getKey();
+                writeMetered(name, entry.getValue());
+                writeSnapshot(name, entry.getValue().getSnapshot());
+            }
+            writer.endFrame();
+        }
+    }
+
+    private void writeMetered(String name, Metered metered) {
+        writer.setLong(name + ".count", metered.getCount());
+        writer.setDouble(name + ".mean_rate", convertRate(metered.getMeanRate()));
+        writer.setDouble(name + ".m1_rate", convertRate(metered.getOneMinuteRate()));
+        writer.setDouble(name + ".m5_rate", convertRate(metered.getFiveMinuteRate()));
+        writer.setDouble(name + ".m15_rate", convertRate(metered.getFifteenMinuteRate()));
+    }
+
+    private void writeSnapshot(String name, Snapshot snapshot) {
+        writer.setLong(name + ".min", snapshot.getMin());
+        writer.setLong(name + ".max", snapshot.getMax());
+        writer.setDouble(name + ".mean", snapshot.getMean());
+        writer.setDouble(name + ".stddev", snapshot.getStdDev());
+        writer.setLong(name + ".p50", (long) snapshot.getMedian());
+        writer.setLong(name + ".p75", (long) snapshot.get75thPercentile());
+        writer.setLong(name + ".p95", (long) snapshot.get95thPercentile());
+        writer.setLong(name + ".p98", (long) snapshot.get98thPercentile());
+        writer.setLong(name + ".p99", (long) snapshot.get99thPercentile());
+        writer.setLong(name + ".p999", (long) snapshot.get999thPercentile());
+    }
+
+    @Override
+    public void stop() {
+        try {
+            super.stop();
+        } finally {
+            synchronized (writer) {
+                writer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.nosqlbench.engine.core.metrics.MetricsSeriesFormat.*;
+
+/**
+ * <p>Writes frames of named metric values into a single append-only series file. Each frame is a
+ * timestamp and a set of column values. Frames are buffered in memory and written out column-wise
+ * as a block once the block is full, or when {@link #flush()} is called. Each block is forced to
+ * storage as soon as it is written, so a file which is never closed, as after a crash, loses at
+ * most the frames of one unfinished block. See {@link MetricsSeriesFormat} for the layout.</p>
+ *
+ * <p>Within a block, a column which is missing from a frame repeats its previous value. A column
+ * which is not set at all in a block is not written for that block.</p>
+ */
+public class MetricsSeriesWriter implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final int blockFrames;
+    private final int indexEvery;
+
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+    private final List<Column> undefined = new ArrayList<>();
+    private final long[] timestamps;
+    private int frames = 0;
+    private boolean inFrame = false;
+
+    private final Output payload = new Output(1 << 16);
+    private final Output indexEntries = new Output(1 << 10);
+    private int indexEntryCount = 0;
+    private long lastIndexEntryOffset = 0L;
+    private int blocksSinceIndex = 0;
+    private long lastIndexOffset = -1L;
+    private long position;
+    private boolean closed = false;
+
+    /**
+     * @param path        The file to write. Any existing file is replaced.
+     * @param blockFrames How many frames to buffer in each block
+     * @param indexEvery  How many blocks to write between index records
+     */
+    public MetricsSeriesWriter(Path path, int blockFrames, int indexEvery) {
+        if (blockFrames < 1 || indexEvery < 1) {
+            throw new RuntimeException("blockFrames and indexEvery must both be positive.");
+        }
+        this.blockFrames = blockFrames;
+        this.indexEvery = indexEvery;
+        this.timestamps = new long[blockFrames];
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).put(VERSION).flip();
+            write(header);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to open metrics series file " + path + ": " + e, e);
+        }
+    }
+
+    public synchronized void beginFrame(long timestampMillis) {
+        if (inFrame) {
+            throw new RuntimeException("beginFrame was called again before endFrame.");
+        }
+        inFrame = true;
+        timestamps[frames] = timestampMillis;
+    }
+
+    public synchronized void setLong(String name, long value) {
+        column(name, KIND_LONG).set(frames, value);
+    }
+
+    public synchronized void setDouble(String name, double value) {
+        column(name, KIND_DOUBLE).set(frames, Double.doubleToRawLongBits(value));
+    }
+
+    public synchronized void endFrame() {
+        if (!inFrame) {
+            throw new RuntimeException("endFrame was called without beginFrame.");
+        }
+        for (Column column : columns.values()) {
+            column.carryForward(frames);
+        }
+        inFrame = false;
+        frames++;
+        if (frames == blockFrames) {
+            flush();
+        }
+    }
+
+    private Column column(String name, byte kind) {
+        if (!inFrame) {
+            throw new RuntimeException("Values may only be set between beginFrame and endFrame.");
+        }
+        Column column = columns.get(name);
+        if (column == null) {
+            column = new Column(columns.size(), name, kind, blockFrames);
+            columns.put(name, column);
+            undefined.add(column);
+        } else if (column.kind != kind) {
+            throw new RuntimeException("Column '" + name + "' was defined with kind " + (char) column.kind + " but was set with kind " + (char) kind);
+        }
+        return column;
+    }
+
+    /**
+     * Write any buffered frames as a block, and force the file to storage.
+     */
+    public synchronized void flush() {
+        writeBlock();
+        force();
+    }
+
+    private void force() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("Error while flushing metrics series data: " + e, e);
+        }
+    }
+
+    private void writeBlock() {
+        if (frames == 0) {
+            return;
+        }
+        if (!undefined.isEmpty()) {
+            payload.reset();
+            payload.writeVarLong(undefined.size());
+            for (Column column : undefined) {
+                byte[] name = column.name.getBytes(StandardCharsets.UTF_8);
+                payload.writeVarLong(column.id).writeByte(column.kind).writeVarLong(name.length).writeBytes(name);
+            }
+            undefined.clear();
+            writeRecord(DICTIONARY, 0L, 0L);
+        }
+
+        payload.reset();
+        payload.writeVarLong(frames);
+        long prev = 0L;
+        for (int i = 0; i < frames; i++) {
+            payload.writeVarLong(zigzag(timestamps[i] - prev));
+            prev = timestamps[i];
+        }
+        int present = 0;
+        for (Column column : columns.values()) {
+            if (column.firstFrame >= 0) {
+                present++;
+            }
+        }
+        payload.writeVarLong(present);
+        for (Column column : columns.values()) {
+            if (column.firstFrame >= 0) {
+                column.encode(payload, frames);
+                column.firstFrame = -1;
+            }
+        }
+        writeRecord(BLOCK, timestamps[0], timestamps[frames - 1]);
+        frames = 0;
+
+        if (++blocksSinceIndex >= indexEvery) {
+            writeIndex();
+        }
+    }
+
+    private void writeIndex() {
+        if (indexEntryCount == 0) {
+            return;
+        }
+        payload.reset();
+        payload.writeLong(lastIndexOffset);
+        payload.writeVarLong(indexEntryCount);
+        payload.writeBytes(indexEntries);
+        long offset = position;
+        writeRecordBytes(INDEX);
+        lastIndexOffset = offset;
+        indexEntries.reset();
+        indexEntryCount = 0;
+        lastIndexEntryOffset = 0L;
+        blocksSinceIndex = 0;
+    }
+
+    private void writeRecord(byte type, long startMillis, long endMillis) {
+        long offset = position;
+        writeRecordBytes(type);
+        indexEntries.writeByte(type)
+            .writeVarLong(offset - lastIndexEntryOffset)
+            .writeVarLong(zigzag(startMillis))
+            .writeVarLong(endMillis - startMillis);
+        lastIndexEntryOffset = offset;
+        indexEntryCount++;
+    }
+
+    private void writeRecordBytes(byte type) {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE).put(type).putInt(payload.size()).flip();
+        write(header);
+        write(payload.asByteBuffer());
+    }
+
+    private void write(ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error while writing metrics series data: " + e, e);
+        }
+    }
+
+    /**
+     * Write any buffered frames, a final index and the trailer, and close the file.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writeBlock();
+        writeIndex();
+        write(ByteBuffer.allocate(TRAILER_SIZE).putLong(lastIndexOffset).putInt(TRAILER_MAGIC).flip());
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final static class Column {
+        final int id;
+        final String name;
+        final byte kind;
+        final long[] values;
+        int firstFrame = -1;
+        int lastFrame = -1;
+
+        Column(int id, String name, byte kind, int blockFrames) {
+            this.id = id;
+            this.name = name;
+            this.kind = kind;
+            this.values = new long[blockFrames];
+        }
+
+        void set(int frame, long bits) {
+            values[frame] = bits;
+            if (firstFrame < 0) {
+                firstFrame = frame;
+            }
+            lastFrame = frame;
+        }
+
+        void carryForward(int frame) {
+            if (firstFrame >= 0 && lastFrame < frame) {
+                values[frame] = values[frame - 1];
+                lastFrame = frame;
+            }
+        }
+
+        void encode(Output out, int frames) {
+            out.writeVarLong(id).writeVarLong(firstFrame);
+            long prev = 0L;
+            for (int i = firstFrame; i < frames; i++) {
+                long v = values[i];
+                if (kind == KIND_LONG) {
+                    out.writeVarLong(zigzag(v - prev));
+                } else {
+                    out.writeVarLong(Long.reverse(v ^ prev));
+                }
+                prev = v;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.distributed;
+
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CyclePartitionerTest {
+
+    @Test
+    public void testEvenPartition() {
+        List<CyclePartitioner.Partition> partitions = CyclePartitioner.partition(0, 100, 4);
+        assertThat(partitions).extracting(CyclePartitioner.Partition::getCycleSpec)
+            .containsExactly("0..25", "25..50", "50..75", "75..100");
+        assertThat(partitions).extracting(CyclePartitioner.Partition::share)
+            .containsOnly(0.25d);
+    }
+
+    @Test
+    public void testRemainderIsSpread() {
+        List<CyclePartitioner.Partition> partitions = CyclePartitioner.partition(10, 20, 3);
+        assertThat(partitions).extracting(CyclePartitioner.Partition::getCycleSpec)
+            .containsExactly("10..14", "14..17", "17..20");
+        assertThat(partitions.stream().mapToLong(CyclePartitioner.Partition::getCycleCount).sum()).isEqualTo(10L);
+    }
+
+    @Test
+    public void testFewerCyclesThanWorkers() {
+        assertThat(CyclePartitioner.partition(0, 2, 5)).hasSize(2);
+        assertThatThrownBy(() -> CyclePartitioner.partition(5, 5, 2)).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    public void testSplitRate() {
+        assertThat(CyclePartitioner.splitRate("1000", 0.25d)).isEqualTo("250.000");
+        assertThat(CyclePartitioner.splitRate("10K,1.1,restart", 0.5d)).isEqualTo("5000.000,1.1,restart");
+    }
+
+    @Test
+    public void testWorkerArgs() {
+        ActivityDef def = ActivityDef.parseActivityDef("alias=a1;driver=diag;cycles=100;cyclerate=1000;workers=4;threads=2");
+        CyclePartitioner.Partition partition = CyclePartitioner.partition(0, 100, 4).get(1);
+        List<String> args = DistributedActivity.workerArgs(def, partition, "s_a1_w1", Path.of("logs"),
+            Path.of("logs/s_a1_w1.hdr"), "1s");
+        assertThat(args).containsSubsequence("run", "cyclerate=250.000", "driver=diag", "threads=2",
+            "alias=a1", "cycles=25..50", "worker=1", "--session-name", "s_a1_w1");
+        assertThat(args).doesNotContain("workers=4", "cycles=100");
+        assertThat(args).endsWith("--log-histograms", "logs/s_a1_w1.hdr:.*:1s");
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.distributed;
+
+import io.nosqlbench.api.engine.activityimpl.ActivityDef;
+import io.nosqlbench.engine.core.lifecycle.ExecutionResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisabledOnOs(OS.WINDOWS)
+public class DistributedActivityTest {
+
+    /**
+     * A stand-in for an nb5 worker. Worker 0 fails at once, and the others run until they are
+     * told to stop on stdin. A worker which is never stopped would keep the test waiting for
+     * far longer than its timeout.
+     */
+    private Path workerScript(Path dir) throws IOException {
+        Path script = dir.resolve("worker.sh");
+        Files.writeString(script, """
+            #!/bin/sh
+            for arg in "$@"; do
+              case "$arg" in
+                worker=0) echo "failing"; exit 3 ;;
+              esac
+            done
+            read command
+            echo "received $command"
+            exit 0
+            """);
+        script.toFile().setExecutable(true);
+        return script;
+    }
+
+    @Test
+    @Timeout(30)
+    public void testWorkerFailureStopsOtherWorkers(@TempDir Path dir) throws IOException {
+        Path script = workerScript(dir);
+        ActivityDef def = ActivityDef.parseActivityDef(
+            "alias=distfail;cycles=0..300;workers=3;worker_cmd=" + script
+        );
+        DistributedActivity activity = new DistributedActivity(def, "testsession", dir);
+
+        long startedAt = System.currentTimeMillis();
+        ExecutionResult result = activity.call();
+        long elapsed = System.currentTimeMillis() - startedAt;
+
+        assertThat(result.getException()).isNotNull();
+        assertThat(result.getException().getMessage())
+            .contains("distfail_w0")
+            .contains("exited with status 3");
+        assertThat(activity.isRunning()).isFalse();
+        assertThat(elapsed).isLessThan(DistributedActivity.STOP_GRACE_MILLIS);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.lifecycle.distributed;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HistoLogMergerTest {
+
+    private Path writeLog(long startTime, long offset, int intervals, long value) throws IOException {
+        Path path = Files.createTempFile("worker", ".hdr");
+        path.toFile().deleteOnExit();
+        try (PrintStream out = new PrintStream(path.toFile())) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startTime);
+            writer.setBaseTime(startTime);
+            writer.outputLegend();
+            for (int i = 0; i < intervals; i++) {
+                Histogram histogram = new Histogram(3);
+                histogram.setTag("a1.cycles.servicetime");
+                histogram.setStartTimeStamp(startTime + offset + i * 1000L);
+                histogram.setEndTimeStamp(startTime + offset + (i + 1) * 1000L);
+                for (int v = 0; v < 10; v++) {
+                    histogram.recordValue(value);
+                }
+                writer.outputIntervalHistogram(histogram);
+            }
+        }
+        return path;
+    }
+
+    @Test
+    public void testMergeAlignsIntervals() throws IOException {
+        long start = 1_700_000_000_000L;
+        HistoLogMerger merger = new HistoLogMerger(1000L)
+            .add(writeLog(start, 0L, 3, 100L))
+            .add(writeLog(start, 250L, 3, 1000L))
+            .add(Path.of("does-not-exist.hdr"));
+
+        assertThat(merger.getIntervals()).hasSize(3);
+        Map<String, Histogram> first = merger.getIntervals().get(0);
+        assertThat(first.get("a1.cycles.servicetime").getTotalCount()).isEqualTo(20L);
+
+        Histogram total = merger.getTotals().get("a1.cycles.servicetime");
+        assertThat(total.getTotalCount()).isEqualTo(60L);
+        assertThat(total.getValueAtPercentile(50.0d)).isEqualTo(100L);
+        assertThat(total.getMaxValue()).isBetween(1000L, 1001L);
+    }
+
+    @Test
+    public void testMergedLogRoundTrips() throws IOException {
+        long start = 1_700_000_000_000L;
+        HistoLogMerger merger = new HistoLogMerger(1000L)
+            .add(writeLog(start, 0L, 2, 100L))
+            .add(writeLog(start, 0L, 2, 200L));
+        Path merged = Files.createTempFile("merged", ".hdr");
+        merged.toFile().deleteOnExit();
+        merger.writeTo(merged, "testsession");
+
+        HistoLogMerger reread = new HistoLogMerger(1000L).add(merged);
+        assertThat(reread.getIntervals()).hasSize(2);
+        assertThat(reread.getTotals().get("a1.cycles.servicetime").getTotalCount()).isEqualTo(40L);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.core.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MetricsSeriesWriterTest {
+
+    private Path writeSeries(int frames, boolean close) throws IOException {
+        Path path = Files.createTempFile("metrics-series", ".nbms");
+        path.toFile().deleteOnExit();
+        MetricsSeriesWriter writer = writeFrames(path, frames);
+        if (close) {
+            writer.close();
+        } else {
+            writer.flush();
+        }
+        return path;
+    }
+
+    private MetricsSeriesWriter writeFrames(Path path, int frames) {
+        MetricsSeriesWriter writer = new MetricsSeriesWriter(path, 10, 2);
+        for (int i = 0; i < frames; i++) {
+            writer.beginFrame(1_000_000L + i * 1000L);
+            writer.setLong("a.count", i * 3L);
+            writer.setDouble("a.rate", i * 0.5d);
+            if (i >= 15) {
+                writer.setLong("b.count", -i);
+            }
+            writer.endFrame();
+        }
+        return writer;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path path = writeSeries(45, true);
+        try (MetricsSeriesReader reader = new MetricsSeriesReader(path)) {
+            assertThat(reader.isIndexed()).isTrue();
+            assertThat(reader.getColumns()).extracting(MetricsSeriesReader.ColumnDef::name)
+                .containsExactly("a.count", "a.rate", "b.count");
+            List<String> rows = new ArrayList<>();
+            reader.forEachFrame(Long.MIN_VALUE, Long.MAX_VALUE, f ->
+                rows.add(f.getTimestamp() + ":" + f.format(0) + ":" + f.format(1) + ":" + f.format(2)));
+            assertThat(rows).hasSize(45);
+            assertThat(rows.get(0)).isEqualTo("1000000:0:0.0:");
+            assertThat(rows.get(15)).isEqualTo("1015000:45:7.5:-15");
+            assertThat(rows.get(44)).isEqualTo("1044000:132:22.0:-44");
+        }
+    }
+
+    @Test
+    public void testTimeRange() throws IOException {
+        Path path = writeSeries(45, true);
+        try (MetricsSeriesReader reader = new MetricsSeriesReader(path)) {
+            List<Long> timestamps = new ArrayList<>();
+            reader.forEachFrame(1_012_000L, 1_021_000L, f -> timestamps.add(f.getTimestamp()));
+            assertThat(timestamps).hasSize(10);
+            assertThat(timestamps.get(0)).isEqualTo(1_012_000L);
+        }
+    }
+
+    @Test
+    public void testUnclosedFileIsReadable() throws IOException {
+        Path path = writeSeries(25, false);
+        try (MetricsSeriesReader reader = new MetricsSeriesReader(path)) {
+            assertThat(reader.isIndexed()).isFalse();
+            List<Long> counts = new ArrayList<>();
+            reader.forEachFrame(Long.MIN_VALUE, Long.MAX_VALUE, f -> counts.add(f.getLong(0)));
+            assertThat(counts).hasSize(25);
+            assertThat(counts.get(24)).isEqualTo(72L);
+        }
+    }
+
+    @Test
+    public void testCompletedBlocksSurviveWithoutFlushOrClose() throws IOException {
+        Path path = Files.createTempFile("metrics-series", ".nbms");
+        path.toFile().deleteOnExit();
+        writeFrames(path, 25);
+        try (MetricsSeriesReader reader = new MetricsSeriesReader(path)) {
+            assertThat(reader.isIndexed()).isFalse();
+            List<Long> counts = new ArrayList<>();
+            reader.forEachFrame(Long.MIN_VALUE, Long.MAX_VALUE, f -> counts.add(f.getLong(0)));
+            assertThat(counts).hasSize(20);
+            assertThat(counts.get(19)).isEqualTo(57L);
+        }
+    }
+
+    @Test
+    public void testReporterFileIsReadableWithoutStop() throws IOException {
+        Path path = Files.createTempFile("metrics-series", ".nbms");
+        path.toFile().deleteOnExit();
+        MetricRegistry registry = new MetricRegistry();
+        Counter counter = registry.counter("test.ops");
+        MetricsSeriesReporter reporter = new MetricsSeriesReporter(registry, MetricFilter.ALL, path, "");
+        int intervals = 3 * MetricsSeriesReporter.BLOCK_FRAMES + 4;
+        for (int i = 0; i < intervals; i++) {
+            counter.inc();
+            reporter.report();
+        }
+        try (MetricsSeriesReader reader = new MetricsSeriesReader(path)) {
+            assertThat(reader.getColumns()).extracting(MetricsSeriesReader.ColumnDef::name)
+                .containsExactly("test.ops.count");
+            List<Long> counts = new ArrayList<>();
+            reader.forEachFrame(Long.MIN_VALUE, Long.MAX_VALUE, f -> counts.add(f.getLong(0)));
+            assertThat(counts).hasSize(3 * MetricsSeriesReporter.BLOCK_FRAMES);
+            assertThat(counts.get(counts.size() - 1)).isEqualTo(3L * MetricsSeriesReporter.BLOCK_FRAMES);
+        }
+    }
+
+    @Test
+    public void testSizeIsCompact() throws IOException {
+        Path path = writeSeries(3600, true);
+        // timestamps and 3 columns of 8 byte values would be over 110k uncompressed
+        assertThat(Files.size(path)).isLessThan(3600L * 4 * 8 / 2);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.engine.extensions.slocontrol;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.nosqlbench.api.engine.activityimpl.ParameterMap;
+import io.nosqlbench.api.engine.metrics.HdrDeltaHistogramAttachment;
+import io.nosqlbench.engine.api.activityapi.ratelimits.ConcurrencyController;
+import io.nosqlbench.engine.api.activityapi.ratelimits.SloSpec;
+import org.apache.logging.log4j.Logger;
+
+import javax.script.ScriptContext;
+import java.util.Map;
+
+public class SloControlPlugin {
+
+    private final Logger logger;
+    private final MetricRegistry metricRegistry;
+    private final ScriptContext scriptContext;
+
+    public SloControlPlugin(Logger logger, MetricRegistry metricRegistry, ScriptContext scriptContext) {
+        this.logger = logger;
+        this.metricRegistry = metricRegistry;
+        this.scriptContext = scriptContext;
+    }
+
+    /**
+     * Start controlling the threads and cyclerate of a running activity.
+     *
+     * @param activityParams the activity params, as in {@code activities.myalias}
+     * @param slo            the latency objective, like {@code p99:10ms}
+     * @return the running controller
+     */
+    public ConcurrencyController start(Object activityParams, String slo) {
+        return start(activityParams, slo, Map.of());
+    }
+
+    /**
+     * Like {@link #start(Object, String)}, with {@code slo_window} or {@code slo_max_threads}
+     * options applied to the activity params first.
+     */
+    public ConcurrencyController start(Object activityParams, String slo, Map<String, Object> options) {
+        if (!(activityParams instanceof ParameterMap params)) {
+            throw new RuntimeException("slocontrol.start requires activity params, like activities.myalias, not " + activityParams);
+        }
+        options.forEach((k, v) -> params.set(k, String.valueOf(v)));
+        String alias = params.getOptionalString("alias")
+            .orElseThrow(() -> new RuntimeException("The activity params have no alias."));
+        // a running activity has already resolved specs like threads=auto to a number
+        String threadSpec = params.getOptionalString("threads").orElse("1");
+        if (!threadSpec.matches("\\d+")) {
+            throw new RuntimeException("slocontrol.start requires a running activity, but the threads param of "
+                + alias + " is not resolved yet: " + threadSpec);
+        }
+        int threads = Integer.parseInt(threadSpec);
+        ConcurrencyController controller = ConcurrencyController.forParams(
+            alias, params, serviceTimer(alias).attachHdrDeltaHistogram(), new SloSpec(slo), threads
+        );
+        logger.info("starting slo control for " + alias + " at " + slo);
+        controller.start();
+        return controller;
+    }
+
+    private HdrDeltaHistogramAttachment serviceTimer(String alias) {
+        Map<String, Timer> timers = metricRegistry.getTimers();
+        Timer timer = timers.getOrDefault(alias + ".cycles.servicetime", timers.get(alias + ".cycles"));
+        if (timer instanceof HdrDeltaHistogramAttachment attachment) {
+            return attachment;
+        }
+        throw new RuntimeException("No cycles service timer with delta histograms was found for activity " + alias);
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.logging.log4j.Logger;
 import javax.script.ScriptContext;
 import java.io.File;
 import java.io.PrintStream;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
@@ -198,6 +199,10 @@ public class ActivityMetrics {
         return (Meter) register(named, name, Meter::new);
     }
 
+    public static Meter meter(String fullname) {
+        return get().meter(fullname);
+    }
+
     private static MetricRegistry get() {
         if (registry != null) {
             return registry;
@@ -288,6 +293,38 @@ public class ActivityMetrics {
         metricsCloseables.add(histoStatsLogger);
     }
 
+    /**
+     * Serve matching metrics in this JVM instance in the OpenMetrics text format, for scraping by
+     * Prometheus or compatible collectors.
+     *
+     * @param prefix  The name prefix to add to all exposed metric names
+     * @param pattern A regular expression pattern to filter out metric names for inclusion
+     * @param address The address to serve the metrics on, in [host:]port form
+     * @return the running endpoint
+     */
+    public static OpenMetricsEndpoint addOpenMetricsEndpoint(String prefix, String pattern, String address) {
+        String host = "0.0.0.0";
+        String portSpec = address;
+        int colonAt = address.lastIndexOf(':');
+        if (colonAt >= 0) {
+            host = address.substring(0, colonAt);
+            portSpec = address.substring(colonAt + 1);
+        }
+        int port;
+        try {
+            port = Integer.parseInt(portSpec);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Unable to parse openmetrics address:'" + address + "', expected [host:]port");
+        }
+        Pattern compiledPattern = Pattern.compile(pattern);
+        OpenMetricsEndpoint endpoint = new OpenMetricsEndpoint(prefix, compiledPattern, 2, 250L);
+        endpoint.start(new InetSocketAddress(host, port));
+        logger.debug(() -> "attaching " + endpoint + " to the metrics registry.");
+        get().addListener(endpoint);
+        metricsCloseables.add(endpoint);
+        return endpoint;
+    }
+
     /**
      * Add a classic histogram in addition to the default implementation in this runtime. This is a way to
      * get a view to both the enhanced histogram implementation as well as the classic implementation in the
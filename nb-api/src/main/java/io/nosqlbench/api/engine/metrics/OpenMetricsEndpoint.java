@@ -0,0 +1,401 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.api.engine.metrics;
+
+import com.codahale.metrics.*;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.HdrHistogram.HistogramIterationValue;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * <p>OpenMetricsEndpoint serves the metrics registry in the OpenMetrics text format over HTTP, so that
+ * a Prometheus server (or anything else that reads this format) can scrape it directly, without
+ * an intermediate push gateway or exporter. It uses the JDK's built-in HTTP server on a single
+ * daemon thread, so all of the formatting work is done off of the activity threads.</p>
+ *
+ * <p>Like {@link HistoIntervalLogger}, this listens to the metrics registry for new metrics. Timers and
+ * histograms which are backed by {@link DeltaHdrHistogramReservoir} are attached to, so that this endpoint
+ * sees its own stream of interval histograms without disturbing other reporters. Each interval histogram
+ * is folded into cumulative bucket counts, where the bucket boundaries follow the exponential schema
+ * used by Prometheus native histograms, with boundaries at {@code 2^(i/2^schema)}. Only buckets within
+ * the range of values seen so far are exposed, so a metric exposes a stable, growing set of buckets.
+ * Timer values are exposed in seconds.</p>
+ *
+ * <p>The rendered text is cached for a short time, so that multiple scrapers or rapid scrapes do not
+ * cause repeated work. The per-metric names, headers and bucket labels are computed once when a
+ * metric is added, so that rendering is little more than appending numbers to a buffer.</p>
+ */
+public class OpenMetricsEndpoint implements MetricRegistryListener, MetricsCloseable {
+    private final static Logger logger = LogManager.getLogger(OpenMetricsEndpoint.class);
+
+    public final static String CONTENT_TYPE_OPENMETRICS = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+    public final static String CONTENT_TYPE_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+    private final static Pattern INVALID_CHARS = Pattern.compile("[^a-zA-Z0-9_:]");
+
+    private final String prefix;
+    private final Pattern pattern;
+    private final int schema;
+    private final long cacheMillis;
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    private final StringBuilder buffer = new StringBuilder(1 << 16);
+    private byte[] cached = new byte[0];
+    private long cacheExpiry = 0L;
+    private long lastRenderNanos = 0L;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param prefix      A prefix to add to all metric names, like 'nosqlbench'. This may be empty.
+     * @param pattern     A regular expression for the metric names to include
+     * @param schema      The native histogram schema, from 0 to 8. Schema 2 yields 4 buckets per power of two.
+     * @param cacheMillis How long a rendering of the metrics may be reused for subsequent scrapes
+     */
+    public OpenMetricsEndpoint(String prefix, Pattern pattern, int schema, long cacheMillis) {
+        if (schema < 0 || schema > 8) {
+            throw new RuntimeException("The histogram schema must be between 0 and 8, but was " + schema);
+        }
+        this.prefix = (prefix == null || prefix.isEmpty()) ? "" : sanitize(prefix) + "_";
+        this.pattern = pattern;
+        this.schema = schema;
+        this.cacheMillis = cacheMillis;
+    }
+
+    /**
+     * Start serving the metrics at {@code /metrics} on the given address.
+     *
+     * @param address The address to bind to. Use port 0 to bind to any available port.
+     * @return this endpoint, for chaining
+     */
+    public synchronized OpenMetricsEndpoint start(InetSocketAddress address) {
+        try {
+            server = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to bind openmetrics endpoint to " + address + ": " + e, e);
+        }
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "openmetrics-endpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+        server.start();
+        logger.info(() -> "serving openmetrics at http://" + getAddress().getHostString() + ":" + getAddress().getPort() + "/metrics");
+        return this;
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = render();
+            String accept = exchange.getRequestHeaders().getFirst("Accept");
+            boolean openmetrics = accept != null && accept.contains("application/openmetrics-text");
+            exchange.getResponseHeaders().set("Content-Type", openmetrics ? CONTENT_TYPE_OPENMETRICS : CONTENT_TYPE_PROMETHEUS);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Render all matching metrics, or return the last rendering if it is still within the cache time.
+     * @return the UTF-8 encoded exposition text
+     */
+    public synchronized byte[] render() {
+        long now = System.currentTimeMillis();
+        if (now < cacheExpiry) {
+            return cached;
+        }
+        long startedAt = System.nanoTime();
+        buffer.setLength(0);
+        for (Family family : families.values()) {
+            family.render(buffer);
+        }
+        buffer.append("# EOF\n");
+        cached = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        cacheExpiry = now + cacheMillis;
+        lastRenderNanos = System.nanoTime() - startedAt;
+        return cached;
+    }
+
+    /**
+     * @return How long the last uncached rendering took, in nanoseconds
+     */
+    public long getLastRenderNanos() {
+        return lastRenderNanos;
+    }
+
+    private boolean include(String name) {
+        return pattern.matcher(name).matches();
+    }
+
+    private String familyName(String name) {
+        return prefix + sanitize(name);
+    }
+
+    private static String sanitize(String name) {
+        String sanitized = INVALID_CHARS.matcher(name).replaceAll("_");
+        if (!sanitized.isEmpty() && Character.isDigit(sanitized.charAt(0))) {
+            sanitized = "_" + sanitized;
+        }
+        return sanitized;
+    }
+
+    private void add(String name, Family family) {
+        if (include(name)) {
+            families.put(name, family);
+        }
+    }
+
+    @Override
+    public void onGaugeAdded(String name, Gauge<?> gauge) {
+        add(name, new GaugeFamily(familyName(name), name, gauge));
+    }
+
+    @Override
+    public void onGaugeRemoved(String name) {
+        families.remove(name);
+    }
+
+    @Override
+    public void onCounterAdded(String name, Counter counter) {
+        add(name, new CounterFamily(familyName(name), name, counter));
+    }
+
+    @Override
+    public void onCounterRemoved(String name) {
+        families.remove(name);
+    }
+
+    @Override
+    public void onHistogramAdded(String name, Histogram histogram) {
+        if (histogram instanceof HdrDeltaHistogramAttachment attachment) {
+            add(name, new HdrFamily(familyName(name), name, attachment, 1.0d));
+        }
+    }
+
+    @Override
+    public void onHistogramRemoved(String name) {
+        families.remove(name);
+    }
+
+    @Override
+    public void onMeterAdded(String name, Meter meter) {
+        add(name, new MeterFamily(familyName(name), name, meter));
+    }
+
+    @Override
+    public void onMeterRemoved(String name) {
+        families.remove(name);
+    }
+
+    @Override
+    public void onTimerAdded(String name, Timer timer) {
+        if (timer instanceof HdrDeltaHistogramAttachment attachment) {
+            add(name, new HdrFamily(familyName(name) + "_seconds", name, attachment, 1.0E-9d));
+        }
+    }
+
+    @Override
+    public void onTimerRemoved(String name) {
+        families.remove(name);
+    }
+
+    @Override
+    public void closeMetrics() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void chart() {
+    }
+
+    @Override
+    public String toString() {
+        return "OpenMetricsEndpoint:" + this.pattern + ":" + (server != null ? server.getAddress() : "unbound");
+    }
+
+    private interface Family {
+        void render(StringBuilder sb);
+    }
+
+    private static String header(String familyName, String type, String help) {
+        return "# TYPE " + familyName + " " + type + "\n" + "# HELP " + familyName + " " + help + "\n";
+    }
+
+    private static class GaugeFamily implements Family {
+        private final String header;
+        private final String sample;
+        private final Gauge<?> gauge;
+
+        GaugeFamily(String familyName, String metricName, Gauge<?> gauge) {
+            this.header = header(familyName, "gauge", metricName);
+            this.sample = familyName + " ";
+            this.gauge = gauge;
+        }
+
+        @Override
+        public void render(StringBuilder sb) {
+            Object value = gauge.getValue();
+            if (value instanceof Number number) {
+                sb.append(header).append(sample).append(number.doubleValue()).append('\n');
+            } else if (value instanceof Boolean bool) {
+                sb.append(header).append(sample).append(bool ? 1 : 0).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Dropwizard counters may go down as well as up, so they are exposed as gauges.
+     */
+    private static class CounterFamily implements Family {
+        private final String header;
+        private final String sample;
+        private final Counter counter;
+
+        CounterFamily(String familyName, String metricName, Counter counter) {
+            this.header = header(familyName, "gauge", metricName);
+            this.sample = familyName + " ";
+            this.counter = counter;
+        }
+
+        @Override
+        public void render(StringBuilder sb) {
+            sb.append(header).append(sample).append(counter.getCount()).append('\n');
+        }
+    }
+
+    private static class MeterFamily implements Family {
+        private final String header;
+        private final String sample;
+        private final Meter meter;
+
+        MeterFamily(String familyName, String metricName, Meter meter) {
+            this.header = header(familyName, "counter", metricName);
+            this.sample = familyName + "_total ";
+            this.meter = meter;
+        }
+
+        @Override
+        public void render(StringBuilder sb) {
+            sb.append(header).append(sample).append(meter.getCount()).append('\n');
+        }
+    }
+
+    /**
+     * Cumulative bucket counts for an HDR histogram, using exponential boundaries.
+     */
+    private class HdrFamily implements Family {
+        private final String header;
+        private final String bucketPrefix;
+        private final String infBucket;
+        private final String countSample;
+        private final String sumSample;
+        private final HdrDeltaHistogramProvider provider;
+        private final double scale;
+        private final double bucketsPerOctave;
+        private final long[] buckets;
+        private final String[] bucketLines;
+        private int lowestIndex = Integer.MAX_VALUE;
+        private int highestIndex = -1;
+        private long count;
+        private double sum;
+
+        HdrFamily(String familyName, String metricName, HdrDeltaHistogramAttachment attachment, double scale) {
+            this.header = header(familyName, "histogram", metricName);
+            this.bucketPrefix = familyName + "_bucket{le=\"";
+            this.infBucket = familyName + "_bucket{le=\"+Inf\"} ";
+            this.countSample = familyName + "_count ";
+            this.sumSample = familyName + "_sum ";
+            this.provider = attachment.attachHdrDeltaHistogram();
+            this.scale = scale;
+            this.bucketsPerOctave = 1 << schema;
+            int size = (64 << schema) + 1;
+            this.buckets = new long[size];
+            this.bucketLines = new String[size];
+        }
+
+        private int indexOf(long value) {
+            if (value <= 1) {
+                return 0;
+            }
+            return (int) Math.ceil((Math.log(value) / Math.log(2.0d)) * bucketsPerOctave);
+        }
+
+        private String bucketLine(int index) {
+            String line = bucketLines[index];
+            if (line == null) {
+                double upperBound = Math.pow(2.0d, index / bucketsPerOctave) * scale;
+                line = bucketPrefix + upperBound + "\"} ";
+                bucketLines[index] = line;
+            }
+            return line;
+        }
+
+        private void accumulate() {
+            org.HdrHistogram.Histogram delta = provider.getNextHdrDeltaHistogram();
+            if (delta.getTotalCount() == 0) {
+                return;
+            }
+            for (HistogramIterationValue v : delta.recordedValues()) {
+                long value = v.getValueIteratedTo();
+                long n = v.getCountAtValueIteratedTo();
+                int index = indexOf(value);
+                buckets[index] += n;
+                lowestIndex = Math.min(lowestIndex, index);
+                highestIndex = Math.max(highestIndex, index);
+                count += n;
+                sum += (double) value * n * scale;
+            }
+        }
+
+        @Override
+        public void render(StringBuilder sb) {
+            accumulate();
+            sb.append(header);
+            long cumulative = 0L;
+            for (int i = lowestIndex; i <= highestIndex; i++) {
+                cumulative += buckets[i];
+                sb.append(bucketLine(i)).append(cumulative).append('\n');
+            }
+            sb.append(infBucket).append(count).append('\n');
+            sb.append(countSample).append(count).append('\n');
+            sb.append(sumSample).append(sum).append('\n');
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.api.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import io.nosqlbench.api.engine.metrics.DeltaHdrHistogramReservoir;
+import io.nosqlbench.api.engine.metrics.NicerTimer;
+import io.nosqlbench.api.engine.metrics.OpenMetricsEndpoint;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenMetricsEndpointTest {
+
+    @Test
+    public void testRenderTimerAsHistogram() {
+        MetricRegistry registry = new MetricRegistry();
+        OpenMetricsEndpoint endpoint = new OpenMetricsEndpoint("nosqlbench", Pattern.compile(".*"), 2, 0L);
+        registry.addListener(endpoint);
+
+        NicerTimer timer = registry.register("test.cycles.servicetime",
+            new NicerTimer("test.cycles.servicetime", new DeltaHdrHistogramReservoir("test.cycles.servicetime", 3)));
+        Counter pending = registry.counter("test.pending");
+        for (int i = 1; i <= 100; i++) {
+            timer.update(i, TimeUnit.MILLISECONDS);
+        }
+        pending.inc(3);
+
+        String text = new String(endpoint.render(), StandardCharsets.UTF_8);
+        assertThat(text).contains("# TYPE nosqlbench_test_cycles_servicetime_seconds histogram");
+        assertThat(text).contains("nosqlbench_test_cycles_servicetime_seconds_bucket{le=\"+Inf\"} 100");
+        assertThat(text).contains("nosqlbench_test_cycles_servicetime_seconds_count 100");
+        assertThat(text).contains("nosqlbench_test_pending 3");
+        assertThat(text).endsWith("# EOF\n");
+
+        timer.update(5, TimeUnit.MILLISECONDS);
+        String next = new String(endpoint.render(), StandardCharsets.UTF_8);
+        assertThat(next).contains("nosqlbench_test_cycles_servicetime_seconds_count 101");
+
+        registry.remove("test.pending");
+        String removed = new String(endpoint.render(), StandardCharsets.UTF_8);
+        assertThat(removed).doesNotContain("nosqlbench_test_pending");
+    }
+
+    @Test
+    public void testBucketsAreCumulative() {
+        MetricRegistry registry = new MetricRegistry();
+        OpenMetricsEndpoint endpoint = new OpenMetricsEndpoint("", Pattern.compile(".*"), 0, 0L);
+        registry.addListener(endpoint);
+        NicerTimer timer = registry.register("t",
+            new NicerTimer("t", new DeltaHdrHistogramReservoir("t", 3)));
+        timer.update(1000, TimeUnit.NANOSECONDS);
+        timer.update(1000000, TimeUnit.NANOSECONDS);
+
+        String text = new String(endpoint.render(), StandardCharsets.UTF_8);
+        long last = -1;
+        for (String line : text.split("\n")) {
+            if (line.startsWith("t_seconds_bucket")) {
+                long value = Long.parseLong(line.substring(line.lastIndexOf(' ') + 1));
+                assertThat(value).isGreaterThanOrEqualTo(last);
+                last = value;
+            }
+        }
+        assertThat(last).isEqualTo(2);
+    }
+
+    @Test
+    public void testScrapeOverHttp() throws Exception {
+        MetricRegistry registry = new MetricRegistry();
+        OpenMetricsEndpoint endpoint = new OpenMetricsEndpoint("nb", Pattern.compile(".*"), 2, 250L)
+            .start(new InetSocketAddress("127.0.0.1", 0));
+        try {
+            registry.addListener(endpoint);
+            registry.counter("ops").inc();
+            URL url = new URL("http://127.0.0.1:" + endpoint.getAddress().getPort() + "/metrics");
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            conn.setRequestProperty("Accept", "application/openmetrics-text");
+            assertThat(conn.getResponseCode()).isEqualTo(200);
+            assertThat(conn.getContentType()).startsWith("application/openmetrics-text");
+            try (InputStream in = conn.getInputStream()) {
+                String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                assertThat(body).contains("nb_ops 1");
+            }
+        } finally {
+            endpoint.closeMetrics();
+        }
+    }
+}
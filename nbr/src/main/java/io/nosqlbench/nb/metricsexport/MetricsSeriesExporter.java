@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.nb.metricsexport;
+
+import io.nosqlbench.api.apps.BundledApp;
+import io.nosqlbench.engine.core.metrics.MetricsSeriesReader;
+import io.nosqlbench.nb.annotations.Service;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@Service(value = BundledApp.class, selector = "export-metrics")
+public class MetricsSeriesExporter implements BundledApp {
+
+    public static void main(String[] args) {
+        System.exit(new MetricsSeriesExporter().applyAsInt(args));
+    }
+
+    @Override
+    public int applyAsInt(String[] args) {
+        final OptionParser parser = new OptionParser();
+
+        OptionSpec<String> formatSpec = parser.accepts("format", "output format, csv or json")
+            .withRequiredArg().ofType(String.class).defaultsTo("csv");
+        OptionSpec<String> outSpec = parser.accepts("out", "file to write to, or stdout if not given")
+            .withRequiredArg().ofType(String.class);
+        OptionSpec<String> includeSpec = parser.accepts("include", "regular expression for the metric names to export")
+            .withRequiredArg().ofType(String.class).defaultsTo(".*");
+        OptionSpec<Long> fromSpec = parser.accepts("from", "the earliest time to export, in epoch millis")
+            .withRequiredArg().ofType(Long.class).defaultsTo(Long.MIN_VALUE);
+        OptionSpec<Long> toSpec = parser.accepts("to", "the latest time to export, in epoch millis")
+            .withRequiredArg().ofType(Long.class).defaultsTo(Long.MAX_VALUE);
+        OptionSpec<?> listSpec = parser.accepts("list", "list the metric names in the file and exit");
+        OptionSpec<String> fileSpec = parser.nonOptions("metrics series file").ofType(String.class);
+
+        OptionSpec<?> helpSpec = parser.acceptsAll(List.of("help", "h", "?"), "Display help").forHelp();
+        OptionSet options = parser.parse(args);
+        if (options.has(helpSpec) || options.valuesOf(fileSpec).size() != 1) {
+            try {
+                parser.printHelpOn(System.out);
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to show help:" + e);
+            }
+            return options.has(helpSpec) ? 0 : 2;
+        }
+
+        String format = options.valueOf(formatSpec);
+        if (!format.equals("csv") && !format.equals("json")) {
+            throw new RuntimeException("Unknown export format '" + format + "', use csv or json.");
+        }
+        Pattern include = Pattern.compile(options.valueOf(includeSpec));
+
+        PrintStream out = System.out;
+        try (MetricsSeriesReader reader = new MetricsSeriesReader(Path.of(options.valueOf(fileSpec).get(0)))) {
+            if (options.has(outSpec)) {
+                out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(Path.of(options.valueOf(outSpec)))), false, StandardCharsets.UTF_8);
+            }
+
+            List<MetricsSeriesReader.ColumnDef> selected = new ArrayList<>();
+            for (MetricsSeriesReader.ColumnDef column : reader.getColumns()) {
+                if (include.matcher(column.name()).matches()) {
+                    selected.add(column);
+                }
+            }
+            if (options.has(listSpec)) {
+                for (MetricsSeriesReader.ColumnDef column : selected) {
+                    out.println(column.name());
+                }
+                return 0;
+            }
+
+            if (format.equals("csv")) {
+                StringBuilder sb = new StringBuilder("timestamp");
+                selected.forEach(c -> sb.append(',').append(c.name()));
+                out.println(sb);
+            }
+            StringBuilder line = new StringBuilder();
+            PrintStream sink = out;
+            reader.forEachFrame(options.valueOf(fromSpec), options.valueOf(toSpec), frame -> {
+                line.setLength(0);
+                if (format.equals("csv")) {
+                    line.append(frame.getTimestamp());
+                    for (MetricsSeriesReader.ColumnDef column : selected) {
+                        line.append(',').append(frame.format(column.id()));
+                    }
+                } else {
+                    line.append("{\"timestamp\":").append(frame.getTimestamp());
+                    for (MetricsSeriesReader.ColumnDef column : selected) {
+                        if (frame.has(column.id())) {
+                            double value = frame.getDouble(column.id());
+                            line.append(",\"").append(escape(column.name())).append("\":")
+                                .append(Double.isFinite(value) ? frame.format(column.id()) : "null");
+                        }
+                    }
+                    line.append('}');
+                }
+                sink.println(line);
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write exported metrics: " + e, e);
+        } finally {
+            out.flush();
+            if (out != System.out) {
+                out.close();
+            }
+        }
+        return 0;
+    }
+
+    private static String escape(String name) {
+        return name.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
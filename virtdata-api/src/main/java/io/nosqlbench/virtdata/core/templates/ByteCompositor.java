@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.templates;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import io.nosqlbench.virtdata.core.bindings.VirtData;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * This is a byte-level form of the {@link StringCompositor}. The literal spans of the
+ * template are encoded as UTF-8 once, and only the bound values are encoded per call.
+ * The result is assembled directly into a single array of the exact size, without an
+ * intermediate string. Bound values which are already byte[] or {@link ByteBuffer} are
+ * copied in as they are.
+ */
+public class ByteCompositor implements LongFunction<byte[]> {
+
+    private final byte[][] spans;
+    private final DataMapper<?>[] mappers;
+    private final int[] LUT;
+    private final int spanBytes;
+
+    public ByteCompositor(ParsedTemplateString template, Map<String, Object> fconfig) {
+        Map<String, Integer> specs = new HashMap<>();
+        List<BindPoint> bindpoints = template.getBindPoints();
+        for (BindPoint bindPoint : bindpoints) {
+            String spec = bindPoint.getBindspec();
+            specs.compute(spec, (s, i) -> i == null ? specs.size() : i);
+        }
+        mappers = new DataMapper<?>[specs.size()];
+        specs.forEach((k, v) -> {
+            mappers[v] = VirtData.getOptionalMapper(k, fconfig).orElseThrow();
+        });
+        String[] even_odd_spans = template.getSpans();
+        this.spans = new byte[bindpoints.size() + 1][];
+        LUT = new int[bindpoints.size()];
+        int total = 0;
+        for (int i = 0; i < bindpoints.size(); i++) {
+            spans[i] = even_odd_spans[i << 1].getBytes(StandardCharsets.UTF_8);
+            total += spans[i].length;
+            LUT[i] = specs.get(bindpoints.get(i).getBindspec());
+        }
+        spans[spans.length - 1] = even_odd_spans[even_odd_spans.length - 1].getBytes(StandardCharsets.UTF_8);
+        total += spans[spans.length - 1].length;
+        this.spanBytes = total;
+    }
+
+    public ByteCompositor(ParsedTemplateString template) {
+        this(template, Map.of());
+    }
+
+    @Override
+    public byte[] apply(long value) {
+        byte[][] values = new byte[mappers.length][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = toBytes(mappers[i].apply(value));
+        }
+        int length = spanBytes;
+        for (int i = 0; i < LUT.length; i++) {
+            length += values[LUT[i]].length;
+        }
+        byte[] result = new byte[length];
+        int pos = 0;
+        for (int i = 0; i < LUT.length; i++) {
+            System.arraycopy(spans[i], 0, result, pos, spans[i].length);
+            pos += spans[i].length;
+            byte[] bound = values[LUT[i]];
+            System.arraycopy(bound, 0, result, pos, bound.length);
+            pos += bound.length;
+        }
+        byte[] last = spans[spans.length - 1];
+        System.arraycopy(last, 0, result, pos, last.length);
+        return result;
+    }
+
+    private static byte[] toBytes(Object value) {
+        if (value instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (value instanceof ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
+        }
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.core.templates;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ByteCompositorTest {
+
+    @Test
+    @Disabled // Needs to have annotation processor run in test scope first
+    public void testMatchesStringCompositor() {
+        ParsedTemplateString pt = new ParsedTemplateString(
+            "id={b1}&name=caf\u00e9{b1}&n={{TestValue(5)}}", Map.of("b1", "TestIdentity()"));
+        ByteCompositor bytes = new ByteCompositor(pt, Map.of());
+        StringCompositor strings = new StringCompositor(pt, Map.of());
+        for (long cycle = 0; cycle < 20; cycle++) {
+            assertThat(new String(bytes.apply(cycle), StandardCharsets.UTF_8)).isEqualTo(strings.apply(cycle));
+        }
+    }
+
+    @Test
+    public void testLiteralOnly() {
+        ParsedTemplateString pt = new ParsedTemplateString("static body", Map.of());
+        assertThat(new ByteCompositor(pt).apply(3L)).isEqualTo("static body".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLiteralIsEncodedAsUtf8() {
+        ParsedTemplateString pt = new ParsedTemplateString("caf\u00e9 \u20ac", Map.of());
+        assertThat(new ByteCompositor(pt).apply(0L)).hasSize(9);
+    }
+}
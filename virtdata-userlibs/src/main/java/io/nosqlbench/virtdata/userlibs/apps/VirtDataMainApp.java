@@ -18,6 +18,7 @@ package io.nosqlbench.virtdata.userlibs.apps;
 
 import io.nosqlbench.api.apps.BundledApp;
 import io.nosqlbench.nb.annotations.Service;
+import io.nosqlbench.virtdata.userlibs.apps.bindingprofiler.VirtDataProfileApp;
 import io.nosqlbench.virtdata.userlibs.apps.diagnoseapp.VirtDataDiagnoseApp;
 import io.nosqlbench.virtdata.userlibs.apps.valuechecker.VirtDataCheckPerfApp;
 
@@ -31,10 +32,11 @@ public class VirtDataMainApp implements BundledApp {
 
     private final static String APP_TESTMAPPER = "testmapper";
     private final static String APP_DIAGNOSE = "diagnose";
-    private final static String[] names = new String[]{APP_TESTMAPPER, APP_DIAGNOSE};
+    private final static String APP_PROFILE = "profile";
+    private final static String[] names = new String[]{APP_TESTMAPPER, APP_DIAGNOSE, APP_PROFILE};
 
     public static boolean hasNamedApp(String appname) {
-        return (appname.equals(APP_TESTMAPPER)  || appname.equals(APP_DIAGNOSE));
+        return (appname.equals(APP_TESTMAPPER)  || appname.equals(APP_DIAGNOSE) || appname.equals(APP_PROFILE));
     }
 
     public static void main(String[] args) {
@@ -44,7 +46,7 @@ public class VirtDataMainApp implements BundledApp {
     @Override
     public int applyAsInt(String[] args) {
         if (args.length == 0) {
-            System.out.println("Usage: app (" + APP_TESTMAPPER  +"|"+ APP_DIAGNOSE +")");
+            System.out.println("Usage: app (" + APP_TESTMAPPER  +"|"+ APP_DIAGNOSE +"|"+ APP_PROFILE +")");
             return 1;
         }
 
@@ -58,6 +60,8 @@ public class VirtDataMainApp implements BundledApp {
             VirtDataCheckPerfApp.main(appArgs);
         } else if (appSelection.equalsIgnoreCase(APP_DIAGNOSE)) {
             VirtDataDiagnoseApp.main(appArgs);
+        } else if (appSelection.equalsIgnoreCase(APP_PROFILE)) {
+            VirtDataProfileApp.main(appArgs);
         } else {
             System.err.println("Error in command line. The first argument must one of " + String.join(",", names));
         }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.apps.bindingprofiler;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * The measurements of one binding at one thread count.
+ *
+ * @param name           the binding name
+ * @param spec           the binding spec
+ * @param threads        the number of threads which generated values concurrently
+ * @param values         the number of values generated
+ * @param wallNanos      the elapsed time for all threads to finish
+ * @param threadNanos    the time spent generating values, summed over all threads
+ * @param allocatedBytes the bytes allocated while generating values, summed over all threads, or
+ *                       -1 if the JVM does not support allocation accounting
+ * @param chunkPicos     the cost per value of each chunk, in picoseconds
+ */
+public record BindingProfile(
+    String name,
+    String spec,
+    int threads,
+    long values,
+    long wallNanos,
+    long threadNanos,
+    long allocatedBytes,
+    Histogram chunkPicos
+) {
+
+    /**
+     * @return the average time to generate one value on one thread
+     */
+    public double nanosPerValue() {
+        return (double) threadNanos / values;
+    }
+
+    /**
+     * @return the time to generate one value on one thread, at the given percentile of chunks
+     */
+    public double nanosPerValueAt(double percentile) {
+        return chunkPicos.getValueAtPercentile(percentile) / 1000.0d;
+    }
+
+    public double bytesPerValue() {
+        return allocatedBytes < 0 ? Double.NaN : (double) allocatedBytes / values;
+    }
+
+    /**
+     * @return values generated per second over all threads
+     */
+    public double valuesPerSecond() {
+        return values * 1_000_000_000.0d / wallNanos;
+    }
+}
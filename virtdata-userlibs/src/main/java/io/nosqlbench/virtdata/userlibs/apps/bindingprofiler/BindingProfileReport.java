@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.apps.bindingprofiler;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Formats binding profiles as ranked tables: the slowest bindings and the most allocation-heavy
+ * bindings, both at the lowest thread count measured, and then the throughput of every binding at
+ * each thread count, with its efficiency relative to linear scaling.
+ */
+public class BindingProfileReport {
+
+    private final List<BindingProfile> profiles;
+    private final Map<String, String> unresolved;
+    private final int top;
+
+    public BindingProfileReport(List<BindingProfile> profiles, Map<String, String> unresolved, int top) {
+        this.profiles = profiles;
+        this.unresolved = unresolved;
+        this.top = top;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (profiles.isEmpty()) {
+            sb.append("no bindings were profiled\n");
+            appendUnresolved(sb);
+            return sb.toString();
+        }
+        SortedSet<Integer> threadCounts = profiles.stream().map(BindingProfile::threads)
+            .collect(Collectors.toCollection(TreeSet::new));
+        int baseThreads = threadCounts.first();
+        List<BindingProfile> base = profiles.stream().filter(p -> p.threads() == baseThreads).toList();
+        int width = Math.max(7, profiles.stream().mapToInt(p -> p.name().length()).max().orElse(7));
+
+        sb.append("slowest bindings at ").append(baseThreads).append(" thread(s):\n");
+        sb.append(String.format("%4s  %-" + width + "s %10s %10s %10s %12s  %s\n",
+            "rank", "binding", "ns/value", "p50", "p99", "bytes/value", "spec"));
+        appendRanked(sb, base, Comparator.comparingDouble(BindingProfile::nanosPerValue).reversed(), width);
+
+        if (base.stream().anyMatch(p -> !Double.isNaN(p.bytesPerValue()))) {
+            sb.append("\nmost allocation-heavy bindings at ").append(baseThreads).append(" thread(s):\n");
+            sb.append(String.format("%4s  %-" + width + "s %10s %10s %10s %12s  %s\n",
+                "rank", "binding", "ns/value", "p50", "p99", "bytes/value", "spec"));
+            appendRanked(sb, base, Comparator.comparingDouble(BindingProfile::bytesPerValue).reversed(), width);
+        }
+
+        sb.append("\nvalues/s by thread count, with efficiency relative to linear scaling from ")
+            .append(baseThreads).append(" thread(s):\n");
+        sb.append(String.format("%-" + width + "s", "binding"));
+        for (int threads : threadCounts) {
+            sb.append(String.format(" %16s", threads + "t"));
+        }
+        sb.append("\n");
+        Map<String, List<BindingProfile>> byName = profiles.stream()
+            .collect(Collectors.groupingBy(BindingProfile::name, LinkedHashMap::new, Collectors.toList()));
+        byName.forEach((name, measured) -> {
+            sb.append(String.format("%-" + width + "s", name));
+            double baseRate = measured.get(0).valuesPerSecond() / measured.get(0).threads();
+            for (BindingProfile profile : measured) {
+                double efficiency = profile.valuesPerSecond() / (baseRate * profile.threads());
+                sb.append(String.format(" %10s %4.0f%%", scaled(profile.valuesPerSecond()), efficiency * 100.0d));
+            }
+            sb.append("\n");
+        });
+        appendUnresolved(sb);
+        return sb.toString();
+    }
+
+    private void appendRanked(StringBuilder sb, List<BindingProfile> base, Comparator<BindingProfile> order, int width) {
+        List<BindingProfile> ranked = base.stream().sorted(order).limit(top).toList();
+        for (int i = 0; i < ranked.size(); i++) {
+            BindingProfile p = ranked.get(i);
+            sb.append(String.format("%4d  %-" + width + "s %10.1f %10.1f %10.1f %12.1f  %s\n",
+                i + 1, p.name(), p.nanosPerValue(), p.nanosPerValueAt(50.0d), p.nanosPerValueAt(99.0d),
+                p.bytesPerValue(), p.spec()));
+        }
+    }
+
+    private void appendUnresolved(StringBuilder sb) {
+        if (!unresolved.isEmpty()) {
+            sb.append("\nunresolved bindings, which were not profiled:\n");
+            unresolved.forEach((name, spec) -> sb.append("  ").append(name).append(": ").append(spec).append("\n"));
+        }
+    }
+
+    private static String scaled(double value) {
+        if (value >= 1_000_000_000.0d) {
+            return String.format("%.2fG", value / 1_000_000_000.0d);
+        } else if (value >= 1_000_000.0d) {
+            return String.format("%.2fM", value / 1_000_000.0d);
+        } else if (value >= 1_000.0d) {
+            return String.format("%.2fK", value / 1_000.0d);
+        }
+        return String.format("%.2f", value);
+    }
+}
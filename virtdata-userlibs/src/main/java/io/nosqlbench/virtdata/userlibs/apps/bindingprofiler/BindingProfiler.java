@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.apps.bindingprofiler;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import io.nosqlbench.virtdata.core.bindings.VirtData;
+import io.nosqlbench.virtdata.userlibs.apps.valuechecker.IndexedThreadFactory;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Measures the cost of each binding in a set, at each of a number of thread counts. For each
+ * binding and thread count, the cycle range is split into chunks which the threads take in turn
+ * until none are left, so faster threads do more of the work. Each thread has its own instance of
+ * the binding, as activity threads do.</p>
+ *
+ * <p>The time and allocated bytes of each thread are measured around each chunk, so that the
+ * setup and coordination of threads is not counted. The per-value cost of every chunk is kept in a
+ * histogram, which shows how steady a binding is, and the elapsed time of the whole range gives
+ * its throughput at that thread count, which shows how well it scales.</p>
+ */
+public class BindingProfiler implements Callable<List<BindingProfile>> {
+    private final static Logger logger = LogManager.getLogger(BindingProfiler.class);
+
+    private final Map<String, String> bindings;
+    private final long start;
+    private final long end;
+    private final int chunk;
+    private final int[] threadCounts;
+    private final long warmup;
+    private final Map<String, String> unresolved = new LinkedHashMap<>();
+
+    /**
+     * @param bindings     binding specs by name
+     * @param start        the first cycle, inclusive
+     * @param end          the last cycle, exclusive
+     * @param chunk        the number of cycles a thread takes at a time
+     * @param threadCounts the thread counts to measure each binding at
+     * @param warmup       the number of cycles to run on each binding before measuring it
+     */
+    public BindingProfiler(Map<String, String> bindings, long start, long end, int chunk, int[] threadCounts, long warmup) {
+        if (end <= start) {
+            throw new RuntimeException("The cycle range [" + start + ".." + end + ") is empty.");
+        }
+        if (chunk < 1) {
+            throw new RuntimeException("The chunk size must be at least 1, not " + chunk);
+        }
+        this.bindings = bindings;
+        this.start = start;
+        this.end = end;
+        this.chunk = chunk;
+        this.threadCounts = threadCounts;
+        this.warmup = warmup;
+    }
+
+    @Override
+    public List<BindingProfile> call() {
+        List<BindingProfile> profiles = new ArrayList<>();
+        int maxThreads = Arrays.stream(threadCounts).max().orElse(1);
+        ExecutorService pool = Executors.newFixedThreadPool(maxThreads, new IndexedThreadFactory("binding-profiler", null));
+        try {
+            for (Map.Entry<String, String> binding : bindings.entrySet()) {
+                List<DataMapper<Object>> mappers = new ArrayList<>();
+                try {
+                    for (int i = 0; i < maxThreads; i++) {
+                        mappers.add(VirtData.getOptionalMapper(binding.getValue()).orElseThrow(
+                            () -> new RuntimeException("no function found")
+                        ));
+                    }
+                } catch (Exception e) {
+                    logger.warn("Unable to resolve binding '" + binding.getKey() + "': " + binding.getValue() + ": " + e.getMessage());
+                    unresolved.put(binding.getKey(), binding.getValue());
+                    continue;
+                }
+                if (warmup > 0) {
+                    run(pool, mappers.subList(0, 1), start, Math.min(end, start + warmup));
+                }
+                for (int threads : threadCounts) {
+                    BindingProfile profile = measure(pool, binding.getKey(), binding.getValue(), mappers.subList(0, threads));
+                    logger.info(() -> String.format("%s at %d threads: %.1f ns/value", profile.name(), profile.threads(), profile.nanosPerValue()));
+                    profiles.add(profile);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return profiles;
+    }
+
+    /**
+     * @return the bindings which could not be resolved, and so were not measured
+     */
+    public Map<String, String> getUnresolved() {
+        return unresolved;
+    }
+
+    private BindingProfile measure(ExecutorService pool, String name, String spec, List<DataMapper<Object>> mappers) {
+        long startedAt = System.nanoTime();
+        List<Worker> workers = run(pool, mappers, start, end);
+        long wallNanos = System.nanoTime() - startedAt;
+
+        long values = 0L;
+        long threadNanos = 0L;
+        long allocatedBytes = 0L;
+        Histogram chunkPicos = new Histogram(3);
+        for (Worker worker : workers) {
+            values += worker.values;
+            threadNanos += worker.nanos;
+            allocatedBytes = (allocatedBytes < 0 || worker.allocatedBytes < 0) ? -1L : allocatedBytes + worker.allocatedBytes;
+            chunkPicos.add(worker.chunkPicos);
+        }
+        return new BindingProfile(name, spec, mappers.size(), values, wallNanos, threadNanos, allocatedBytes, chunkPicos);
+    }
+
+    private List<Worker> run(ExecutorService pool, List<DataMapper<Object>> mappers, long start, long end) {
+        AtomicLong nextChunk = new AtomicLong(start);
+        List<Worker> workers = new ArrayList<>();
+        for (DataMapper<Object> mapper : mappers) {
+            workers.add(new Worker(mapper, nextChunk, end, chunk));
+        }
+        try {
+            for (Future<Worker> result : pool.invokeAll(workers)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error while generating values: " + e.getCause(), e.getCause());
+        }
+        return workers;
+    }
+
+    private final static class Worker implements Callable<Worker> {
+        private final static com.sun.management.ThreadMXBean threadMXBean = threadMXBean();
+
+        private final DataMapper<Object> mapper;
+        private final AtomicLong nextChunk;
+        private final long end;
+        private final int chunk;
+        private final Object[] output;
+        private final Histogram chunkPicos = new Histogram(3);
+        private long values;
+        private long nanos;
+        private long allocatedBytes;
+
+        Worker(DataMapper<Object> mapper, AtomicLong nextChunk, long end, int chunk) {
+            this.mapper = mapper;
+            this.nextChunk = nextChunk;
+            this.end = end;
+            this.chunk = chunk;
+            this.output = new Object[chunk];
+        }
+
+        @Override
+        public Worker call() {
+            boolean allocations = threadMXBean != null;
+            long chunkStart;
+            while ((chunkStart = nextChunk.getAndAdd(chunk)) < end) {
+                int count = (int) Math.min(chunk, end - chunkStart);
+                long bytesBefore = allocations ? threadMXBean.getCurrentThreadAllocatedBytes() : 0L;
+                long startedAt = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    output[i] = mapper.get(chunkStart + i);
+                }
+                long elapsed = System.nanoTime() - startedAt;
+                if (allocations) {
+                    allocatedBytes += threadMXBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+                }
+                values += count;
+                nanos += elapsed;
+                chunkPicos.recordValue(Math.max(1L, elapsed * 1000L / count));
+            }
+            if (!allocations) {
+                allocatedBytes = -1L;
+            }
+            return this;
+        }
+
+        private static com.sun.management.ThreadMXBean threadMXBean() {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+                return bean;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.apps.bindingprofiler;
+
+import picocli.CommandLine;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Profiles all of the bindings in a workload file, to find the ones which limit how fast ops can
+ * be generated.
+ */
+@CommandLine.Command(name = "profile", description = "Profile the cost of every binding in a workload")
+public class VirtDataProfileApp implements Runnable {
+
+    @CommandLine.Parameters(index = "0", description = "The workload file, or the name of a bundled workload")
+    String workload;
+
+    @CommandLine.Option(names = {"--cycles"}, defaultValue = "1000000", description = "The cycle range, as <end> or <start>..<end>")
+    String cycles;
+
+    @CommandLine.Option(names = {"--chunk"}, defaultValue = "10000", description = "The number of cycles a thread takes at a time")
+    int chunk;
+
+    @CommandLine.Option(names = {"--threads"}, split = ",", description = "The thread counts to measure at (default: 1 and the number of cores)")
+    int[] threads;
+
+    @CommandLine.Option(names = {"--warmup"}, defaultValue = "100000", description = "The number of cycles to run on each binding before measuring it")
+    long warmup;
+
+    @CommandLine.Option(names = {"--top"}, defaultValue = "10", description = "The number of bindings to show in each ranking")
+    int top;
+
+    @CommandLine.Option(names = {"--bindings"}, defaultValue = ".*", description = "A regular expression for the binding names to profile")
+    String bindingsPattern;
+
+    @CommandLine.Option(names = {"-p", "--param"}, description = "A template parameter for the workload, as name=value")
+    Map<String, String> params = new LinkedHashMap<>();
+
+    public static void main(String[] args) {
+        new CommandLine(new VirtDataProfileApp()).execute(args);
+    }
+
+    @Override
+    public void run() {
+        long start = 0L;
+        long end;
+        if (cycles.contains("..")) {
+            String[] parts = cycles.split("\\.\\.");
+            start = Long.parseLong(parts[0]);
+            end = Long.parseLong(parts[1]);
+        } else {
+            end = Long.parseLong(cycles);
+        }
+        if (threads == null) {
+            threads = new int[]{1, Runtime.getRuntime().availableProcessors()};
+        }
+        int[] threadCounts = Arrays.stream(threads).filter(t -> t > 0).sorted().distinct().toArray();
+
+        Pattern pattern = Pattern.compile(bindingsPattern);
+        Map<String, String> bindings = new LinkedHashMap<>();
+        WorkloadBindings.load(workload, params).forEach((name, spec) -> {
+            if (pattern.matcher(name).matches()) {
+                bindings.put(name, spec);
+            }
+        });
+        System.out.println("profiling " + bindings.size() + " bindings from " + workload + " over cycles ["
+            + start + ".." + end + ") in chunks of " + chunk + " at " + Arrays.toString(threadCounts) + " threads\n");
+
+        BindingProfiler profiler = new BindingProfiler(bindings, start, end, chunk, threadCounts, warmup);
+        List<BindingProfile> profiles = profiler.call();
+        System.out.println(new BindingProfileReport(profiles, profiler.getUnresolved(), top));
+    }
+}
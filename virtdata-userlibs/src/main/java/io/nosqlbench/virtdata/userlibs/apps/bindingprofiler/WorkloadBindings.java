@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.apps.bindingprofiler;
+
+import io.nosqlbench.api.content.Content;
+import io.nosqlbench.api.content.NBIO;
+import org.apache.commons.text.StringSubstitutor;
+import org.snakeyaml.engine.v2.api.Load;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds all of the bindings in a workload file, at the document, block and op levels. Template
+ * variables in the form {@code TEMPLATE(name,default)} or {@code <<name:default>>} are filled in
+ * from the given parameters or else from their defaults, so that bindings like
+ * {@code Mod(TEMPLATE(keycount,1000000))} can be resolved without the rest of the workload.
+ */
+public class WorkloadBindings {
+
+    private final static String[] YAML_EXTENSIONS = new String[]{"yaml", "yml"};
+
+    /**
+     * Load the bindings of a workload file, which may be a path or the name of a bundled workload.
+     *
+     * @return binding specs by name, in the order they are found
+     */
+    public static Map<String, String> load(String workload, Map<String, String> params) {
+        String[] extensions = workload.indexOf('.') > -1 ? new String[]{} : YAML_EXTENSIONS;
+        Content<?> content = NBIO.all().searchPrefixes("activities").pathname(workload).extensionSet(extensions).first()
+            .orElseThrow(() -> new RuntimeException("Unable to load workload '" + workload + "'"));
+        return extract(content.asString(), params);
+    }
+
+    /**
+     * Find the bindings in the text of a workload. When the same name is bound to different specs
+     * in different places, the later ones are given a suffix of {@code #2}, {@code #3}, and so on,
+     * so that all of them are profiled.
+     */
+    public static Map<String, String> extract(String yaml, Map<String, String> params) {
+        String data = interpolate(yaml, params);
+        Map<String, String> bindings = new LinkedHashMap<>();
+        Load loader = new Load(LoadSettings.builder().build());
+        for (Object document : loader.loadAllFromString(data)) {
+            collect(document, bindings);
+        }
+        return bindings;
+    }
+
+    private static void collect(Object node, Map<String, String> bindings) {
+        if (node instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if ("bindings".equals(entry.getKey()) && entry.getValue() instanceof Map<?, ?> found) {
+                    found.forEach((name, spec) -> add(bindings, String.valueOf(name), String.valueOf(spec)));
+                } else {
+                    collect(entry.getValue(), bindings);
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            list.forEach(element -> collect(element, bindings));
+        }
+    }
+
+    private static void add(Map<String, String> bindings, String name, String spec) {
+        String key = name;
+        for (int n = 2; bindings.containsKey(key); n++) {
+            if (bindings.get(key).equals(spec)) {
+                return;
+            }
+            key = name + "#" + n;
+        }
+        bindings.put(key, spec);
+    }
+
+    private static String interpolate(String raw, Map<String, String> params) {
+        StringSubstitutor angles = substitutor("<<", ">>", params);
+        StringSubstitutor templates = substitutor("TEMPLATE(", ")", params);
+        String after = angles.replace(templates.replace(raw));
+        while (!after.equals(raw)) {
+            raw = after;
+            after = angles.replace(templates.replace(raw));
+        }
+        return after;
+    }
+
+    private static StringSubstitutor substitutor(String prefix, String suffix, Map<String, String> params) {
+        return new StringSubstitutor(key -> {
+            String[] parts = key.split("[:,]", 2);
+            String value = params.get(parts[0]);
+            if (value == null && parts.length == 2) {
+                value = parts[1];
+            }
+            return value;
+        }, prefix, suffix, '\\').setEnableSubstitutionInVariables(true);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.apps.bulkgen;
+
+import io.nosqlbench.api.apps.BundledApp;
+import io.nosqlbench.nb.annotations.Service;
+import io.nosqlbench.virtdata.userlibs.apps.bindingprofiler.WorkloadBindings;
+import io.nosqlbench.virtdata.userlibs.streams.rows.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Writes binary rows generated from bindings to partitioned files, as fast as the bindings and
+ * the disk allow. Each partition is a contiguous range of cycles, written by one thread to its own
+ * file, so the files are the same regardless of the number of threads.</p>
+ *
+ * <p>Without an output directory, the rows are generated and discarded, which shows how fast the
+ * bindings can be encoded.</p>
+ */
+@Service(value = BundledApp.class, selector = "bulkgen")
+@CommandLine.Command(name = "bulkgen", description = "Generate binary rows from bindings into partitioned files")
+public class BulkGenApp implements BundledApp {
+    private final static Logger logger = LogManager.getLogger(BulkGenApp.class);
+
+    @CommandLine.Option(names = {"-w", "--workload"}, description = "A workload file, or the name of a bundled workload, to take bindings from")
+    String workload;
+
+    @CommandLine.Option(names = {"-b", "--binding"}, description = "A binding to use as a field, as name=spec")
+    Map<String, String> bindings = new LinkedHashMap<>();
+
+    @CommandLine.Option(names = {"--bindings"}, defaultValue = ".*", description = "A regular expression for the names of the workload bindings to use")
+    String bindingsPattern;
+
+    @CommandLine.Option(names = {"-p", "--param"}, description = "A template parameter for the workload, as name=value")
+    Map<String, String> params = new LinkedHashMap<>();
+
+    @CommandLine.Option(names = {"--cycles"}, required = true, description = "The cycle range, as <end> or <start>..<end>")
+    String cycles;
+
+    @CommandLine.Option(names = {"-o", "--output"}, description = "The directory to write partitions to. If not given, rows are discarded.")
+    Path output;
+
+    @CommandLine.Option(names = {"--partitions"}, description = "The number of partition files (default: 4 per thread)")
+    Integer partitions;
+
+    @CommandLine.Option(names = {"--threads"}, description = "The number of threads (default: the number of cores)")
+    Integer threads;
+
+    @CommandLine.Option(names = {"--encoding"}, defaultValue = "fixed", description = "The row encoding: ${COMPLETION-CANDIDATES}")
+    RowEncoding encoding;
+
+    @CommandLine.Option(names = {"--buffer"}, defaultValue = "4194304", description = "The size of each thread's buffer in bytes")
+    int bufferBytes;
+
+    public static void main(String[] args) {
+        System.exit(new BulkGenApp().applyAsInt(args));
+    }
+
+    @Override
+    public int applyAsInt(String[] args) {
+        new CommandLine(this).parseArgs(args);
+        long start = 0L;
+        long end;
+        if (cycles.contains("..")) {
+            String[] parts = cycles.split("\\.\\.");
+            start = Long.parseLong(parts[0]);
+            end = Long.parseLong(parts[1]);
+        } else {
+            end = Long.parseLong(cycles);
+        }
+        int threadCount = threads != null ? threads : Runtime.getRuntime().availableProcessors();
+        int partitionCount = partitions != null ? partitions : threadCount * 4;
+        long cyclesPerPartition = Math.max(1L, (end - start + partitionCount - 1) / partitionCount);
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (workload != null) {
+            Pattern pattern = Pattern.compile(bindingsPattern);
+            WorkloadBindings.load(workload, params).forEach((name, spec) -> {
+                if (pattern.matcher(name).matches()) {
+                    fields.put(name, spec);
+                }
+            });
+        }
+        fields.putAll(bindings);
+        RowSchema schema = RowSchema.of(fields, encoding);
+
+        RowSink sink = RowSink.DISCARD;
+        if (output != null) {
+            try {
+                Files.createDirectories(output);
+                Files.writeString(output.resolve("schema.txt"), schema.describe());
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to write schema to " + output + ": " + e, e);
+            }
+            sink = chunk -> {
+                FileChannel channel = FileChannel.open(
+                    output.resolve(String.format("part-%05d.rows", chunk.index())),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+                );
+                return new RowWriter() {
+                    @Override
+                    public void write(ByteBuffer rows) throws IOException {
+                        channel.write(rows);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        channel.close();
+                    }
+                };
+            };
+        }
+
+        logger.info("generating rows for cycles [" + start + ".." + end + ") with " + threadCount + " threads:\n" + schema.describe());
+        BulkRowGenerator generator = new BulkRowGenerator(schema, threadCount, bufferBytes);
+        BulkRowGenerator.Result result = generator.generate(start, end, cyclesPerPartition, sink);
+        System.out.printf("wrote %d rows, %d bytes in %.3fs: %.1f MB/s, %.0f rows/s%n",
+            result.rows(), result.bytes(), result.nanos() / 1_000_000_000.0d,
+            result.bytesPerSecond() / 1_000_000.0d, result.rowsPerSecond());
+        return 0;
+    }
+}
@@ -17,11 +17,24 @@
 package io.nosqlbench.virtdata.userlibs.apps.summarizer;
 
 import java.util.DoubleSummaryStatistics;
-import java.util.Map;
 import java.util.function.ToDoubleFunction;
 
+/**
+ * A summary of the values produced over a range of cycles. Besides the basic
+ * count/min/max/sum, this tracks variance with Welford's method, quantiles with a
+ * {@link QuantileSketch} and cardinality with a {@link DistinctCountSketch}. All of these
+ * are mergeable, so summaries for adjacent ranges can be computed independently and then
+ * combined with {@link #merge(DataSetSummary)}.
+ *
+ * Quantiles and variance are computed over the numeric projection of each value, while
+ * the distinct count is computed over the values themselves.
+ */
 public class DataSetSummary<T> {
     private final DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+    private final QuantileSketch quantiles = new QuantileSketch();
+    private final DistinctCountSketch distinct = new DistinctCountSketch();
+    private double mean;
+    private double m2;
 
     private String source;
     private final ToDoubleFunction<T> toDoubleF;
@@ -38,20 +51,82 @@ public class DataSetSummary<T> {
 
     public void addObject(Object o) {
         double value = toDoubleF.applyAsDouble((T) o);
-        stats.accept(value);
+        add(value);
+        distinct.add(o);
     }
     private void add(double value) {
         stats.accept(value);
+        double delta = value - mean;
+        mean += delta / stats.getCount();
+        m2 += delta * (value - mean);
+        quantiles.add(value);
+    }
+
+    /**
+     * Fold another summary into this one, using Chan's parallel form for the variance.
+     * @return this summary, for chaining
+     */
+    public DataSetSummary<T> merge(DataSetSummary<?> other) {
+        long leftCount = stats.getCount();
+        long rightCount = other.stats.getCount();
+        if (rightCount == 0) {
+            return this;
+        }
+        long count = leftCount + rightCount;
+        double delta = other.mean - mean;
+        m2 = m2 + other.m2 + delta * delta * ((double) leftCount * rightCount / count);
+        mean = mean + delta * ((double) rightCount / count);
+        stats.combine(other.stats);
+        quantiles.merge(other.quantiles);
+        distinct.merge(other.distinct);
+        return this;
+    }
+
+    public long getCount() {
+        return stats.getCount();
+    }
+
+    public double getMean() {
+        return stats.getCount() == 0 ? 0.0d : mean;
+    }
+
+    /**
+     * @return the sample variance, or 0.0 when fewer than two values were seen
+     */
+    public double getVariance() {
+        return stats.getCount() > 1 ? m2 / (stats.getCount() - 1) : 0.0d;
+    }
+
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getQuantile(double quantile) {
+        return quantiles.getValueAtQuantile(quantile);
+    }
+
+    public long getDistinctEstimate() {
+        return distinct.estimate();
     }
 
     public String toString() {
-        return source + ": " + Map.of(
-            "count", stats.getCount(),
-            "min", stats.getMin(),
-            "max", stats.getMax(),
-            "average", stats.getAverage(),
-            "sum", stats.getSum()
-        );
+        StringBuilder sb = new StringBuilder();
+        sb.append(source).append(": ")
+            .append("count=").append(stats.getCount())
+            .append(", min=").append(stats.getMin())
+            .append(", max=").append(stats.getMax())
+            .append(", mean=").append(getMean())
+            .append(", stddev=").append(getStdDev())
+            .append(", sum=").append(stats.getSum())
+            .append(", p50=").append(getQuantile(0.5d))
+            .append(", p90=").append(getQuantile(0.9d))
+            .append(", p99=").append(getQuantile(0.99d))
+            .append(", p999=").append(getQuantile(0.999d))
+            .append(", distinct~").append(getDistinctEstimate());
+        if (quantiles.getUnrecordedCount() > 0) {
+            sb.append(", unquantiled=").append(quantiles.getUnrecordedCount());
+        }
+        return sb.toString();
     }
 
     public static DoubleSummaryStatistics reduce(DataSetSummary<?> left, DataSetSummary<?> right) {
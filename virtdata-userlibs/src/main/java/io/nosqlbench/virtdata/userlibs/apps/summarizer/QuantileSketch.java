@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.apps.summarizer;
+
+import org.HdrHistogram.DoubleHistogram;
+
+/**
+ * A mergeable quantile sketch over arbitrary doubles, built from a pair of auto-ranging
+ * {@link DoubleHistogram}s. HdrHistogram only records non-negative values, so negative
+ * values are recorded by magnitude into a second histogram and the two are stitched back
+ * together by rank when a quantile is requested. Values which are not finite, or which fall
+ * outside of the dynamic range the histogram can cover, are counted but not recorded.
+ */
+public class QuantileSketch {
+
+    private final static int SIGNIFICANT_DIGITS = 3;
+
+    private final DoubleHistogram positive = new DoubleHistogram(SIGNIFICANT_DIGITS);
+    private final DoubleHistogram negative = new DoubleHistogram(SIGNIFICANT_DIGITS);
+    private long unrecorded;
+
+    public void add(double value) {
+        if (!Double.isFinite(value)) {
+            unrecorded++;
+            return;
+        }
+        try {
+            if (value >= 0.0d) {
+                positive.recordValue(value);
+            } else {
+                negative.recordValue(-value);
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            unrecorded++;
+        }
+    }
+
+    public QuantileSketch merge(QuantileSketch other) {
+        positive.add(other.positive);
+        negative.add(other.negative);
+        unrecorded += other.unrecorded;
+        return this;
+    }
+
+    /**
+     * @param quantile
+     *     a quantile in [0.0,1.0]
+     * @return the approximate value at the quantile, or NaN if nothing was recorded
+     */
+    public double getValueAtQuantile(double quantile) {
+        long negatives = negative.getTotalCount();
+        long positives = positive.getTotalCount();
+        long total = negatives + positives;
+        if (total == 0) {
+            return Double.NaN;
+        }
+        double rank = quantile * total;
+        if (rank < negatives || positives == 0) {
+            return -negative.getValueAtPercentile(100.0d * (1.0d - Math.min(rank, negatives) / negatives));
+        }
+        return positive.getValueAtPercentile(100.0d * (rank - negatives) / positives);
+    }
+
+    public long getRecordedCount() {
+        return positive.getTotalCount() + negative.getTotalCount();
+    }
+
+    public long getUnrecordedCount() {
+        return unrecorded;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.apps.summarizer;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Summarize a range of cycles by recursive halving. Ranges no larger than the chunk size
+ * are summarized directly with a {@link ValuesTask}, using the mapper bound to the current
+ * worker thread, and the resulting summaries are merged on the way back up. Since every
+ * leaf owns its summary, no state is shared between workers other than the progress counter.
+ */
+public class SummaryTask extends RecursiveTask<DataSetSummary<?>> {
+
+    private final long startIncl;
+    private final long endExcl;
+    private final long chunkSize;
+    private final ThreadLocal<DataMapper<Object>> mappers;
+    private final Supplier<DataSetSummary<?>> summaries;
+    private final LongAdder progress;
+
+    public SummaryTask(
+        long startIncl,
+        long endExcl,
+        long chunkSize,
+        ThreadLocal<DataMapper<Object>> mappers,
+        Supplier<DataSetSummary<?>> summaries,
+        LongAdder progress
+    ) {
+        this.startIncl = startIncl;
+        this.endExcl = endExcl;
+        this.chunkSize = Math.max(1L, chunkSize);
+        this.mappers = mappers;
+        this.summaries = summaries;
+        this.progress = progress;
+    }
+
+    @Override
+    protected DataSetSummary<?> compute() {
+        if (endExcl - startIncl <= chunkSize) {
+            DataSetSummary<?> summary = summaries.get();
+            new ValuesTask(startIncl, endExcl, mappers.get(), summary).run();
+            progress.add(endExcl - startIncl);
+            return summary;
+        }
+        long mid = startIncl + (endExcl - startIncl) / 2;
+        SummaryTask left = new SummaryTask(startIncl, mid, chunkSize, mappers, summaries, progress);
+        SummaryTask right = new SummaryTask(mid, endExcl, chunkSize, mappers, summaries, progress);
+        left.fork();
+        DataSetSummary<?> rightSummary = right.compute();
+        return left.join().merge(rightSummary);
+    }
+}
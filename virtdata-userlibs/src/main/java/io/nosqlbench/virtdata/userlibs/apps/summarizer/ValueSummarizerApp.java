@@ -17,6 +17,7 @@
 package io.nosqlbench.virtdata.userlibs.apps.summarizer;
 
 import io.nosqlbench.api.apps.BundledApp;
+import io.nosqlbench.nb.annotations.Service;
 import io.nosqlbench.virtdata.core.bindings.DataMapper;
 import io.nosqlbench.virtdata.core.bindings.VirtData;
 import org.apache.logging.log4j.Level;
@@ -28,12 +29,13 @@ import picocli.CommandLine.Option;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
-import java.util.ArrayList;
-import java.util.DoubleSummaryStatistics;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.function.IntFunction;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 @Command(
@@ -42,7 +44,7 @@ import java.util.function.Supplier;
     helpCommand = true,
     showDefaultValues = true
 )
-//@Service(value = BundledApp.class, selector = "summarize-values")
+@Service(value = BundledApp.class, selector = "summarize-values")
 public class ValueSummarizerApp implements BundledApp, Callable<Integer> {
 
     private final static Logger logger = LogManager.getLogger(ValueSummarizerApp.class);
@@ -73,13 +75,24 @@ public class ValueSummarizerApp implements BundledApp, Callable<Integer> {
 
     @Option(
         names = {"threads"},
-        description = "The number of threads to spread the cycles over"
+        description = "The number of fork-join workers to spread the cycles over"
     )
-    int threads = 1;
+    int threads = Runtime.getRuntime().availableProcessors();
+
+    @Option(
+        names = {"chunk"},
+        description = "The largest range of cycles summarized by one task before its summary is merged"
+    )
+    long chunk = 1_000_000L;
+
+    @Option(
+        names = {"progress"},
+        description = "The interval in seconds between progress updates on stderr, or 0 to disable them"
+    )
+    int progress = 1;
 
     private DataMapper<Object> mapper;
     private Supplier<DataSetSummary<?>> summarySupplier;
-    private final List<DataSetSummary<?>> summaries = new ArrayList<>();
 
     public static void main(String[] args) {
         int result = new ValueSummarizerApp().applyAsInt(args);
@@ -93,9 +106,12 @@ public class ValueSummarizerApp implements BundledApp, Callable<Integer> {
 
     @Override
     public Integer call() throws Exception {
-        this.mapper = VirtData.getOptionalMapper(binding, type, Map.of()).orElseThrow(
-            () -> new RuntimeException("Unable to find a binding for '" + binding + " of type '" + type.getSimpleName() + "'")
+        ThreadLocal<DataMapper<Object>> mappers = ThreadLocal.withInitial(
+            () -> VirtData.getOptionalMapper(binding, type, Map.<String, Object>of()).orElseThrow(
+                () -> new RuntimeException("Unable to find a binding for '" + binding + " of type '" + type.getSimpleName() + "'")
+            )
         );
+        this.mapper = mappers.get();
         Object value = mapper.get(1L);
 
         if (value instanceof Character) {
@@ -121,38 +137,48 @@ public class ValueSummarizerApp implements BundledApp, Callable<Integer> {
             summarySupplier = () -> new DataSetSummary<>(o -> (long) o.toString().length());
         }
 
-        IntFunction<Runnable> tasks = this::taskForThreadIdx;
-        StageManager stage = new StageManager(threads, tasks);
-        stage.run();
-        for (DataSetSummary<?> summary : summaries) {
-            DoubleSummaryStatistics stats = summary.getSummaryStats();
-            System.out.println(summary);
-            logger.log(level, summary);
+        long start = startCycle();
+        long end = endCycle();
+        LongAdder completed = new LongAdder();
+        long startedAt = System.nanoTime();
+
+        ScheduledExecutorService reporter = null;
+        if (progress > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "summarizer-progress");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(
+                () -> System.err.print("\r" + progressLine(completed.sum(), end - start, startedAt)),
+                progress, progress, TimeUnit.SECONDS
+            );
         }
-        DoubleSummaryStatistics summary = summaries.stream().map(DataSetSummary::getSummaryStats).reduce((l, r) -> {
-            l.combine(r);
-            return l;
-        }).get();
-        System.out.println("combined:" + summary);
 
-        return 0;
-    }
-
-    private Runnable taskForThreadIdx(int idx) {
-        DataSetSummary<?> summary = summarySupplier.get();
-        summaries.add(summary);
-        long start=computeOffset(startCycle(),endCycle(),threads,idx);
-        long end=computeOffset(startCycle(),endCycle(),threads,idx+1);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        DataSetSummary<?> summary;
+        try {
+            summary = pool.invoke(new SummaryTask(start, end, chunk, mappers, summarySupplier, completed));
+        } finally {
+            pool.shutdown();
+            if (reporter != null) {
+                reporter.shutdownNow();
+                System.err.println("\r" + progressLine(completed.sum(), end - start, startedAt));
+            }
+        }
 
-        return new ValuesTask(start, end, mapper, summary);
+        summary.setSource(binding + "[" + start + ".." + end + ")");
+        System.out.println(summary);
+        logger.log(level, summary);
+        return 0;
     }
 
-    private long computeOffset(long startIncl, long endExcl, int participants, int slot) {
-        long total = endExcl - startIncl;
-        long div = total / participants;
-        long mod = total % participants;
-        long offset = div * slot + ((slot <= mod) ? slot : mod);
-        return offset;
+    private static String progressLine(long done, long total, long startedAt) {
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0d;
+        double rate = seconds > 0.0d ? done / seconds : 0.0d;
+        double percent = total > 0 ? 100.0d * done / total : 100.0d;
+        String eta = rate > 0.0d ? String.format("%.0fs", (total - done) / rate) : "?";
+        return String.format("summarized %,d/%,d (%.1f%%) at %,.0f/s, eta %s   ", done, total, percent, rate, eta);
     }
 
     private long endCycle() {
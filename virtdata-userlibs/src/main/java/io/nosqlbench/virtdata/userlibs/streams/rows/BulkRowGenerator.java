@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.streams.rows;
+
+import io.nosqlbench.virtdata.userlibs.apps.valuechecker.IndexedThreadFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Generates the rows for a range of cycles in parallel. The range is split into chunks of
+ * contiguous cycles, which threads take in turn until none are left. Each thread has its own
+ * {@link RowEncoder} and its own direct buffer, which is reused for every chunk, so nothing is
+ * allocated per row beyond what the bindings themselves allocate. Since direct buffers can be
+ * written to channels without being copied, the rows can go from the bindings to a file with only
+ * one copy.</p>
+ *
+ * <p>The rows of each chunk are written in cycle order to the {@link RowWriter} for that chunk, so
+ * the output of a chunk is the same regardless of the number of threads.</p>
+ */
+public class BulkRowGenerator {
+
+    private final RowSchema schema;
+    private final int threads;
+    private final int bufferBytes;
+
+    /**
+     * @param schema      the layout of the rows
+     * @param threads     the number of threads to generate rows with
+     * @param bufferBytes the size of the direct buffer for each thread, which must hold at least one row
+     */
+    public BulkRowGenerator(RowSchema schema, int threads, int bufferBytes) {
+        if (threads < 1) {
+            throw new RuntimeException("At least one thread is needed, not " + threads);
+        }
+        this.schema = schema;
+        this.threads = threads;
+        this.bufferBytes = bufferBytes;
+    }
+
+    public record Result(long rows, long bytes, long nanos) {
+        public double bytesPerSecond() {
+            return bytes * 1_000_000_000.0d / nanos;
+        }
+
+        public double rowsPerSecond() {
+            return rows * 1_000_000_000.0d / nanos;
+        }
+    }
+
+    /**
+     * Generate the rows for cycles in [start, end).
+     *
+     * @param cyclesPerChunk the number of cycles in each chunk
+     * @param sink           provides the writer for each chunk
+     */
+    public Result generate(long start, long end, long cyclesPerChunk, RowSink sink) {
+        if (end <= start) {
+            throw new RuntimeException("The cycle range [" + start + ".." + end + ") is empty.");
+        }
+        if (cyclesPerChunk < 1) {
+            throw new RuntimeException("A chunk must have at least one cycle, not " + cyclesPerChunk);
+        }
+        AtomicLong nextChunk = new AtomicLong();
+        long chunks = (end - start + cyclesPerChunk - 1) / cyclesPerChunk;
+        List<Callable<Long>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(threads, chunks); i++) {
+            workers.add(() -> {
+                RowEncoder encoder = schema.newEncoder();
+                ByteBuffer buffer = ByteBuffer.allocateDirect(bufferBytes).order(ByteOrder.LITTLE_ENDIAN);
+                long bytes = 0L;
+                long index;
+                while ((index = nextChunk.getAndIncrement()) < chunks) {
+                    long chunkStart = start + index * cyclesPerChunk;
+                    RowSink.RowChunk chunk = new RowSink.RowChunk(index, chunkStart, Math.min(end, chunkStart + cyclesPerChunk));
+                    try (RowWriter writer = sink.open(chunk)) {
+                        bytes += encoder.encode(chunk.start(), chunk.end(), buffer, writer);
+                    }
+                }
+                return bytes;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers.size(), new IndexedThreadFactory("bulk-rows", null));
+        long startedAt = System.nanoTime();
+        long bytes = 0L;
+        try {
+            for (Future<Long> result : pool.invokeAll(workers)) {
+                bytes += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error while generating rows: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Result(end - start, bytes, System.nanoTime() - startedAt);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.streams.rows;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import io.nosqlbench.virtdata.core.bindings.VirtData;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * <p>Writes rows of a {@link RowSchema} into byte buffers. Where a binding can be resolved as a
+ * primitive function, like a {@link LongUnaryOperator}, it is called without boxing its values.
+ * Text which is all ASCII is copied into the buffer a char at a time, without an intermediate
+ * byte array.</p>
+ *
+ * <p>An encoder is not thread safe.</p>
+ */
+public class RowEncoder {
+
+    @FunctionalInterface
+    private interface FieldWriter {
+        void write(long cycle, ByteBuffer out);
+    }
+
+    private final FieldWriter[] writers;
+    private final int fixedRowSize;
+
+    RowEncoder(RowSchema schema) {
+        List<RowSchema.Field> fields = schema.getFields();
+        this.writers = new FieldWriter[fields.size()];
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = writerFor(fields.get(i), schema.getEncoding());
+        }
+        this.fixedRowSize = schema.getFixedRowSize();
+    }
+
+    /**
+     * Write one row at the position of the buffer. If the row does not fit, the position of the
+     * buffer is left as it was.
+     *
+     * @return true if the row was written
+     */
+    public boolean encode(long cycle, ByteBuffer out) {
+        if (fixedRowSize > 0) {
+            if (out.remaining() < fixedRowSize) {
+                return false;
+            }
+            for (FieldWriter writer : writers) {
+                writer.write(cycle, out);
+            }
+            return true;
+        }
+        int mark = out.position();
+        try {
+            for (FieldWriter writer : writers) {
+                writer.write(cycle, out);
+            }
+            return true;
+        } catch (BufferOverflowException e) {
+            out.position(mark);
+            return false;
+        }
+    }
+
+    /**
+     * Write the rows for a range of cycles, passing the buffer to the writer each time it is full,
+     * and once more at the end if it holds any rows.
+     *
+     * @return the number of bytes written
+     */
+    public long encode(long start, long end, ByteBuffer buffer, RowWriter writer) throws IOException {
+        long bytes = 0L;
+        buffer.clear();
+        for (long cycle = start; cycle < end; cycle++) {
+            if (!encode(cycle, buffer)) {
+                if (buffer.position() == 0) {
+                    throw new RuntimeException("The row for cycle " + cycle + " does not fit in a buffer of " + buffer.capacity() + " bytes.");
+                }
+                bytes += flush(buffer, writer);
+                cycle--;
+            }
+        }
+        if (buffer.position() > 0) {
+            bytes += flush(buffer, writer);
+        }
+        return bytes;
+    }
+
+    private static int flush(ByteBuffer buffer, RowWriter writer) throws IOException {
+        buffer.flip();
+        int bytes = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            writer.write(buffer);
+        }
+        buffer.clear();
+        return bytes;
+    }
+
+    private static FieldWriter writerFor(RowSchema.Field field, RowEncoding encoding) {
+        boolean varint = encoding == RowEncoding.varint;
+        switch (field.type()) {
+            case LONG: {
+                LongUnaryOperator f = primitive(field, LongUnaryOperator.class)
+                    .orElseGet(() -> {
+                        DataMapper<Object> m = boxed(field);
+                        return c -> ((Number) m.get(c)).longValue();
+                    });
+                return varint ? (c, out) -> putVarLong(out, zigzag(f.applyAsLong(c))) : (c, out) -> out.putLong(f.applyAsLong(c));
+            }
+            case INT: {
+                LongToIntFunction f = primitive(field, LongToIntFunction.class)
+                    .orElseGet(() -> {
+                        DataMapper<Object> m = boxed(field);
+                        return c -> ((Number) m.get(c)).intValue();
+                    });
+                return varint ? (c, out) -> putVarLong(out, zigzag(f.applyAsInt(c))) : (c, out) -> out.putInt(f.applyAsInt(c));
+            }
+            case DOUBLE: {
+                LongToDoubleFunction f = primitive(field, LongToDoubleFunction.class)
+                    .orElseGet(() -> {
+                        DataMapper<Object> m = boxed(field);
+                        return c -> ((Number) m.get(c)).doubleValue();
+                    });
+                return (c, out) -> out.putDouble(f.applyAsDouble(c));
+            }
+            case FLOAT: {
+                DataMapper<Object> m = boxed(field);
+                return (c, out) -> out.putFloat(((Number) m.get(c)).floatValue());
+            }
+            case BOOLEAN: {
+                DataMapper<Object> m = boxed(field);
+                return (c, out) -> out.put((Boolean) m.get(c) ? (byte) 1 : (byte) 0);
+            }
+            case BYTES: {
+                DataMapper<Object> m = boxed(field);
+                return (c, out) -> putBytes(out, m.get(c), varint);
+            }
+            default: {
+                DataMapper<Object> m = boxed(field);
+                return (c, out) -> putText(out, String.valueOf(m.get(c)), varint);
+            }
+        }
+    }
+
+    private static <F> Optional<F> primitive(RowSchema.Field field, Class<F> functionType) {
+        try {
+            return VirtData.getOptionalFunction(field.spec(), functionType);
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private static DataMapper<Object> boxed(RowSchema.Field field) {
+        return VirtData.getOptionalMapper(field.spec()).orElseThrow(
+            () -> new RuntimeException("Unable to resolve binding for field '" + field.name() + "': " + field.spec())
+        );
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0L) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static void putLength(ByteBuffer out, int length, boolean varint) {
+        if (varint) {
+            putVarLong(out, length);
+        } else {
+            out.putInt(length);
+        }
+    }
+
+    private static void putText(ByteBuffer out, String text, boolean varint) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) >= 0x80) {
+                byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                putLength(out, bytes.length, varint);
+                out.put(bytes);
+                return;
+            }
+        }
+        putLength(out, length, varint);
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < length; i++) {
+            out.put((byte) text.charAt(i));
+        }
+    }
+
+    private static void putBytes(ByteBuffer out, Object value, boolean varint) {
+        if (value instanceof ByteBuffer buffer) {
+            putLength(out, buffer.remaining(), varint);
+            out.put(buffer.duplicate());
+        } else {
+            byte[] bytes = (byte[]) value;
+            putLength(out, bytes.length, varint);
+            out.put(bytes);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.streams.rows;
+
+/**
+ * How the fields of a row are written. All multi-byte values are little-endian.
+ */
+public enum RowEncoding {
+    /**
+     * Numbers are written at their full width. Text and bytes are written with a 4-byte length. When
+     * every field is a number or boolean, every row has the same size.
+     */
+    fixed,
+    /**
+     * Integers are written as zig-zag varints, and lengths as varints. Floating point numbers are
+     * written at their full width.
+     */
+    varint
+}
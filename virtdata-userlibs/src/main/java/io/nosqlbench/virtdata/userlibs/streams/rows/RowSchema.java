@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.streams.rows;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import io.nosqlbench.virtdata.core.bindings.VirtData;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>The layout of a binary row, with one field for each binding. The type of each field is taken
+ * from the value its binding yields for cycle 0. Numbers, booleans, text and byte buffers are
+ * supported, and any other value is written as its string form.</p>
+ *
+ * <p>A schema is immutable and may be shared. Each thread which writes rows should get its own
+ * {@link RowEncoder} from {@link #newEncoder()}, since binding functions are not all thread safe.</p>
+ */
+public class RowSchema {
+
+    public enum FieldType {
+        LONG(8), INT(4), DOUBLE(8), FLOAT(4), BOOLEAN(1), TEXT(-1), BYTES(-1);
+
+        private final int size;
+
+        FieldType(int size) {
+            this.size = size;
+        }
+
+        /**
+         * @return the size of a value of this type in the fixed encoding, or -1 if it varies
+         */
+        public int getFixedSize() {
+            return size;
+        }
+
+        static FieldType of(Object sample) {
+            if (sample instanceof Long) {
+                return LONG;
+            } else if (sample instanceof Integer || sample instanceof Short || sample instanceof Byte) {
+                return INT;
+            } else if (sample instanceof Double) {
+                return DOUBLE;
+            } else if (sample instanceof Float) {
+                return FLOAT;
+            } else if (sample instanceof Boolean) {
+                return BOOLEAN;
+            } else if (sample instanceof ByteBuffer || sample instanceof byte[]) {
+                return BYTES;
+            }
+            return TEXT;
+        }
+    }
+
+    public record Field(String name, String spec, FieldType type) {
+    }
+
+    private final List<Field> fields;
+    private final RowEncoding encoding;
+
+    public RowSchema(List<Field> fields, RowEncoding encoding) {
+        if (fields.isEmpty()) {
+            throw new RuntimeException("A row schema needs at least one field.");
+        }
+        this.fields = List.copyOf(fields);
+        this.encoding = encoding;
+    }
+
+    /**
+     * Make a schema with a field for each binding, in order.
+     *
+     * @param bindings binding specs by field name
+     */
+    public static RowSchema of(Map<String, String> bindings, RowEncoding encoding) {
+        List<Field> fields = new ArrayList<>();
+        bindings.forEach((name, spec) -> {
+            DataMapper<Object> mapper = VirtData.getOptionalMapper(spec).orElseThrow(
+                () -> new RuntimeException("Unable to resolve binding for field '" + name + "': " + spec)
+            );
+            fields.add(new Field(name, spec, FieldType.of(mapper.get(0L))));
+        });
+        return new RowSchema(fields, encoding);
+    }
+
+    public List<Field> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    public RowEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * @return the size of every row, or -1 if rows vary in size
+     */
+    public int getFixedRowSize() {
+        if (encoding != RowEncoding.fixed) {
+            return -1;
+        }
+        int size = 0;
+        for (Field field : fields) {
+            if (field.type().getFixedSize() < 0) {
+                return -1;
+            }
+            size += field.type().getFixedSize();
+        }
+        return size;
+    }
+
+    /**
+     * @return a new encoder, with its own instance of each binding
+     */
+    public RowEncoder newEncoder() {
+        return new RowEncoder(this);
+    }
+
+    /**
+     * @return a description of the row layout, with one line per field
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# encoding: ").append(encoding).append(", little-endian");
+        int rowSize = getFixedRowSize();
+        sb.append(rowSize > 0 ? ", " + rowSize + " bytes per row\n" : ", variable size rows\n");
+        for (Field field : fields) {
+            sb.append(field.name()).append(" ").append(field.type().name().toLowerCase())
+                .append(" ").append(field.spec()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+}
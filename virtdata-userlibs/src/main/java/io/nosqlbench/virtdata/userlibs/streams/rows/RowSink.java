@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.streams.rows;
+
+import java.io.IOException;
+
+/**
+ * Provides a {@link RowWriter} for each chunk of rows. Each chunk is generated by one thread, in
+ * order, and its writer is closed when the chunk is done.
+ */
+@FunctionalInterface
+public interface RowSink {
+
+    RowSink DISCARD = chunk -> RowWriter.DISCARD;
+
+    RowWriter open(RowChunk chunk) throws IOException;
+
+    /**
+     * @param index the position of the chunk in the cycle range, starting at 0
+     * @param start the first cycle of the chunk, inclusive
+     * @param end   the last cycle of the chunk, exclusive
+     */
+    record RowChunk(long index, long start, long end) {
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.streams.rows;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Takes buffers of encoded rows. The buffer is ready to be read, and is reused once this returns.
+ */
+@FunctionalInterface
+public interface RowWriter extends Closeable {
+
+    RowWriter DISCARD = rows -> rows.position(rows.limit());
+
+    void write(ByteBuffer rows) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
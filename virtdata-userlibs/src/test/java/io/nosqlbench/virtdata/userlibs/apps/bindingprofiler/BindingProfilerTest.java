@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.apps.bindingprofiler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BindingProfilerTest {
+
+    private final static String WORKLOAD = """
+        bindings:
+          key: Mod(TEMPLATE(keycount,1000)); ToString()
+        blocks:
+          main:
+            bindings:
+              value: Hash(); Mod(<<valuecount:100>>)
+            ops:
+              write:
+                op: "write {key} {value}"
+                bindings:
+                  key: Identity()
+        """;
+
+    @Test
+    public void testExtractBindingsFromAllLevels() {
+        Map<String, String> bindings = WorkloadBindings.extract(WORKLOAD, Map.of("valuecount", "7"));
+        assertThat(bindings).containsExactly(
+            Map.entry("key", "Mod(1000); ToString()"),
+            Map.entry("value", "Hash(); Mod(7)"),
+            Map.entry("key#2", "Identity()")
+        );
+    }
+
+    @Test
+    public void testProfileAtEachThreadCount() {
+        Map<String, String> bindings = new LinkedHashMap<>();
+        bindings.put("identity", "Identity()");
+        bindings.put("text", "NumberNameToString()");
+        bindings.put("bogus", "NoSuchFunctionAnywhere()");
+        BindingProfiler profiler = new BindingProfiler(bindings, 0L, 10_000L, 1000, new int[]{1, 2}, 1000L);
+        List<BindingProfile> profiles = profiler.call();
+
+        assertThat(profiles).hasSize(4);
+        assertThat(profiler.getUnresolved()).containsOnlyKeys("bogus");
+        for (BindingProfile profile : profiles) {
+            assertThat(profile.values()).isEqualTo(10_000L);
+            assertThat(profile.chunkPicos().getTotalCount()).isEqualTo(10L);
+            assertThat(profile.nanosPerValue()).isGreaterThan(0.0d);
+        }
+
+        String report = new BindingProfileReport(profiles, profiler.getUnresolved(), 5).toString();
+        assertThat(report).contains("slowest bindings", "identity", "text", "NoSuchFunctionAnywhere()");
+    }
+}
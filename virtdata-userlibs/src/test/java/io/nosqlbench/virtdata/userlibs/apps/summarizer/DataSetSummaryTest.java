@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.apps.summarizer;
+
+import io.nosqlbench.virtdata.core.bindings.DataMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class DataSetSummaryTest {
+
+    @Test
+    public void testMergedSummaryMatchesSequential() {
+        DataSetSummary<Long> all = new DataSetSummary<>(l -> l);
+        DataSetSummary<Long> left = new DataSetSummary<>(l -> l);
+        DataSetSummary<Long> right = new DataSetSummary<>(l -> l);
+        for (long i = 0; i < 10000; i++) {
+            long value = (i * 7919L) % 1000L - 300L;
+            all.addObject(value);
+            (i < 3000 ? left : right).addObject(value);
+        }
+        left.merge(right);
+        assertThat(left.getCount()).isEqualTo(all.getCount());
+        assertThat(left.getSummaryStats().getMin()).isEqualTo(all.getSummaryStats().getMin());
+        assertThat(left.getSummaryStats().getMax()).isEqualTo(all.getSummaryStats().getMax());
+        assertThat(left.getMean()).isCloseTo(all.getMean(), within(1e-9));
+        assertThat(left.getVariance()).isCloseTo(all.getVariance(), within(1e-6));
+        assertThat(left.getQuantile(0.5d)).isEqualTo(all.getQuantile(0.5d));
+        assertThat(left.getDistinctEstimate()).isEqualTo(all.getDistinctEstimate());
+    }
+
+    @Test
+    public void testQuantilesAcrossZero() {
+        DataSetSummary<Double> summary = new DataSetSummary<>(d -> d);
+        for (int i = -500; i < 500; i++) {
+            summary.addObject((double) i);
+        }
+        assertThat(summary.getQuantile(0.0d)).isCloseTo(-500.0d, within(1.0d));
+        assertThat(summary.getQuantile(0.25d)).isCloseTo(-250.0d, within(1.0d));
+        assertThat(summary.getQuantile(0.75d)).isCloseTo(250.0d, within(1.0d));
+        assertThat(summary.getQuantile(1.0d)).isCloseTo(499.0d, within(1.0d));
+    }
+
+    @Test
+    public void testDistinctEstimate() {
+        DistinctCountSketch sketch = new DistinctCountSketch();
+        for (long i = 0; i < 200000; i++) {
+            sketch.add("value-" + (i % 50000));
+        }
+        assertThat(sketch.estimate()).isCloseTo(50000L, within(1500L));
+    }
+
+    @Test
+    public void testForkJoinSummary() {
+        DataMapper<Object> identity = l -> l;
+        LongAdder progress = new LongAdder();
+        SummaryTask task = new SummaryTask(
+            100L, 1_000_100L, 10_000L, ThreadLocal.withInitial(() -> identity),
+            () -> new DataSetSummary<Long>(l -> l), progress
+        );
+        DataSetSummary<?> summary = new ForkJoinPool(4).invoke(task);
+        assertThat(progress.sum()).isEqualTo(1_000_000L);
+        assertThat(summary.getCount()).isEqualTo(1_000_000L);
+        assertThat(summary.getSummaryStats().getMin()).isEqualTo(100.0d);
+        assertThat(summary.getSummaryStats().getMax()).isEqualTo(1_000_099.0d);
+        assertThat(summary.getMean()).isCloseTo(500_099.5d, within(1e-3));
+        assertThat(summary.getDistinctEstimate()).isCloseTo(1_000_000L, within(30_000L));
+    }
+}
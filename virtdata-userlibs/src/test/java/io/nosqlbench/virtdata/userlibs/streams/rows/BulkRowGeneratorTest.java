@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2022 nosqlbench
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.nosqlbench.virtdata.userlibs.streams.rows;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BulkRowGeneratorTest {
+
+    @Test
+    public void testFixedRowsFromPrimitiveBindings() throws Exception {
+        Map<String, String> bindings = new LinkedHashMap<>();
+        bindings.put("id", "Identity()");
+        bindings.put("score", "HashedDoubleRange(0.0,100.0)");
+        RowSchema schema = RowSchema.of(bindings, RowEncoding.fixed);
+        assertThat(schema.getFields()).extracting(RowSchema.Field::type)
+            .containsExactly(RowSchema.FieldType.LONG, RowSchema.FieldType.DOUBLE);
+        assertThat(schema.getFixedRowSize()).isEqualTo(16);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64).order(ByteOrder.LITTLE_ENDIAN);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long bytes = schema.newEncoder().encode(0L, 10L, buffer, rows -> collect(rows, out));
+        assertThat(bytes).isEqualTo(160L);
+
+        ByteBuffer written = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        for (long cycle = 0; cycle < 10; cycle++) {
+            assertThat(written.getLong()).isEqualTo(cycle);
+            assertThat(written.getDouble()).isBetween(0.0d, 100.0d);
+        }
+    }
+
+    @Test
+    public void testVarintAndTextRows() throws Exception {
+        Map<String, String> bindings = new LinkedHashMap<>();
+        bindings.put("id", "Identity()");
+        bindings.put("name", "NumberNameToString()");
+        RowSchema schema = RowSchema.of(bindings, RowEncoding.varint);
+        assertThat(schema.getFixedRowSize()).isEqualTo(-1);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024).order(ByteOrder.LITTLE_ENDIAN);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        schema.newEncoder().encode(3L, 4L, buffer, rows -> collect(rows, out));
+
+        byte[] row = out.toByteArray();
+        assertThat(row[0]).isEqualTo((byte) 6);
+        String three = new String(row, 2, row[1]);
+        assertThat(three).isEqualTo("three");
+        assertThat(row).hasSize(2 + "three".length());
+    }
+
+    @Test
+    public void testChunksAreTheSameForAnyThreadCount() {
+        Map<String, String> bindings = new LinkedHashMap<>();
+        bindings.put("id", "Identity()");
+        bindings.put("name", "NumberNameToString()");
+        RowSchema schema = RowSchema.of(bindings, RowEncoding.varint);
+
+        Map<Long, ByteArrayOutputStream> single = new ConcurrentHashMap<>();
+        BulkRowGenerator.Result result = new BulkRowGenerator(schema, 1, 256)
+            .generate(0L, 10_000L, 1000L, chunk -> rows -> collect(rows, single.computeIfAbsent(chunk.index(), i -> new ByteArrayOutputStream())));
+        Map<Long, ByteArrayOutputStream> multi = new ConcurrentHashMap<>();
+        new BulkRowGenerator(schema, 4, 256)
+            .generate(0L, 10_000L, 1000L, chunk -> rows -> collect(rows, multi.computeIfAbsent(chunk.index(), i -> new ByteArrayOutputStream())));
+
+        assertThat(result.rows()).isEqualTo(10_000L);
+        assertThat(single).hasSize(10);
+        assertThat(multi).hasSize(10);
+        long total = 0L;
+        for (long index = 0; index < 10; index++) {
+            assertThat(multi.get(index).toByteArray()).isEqualTo(single.get(index).toByteArray());
+            total += single.get(index).size();
+        }
+        assertThat(result.bytes()).isEqualTo(total);
+    }
+
+    private static void collect(ByteBuffer rows, ByteArrayOutputStream out) {
+        byte[] bytes = new byte[rows.remaining()];
+        rows.get(bytes);
+        out.write(bytes, 0, bytes.length);
+    }
+}